@@ -0,0 +1,50 @@
+package com.mycompany.mavenproject1.benchmark;
+
+import com.mycompany.mavenproject1.util.DatabaseUtils;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures password hashing on its own and the full login check
+ * (hash + user lookup) against the embedded database.
+ *
+ * @author Bishwas Bhattarai
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {BenchmarkDatabase.URL_ARG, BenchmarkDatabase.USER_ARG, BenchmarkDatabase.PASSWORD_ARG})
+public class AuthBenchmark {
+
+    @Setup
+    public void setup() throws Exception {
+        BenchmarkDatabase.reset();
+        BenchmarkDatabase.seedUser();
+    }
+
+    @Benchmark
+    public String hashPassword() {
+        return DatabaseUtils.hashPassword(BenchmarkDatabase.PASSWORD);
+    }
+
+    @Benchmark
+    public boolean validLogin() {
+        return DatabaseUtils.isValidLogin(BenchmarkDatabase.USERNAME, BenchmarkDatabase.PASSWORD);
+    }
+
+    @Benchmark
+    public boolean invalidLogin() {
+        return DatabaseUtils.isValidLogin(BenchmarkDatabase.USERNAME, "wrong-password");
+    }
+}
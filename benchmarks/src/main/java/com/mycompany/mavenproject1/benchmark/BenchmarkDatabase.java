@@ -0,0 +1,108 @@
+package com.mycompany.mavenproject1.benchmark;
+
+import com.mycompany.mavenproject1.util.DatabaseUtils;
+import com.mycompany.mavenproject1.util.ReferenceCatalogue;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Shared setup for the benchmarks. Every forked benchmark JVM points
+ * DatabaseUtils at its own in-memory H2 database running in MySQL mode, and
+ * the helpers here create the schema and seed it with synthetic rows.
+ *
+ * @author Bishwas Bhattarai
+ */
+public final class BenchmarkDatabase {
+
+    /** Embedded database URL; DB_CLOSE_DELAY keeps it alive between connections. */
+    public static final String URL = "jdbc:h2:mem:userdb;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    // JVM arguments for @Fork so DatabaseUtils picks up the embedded database
+    public static final String URL_ARG = "-Ddrs.db.url=" + URL;
+    public static final String USER_ARG = "-Ddrs.db.user=sa";
+    public static final String PASSWORD_ARG = "-Ddrs.db.password=";
+
+    public static final String USERNAME = "bench";
+    public static final String PASSWORD = "bench@123";
+
+    private static final String[] TYPES = {"Hurricane", "Fire", "Earthquake", "Landslide", "Flood"};
+    private static final String[] PRIORITIES = {"Very High", "High", "Medium", "Low", "Very Low", null};
+    private static final String[] DEPARTMENTS = {"Evacuation Department", "Fire Department", "Hospital", "Medical Team"};
+
+    private BenchmarkDatabase() {
+    }
+
+    /**
+     * Drops and recreates the schema so each trial starts from a known state.
+     *
+     * @throws SQLException if a database access error occurs.
+     */
+    public static void reset() throws SQLException {
+        try (Connection conn = DatabaseUtils.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("DROP ALL OBJECTS");
+            DatabaseUtils.migrateSchema(conn);
+        }
+    }
+
+    /**
+     * Inserts the benchmark user used by the login benchmarks.
+     */
+    public static void seedUser() {
+        DatabaseUtils.saveUser(USERNAME, PASSWORD, "bench@example.com", "9800000000", "Coordinator");
+    }
+
+    /**
+     * Inserts synthetic disaster reports with a spread of types, severities
+     * and priorities.
+     *
+     * @param count the number of reports to insert.
+     * @throws SQLException if a database access error occurs.
+     */
+    public static void seedReports(int count) throws SQLException {
+        String sql = "INSERT INTO disaster_reports (username, disaster_type_id, location, severity, description, priority) VALUES (?, ?, ?, ?, ?, ?)";
+        try (Connection conn = DatabaseUtils.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
+            conn.setAutoCommit(false);
+            for (int i = 0; i < count; i++) {
+                stmt.setString(1, USERNAME);
+                stmt.setInt(2, ReferenceCatalogue.idOf(ReferenceCatalogue.Kind.DISASTER_TYPE, TYPES[i % TYPES.length]));
+                stmt.setString(3, "Location " + (i % 500));
+                stmt.setInt(4, 1 + i % 10);
+                stmt.setString(5, "Synthetic report " + i);
+                stmt.setString(6, PRIORITIES[i % PRIORITIES.length]);
+                stmt.addBatch();
+                if (i % 1000 == 999) {
+                    stmt.executeBatch();
+                }
+            }
+            stmt.executeBatch();
+            conn.commit();
+        }
+    }
+
+    /**
+     * Inserts one assigned task for each of the first {@code count} reports.
+     *
+     * @param count the number of tasks to insert.
+     * @throws SQLException if a database access error occurs.
+     */
+    public static void seedTasks(int count) throws SQLException {
+        String sql = "INSERT INTO assigned_tasks (disaster_id, department_id, task_description, status) VALUES (?, ?, ?, ?)";
+        try (Connection conn = DatabaseUtils.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
+            conn.setAutoCommit(false);
+            for (int i = 0; i < count; i++) {
+                stmt.setInt(1, i + 1);
+                stmt.setInt(2, ReferenceCatalogue.idOf(ReferenceCatalogue.Kind.DEPARTMENT, DEPARTMENTS[i % DEPARTMENTS.length]));
+                stmt.setString(3, "Synthetic task " + i);
+                stmt.setString(4, i % 3 == 0 ? "Finished" : "Still in Process");
+                stmt.addBatch();
+                if (i % 1000 == 999) {
+                    stmt.executeBatch();
+                }
+            }
+            stmt.executeBatch();
+            conn.commit();
+        }
+    }
+}
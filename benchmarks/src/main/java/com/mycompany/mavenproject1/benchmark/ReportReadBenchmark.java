@@ -0,0 +1,71 @@
+package com.mycompany.mavenproject1.benchmark;
+
+import com.mycompany.mavenproject1.model.DisasterReport;
+import com.mycompany.mavenproject1.util.DatabaseUtils;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures {@link DatabaseUtils#getAllDisasterReports()} end to end and the
+ * ResultSet-to-DisasterReport mapping step on its own, at 1k and 100k rows.
+ *
+ * @author Bishwas Bhattarai
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {BenchmarkDatabase.URL_ARG, BenchmarkDatabase.USER_ARG, BenchmarkDatabase.PASSWORD_ARG})
+public class ReportReadBenchmark {
+
+    @Param({"1000", "100000"})
+    public int rows;
+
+    @Setup
+    public void setup() throws Exception {
+        BenchmarkDatabase.reset();
+        BenchmarkDatabase.seedReports(rows);
+    }
+
+    @Benchmark
+    public List<DisasterReport> getAllDisasterReports() throws Exception {
+        return DatabaseUtils.getAllDisasterReports();
+    }
+
+    @Benchmark
+    public void mapDisasterReports(Blackhole bh) throws Exception {
+        try (Connection conn = DatabaseUtils.getConnection(); Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT * FROM disaster_reports")) {
+            while (rs.next()) {
+                bh.consume(DatabaseUtils.mapDisasterReport(rs));
+            }
+        }
+    }
+
+    @Benchmark
+    public void scanOnly(Blackhole bh) throws Exception {
+        // Baseline for mapDisasterReports: same query, rows read but not mapped
+        try (Connection conn = DatabaseUtils.getConnection(); Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT * FROM disaster_reports")) {
+            while (rs.next()) {
+                bh.consume(rs.getInt(1));
+            }
+        }
+    }
+}
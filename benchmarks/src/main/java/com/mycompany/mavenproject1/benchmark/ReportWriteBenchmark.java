@@ -0,0 +1,72 @@
+package com.mycompany.mavenproject1.benchmark;
+
+import com.mycompany.mavenproject1.util.DatabaseUtils;
+import com.mycompany.mavenproject1.util.ReferenceCatalogue;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares saving disaster reports one call at a time through
+ * {@link DatabaseUtils#saveDisasterReport} with the same INSERT sent as a
+ * single JDBC batch in one transaction. Both report the cost per report.
+ *
+ * @author Bishwas Bhattarai
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {BenchmarkDatabase.URL_ARG, BenchmarkDatabase.USER_ARG, BenchmarkDatabase.PASSWORD_ARG})
+public class ReportWriteBenchmark {
+
+    private static final int BATCH_SIZE = 100;
+
+    @Setup(Level.Iteration)
+    public void setup() throws Exception {
+        BenchmarkDatabase.reset();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void saveSingle() throws SQLException {
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            DatabaseUtils.saveDisasterReport(BenchmarkDatabase.USERNAME, "Flood", "Location " + i, 5, "Benchmark report");
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int[] saveBatched() throws Exception {
+        String sql = "INSERT INTO disaster_reports (username, disaster_type_id, location, severity, description) VALUES (?, ?, ?, ?, ?)";
+        int floodId = ReferenceCatalogue.idOf(ReferenceCatalogue.Kind.DISASTER_TYPE, "Flood");
+        try (Connection conn = DatabaseUtils.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
+            conn.setAutoCommit(false);
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                stmt.setString(1, BenchmarkDatabase.USERNAME);
+                stmt.setInt(2, floodId);
+                stmt.setString(3, "Location " + i);
+                stmt.setInt(4, 5);
+                stmt.setString(5, "Benchmark report");
+                stmt.addBatch();
+            }
+            int[] counts = stmt.executeBatch();
+            conn.commit();
+            return counts;
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.mycompany.mavenproject1.benchmark;
+
+import com.mycompany.mavenproject1.model.DisasterReport;
+import com.mycompany.mavenproject1.util.TableCells;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javafx.animation.AnimationTimer;
+import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.TableCell;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.scene.control.skin.VirtualFlow;
+import javafx.scene.layout.HBox;
+import javafx.stage.Stage;
+
+/**
+ * Scrolls a 100k-row disaster report table frame by frame and reports frame
+ * time percentiles, bytes allocated on the FX thread and GC activity. Needs a
+ * display, so it runs as a plain JavaFX program rather than under JMH:
+ * <pre>
+ * java -cp target/benchmarks.jar com.mycompany.mavenproject1.benchmark.TableScrollBenchmark -mode=toolkit
+ * java -cp target/benchmarks.jar com.mycompany.mavenproject1.benchmark.TableScrollBenchmark -mode=reflective
+ * </pre>
+ * "toolkit" configures the table the way the application does (typed value
+ * extractors, cells that build their controls once); "reflective" uses
+ * PropertyValueFactory and cells that allocate their graphics in updateItem,
+ * as the pages used to.
+ *
+ * @author Bishwas Bhattarai
+ */
+public class TableScrollBenchmark {
+
+    public static void main(String[] args) {
+        // The JavaFX Application lives in a nested class so this can be launched from the classpath
+        Application.launch(ScrollApp.class, args);
+    }
+
+    /**
+     * The benchmark window.
+     */
+    public static class ScrollApp extends Application {
+
+        private static final double PIXELS_PER_FRAME = 120;
+
+        @Override
+        public void start(Stage stage) {
+            int rows = Integer.parseInt(option("rows", "100000"));
+            int frames = Integer.parseInt(option("frames", "1200"));
+            boolean toolkit = !"reflective".equals(option("mode", "toolkit"));
+
+            TableView<DisasterReport> table = new TableView<>(FXCollections.observableArrayList(syntheticReports(rows)));
+            if (toolkit) {
+                configureToolkit(table);
+            } else {
+                configureReflective(table);
+            }
+            stage.setScene(new Scene(table, 1000, 800));
+            stage.show();
+
+            VirtualFlow<?> flow = (VirtualFlow<?>) table.lookup(".virtual-flow");
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            long fxThread = Thread.currentThread().getId();
+
+            new AnimationTimer() {
+                private final long[] frameNanos = new long[frames];
+                private int frame = -10; // Skip the first frames while the table settles
+                private long last;
+                private long startBytes;
+                private long startGcCount;
+                private long startGcMillis;
+
+                @Override
+                public void handle(long now) {
+                    if (frame == 0) {
+                        startBytes = threads.getThreadAllocatedBytes(fxThread);
+                        startGcCount = gcCount();
+                        startGcMillis = gcMillis();
+                    } else if (frame > 0) {
+                        frameNanos[frame - 1] = now - last;
+                    }
+                    last = now;
+                    if (frame == frames) {
+                        stop();
+                        report(toolkit, rows, frameNanos, threads.getThreadAllocatedBytes(fxThread) - startBytes,
+                                gcCount() - startGcCount, gcMillis() - startGcMillis);
+                        Platform.exit();
+                        return;
+                    }
+                    frame++;
+                    flow.scrollPixels(PIXELS_PER_FRAME);
+                }
+            }.start();
+        }
+
+        // Accepts -name=value or --name=value
+        private String option(String name, String defaultValue) {
+            return getParameters().getRaw().stream()
+                    .map(arg -> arg.replaceFirst("^-+", ""))
+                    .filter(arg -> arg.startsWith(name + "="))
+                    .map(arg -> arg.substring(name.length() + 1))
+                    .findFirst().orElse(defaultValue);
+        }
+    }
+
+    private static List<DisasterReport> syntheticReports(int rows) {
+        String[] types = {"Hurricane", "Fire", "Earthquake", "Landslide", "Flood"};
+        LocalDateTime now = LocalDateTime.now();
+        List<DisasterReport> reports = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            reports.add(new DisasterReport(i + 1, "user" + (i % 1000), types[i % types.length], "Sector " + (i % 2000),
+                    String.valueOf(1 + i % 10), "Synthetic report " + i,
+                    i % 3 == 0 ? null : DisasterReport.PRIORITY_LEVELS[i % DisasterReport.PRIORITY_LEVELS.length], now.minusMinutes(i)));
+        }
+        return reports;
+    }
+
+    // Same column setup as CoordinatorPageController, plus an actions column like AdminPageController
+    private static void configureToolkit(TableView<DisasterReport> table) {
+        table.getColumns().add(column("ID", TableCells.value(DisasterReport::getId)));
+        table.getColumns().add(column("Username", TableCells.value(DisasterReport::getUsername)));
+        table.getColumns().add(column("Disaster Type", TableCells.value(DisasterReport::getDisasterType)));
+        table.getColumns().add(column("Location", TableCells.value(DisasterReport::getLocation)));
+        table.getColumns().add(column("Severity", TableCells.value(DisasterReport::getSeverity)));
+        table.getColumns().add(column("Description", TableCells.value(DisasterReport::getDescription)));
+        table.getColumns().add(column("Report Time", TableCells.value(DisasterReport::getReportTime)));
+
+        TableColumn<DisasterReport, String> priority = column("Priority", TableCells.value(DisasterReport::getPriority));
+        priority.setCellFactory(TableCells.comboBox(DisasterReport.PRIORITY_LEVELS, DisasterReport::getPriority, DisasterReport::setPriority));
+        table.getColumns().add(priority);
+
+        TableColumn<DisasterReport, Void> actions = new TableColumn<>("Actions");
+        actions.setCellFactory(TableCells.buttons(
+                new TableCells.CellAction<>("Edit", report -> { }),
+                new TableCells.CellAction<>("Delete", report -> { })));
+        table.getColumns().add(actions);
+    }
+
+    // The previous setup: reflective lookups, index-based row access and graphics built in updateItem
+    private static void configureReflective(TableView<DisasterReport> table) {
+        for (String property : Arrays.asList("id", "username", "disasterType", "location", "severity", "description", "reportTime")) {
+            TableColumn<DisasterReport, Object> column = new TableColumn<>(property);
+            column.setCellValueFactory(new PropertyValueFactory<>(property));
+            table.getColumns().add(column);
+        }
+
+        TableColumn<DisasterReport, String> priority = new TableColumn<>("priority");
+        priority.setCellFactory(col -> new TableCell<DisasterReport, String>() {
+            @Override
+            protected void updateItem(String item, boolean empty) {
+                super.updateItem(item, empty);
+                if (empty) {
+                    setGraphic(null);
+                } else {
+                    DisasterReport report = getTableView().getItems().get(getIndex());
+                    ComboBox<String> comboBox = new ComboBox<>(FXCollections.observableArrayList(DisasterReport.PRIORITY_LEVELS));
+                    comboBox.setValue(report.getPriority());
+                    setGraphic(comboBox);
+                }
+            }
+        });
+        table.getColumns().add(priority);
+
+        TableColumn<DisasterReport, Void> actions = new TableColumn<>("Actions");
+        actions.setCellFactory(col -> new TableCell<DisasterReport, Void>() {
+            private final Button editBtn = new Button("Edit");
+            private final Button deleteBtn = new Button("Delete");
+
+            @Override
+            protected void updateItem(Void item, boolean empty) {
+                super.updateItem(item, empty);
+                if (empty) {
+                    setGraphic(null);
+                } else {
+                    HBox hbox = new HBox(editBtn, deleteBtn);
+                    hbox.setSpacing(10);
+                    setGraphic(hbox);
+                }
+            }
+        });
+        table.getColumns().add(actions);
+    }
+
+    private static <T> TableColumn<DisasterReport, T> column(String title,
+            javafx.util.Callback<TableColumn.CellDataFeatures<DisasterReport, T>, javafx.beans.value.ObservableValue<T>> factory) {
+        TableColumn<DisasterReport, T> column = new TableColumn<>(title);
+        column.setCellValueFactory(factory);
+        return column;
+    }
+
+    private static void report(boolean toolkit, int rows, long[] frameNanos, long allocatedBytes, long gcCount, long gcMillis) {
+        long[] sorted = frameNanos.clone();
+        Arrays.sort(sorted);
+        System.out.printf("mode=%s rows=%d frames=%d%n", toolkit ? "toolkit" : "reflective", rows, sorted.length);
+        System.out.printf("frame time ms: p50=%.2f p95=%.2f p99=%.2f max=%.2f%n",
+                percentile(sorted, 50), percentile(sorted, 95), percentile(sorted, 99), sorted[sorted.length - 1] / 1e6);
+        System.out.printf("FX thread allocated: %.1f MB (%.1f KB/frame)%n", allocatedBytes / 1e6, allocatedBytes / 1e3 / sorted.length);
+        System.out.printf("GC: %d collections, %d ms%n", gcCount, gcMillis);
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(percentile / 100 * sorted.length) - 1);
+        return sorted[Math.max(index, 0)] / 1e6;
+    }
+
+    private static long gcCount() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream().mapToLong(GarbageCollectorMXBean::getCollectionCount).sum();
+    }
+
+    private static long gcMillis() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream().mapToLong(GarbageCollectorMXBean::getCollectionTime).sum();
+    }
+}
@@ -0,0 +1,63 @@
+package com.mycompany.mavenproject1.benchmark;
+
+import com.mycompany.mavenproject1.model.AssignedTask;
+import com.mycompany.mavenproject1.util.DatabaseUtils;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures {@link DatabaseUtils#getAssignedTasksSortedByPriority()} (join
+ * plus ORDER BY CASE) and the ResultSet-to-AssignedTask mapping on its own.
+ *
+ * @author Bishwas Bhattarai
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {BenchmarkDatabase.URL_ARG, BenchmarkDatabase.USER_ARG, BenchmarkDatabase.PASSWORD_ARG})
+public class TaskReadBenchmark {
+
+    @Param({"1000", "100000"})
+    public int rows;
+
+    @Setup
+    public void setup() throws Exception {
+        BenchmarkDatabase.reset();
+        BenchmarkDatabase.seedReports(rows);
+        BenchmarkDatabase.seedTasks(rows);
+    }
+
+    @Benchmark
+    public List<AssignedTask> getAssignedTasksSortedByPriority() throws Exception {
+        return DatabaseUtils.getAssignedTasksSortedByPriority();
+    }
+
+    @Benchmark
+    public void mapAssignedTasks(Blackhole bh) throws Exception {
+        String query = "SELECT a.id, a.disaster_id, a.department_id, a.task_description, a.status, a.version, d.disaster_type_id, d.location, d.priority "
+                + "FROM assigned_tasks a JOIN disaster_reports d ON a.disaster_id = d.id";
+        try (Connection conn = DatabaseUtils.getConnection(); Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(query)) {
+            while (rs.next()) {
+                bh.consume(DatabaseUtils.mapAssignedTask(rs));
+            }
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.mycompany.mavenproject1.loadtest;
+
+import com.mycompany.mavenproject1.util.DatabaseUtils;
+import com.mycompany.mavenproject1.util.ReferenceCatalogue;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Random;
+
+/**
+ * Bulk-loads a synthetic dataset (users, disaster reports and assigned
+ * tasks) so the load harness can run against tables of realistic size.
+ * Rows are written with batched INSERTs in chunked transactions; every
+ * generated user has the password "password".
+ *
+ * @author Bishwas Bhattarai
+ */
+public class DatasetGenerator {
+
+    static final String USER_PREFIX = "loaduser";
+    static final String USER_PASSWORD = "password";
+
+    static final String[] TYPES = {"Hurricane", "Fire", "Earthquake", "Landslide", "Flood"};
+    static final String[] PRIORITIES = {"Very High", "High", "Medium", "Low", "Very Low"};
+    static final String[] DEPARTMENTS = {
+        "Evacuation Department", "Search and Rescue team", "Public Health Services", "Damage Assessment",
+        "Infrastructure Restoration", "Debris Removal", "Fire Department", "Water Supply Department",
+        "Hospital", "Medical Team"
+    };
+
+    private final Random random = new Random(42);
+    private final int batchSize;
+
+    DatasetGenerator(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public static void main(String[] args) throws SQLException {
+        LoadOptions options = new LoadOptions(args);
+        if (options.has("help")) {
+            System.out.println("DatasetGenerator options:\n"
+                    + "  -users=N       users to create (default 100000)\n"
+                    + "  -reports=N     disaster reports to create (default 1000000)\n"
+                    + "  -tasks=N       assigned tasks to create (default 2000000)\n"
+                    + "  -days=N        spread report times over the last N days (default 30)\n"
+                    + "  -batch=N       rows per JDBC batch (default 1000)\n"
+                    + LoadOptions.databaseUsage());
+            return;
+        }
+        options.prepareDatabase();
+
+        DatasetGenerator generator = new DatasetGenerator(options.getInt("batch", 1000));
+        generator.generateUsers(options.getInt("users", 100_000));
+        generator.generateReports(options.getInt("reports", 1_000_000), options.getInt("users", 100_000), options.getInt("days", 30));
+        generator.generateTasks(options.getInt("tasks", 2_000_000));
+    }
+
+    void generateUsers(int count) throws SQLException {
+        String hashedPassword = DatabaseUtils.hashPassword(USER_PASSWORD);
+        String sql = "INSERT INTO users (username, password, email, phone_number, role) VALUES (?, ?, ?, ?, ?)";
+        long start = System.nanoTime();
+        try (Connection conn = DatabaseUtils.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
+            conn.setAutoCommit(false);
+            for (int i = 0; i < count; i++) {
+                stmt.setString(1, USER_PREFIX + i);
+                stmt.setString(2, hashedPassword);
+                stmt.setString(3, USER_PREFIX + i + "@example.com");
+                stmt.setString(4, String.valueOf(9_000_000_000L + i));
+                int roll = i % 100;
+                stmt.setString(5, roll < 90 ? "User" : roll < 95 ? "Department" : "Coordinator");
+                addToBatch(conn, stmt, i, count, "users", start);
+            }
+        }
+    }
+
+    void generateReports(int count, int users, int days) throws SQLException {
+        String sql = "INSERT INTO disaster_reports (username, disaster_type_id, location, severity, description, priority, report_time) VALUES (?, ?, ?, ?, ?, ?, ?)";
+        long now = System.currentTimeMillis();
+        long spreadMillis = days * 86_400_000L;
+        long start = System.nanoTime();
+        try (Connection conn = DatabaseUtils.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
+            conn.setAutoCommit(false);
+            for (int i = 0; i < count; i++) {
+                stmt.setString(1, USER_PREFIX + random.nextInt(Math.max(users, 1)));
+                stmt.setInt(2, ReferenceCatalogue.idOf(ReferenceCatalogue.Kind.DISASTER_TYPE, TYPES[random.nextInt(TYPES.length)]));
+                stmt.setString(3, "Sector " + random.nextInt(2_000));
+                stmt.setInt(4, 1 + random.nextInt(10));
+                stmt.setString(5, "Generated report " + i);
+                // About a third of reports have not been prioritised yet
+                stmt.setString(6, random.nextInt(3) == 0 ? null : PRIORITIES[random.nextInt(PRIORITIES.length)]);
+                stmt.setTimestamp(7, new Timestamp(now - (long) (random.nextDouble() * spreadMillis)));
+                addToBatch(conn, stmt, i, count, "disaster_reports", start);
+            }
+        }
+    }
+
+    void generateTasks(int count) throws SQLException {
+        long minId;
+        long maxId;
+        try (Connection conn = DatabaseUtils.getConnection(); Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT MIN(id), MAX(id) FROM disaster_reports")) {
+            rs.next();
+            minId = rs.getLong(1);
+            maxId = rs.getLong(2);
+        }
+        if (maxId == 0) {
+            System.out.println("No disaster reports; skipping tasks.");
+            return;
+        }
+
+        String sql = "INSERT INTO assigned_tasks (disaster_id, department_id, task_description, status) VALUES (?, ?, ?, ?)";
+        long start = System.nanoTime();
+        try (Connection conn = DatabaseUtils.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
+            conn.setAutoCommit(false);
+            for (int i = 0; i < count; i++) {
+                stmt.setLong(1, minId + (long) (random.nextDouble() * (maxId - minId + 1)));
+                stmt.setInt(2, ReferenceCatalogue.idOf(ReferenceCatalogue.Kind.DEPARTMENT, DEPARTMENTS[random.nextInt(DEPARTMENTS.length)]));
+                stmt.setString(3, "Generated task " + i);
+                stmt.setString(4, random.nextInt(2) == 0 ? "Finished" : "Still in Process");
+                addToBatch(conn, stmt, i, count, "assigned_tasks", start);
+            }
+        }
+    }
+
+    // Adds the current row, flushing and committing every batchSize rows and after the last one
+    private void addToBatch(Connection conn, PreparedStatement stmt, int index, int count, String table, long startNanos) throws SQLException {
+        stmt.addBatch();
+        boolean last = index == count - 1;
+        if ((index + 1) % batchSize == 0 || last) {
+            stmt.executeBatch();
+            conn.commit();
+        }
+        if ((index + 1) % 100_000 == 0 || last) {
+            double seconds = (System.nanoTime() - startNanos) / 1e9;
+            System.out.printf("%s: %,d / %,d rows (%,.0f rows/s)%n", table, index + 1, count, (index + 1) / seconds);
+        }
+    }
+}
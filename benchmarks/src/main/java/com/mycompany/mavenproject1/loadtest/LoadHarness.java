@@ -0,0 +1,282 @@
+package com.mycompany.mavenproject1.loadtest;
+
+import com.mycompany.mavenproject1.util.DatabaseUtils;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Headless load and soak harness that simulates a disaster surge by driving
+ * the DatabaseUtils API from concurrent virtual users:
+ * <ul>
+ * <li>reporters log in and submit disaster reports,</li>
+ * <li>coordinators pick up unprioritised reports, set a priority and assign
+ * a task to a department,</li>
+ * <li>department users pick up their open tasks and mark them finished.</li>
+ * </ul>
+ * Every operation is timed; throughput, latency percentiles and error rates
+ * are printed per interval and as a final summary, and optionally appended
+ * to a CSV file for plotting.
+ *
+ * @author Bishwas Bhattarai
+ */
+public class LoadHarness {
+
+    private final Map<String, OperationStats> stats = new ConcurrentSkipListMap<>();
+    private final Map<String, Boolean> announcedErrors = new ConcurrentHashMap<>();
+    private final int users;
+    private final long thinkMillis;
+    private final int fullRefreshEvery;
+    private volatile boolean running = true;
+
+    LoadHarness(int users, long thinkMillis, int fullRefreshEvery) {
+        this.users = users;
+        this.thinkMillis = thinkMillis;
+        this.fullRefreshEvery = fullRefreshEvery;
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadOptions options = new LoadOptions(args);
+        if (options.has("help")) {
+            System.out.println("LoadHarness options:\n"
+                    + "  -reporters=N       concurrent reporters (default 50)\n"
+                    + "  -coordinators=N    concurrent coordinators (default 5)\n"
+                    + "  -departments=N     concurrent department users (default 20)\n"
+                    + "  -duration=S        run time in seconds (default 60; use hours for a soak)\n"
+                    + "  -interval=S        reporting interval in seconds (default 5)\n"
+                    + "  -think-ms=N        mean think time between a user's actions (default 100)\n"
+                    + "  -users=N           generated users to log in as (default 100000)\n"
+                    + "  -full-refresh-every=N  also load the full report/task tables every N cycles (default 0 = never)\n"
+                    + "  -csv=FILE          append per-interval rows to FILE\n"
+                    + LoadOptions.databaseUsage());
+            return;
+        }
+        options.prepareDatabase();
+
+        LoadHarness harness = new LoadHarness(options.getInt("users", 100_000), options.getLong("think-ms", 100),
+                options.getInt("full-refresh-every", 0));
+        harness.run(options.getInt("reporters", 50), options.getInt("coordinators", 5), options.getInt("departments", 20),
+                options.getLong("duration", 60), options.getLong("interval", 5), options.get("csv", null));
+    }
+
+    void run(int reporters, int coordinators, int departments, long durationSeconds, long intervalSeconds, String csvFile)
+            throws InterruptedException, IOException {
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < reporters; i++) {
+            threads.add(new Thread(this::reporterLoop, "reporter-" + i));
+        }
+        for (int i = 0; i < coordinators; i++) {
+            threads.add(new Thread(this::coordinatorLoop, "coordinator-" + i));
+        }
+        for (int i = 0; i < departments; i++) {
+            String department = DatasetGenerator.DEPARTMENTS[i % DatasetGenerator.DEPARTMENTS.length];
+            threads.add(new Thread(() -> departmentLoop(department), "department-" + i));
+        }
+
+        System.out.printf("Starting %d reporters, %d coordinators, %d department users for %ds%n",
+                reporters, coordinators, departments, durationSeconds);
+        threads.forEach(t -> {
+            t.setDaemon(true);
+            t.start();
+        });
+
+        try (PrintWriter csv = csvFile == null ? null : new PrintWriter(new FileWriter(csvFile, true))) {
+            if (csv != null) {
+                csv.println("elapsed_s,operation,count,ops_per_s,p50_ms,p95_ms,p99_ms,max_ms,errors,error_rate");
+            }
+            long start = System.nanoTime();
+            long end = start + TimeUnit.SECONDS.toNanos(durationSeconds);
+            CountDownLatch never = new CountDownLatch(1);
+            while (System.nanoTime() < end) {
+                never.await(Math.min(TimeUnit.SECONDS.toNanos(intervalSeconds), end - System.nanoTime()), TimeUnit.NANOSECONDS);
+                long elapsed = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start);
+                printInterval(elapsed, intervalSeconds, csv);
+            }
+        }
+
+        running = false;
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        printSummary(durationSeconds);
+    }
+
+    private void reporterLoop() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String username = DatasetGenerator.USER_PREFIX + random.nextInt(Math.max(users, 1));
+        timed("reporter.login", () -> DatabaseUtils.isValidLogin(username, DatasetGenerator.USER_PASSWORD));
+        while (running) {
+            String type = DatasetGenerator.TYPES[random.nextInt(DatasetGenerator.TYPES.length)];
+            timed("reporter.submit", () -> DatabaseUtils.saveDisasterReport(username, type,
+                    "Sector " + random.nextInt(2_000), 1 + random.nextInt(10), "Load test report"));
+            think(random);
+        }
+    }
+
+    private void coordinatorLoop() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int cycle = 0;
+        while (running) {
+            if (fullRefreshEvery > 0 && cycle++ % fullRefreshEvery == 0) {
+                timed("coordinator.refresh", DatabaseUtils::getAllDisasterReports);
+            }
+            List<Integer> ids = timed("coordinator.view", () -> queryIds(
+                    "SELECT id FROM disaster_reports WHERE priority IS NULL ORDER BY id DESC LIMIT 20", null));
+            for (int id : ids == null ? List.<Integer>of() : ids) {
+                if (!running) {
+                    break;
+                }
+                String priority = DatasetGenerator.PRIORITIES[random.nextInt(DatasetGenerator.PRIORITIES.length)];
+                String department = DatasetGenerator.DEPARTMENTS[random.nextInt(DatasetGenerator.DEPARTMENTS.length)];
+                timed("coordinator.prioritise", () -> DatabaseUtils.updateDisasterPriority(id, priority));
+                timed("coordinator.assign", () -> DatabaseUtils.saveAssignedTask(id, department, "Load test task"));
+                think(random);
+            }
+            think(random);
+        }
+    }
+
+    private void departmentLoop(String department) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int cycle = 0;
+        while (running) {
+            if (fullRefreshEvery > 0 && cycle++ % fullRefreshEvery == 0) {
+                timed("department.refresh", DatabaseUtils::getAssignedTasksSortedByPriority);
+            }
+            List<Integer> ids = timed("department.view", () -> queryIds(
+                    "SELECT disaster_id FROM assigned_tasks WHERE department_id = (SELECT id FROM departments WHERE name = ?) "
+                    + "AND status = 'Still in Process' ORDER BY id DESC LIMIT 20",
+                    department));
+            for (int disasterId : ids == null ? List.<Integer>of() : ids) {
+                if (!running) {
+                    break;
+                }
+                timed("department.finish", () -> DatabaseUtils.updateTaskStatus(disasterId, "Finished"));
+                think(random);
+            }
+            think(random);
+        }
+    }
+
+    // The id lists a coordinator or department user would be looking at on their page
+    private static List<Integer> queryIds(String sql, String parameter) throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+        try (Connection conn = DatabaseUtils.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
+            if (parameter != null) {
+                stmt.setString(1, parameter);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getInt(1));
+                }
+            }
+        }
+        return ids;
+    }
+
+    // A call that returns null or false failed without throwing, e.g. isValidLogin after an SQLException
+    private <T> T timed(String operation, SqlCall<T> call) {
+        return measure(operation, call, true);
+    }
+
+    private void timed(String operation, SqlAction action) {
+        measure(operation, () -> {
+            action.run();
+            return null;
+        }, false);
+    }
+
+    private <T> T measure(String operation, SqlCall<T> call, boolean resultRequired) {
+        OperationStats operationStats = stats.computeIfAbsent(operation, OperationStats::new);
+        long start = System.nanoTime();
+        try {
+            T result = call.call();
+            if (resultRequired && (result == null || Boolean.FALSE.equals(result))) {
+                operationStats.recordError();
+                if (announcedErrors.putIfAbsent(operation + " result", Boolean.TRUE) == null) {
+                    System.out.println("First failed result in " + operation + ": " + result);
+                }
+                return null;
+            }
+            operationStats.recordSuccess(System.nanoTime() - start);
+            return result;
+        } catch (Exception e) {
+            operationStats.recordError();
+            if (announcedErrors.putIfAbsent(operation + e.getClass().getName(), Boolean.TRUE) == null) {
+                System.out.println("First " + e.getClass().getSimpleName() + " in " + operation + ": " + e.getMessage());
+            }
+            return null;
+        }
+    }
+
+    private void think(ThreadLocalRandom random) {
+        if (thinkMillis <= 0) {
+            return;
+        }
+        // Exponentially distributed think time gives bursty, Poisson-like arrivals
+        long pause = (long) (-Math.log(1 - random.nextDouble()) * thinkMillis);
+        try {
+            Thread.sleep(Math.min(pause, thinkMillis * 10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void printInterval(long elapsedSeconds, long intervalSeconds, PrintWriter csv) {
+        System.out.printf("%n-- t=%ds --%n", elapsedSeconds);
+        printHeader();
+        for (OperationStats operationStats : stats.values()) {
+            OperationStats.Snapshot s = operationStats.sampleInterval();
+            printRow(operationStats.getName(), s, intervalSeconds);
+            if (csv != null) {
+                csv.printf("%d,%s,%d,%.1f,%.3f,%.3f,%.3f,%.3f,%d,%.5f%n", elapsedSeconds, operationStats.getName(), s.count,
+                        (double) s.count / intervalSeconds, s.p50Millis, s.p95Millis, s.p99Millis, s.maxMillis, s.errors, s.errorRate());
+            }
+        }
+        if (csv != null) {
+            csv.flush();
+        }
+    }
+
+    private void printSummary(long durationSeconds) {
+        System.out.printf("%n== Summary (%ds) ==%n", durationSeconds);
+        printHeader();
+        for (OperationStats operationStats : stats.values()) {
+            operationStats.sampleInterval();
+            printRow(operationStats.getName(), operationStats.totals(), durationSeconds);
+        }
+    }
+
+    private static void printHeader() {
+        System.out.printf("%-22s %10s %9s %9s %9s %9s %9s %8s%n", "operation", "count", "ops/s", "p50 ms", "p95 ms", "p99 ms", "max ms", "errors");
+    }
+
+    private static void printRow(String name, OperationStats.Snapshot s, long seconds) {
+        System.out.printf("%-22s %10d %9.1f %9.2f %9.2f %9.2f %9.2f %7.2f%%%n", name, s.count, (double) s.count / Math.max(seconds, 1),
+                s.p50Millis, s.p95Millis, s.p99Millis, s.maxMillis, s.errorRate() * 100);
+    }
+
+    @FunctionalInterface
+    private interface SqlCall<T> {
+
+        T call() throws Exception;
+    }
+
+    @FunctionalInterface
+    private interface SqlAction {
+
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,80 @@
+package com.mycompany.mavenproject1.loadtest;
+
+import com.mycompany.mavenproject1.benchmark.BenchmarkDatabase;
+import com.mycompany.mavenproject1.util.DatabaseUtils;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Minimal "-name=value" command line parser shared by the load tools.
+ * Without -embedded the tools target whatever DatabaseUtils is configured
+ * for (the drs.db.* system properties, MySQL by default).
+ *
+ * @author Bishwas Bhattarai
+ */
+final class LoadOptions {
+
+    private final Map<String, String> values = new HashMap<>();
+
+    LoadOptions(String[] args) {
+        for (String arg : args) {
+            String option = arg.replaceFirst("^-+", "");
+            int eq = option.indexOf('=');
+            if (eq < 0) {
+                values.put(option, "true");
+            } else {
+                values.put(option.substring(0, eq), option.substring(eq + 1));
+            }
+        }
+    }
+
+    boolean has(String name) {
+        return values.containsKey(name);
+    }
+
+    int getInt(String name, int defaultValue) {
+        String value = values.get(name);
+        return value == null ? defaultValue : Integer.parseInt(value.replace("_", ""));
+    }
+
+    long getLong(String name, long defaultValue) {
+        String value = values.get(name);
+        return value == null ? defaultValue : Long.parseLong(value.replace("_", ""));
+    }
+
+    String get(String name, String defaultValue) {
+        return values.getOrDefault(name, defaultValue);
+    }
+
+    /**
+     * Points DatabaseUtils at the target database and makes sure the schema
+     * exists. Must run before anything else touches DatabaseUtils, because it
+     * reads the drs.db.* properties once when the class is initialised.
+     *
+     * @throws SQLException if the embedded schema cannot be created.
+     */
+    void prepareDatabase() throws SQLException {
+        if (has("embedded")) {
+            // File-backed so a generated dataset survives between runs
+            String file = get("embedded-file", "./target/loadtest-db");
+            System.setProperty("drs.db.url", "jdbc:h2:" + file + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE");
+            System.setProperty("drs.db.user", "sa");
+            System.setProperty("drs.db.password", "");
+            try (Connection conn = DatabaseUtils.getConnection()) {
+                DatabaseUtils.migrateSchema(conn);
+            }
+        } else {
+            DatabaseUtils.setupDatabase();
+        }
+    }
+
+    static String databaseUsage() {
+        return "  -embedded                 use a local H2 database instead of MySQL\n"
+                + "  -embedded-file=PATH       H2 database file (default ./target/loadtest-db)\n"
+                + "  MySQL target: -Ddrs.db.url=... -Ddrs.db.serverUrl=... -Ddrs.db.user=... -Ddrs.db.password=...\n"
+                + "  (append rewriteBatchedStatements=true to the MySQL URL for fast bulk loads)\n"
+                + "  embedded example URL: " + BenchmarkDatabase.URL + "\n";
+    }
+}
@@ -0,0 +1,85 @@
+package com.mycompany.mavenproject1.loadtest;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Latency and error statistics for one kind of operation. Worker threads
+ * record into a lock-free HdrHistogram {@link Recorder}; the reporter thread
+ * swaps out an interval histogram each tick and folds it into the run total.
+ *
+ * @author Bishwas Bhattarai
+ */
+final class OperationStats {
+
+    private static final long MAX_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+    private final String name;
+    private final Recorder recorder = new Recorder(MAX_TRACKABLE_NANOS, 3);
+    private final Histogram total = new Histogram(MAX_TRACKABLE_NANOS, 3);
+    private final LongAdder errors = new LongAdder();
+    private Histogram interval;
+    private long totalErrors;
+
+    OperationStats(String name) {
+        this.name = name;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    void recordSuccess(long elapsedNanos) {
+        recorder.recordValue(Math.min(elapsedNanos, MAX_TRACKABLE_NANOS));
+    }
+
+    void recordError() {
+        errors.increment();
+    }
+
+    /**
+     * Closes the current interval. Only called from the reporting thread.
+     *
+     * @return the snapshot of the interval that just ended.
+     */
+    Snapshot sampleInterval() {
+        interval = recorder.getIntervalHistogram(interval);
+        total.add(interval);
+        long intervalErrors = errors.sumThenReset();
+        totalErrors += intervalErrors;
+        return new Snapshot(interval, intervalErrors);
+    }
+
+    Snapshot totals() {
+        return new Snapshot(total, totalErrors);
+    }
+
+    /**
+     * Count, error count and latency percentiles for a period.
+     */
+    static final class Snapshot {
+
+        final long count;
+        final long errors;
+        final double p50Millis;
+        final double p95Millis;
+        final double p99Millis;
+        final double maxMillis;
+
+        private Snapshot(Histogram histogram, long errors) {
+            this.count = histogram.getTotalCount();
+            this.errors = errors;
+            this.p50Millis = histogram.getValueAtPercentile(50) / 1e6;
+            this.p95Millis = histogram.getValueAtPercentile(95) / 1e6;
+            this.p99Millis = histogram.getValueAtPercentile(99) / 1e6;
+            this.maxMillis = histogram.getMaxValue() / 1e6;
+        }
+
+        double errorRate() {
+            long attempts = count + errors;
+            return attempts == 0 ? 0 : (double) errors / attempts;
+        }
+    }
+}
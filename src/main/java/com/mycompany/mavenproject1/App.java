@@ -1,11 +1,12 @@
 package com.mycompany.mavenproject1;
 
 import javafx.application.Application;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
-import com.mycompany.mavenproject1.util.DatabaseUtils;
+import com.mycompany.mavenproject1.util.DataService;
+import com.mycompany.mavenproject1.util.FlightRecording;
+import com.mycompany.mavenproject1.util.StartupTimer;
+import com.mycompany.mavenproject1.util.ViewRouter;
 /**
  * Main class for launching the JavaFX application. This class initializes the
  * application and loads the login page as the starting point.
@@ -16,18 +17,31 @@ public class App extends Application {
 
     @Override
     public void start(Stage primaryStage) throws Exception {
-        // Setup the database and tables before loading the login page
-        DatabaseUtils.setupDatabase();
-
-        // Load the login page from the FXML file
-        Parent root = FXMLLoader.load(getClass().getResource("/com/mycompany/mavenproject1/view/LoginPage.fxml"));
-
-        primaryStage.setTitle("Login Page");
-        primaryStage.setScene(new Scene(root, 400, 400));
+        // Check the database schema (or the backend server) in the background while the login page is shown
+        DataService.get().prepare();
+
+        // Load the login page; all later navigation reuses this scene
+        ViewRouter.init(primaryStage);
+        ViewRouter.navigate(ViewRouter.View.LOGIN);
+
+        Scene scene = primaryStage.getScene();
+        scene.addPostLayoutPulseListener(new Runnable() {
+            @Override
+            public void run() {
+                // First layout pass of the login page; stop listening afterwards
+                StartupTimer.markFirstFrame();
+                scene.removePostLayoutPulseListener(this);
+            }
+        });
+
+        primaryStage.setWidth(400);
+        primaryStage.setHeight(400);
         primaryStage.show();
     }
 
     public static void main(String[] args) {
+        // Record page loads and data calls when started with -Ddrs.jfr.file=<file>
+        FlightRecording.startIfConfigured();
         launch(args);
     }
 }
@@ -2,21 +2,27 @@ package com.mycompany.mavenproject1.controller;
 
 import com.mycompany.mavenproject1.model.UserModel;
 import javafx.collections.FXCollections;
-import com.mycompany.mavenproject1.util.DatabaseUtils;
+import com.mycompany.mavenproject1.util.AlertUtils;
+import com.mycompany.mavenproject1.util.DataService;
 import com.mycompany.mavenproject1.util.LogoutUtils;
+import com.mycompany.mavenproject1.util.ReferenceCatalogue;
+import com.mycompany.mavenproject1.util.TableCells;
+import com.mycompany.mavenproject1.util.ViewLifecycle;
+import java.sql.SQLException;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import javafx.application.Platform;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
 import javafx.scene.control.ButtonType;
-import javafx.scene.control.TableCell;
+import javafx.scene.control.ChoiceDialog;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.scene.control.TextInputDialog;
-import javafx.scene.control.cell.PropertyValueFactory;
-import javafx.scene.layout.HBox;
 
 /**
  * Controller class for handling the admin page functionality. Provides
@@ -24,7 +30,9 @@ import javafx.scene.layout.HBox;
  *
  * @author Bishwas Bhattarai
  */
-public class AdminPageController {
+public class AdminPageController implements ViewLifecycle {
+
+    private final DataService dataService = DataService.get();  // Database or backend server, see DataService
 
     @FXML
     private TableView<UserModel> userTable;         // TableView for displaying users
@@ -34,53 +42,37 @@ public class AdminPageController {
     private TableColumn<UserModel, String> roleColumn;     // Column for displaying user roles
     @FXML
     private TableColumn<UserModel, Void> actionsColumn;    // Column for edit/delete actions
+    @FXML
+    private Button archiveButton;                   // Starts archiving closed incidents
 
     /**
-     * Initializes the controller. Configures the TableView columns and loads
-     * users from the database.
+     * Initializes the controller. Configures the TableView columns; users are
+     * loaded in {@link #onActivate()}.
      */
     @FXML
     public void initialize() {
-        usernameColumn.setCellValueFactory(new PropertyValueFactory<>("username"));
-        roleColumn.setCellValueFactory(new PropertyValueFactory<>("role"));
-
-        // Set up the actions column with edit and delete buttons
-        actionsColumn.setCellFactory(param -> new TableCell<>() {
-            private final Button editBtn = new Button("Edit");
-            private final Button deleteBtn = new Button("Delete");
-
-            {
-                editBtn.setOnAction(event -> {
-                    UserModel user = getTableView().getItems().get(getIndex());
-                    handleEdit(user);
-                });
-                deleteBtn.setOnAction(event -> {
-                    UserModel user = getTableView().getItems().get(getIndex());
-                    handleDelete(user);
-                });
-            }
+        usernameColumn.setCellValueFactory(TableCells.value(UserModel::getUsername));
+        roleColumn.setCellValueFactory(TableCells.value(UserModel::getRole));
 
-            @Override
-            protected void updateItem(Void item, boolean empty) {
-                super.updateItem(item, empty);
-                if (empty) {
-                    setGraphic(null);
-                } else {
-                    HBox hbox = new HBox(editBtn, deleteBtn);
-                    hbox.setSpacing(10);
-                    setGraphic(hbox);
-                }
-            }
-        });
+        // Set up the actions column with edit and delete buttons (built once per cell)
+        actionsColumn.setCellFactory(TableCells.buttons(
+                new TableCells.CellAction<>("Edit", this::handleEdit),
+                new TableCells.CellAction<>("Delete", this::handleDelete)));
+    }
 
-        loadUsers(); // Load the users into the table when the page is initialized
+    /**
+     * Reloads the users each time the (cached) page is shown.
+     */
+    @Override
+    public void onActivate() {
+        loadUsers();
     }
 
     /**
      * Loads the list of users from the database and populates the TableView.
      */
     public void loadUsers() {
-        List<UserModel> users = DatabaseUtils.fetchAllUsers();
+        List<UserModel> users = dataService.fetchAllUsers();
         userTable.setItems(FXCollections.observableArrayList(users));
     }
 
@@ -98,7 +90,11 @@ public class AdminPageController {
 
         Optional<String> result = dialog.showAndWait();
         result.ifPresent(role -> {
-            DatabaseUtils.updateUserRole(user.getUsername(), role);
+            try {
+                dataService.updateUserRole(user.getUsername(), role);
+            } catch (IllegalArgumentException e) {
+                AlertUtils.showAlert(Alert.AlertType.ERROR, "Role Not Changed", e.getMessage());
+            }
             loadUsers(); // Refresh the table after updating the role
         });
     }
@@ -115,11 +111,70 @@ public class AdminPageController {
 
         Optional<ButtonType> result = alert.showAndWait();
         if (result.isPresent() && result.get() == ButtonType.YES) {
-            DatabaseUtils.deleteUser(user.getUsername());
+            dataService.deleteUser(user.getUsername());
             loadUsers(); // Refresh the table after deleting the user
         }
     }
 
+    /**
+     * Moves closed incidents out of the live tables in the background and
+     * reports how many were archived. The button stays disabled while the
+     * archival runs.
+     */
+    @FXML
+    public void handleArchive() {
+        archiveButton.setDisable(true);
+        CompletableFuture.supplyAsync(() -> {
+            try {
+                return dataService.archiveClosedReports();
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }).whenComplete((archived, error) -> Platform.runLater(() -> {
+            archiveButton.setDisable(false);
+            if (error != null) {
+                error.printStackTrace();
+                AlertUtils.showAlert(Alert.AlertType.ERROR, "Archive Failed", "Closed incidents could not be archived.");
+            } else {
+                AlertUtils.showAlert(Alert.AlertType.INFORMATION, "Archive Complete",
+                        archived + " closed incident(s) moved to the archive.");
+            }
+        }));
+    }
+
+    /**
+     * Adds a disaster type or department that reports and tasks can then
+     * name. Asks for the kind and the name; an existing name is left as it is.
+     */
+    @FXML
+    public void handleAddReference() {
+        ChoiceDialog<String> kindDialog = new ChoiceDialog<>("Department", "Disaster type", "Department");
+        kindDialog.setTitle("Add Reference Data");
+        kindDialog.setHeaderText("What would you like to add?");
+        Optional<String> kindName = kindDialog.showAndWait();
+        if (kindName.isEmpty()) {
+            return;
+        }
+        ReferenceCatalogue.Kind kind = "Department".equals(kindName.get())
+                ? ReferenceCatalogue.Kind.DEPARTMENT : ReferenceCatalogue.Kind.DISASTER_TYPE;
+
+        TextInputDialog nameDialog = new TextInputDialog();
+        nameDialog.setTitle("Add " + kindName.get());
+        nameDialog.setHeaderText("New " + kindName.get().toLowerCase());
+        nameDialog.setContentText("Name:");
+        nameDialog.showAndWait().ifPresent(name -> {
+            try {
+                dataService.addReferenceName(kind, name);
+                AlertUtils.showAlert(Alert.AlertType.INFORMATION, "Added", "'" + name.trim() + "' can now be used.");
+            } catch (IllegalArgumentException e) {
+                AlertUtils.showAlert(Alert.AlertType.ERROR, "Not Added", e.getMessage());
+            } catch (SQLException e) {
+                e.printStackTrace();
+                AlertUtils.showAlert(Alert.AlertType.ERROR, "Not Added", "'" + name.trim() + "' could not be saved.");
+            }
+        });
+    }
+
     /**
      * Handles the logout action for the admin. Invokes the logout utility
      * method to return to the login page.
@@ -1,26 +1,43 @@
 package com.mycompany.mavenproject1.controller;
 
+import com.mycompany.mavenproject1.model.AssignedTask;
 import com.mycompany.mavenproject1.model.DisasterReport;
 import com.mycompany.mavenproject1.util.AlertUtils;
-import com.mycompany.mavenproject1.util.DatabaseUtils;
+import com.mycompany.mavenproject1.util.DataService;
+import com.mycompany.mavenproject1.util.DepartmentWorkload;
 import com.mycompany.mavenproject1.util.LogoutUtils;
+import com.mycompany.mavenproject1.util.ReferenceCatalogue;
+import com.mycompany.mavenproject1.util.ReportQuery;
+import com.mycompany.mavenproject1.util.RoutingRules;
+import com.mycompany.mavenproject1.util.ViewLifecycle;
+import com.mycompany.mavenproject1.util.ViewRouter;
 import java.io.IOException;
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.ComboBox;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.control.SelectionMode;
 import javafx.scene.control.TextArea;
 import javafx.scene.control.TextField;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Alert.AlertType;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import javafx.event.ActionEvent;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Node;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
-import javafx.stage.Stage;
+import javafx.util.Duration;
+import javafx.util.StringConverter;
 
 /**
  * Controller class responsible for handling the task assignment UI logic.
@@ -31,133 +48,250 @@ import javafx.stage.Stage;
  *
  * @author Bishwas Bhattarai
  */
-public class AssignTaskController {
+public class AssignTaskController implements ViewLifecycle {
+
+    private static final int SUGGESTION_LIMIT = 20;                     // Reports offered per lookup
+    private static final Duration SEARCH_DELAY = Duration.millis(250);  // Typing pause before a lookup is sent
+
+    // Runs report and workload lookups one at a time; a lookup cancelled before it starts is skipped
+    private static final ExecutorService SEARCH = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "disaster-search");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final DataService dataService = DataService.get();  // Database or backend server, see DataService
 
     @FXML
-    private ComboBox<Integer> disasterIdComboBox;  // ComboBox for disaster IDs
+    private ComboBox<DisasterReport> disasterIdComboBox;  // Type-ahead picker for the disaster report
     @FXML
     private TextField disasterTypeField;           // TextField for disaster type (auto-filled)
     @FXML
     private TextField locationField;               // TextField for location (auto-filled)
     @FXML
-    private ComboBox<String> departmentComboBox;   // ComboBox for selecting the department
+    private ListView<String> departmentList;       // Departments to assign the task to; several can be selected
     @FXML
     private TextArea taskDescriptionArea;          // TextArea for task description
 
-    private ObservableList<DisasterReport> disasterReports;
+    private final Map<Integer, DisasterReport> reportsById = new HashMap<>();  // Reports offered since the page was shown
+    private final PauseTransition searchDelay = new PauseTransition(SEARCH_DELAY);
+    private CompletableFuture<List<DisasterReport>> pendingSearch;  // Latest lookup, cancelled when superseded
+    private int searchGeneration;                                    // Numbers lookups so late results are dropped
+    private Map<String, Long> workload = Map.of();                   // Open tasks per department when last loaded
+    private final Set<String> departments = new LinkedHashSet<>();   // From the reference tables and the routing rules
 
     /**
-     * Initializes the controller. Loads disaster reports to populate the
-     * disaster ID ComboBox and sets department options.
+     * Initializes the controller, sets department options and sets up the
+     * disaster picker. Typing an ID, type or location into the picker looks
+     * up matching reports once typing pauses, see {@link #search(String)}.
      */
     @FXML
     public void initialize() {
-        // Load disaster reports and populate the disaster ID dropdown
-        loadDisasterIds();
-
-        // Populate department ComboBox with options
-        departmentComboBox.setItems(FXCollections.observableArrayList(
-                "Evacuation Department",
-                "Search and Rescue team",
-                "Public Health Services",
-                "Damage Assessment",
-                "Infrastructure Restoration",
-                "Debris Removal",
-                "Fire Department",
-                "Water Supply Department",
-                "Hospital",
-                "Medical Team"
-        ));
+        disasterIdComboBox.setConverter(new StringConverter<DisasterReport>() {
+            @Override
+            public String toString(DisasterReport report) {
+                return report == null ? "" : report.getId() + " - " + report.getDisasterType() + ", " + report.getLocation();
+            }
+
+            @Override
+            public DisasterReport fromString(String text) {
+                return findOffered(text);
+            }
+        });
+        disasterIdComboBox.getEditor().textProperty().addListener((observable, previous, text) -> {
+            if (text.equals(disasterIdComboBox.getConverter().toString(disasterIdComboBox.getValue()))) {
+                return;  // The picker showing its selection, not the user typing
+            }
+            searchDelay.setOnFinished(event -> search(text));
+            searchDelay.playFromStart();
+        });
+
+        // Departments from the reference tables and the routing rules, least loaded first once the workload is known
+        departments.addAll(ReferenceCatalogue.fetch(dataService).names(ReferenceCatalogue.Kind.DEPARTMENT));
+        departments.addAll(RoutingRules.getDefault().getDepartments());
+        departmentList.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
+        departmentList.setItems(FXCollections.observableArrayList(departments));
+        departmentList.setCellFactory(list -> new ListCell<String>() {
+            @Override
+            protected void updateItem(String department, boolean empty) {
+                super.updateItem(department, empty);
+                setText(empty || department == null ? null
+                        : department + " (" + workload.getOrDefault(department, 0L) + " open)");
+            }
+        });
     }
 
     /**
-     * Loads disaster reports from the database and populates the
-     * disasterIdComboBox with disaster IDs. Fetches disaster reports and
-     * handles any SQL exceptions.
+     * Clears the form each time the (cached) page is shown and offers the
+     * newest reports, so reports submitted since the last visit can be
+     * selected.
      */
-    private void loadDisasterIds() {
-        try {
-            List<DisasterReport> reports = DatabaseUtils.getAllDisasterReports();
-            disasterReports = FXCollections.observableArrayList(reports);
+    @Override
+    public void onActivate() {
+        clearFields();
+        reportsById.clear();
+        search("");
+        loadWorkload();
+    }
 
-            // Add disaster IDs to the disasterIdComboBox
-            for (DisasterReport report : disasterReports) {
-                disasterIdComboBox.getItems().add(report.getId());
+    /**
+     * Loads the open task count of every department in the background and
+     * lists the departments least loaded first.
+     */
+    private void loadWorkload() {
+        CompletableFuture.supplyAsync(() -> {
+            try {
+                return dataService.getDepartmentWorkload();
+            } catch (SQLException e) {
+                throw new CompletionException(e);
             }
-        } catch (SQLException e) {
-            e.printStackTrace();
-            AlertUtils.showAlert(AlertType.ERROR, "Error", "Failed to load disaster reports.");
+        }, SEARCH).whenComplete((counts, error) -> Platform.runLater(() -> {
+            if (error != null) {
+                error.printStackTrace();  // Keep the current order; suggestions are only a hint
+                return;
+            }
+            workload = counts;
+            departmentList.getItems().setAll(DepartmentWorkload.rankByLoad(departments, counts));
+        }));
+    }
+
+    /**
+     * Stops any lookup still pending when the page is left.
+     */
+    @Override
+    public void onDeactivate() {
+        searchDelay.stop();
+        cancelSearch();
+    }
+
+    /**
+     * Looks up reports whose ID, type or location matches the text in the
+     * background and offers them in the picker. A newer lookup cancels this
+     * one, and results of a superseded lookup are ignored.
+     *
+     * @param text the text typed into the picker; blank offers the newest
+     * reports.
+     */
+    private void search(String text) {
+        cancelSearch();
+        int generation = ++searchGeneration;
+        ReportQuery query = ReportQuery.create().matching(text).limit(SUGGESTION_LIMIT);
+        pendingSearch = CompletableFuture.supplyAsync(() -> {
+            try {
+                return dataService.findDisasterReports(query);
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        }, SEARCH);
+        pendingSearch.whenComplete((reports, error) -> Platform.runLater(() -> {
+            if (generation != searchGeneration) {
+                return;  // Superseded or cancelled
+            }
+            if (error != null) {
+                error.printStackTrace();
+                AlertUtils.showAlert(AlertType.ERROR, "Error", "Failed to load disaster reports.");
+                return;
+            }
+            for (DisasterReport report : reports) {
+                reportsById.put(report.getId(), report);
+            }
+            disasterIdComboBox.getItems().setAll(reports);
+            if (disasterIdComboBox.getEditor().isFocused() && !reports.isEmpty()) {
+                disasterIdComboBox.show();
+            }
+        }));
+    }
+
+    private void cancelSearch() {
+        if (pendingSearch != null) {
+            pendingSearch.cancel(false);
+            pendingSearch = null;
+            searchGeneration++;
         }
     }
 
     /**
-     * Event handler for when a disaster ID is selected from the ComboBox.
-     * Populates the disaster type and location fields based on the selected
-     * disaster.
+     * Returns the offered report named by text in the picker: its display
+     * text, or an ID typed on its own.
+     *
+     * @param text the picker text.
+     * @return the report, or null if no offered report matches.
+     */
+    private DisasterReport findOffered(String text) {
+        if (text == null) {
+            return null;
+        }
+        String id = text.trim().split(" ", 2)[0];
+        try {
+            return reportsById.get(Integer.parseInt(id));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Event handler for when a disaster report is chosen in the picker.
+     * Populates the disaster type and location fields from the chosen report.
      */
     @FXML
     private void handleDisasterIdSelection() {
-        Integer selectedDisasterId = disasterIdComboBox.getValue();
-        if (selectedDisasterId != null) {
-            // Find the selected disaster report based on the ID
-            DisasterReport selectedReport = disasterReports.stream()
-                    .filter(report -> report.getId() == selectedDisasterId)
-                    .findFirst()
-                    .orElse(null);
-
-            if (selectedReport != null) {
-                // Populate the disaster type and location fields
-                disasterTypeField.setText(selectedReport.getDisasterType());
-                locationField.setText(selectedReport.getLocation());
-            }
+        DisasterReport selectedReport = disasterIdComboBox.getValue();
+        if (selectedReport != null) {
+            disasterTypeField.setText(selectedReport.getDisasterType());
+            locationField.setText(selectedReport.getLocation());
+        } else {
+            disasterTypeField.clear();
+            locationField.clear();
         }
     }
 
     /**
      * Handles the task assignment process when the 'Assign Task' button is
-     * clicked. Validates the input fields and saves the task assignment to the
-     * database. Shows alerts for any errors or success messages.
+     * clicked. Validates the input fields and assigns the task to every
+     * selected department in one transaction, so either all departments get
+     * it or none does. Shows alerts for any errors or success messages.
      */
     @FXML
     public void handleAssignTask() {
-        Integer disasterId = disasterIdComboBox.getValue();
-        String department = departmentComboBox.getValue();
+        DisasterReport report = disasterIdComboBox.getValue();
+        if (report == null) {
+            report = findOffered(disasterIdComboBox.getEditor().getText());  // ID typed but not yet committed
+        }
+        List<String> departments = new ArrayList<>(departmentList.getSelectionModel().getSelectedItems());
         String taskDescription = taskDescriptionArea.getText();
 
-        if (disasterId == null || department == null || taskDescription.isEmpty()) {
+        if (report == null || departments.isEmpty() || taskDescription.isEmpty()) {
             AlertUtils.showAlert(AlertType.WARNING, "Input Error", "Please fill in all fields.");
             return;
         }
 
         // Save the task assignment to the database
         try {
-            DatabaseUtils.saveAssignedTask(disasterId, department, taskDescription);
-            AlertUtils.showAlert(AlertType.INFORMATION, "Success", "Task successfully assigned and saved to the database.");
+            List<AssignedTask> tasks = dataService.assignTaskToDepartments(report.getId(), departments, taskDescription);
+            StringBuilder message = new StringBuilder("Task for disaster " + report.getId() + " successfully assigned:");
+            for (AssignedTask task : tasks) {
+                message.append("\n  ").append(task.getDepartment()).append(" (task ").append(task.getId()).append(")");
+            }
+            AlertUtils.showAlert(AlertType.INFORMATION, "Success", message.toString());
             clearFields();
+            loadWorkload();
         } catch (SQLException e) {
             e.printStackTrace();
-            AlertUtils.showAlert(AlertType.ERROR, "Database Error", "Failed to save task to the database.");
+            AlertUtils.showAlert(AlertType.ERROR, "Database Error", "Failed to save the task; no department was assigned.");
         }
     }
 
     /**
      * Redirects the user to the Coordinator Page when the relevant button is
-     * clicked. Loads the CoordinatorPage.fxml file and sets the new scene.
+     * clicked.
      *
      * @param event the action event triggered by the button click
      */
     @FXML
     private void handleDisasterReportRedirect(ActionEvent event) {
         try {
-            // Load the CoordinatorPage.fxml (the main page for the coordinator)
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/com/mycompany/mavenproject1/view/CoordinatorPage.fxml"));
-            Parent root = loader.load();
-
-            // Get the current stage (window) and set the new scene
-            Stage stage = (Stage) ((Node) event.getSource()).getScene().getWindow();
-            stage.setScene(new Scene(root));
-            stage.setTitle("Coordinator Page");
-            stage.show();
+            // Switch back to the (cached) coordinator page
+            ViewRouter.navigate(ViewRouter.View.COORDINATOR);
         } catch (IOException e) {
             e.printStackTrace();
             AlertUtils.showAlert(Alert.AlertType.ERROR, "Navigation Error", "Failed to load the coordinator page.");
@@ -176,14 +310,14 @@ public class AssignTaskController {
 
     /**
      * Clears all input fields in the form. Resets the disasterIdComboBox,
-     * disasterTypeField, locationField, departmentComboBox, and
+     * disasterTypeField, locationField, departmentList, and
      * taskDescriptionArea.
      */
     private void clearFields() {
         disasterIdComboBox.setValue(null);  // Clear selected disaster ID
         disasterTypeField.clear();          // Clear disaster type field
         locationField.clear();              // Clear location field
-        departmentComboBox.setValue(null);  // Clear selected department
+        departmentList.getSelectionModel().clearSelection();  // Clear selected departments
         taskDescriptionArea.clear();        // Clear task description area
     }
 }
@@ -2,25 +2,49 @@ package com.mycompany.mavenproject1.controller;
 
 import com.mycompany.mavenproject1.model.AssignedTask;
 import com.mycompany.mavenproject1.model.DisasterReport;
-import com.mycompany.mavenproject1.util.DatabaseUtils;
+import com.mycompany.mavenproject1.util.AlertUtils;
+import com.mycompany.mavenproject1.util.AnalyticsStore;
+import com.mycompany.mavenproject1.util.AttachmentViews;
+import com.mycompany.mavenproject1.util.DashboardRollups;
+import com.mycompany.mavenproject1.util.DataService;
+import com.mycompany.mavenproject1.util.ReferenceCatalogue;
+import com.mycompany.mavenproject1.util.ReportQuery;
+import com.mycompany.mavenproject1.util.ReportSnapshot;
 import com.mycompany.mavenproject1.util.LogoutUtils;
+import com.mycompany.mavenproject1.util.TableCells;
+import com.mycompany.mavenproject1.util.ViewLifecycle;
+import com.mycompany.mavenproject1.util.ViewRouter;
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javafx.application.Platform;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
-import javafx.scene.control.cell.PropertyValueFactory;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import javafx.event.ActionEvent;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Node;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
+import javafx.scene.control.Alert.AlertType;
+import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
 import javafx.scene.control.TextArea;
-import javafx.stage.Stage;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.FlowPane;
+import javafx.util.Duration;
 
 /**
  * Controller class for managing the coordinator page. Handles the display of
@@ -31,7 +55,16 @@ import javafx.stage.Stage;
  *
  * @author Bishwas Bhattarai
  */
-public class CoordinatorPageController {
+public class CoordinatorPageController implements ViewLifecycle {
+
+    // Reads the database for snapshot reconciliation and analytics, and writes snapshot files, one at a time
+    private static final ExecutorService SNAPSHOTS = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "report-snapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final DataService dataService = DataService.get();  // Database or backend server, see DataService
 
     @FXML
     private TableView<DisasterReport> disasterTable;  // TableView to display disaster reports
@@ -56,41 +89,444 @@ public class CoordinatorPageController {
     @FXML
     private TextArea notificationArea;  // TextArea to display notifications
 
+    @FXML
+    private ComboBox<String> typeFilter;  // Filter: disaster type
+    @FXML
+    private TextField minSeverityField;  // Filter: minimum severity
+    @FXML
+    private CheckBox noPriorityCheck;  // Filter: only reports without a priority
+    @FXML
+    private ComboBox<String> timeWindowFilter;  // Filter: how recently the report was made
+    @FXML
+    private Button previousPageBtn;  // Button to show the previous page of reports
+    @FXML
+    private Button nextPageBtn;  // Button to show the next page of reports
+    @FXML
+    private Label pageLabel;  // Label showing the current page
+    @FXML
+    private Label dashboardLabel;  // Live report and task counts
+    @FXML
+    private Label attachmentTitle;  // Heading above the selected report's attachments
+    @FXML
+    private FlowPane attachmentPane;  // Thumbnails of the selected report's attachments
+
+    private final Timeline dashboardRefresh = new Timeline(
+            new KeyFrame(Duration.seconds(2), event -> loadDashboard()));  // Reloads the dashboard while shown
+
+    private static final int PAGE_SIZE = 200;  // Reports shown per page
+    private static final String ALL_TYPES = "All types";
+    private static final String ANY_TIME = "Any time";
+    private static final Map<String, Integer> TIME_WINDOW_HOURS = Map.of(
+            "Last hour", 1, "Last 6 hours", 6, "Last 24 hours", 24, "Last 7 days", 24 * 7);
+
+    private final Map<TableColumn<DisasterReport, ?>, ReportQuery.SortColumn> sortColumns = new HashMap<>();
+    private int currentPage;  // Zero-based page index
+    private final Map<Integer, String> loadedPriorities = new HashMap<>();  // Priority per report id as last loaded or saved
+    private boolean snapshotChecked;  // The local snapshot is only used when the page is first shown
+    private int loadGeneration;       // Numbers page loads so a late reconciliation is dropped
+    private Map<String, long[]> severityByType = Map.of();  // Analytics, see loadAnalytics()
+    private DashboardRollups.Snapshot dashboard;  // Last loaded counts, null until the first load
+    private boolean dashboardLoading;             // A dashboard load is in flight
+
     /**
      * Initializes the controller by setting up the columns in the disaster
-     * reports table. Loads disaster reports from the database and binds them to
-     * the table for display.
+     * reports table. The reports themselves are loaded each time the page is
+     * shown, see {@link #onActivate()}.
      */
     @FXML
     public void initialize() {
         // Set up the columns in the table
-        idColumn.setCellValueFactory(new PropertyValueFactory<>("id"));
-        usernameColumn.setCellValueFactory(new PropertyValueFactory<>("username"));
-        disasterTypeColumn.setCellValueFactory(new PropertyValueFactory<>("disasterType"));
-        locationColumn.setCellValueFactory(new PropertyValueFactory<>("location"));
-        severityColumn.setCellValueFactory(new PropertyValueFactory<>("severity"));
-        descriptionColumn.setCellValueFactory(new PropertyValueFactory<>("description"));
-        priorityColumn.setCellValueFactory(new PropertyValueFactory<>("priorityDropdown"));
-        reportTimeColumn.setCellValueFactory(new PropertyValueFactory<>("reportTime"));  // Bind report time column
-
-        // Load the data from the database
+        idColumn.setCellValueFactory(TableCells.value(DisasterReport::getId));
+        usernameColumn.setCellValueFactory(TableCells.value(DisasterReport::getUsername));
+        disasterTypeColumn.setCellValueFactory(TableCells.value(DisasterReport::getDisasterType));
+        locationColumn.setCellValueFactory(TableCells.value(DisasterReport::getLocation));
+        severityColumn.setCellValueFactory(TableCells.value(DisasterReport::getSeverity));
+        descriptionColumn.setCellValueFactory(TableCells.value(DisasterReport::getDescription));
+        reportTimeColumn.setCellValueFactory(TableCells.value(DisasterReport::getReportTime));  // Bind report time column
+
+        // Priority is picked with one reusable ComboBox per visible cell and kept on the report until saved
+        priorityColumn.setCellValueFactory(TableCells.value(DisasterReport::getPriority));
+        priorityColumn.setCellFactory(TableCells.comboBox(DisasterReport.PRIORITY_LEVELS,
+                DisasterReport::getPriority, DisasterReport::setPriority));
+
+        // Sorting is done by the database: clicking (or shift-clicking) headers reloads the page
+        sortColumns.put(idColumn, ReportQuery.SortColumn.ID);
+        sortColumns.put(usernameColumn, ReportQuery.SortColumn.USERNAME);
+        sortColumns.put(disasterTypeColumn, ReportQuery.SortColumn.DISASTER_TYPE);
+        sortColumns.put(locationColumn, ReportQuery.SortColumn.LOCATION);
+        sortColumns.put(severityColumn, ReportQuery.SortColumn.SEVERITY);
+        sortColumns.put(reportTimeColumn, ReportQuery.SortColumn.REPORT_TIME);
+        sortColumns.put(priorityColumn, ReportQuery.SortColumn.PRIORITY);
+        descriptionColumn.setSortable(false);
+        disasterTable.setSortPolicy(table -> {
+            currentPage = 0;
+            loadDisasterReports();
+            return true;
+        });
+
+        typeFilter.getItems().add(ALL_TYPES);
+        typeFilter.getItems().addAll(ReferenceCatalogue.fetch(dataService).names(ReferenceCatalogue.Kind.DISASTER_TYPE));
+        timeWindowFilter.getItems().addAll(ANY_TIME, "Last hour", "Last 6 hours", "Last 24 hours", "Last 7 days");
+
+        dashboardRefresh.setCycleCount(Timeline.INDEFINITE);
+
+        // Attachments are only fetched for the report the coordinator selects
+        disasterTable.getSelectionModel().selectedItemProperty().addListener((obs, old, report) -> showAttachments(report));
+    }
+
+    /**
+     * Shows the attachments of the selected report, loading the list and the
+     * thumbnails in the background. Results for a report that is no longer
+     * selected are ignored.
+     *
+     * @param report the selected report, or null.
+     */
+    private void showAttachments(DisasterReport report) {
+        attachmentPane.getChildren().clear();
+        if (report == null) {
+            attachmentTitle.setText("Attachments");
+            return;
+        }
+        attachmentTitle.setText("Attachments of report " + report.getId() + " (loading...)");
+        AttachmentViews.loadAttachments(report.getId()).whenComplete((attachments, error) -> Platform.runLater(() -> {
+            if (disasterTable.getSelectionModel().getSelectedItem() != report) {
+                return;
+            }
+            if (error != null) {
+                error.printStackTrace();
+                attachmentTitle.setText("Attachments of report " + report.getId() + " (unavailable)");
+                return;
+            }
+            attachmentTitle.setText("Attachments of report " + report.getId() + " (" + attachments.size() + ")");
+            attachments.forEach(attachment -> attachmentPane.getChildren().add(AttachmentViews.createTile(attachment)));
+        }));
+    }
+
+    /**
+     * Reloads the disaster reports each time the (cached) page is shown and
+     * starts refreshing the dashboard. The first time, the reports are shown
+     * from the local snapshot if it matches the page, see
+     * {@link #showSnapshot()}.
+     */
+    @Override
+    public void onActivate() {
+        if (snapshotChecked || !showSnapshot()) {
+            loadDisasterReports();
+        }
+        snapshotChecked = true;
+        loadAnalytics();
+        loadDashboard();
+        dashboardRefresh.play();
+    }
+
+    /**
+     * Stops refreshing the dashboard while the page is hidden.
+     */
+    @Override
+    public void onDeactivate() {
+        dashboardRefresh.stop();
+    }
+
+    /**
+     * Fetches the dashboard counts in the background and redraws the
+     * dashboard. They come from the in-memory rollups of whoever owns the
+     * database connection (this application or the backend server, see
+     * {@link DashboardRollups}); a load still in flight is not repeated.
+     */
+    private void loadDashboard() {
+        if (dashboardLoading) {
+            return;
+        }
+        dashboardLoading = true;
+        CompletableFuture.supplyAsync(() -> {
+            try {
+                return dataService.getDashboard();
+            } catch (SQLException e) {
+                e.printStackTrace();
+                return null;
+            }
+        }, SNAPSHOTS).thenAccept(loaded -> Platform.runLater(() -> {
+            dashboardLoading = false;
+            if (loaded != null) {
+                dashboard = loaded;
+            }
+            refreshDashboard();
+        }));
+    }
+
+    /**
+     * Redraws the dashboard from the last loaded counts; never queries the
+     * database.
+     */
+    private void refreshDashboard() {
+        if (dashboard == null) {
+            dashboardLabel.setText("Loading counts...");
+            return;
+        }
+        StringBuilder text = new StringBuilder();
+        appendCounts(text, "Reports by type", dashboard.getReportsByType());
+        appendCounts(text, "Reports by severity", dashboard.getReportsBySeverityBand());
+        appendCounts(text, "Reports by priority", dashboard.getReportsByPriority());
+
+        text.append("Busiest hours\n");
+        long[] hours = dashboard.getReportsByHour();
+        for (int hour = 0; hour < hours.length; hour++) {
+            if (hours[hour] > 0) {
+                text.append(String.format("  %02d:00  %d%n", hour, hours[hour]));
+            }
+        }
+        text.append('\n');
+
+        appendCounts(text, "Open tasks", dashboard.getOpenTasks());
+        appendCounts(text, "Finished tasks", dashboard.getFinishedTasks());
+        appendCounts(text, "Overdue tasks (escalated)", dashboard.getOverdueTasks());
+
+        text.append("Severity by type (count, average, 1-").append(AnalyticsStore.MAX_SEVERITY).append(")\n");
+        severityByType.forEach((type, counts) -> {
+            long total = 0;
+            long sum = 0;
+            for (int i = 0; i < counts.length; i++) {
+                total += counts[i];
+                sum += counts[i] * (i + 1);
+            }
+            text.append(String.format("  %s: %d, %.1f, %s%n", type, total, (double) sum / total, Arrays.toString(counts)));
+        });
+        text.append('\n');
+
+        text.append("Task completion\n");
+        dashboard.getTaskCompletion().forEach((department, counts) -> {
+            long total = counts[0] + counts[1];
+            text.append(String.format("  %s: %d/%d finished (%.0f%%)%n", department, counts[1], total, 100.0 * counts[1] / total));
+        });
+        dashboardLabel.setText(text.toString());
+    }
+
+    /**
+     * Loads the severity statistics of the dashboard in the background; they
+     * are aggregated from the in-memory column store (see
+     * {@link AnalyticsStore}), which is built on first use. Task completion
+     * comes with the dashboard counts, see {@link #loadDashboard()}.
+     */
+    private void loadAnalytics() {
+        CompletableFuture.runAsync(() -> {
+            try {
+                Map<String, long[]> severity = dataService.getSeverityDistribution(AnalyticsStore.Dimension.TYPE, null);
+                Platform.runLater(() -> {
+                    severityByType = severity;
+                    refreshDashboard();
+                });
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+        }, SNAPSHOTS);
+    }
+
+    private static void appendCounts(StringBuilder text, String title, Map<String, Long> counts) {
+        text.append(title).append('\n');
+        if (counts.isEmpty()) {
+            text.append("  none\n");
+        }
+        counts.forEach((key, count) -> text.append("  ").append(key).append(": ").append(count).append('\n'));
+        text.append('\n');
+    }
+
+    /**
+     * Reloads the disaster reports when the Disaster Report button is clicked.
+     */
+    @FXML
+    private void handleRefresh() {
         loadDisasterReports();
+        loadAnalytics();
     }
 
     /**
-     * Loads disaster reports from the database and populates the disaster table
-     * with them. Handles any SQL exceptions that occur during the process.
+     * Loads the current page of disaster reports matching the filter bar and
+     * the table's sort order, and populates the disaster table with them.
+     * Handles any SQL exceptions that occur during the process.
      */
     private void loadDisasterReports() {
+        loadGeneration++;
+        ReportQuery query = buildPageQuery();
+        if (query == null) {
+            return;
+        }
         try {
-            List<DisasterReport> reports = DatabaseUtils.getAllDisasterReports();
-            disasterReports = FXCollections.observableArrayList(reports);
-            disasterTable.setItems(disasterReports);
+            List<DisasterReport> reports = dataService.findDisasterReports(query);
+            showReports(reports);
+            saveSnapshot(new ReportSnapshot(query.getCriteria(), reports));
         } catch (SQLException e) {
             e.printStackTrace();
         }
     }
 
+    /**
+     * Shows the reports from the local snapshot if it was taken with the same
+     * filters, sort order and page, then reconciles them in the background:
+     * the reports changed since the snapshot are loaded and patched in, or,
+     * if they could move reports on or off the page, the page is reloaded.
+     *
+     * @return true if the snapshot is shown, false if the page must be loaded.
+     */
+    private boolean showSnapshot() {
+        ReportQuery query = buildPageQuery();
+        ReportSnapshot snapshot = ReportSnapshot.read(ReportSnapshot.defaultFile(), ReportSnapshot.currentSource());
+        ReportQuery delta = snapshot == null ? null : snapshot.deltaQuery(PAGE_SIZE + 1);
+        if (query == null || delta == null || !snapshot.getCriteria().equals(query.getCriteria())) {
+            return false;
+        }
+        showReports(snapshot.getReports());
+        int generation = ++loadGeneration;
+        CompletableFuture.supplyAsync(() -> {
+            try {
+                return dataService.findDisasterReports(delta);
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        }, SNAPSHOTS).whenComplete((changed, error) -> Platform.runLater(() -> {
+            if (generation != loadGeneration) {
+                return;  // The page was reloaded meanwhile
+            }
+            List<DisasterReport> reconciled = error == null ? snapshot.reconcile(changed, PAGE_SIZE + 1) : null;
+            if (error != null) {
+                error.printStackTrace();
+            }
+            if (reconciled == null) {
+                loadDisasterReports();
+            } else if (reconciled != snapshot.getReports()) {
+                showReports(reconciled);
+                saveSnapshot(new ReportSnapshot(snapshot.getCriteria(), reconciled));
+            }
+        }));
+        return true;
+    }
+
+    /**
+     * Shows a page of reports in the table.
+     *
+     * @param reports the reports, with one more than fit on the page if there
+     * is a next page.
+     */
+    private void showReports(List<DisasterReport> reports) {
+        boolean hasNextPage = reports.size() > PAGE_SIZE;
+        if (hasNextPage) {
+            reports = reports.subList(0, PAGE_SIZE);
+        }
+        disasterReports = FXCollections.observableArrayList(reports);
+        loadedPriorities.clear();
+        for (DisasterReport report : reports) {
+            loadedPriorities.put(report.getId(), report.getPriority());
+        }
+        disasterTable.setItems(disasterReports);
+        previousPageBtn.setDisable(currentPage == 0);
+        nextPageBtn.setDisable(!hasNextPage);
+        pageLabel.setText("Page " + (currentPage + 1));
+    }
+
+    // Writes the snapshot in the background; a failure only costs the next fast start
+    private static void saveSnapshot(ReportSnapshot snapshot) {
+        SNAPSHOTS.execute(() -> {
+            try {
+                snapshot.write(ReportSnapshot.defaultFile(), ReportSnapshot.currentSource());
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        });
+    }
+
+    /**
+     * Builds the query for the current page: the filter bar and sort order,
+     * plus one extra row that tells whether there is a next page.
+     *
+     * @return the query, or null if the filter input is invalid.
+     */
+    private ReportQuery buildPageQuery() {
+        ReportQuery query = buildQuery();
+        return query == null ? null : query.limit(PAGE_SIZE + 1).offset(currentPage * PAGE_SIZE);
+    }
+
+    /**
+     * Builds the database query from the filter bar and the table's sort
+     * order.
+     *
+     * @return the query, or null if the filter input is invalid.
+     */
+    private ReportQuery buildQuery() {
+        ReportQuery query = ReportQuery.create();
+
+        String type = typeFilter.getValue();
+        if (type != null && !ALL_TYPES.equals(type)) {
+            query.disasterType(type);
+        }
+
+        String minSeverity = minSeverityField.getText().trim();
+        if (!minSeverity.isEmpty()) {
+            try {
+                query.minSeverity(Integer.parseInt(minSeverity));
+            } catch (NumberFormatException e) {
+                AlertUtils.showAlert(AlertType.WARNING, "Filter Error", "Minimum severity must be a number between 1 and 10.");
+                return null;
+            }
+        }
+
+        if (noPriorityCheck.isSelected()) {
+            query.withoutPriority();
+        }
+
+        Integer hours = TIME_WINDOW_HOURS.get(timeWindowFilter.getValue());
+        if (hours != null) {
+            query.reportedSince(LocalDateTime.now().minusHours(hours));
+        }
+
+        for (TableColumn<DisasterReport, ?> column : disasterTable.getSortOrder()) {
+            ReportQuery.SortColumn sortColumn = sortColumns.get(column);
+            if (sortColumn != null) {
+                query.orderBy(sortColumn, column.getSortType() == TableColumn.SortType.ASCENDING);
+            }
+        }
+        return query;
+    }
+
+    /**
+     * Applies the filter bar criteria, starting again from the first page.
+     */
+    @FXML
+    private void handleApplyFilters() {
+        currentPage = 0;
+        loadDisasterReports();
+    }
+
+    /**
+     * Resets the filter bar and shows the first page of all reports.
+     */
+    @FXML
+    private void handleClearFilters() {
+        typeFilter.setValue(null);
+        minSeverityField.clear();
+        noPriorityCheck.setSelected(false);
+        timeWindowFilter.setValue(null);
+        handleApplyFilters();
+    }
+
+    /**
+     * Shows the previous page of reports.
+     */
+    @FXML
+    private void handlePreviousPage() {
+        if (currentPage > 0) {
+            currentPage--;
+            loadDisasterReports();
+        }
+    }
+
+    /**
+     * Shows the next page of reports.
+     */
+    @FXML
+    private void handleNextPage() {
+        currentPage++;
+        loadDisasterReports();
+    }
+
     /**
      * Saves the selected priority values for each disaster report to the
      * database. Iterates over the disaster reports in the table and updates
@@ -98,14 +534,30 @@ public class CoordinatorPageController {
      */
     @FXML
     private void handleSavePriorities() {
+        List<Integer> conflicts = new ArrayList<>();
         for (DisasterReport report : disasterReports) {
-            String selectedPriority = report.getPriorityDropdown().getValue();
+            String selectedPriority = report.getPriority();
+            if (Objects.equals(selectedPriority, loadedPriorities.get(report.getId()))) {
+                continue;  // Unchanged here; don't overwrite what others may have saved
+            }
             try {
-                DatabaseUtils.updateDisasterPriority(report.getId(), selectedPriority);
+                // Only saved if nobody changed the report since this page loaded it
+                if (dataService.updateDisasterPriorityIfUnchanged(report.getId(), selectedPriority, report.getVersion())) {
+                    report.setVersion(report.getVersion() + 1);
+                    loadedPriorities.put(report.getId(), selectedPriority);
+                } else {
+                    conflicts.add(report.getId());
+                }
             } catch (SQLException e) {
                 e.printStackTrace();
             }
         }
+        if (!conflicts.isEmpty()) {
+            AlertUtils.showAlert(AlertType.WARNING, "Priority Conflict", "Reports " + conflicts
+                    + " were changed by another coordinator after you loaded them, so your priorities for them were not saved. "
+                    + "The latest values are now shown.");
+            loadDisasterReports();
+        }
     }
 
     /**
@@ -119,23 +571,15 @@ public class CoordinatorPageController {
 
     /**
      * Redirects the user to the AssignTask page when the assign task button is
-     * clicked. Loads the AssignTaskPage.fxml file and switches the scene to
-     * display the assign task page.
+     * clicked.
      *
      * @param event the action event triggered by the assign task button click
      */
     @FXML
     public void handleAssignTask(ActionEvent event) {
         try {
-            // Load the AssignTask page when the button is clicked
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/com/mycompany/mavenproject1/view/AssignTaskPage.fxml"));
-            Parent root = loader.load();
-
-            // Switch the scene to the Assign Task page
-            Stage stage = (Stage) ((Node) event.getSource()).getScene().getWindow();
-            stage.setScene(new Scene(root));
-            stage.setTitle("Assign Task");
-            stage.show();
+            // Switch to the (cached) Assign Task page
+            ViewRouter.navigate(ViewRouter.View.ASSIGN_TASK);
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -159,7 +603,7 @@ public class CoordinatorPageController {
     @FXML
     private void handleViewNotifications() {
         try {
-            List<AssignedTask> finishedTasks = DatabaseUtils.getAllFinishedTasks();
+            List<AssignedTask> finishedTasks = dataService.getAllFinishedTasks();
 
             // Display finished tasks in the notificationArea
             if (finishedTasks.isEmpty()) {
@@ -1,21 +1,36 @@
 package com.mycompany.mavenproject1.controller;
 
 import com.mycompany.mavenproject1.model.AssignedTask;
+import com.mycompany.mavenproject1.model.DisasterReport;
 import com.mycompany.mavenproject1.util.AlertUtils;
-import com.mycompany.mavenproject1.util.DatabaseUtils;
+import com.mycompany.mavenproject1.util.AttachmentViews;
+import com.mycompany.mavenproject1.util.DataService;
+import com.mycompany.mavenproject1.util.ReferenceCatalogue;
 import com.mycompany.mavenproject1.util.LogoutUtils;
+import com.mycompany.mavenproject1.util.RateLimitExceededException;
+import com.mycompany.mavenproject1.util.ViewLifecycle;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
 import javafx.scene.control.TextArea;
 import javafx.scene.control.TextField;
 import javafx.scene.control.Button;
 import javafx.scene.control.Alert.AlertType;
+import java.io.File;
 import java.net.URL;
+import java.nio.file.Path;
 import java.sql.SQLException;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.ResourceBundle;
 import javafx.event.ActionEvent;
+import javafx.stage.FileChooser;
+import javafx.util.Duration;
 
 /**
  * Controller class that manages disaster report submissions and related
@@ -27,7 +42,11 @@ import javafx.event.ActionEvent;
  *
  * @author Bishwas Bhattarai
  */
-public class DisasterReportController implements Initializable {
+public class DisasterReportController implements Initializable, ViewLifecycle {
+
+    private static final DateTimeFormatter SUBMITTED_AT = DateTimeFormatter.ofPattern("HH:mm");  // Time shown for submitted reports
+
+    private final DataService dataService = DataService.get();  // Database or backend server, see DataService
 
     @FXML
     private ComboBox<String> disasterTypeComboBox;  // ComboBox for selecting disaster type
@@ -43,6 +62,10 @@ public class DisasterReportController implements Initializable {
     private Button clearBtn;                       // Button to clear the form inputs
     @FXML
     private TextArea notificationArea;             // TextArea to display notifications about task completions
+    @FXML
+    private Label attachmentsLabel;                // Label listing the chosen attachments
+
+    private final List<Path> pendingAttachments = new ArrayList<>();  // Files to attach on the next submit
 
     private String loggedInUser;                   // Stores the username of the logged-in user
 
@@ -58,12 +81,22 @@ public class DisasterReportController implements Initializable {
      */
     @Override
     public void initialize(URL url, ResourceBundle rb) {
-        disasterTypeComboBox.getItems().addAll("Hurricane", "Fire", "Earthquake", "Landslide", "Flood");
+        disasterTypeComboBox.getItems().addAll(ReferenceCatalogue.fetch(dataService).names(ReferenceCatalogue.Kind.DISASTER_TYPE));
 
         submitBtn.setOnAction(e -> handleSubmit());
         clearBtn.setOnAction(e -> handleClear());
     }
 
+    /**
+     * Resets the (cached) page when it is left, so the next user to log in
+     * doesn't see this user's form input or notifications.
+     */
+    @Override
+    public void onDeactivate() {
+        handleClear();
+        notificationArea.clear();
+    }
+
     /**
      * Handles actions to load and display notifications for completed tasks
      * related to the user's disaster reports. Fetches the notifications from
@@ -82,7 +115,7 @@ public class DisasterReportController implements Initializable {
      */
     private void loadNotifications() {
         try {
-            List<AssignedTask> completedTasks = DatabaseUtils.getFinishedTasksForUser(loggedInUser);
+            List<AssignedTask> completedTasks = dataService.getFinishedTasksForUser(loggedInUser);
             if (completedTasks.isEmpty()) {
                 notificationArea.setText("No completed tasks at the moment.");
             } else {
@@ -138,11 +171,94 @@ public class DisasterReportController implements Initializable {
                 return;
             }
 
-            DatabaseUtils.saveDisasterReport(loggedInUser, disasterType, location, severityInt, description);
-            AlertUtils.showAlert(AlertType.INFORMATION, "Submission Success", "Disaster report submitted successfully!");
+            DisasterReport report = dataService.saveDisasterReport(loggedInUser, disasterType, location, severityInt, description);
+            notificationArea.appendText("Report " + report.getId() + " (" + report.getDisasterType() + " at " + report.getLocation()
+                    + ") submitted at " + report.getReportTime().format(SUBMITTED_AT) + ".\n");
+            if (!pendingAttachments.isEmpty()) {
+                uploadAttachments(report.getId());
+            }
+            AlertUtils.showAlert(AlertType.INFORMATION, "Submission Success", "Disaster report " + report.getId() + " submitted successfully!");
             handleClear();
         } catch (NumberFormatException e) {
             AlertUtils.showAlert(AlertType.WARNING, "Submission Error", "Severity must be a valid number.");
+        } catch (RateLimitExceededException e) {
+            holdSubmissions(e);
+        } catch (IllegalArgumentException e) {
+            AlertUtils.showAlert(AlertType.WARNING, "Submission Error", e.getMessage());
+        } catch (SQLException e) {
+            e.printStackTrace();
+            AlertUtils.showAlert(AlertType.ERROR, "Submission Error", "The disaster report could not be saved. Please try again.");
+        }
+    }
+
+    /**
+     * Disables the submit button until the rate limiter allows another
+     * report, counting down on the button, and tells the user why. The form
+     * is kept so the report can be sent unchanged.
+     *
+     * @param e the refusal, with the time to wait.
+     */
+    private void holdSubmissions(RateLimitExceededException e) {
+        long seconds = e.getRetryAfterSeconds();
+        String buttonText = submitBtn.getText();
+        submitBtn.setDisable(true);
+        Timeline countdown = new Timeline();
+        for (long left = seconds; left > 0; left--) {
+            String text = "Wait " + left + "s";
+            countdown.getKeyFrames().add(new KeyFrame(Duration.seconds(seconds - left), event -> submitBtn.setText(text)));
+        }
+        countdown.getKeyFrames().add(new KeyFrame(Duration.seconds(seconds), event -> {
+            submitBtn.setText(buttonText);
+            submitBtn.setDisable(false);
+        }));
+        countdown.play();
+        AlertUtils.showAlert(AlertType.WARNING, "Too Many Reports",
+                e.getMessage() + " Your report was not sent; please submit it again in " + seconds + " second(s).");
+    }
+
+    /**
+     * Lets the user pick photos and videos to attach to the report being
+     * written.
+     */
+    @FXML
+    private void handleChooseAttachments() {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Attach Photos or Videos");
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Photos and videos",
+                "*.jpg", "*.jpeg", "*.png", "*.gif", "*.bmp", "*.mp4", "*.m4v", "*.mov", "*.avi"));
+        List<File> files = chooser.showOpenMultipleDialog(attachmentsLabel.getScene().getWindow());
+        if (files != null) {
+            for (File file : files) {
+                pendingAttachments.add(file.toPath());
+            }
+            updateAttachmentsLabel();
+        }
+    }
+
+    /**
+     * Uploads the chosen attachments in the background, so large videos don't
+     * freeze the form, and reports the outcome in the notification area.
+     *
+     * @param reportId the ID of the report just saved.
+     */
+    private void uploadAttachments(int reportId) {
+        int count = pendingAttachments.size();
+        notificationArea.appendText("Uploading " + count + " attachment(s) for report " + reportId + "...\n");
+        AttachmentViews.upload(reportId, pendingAttachments).thenAccept(failed -> Platform.runLater(() -> {
+            if (failed.isEmpty()) {
+                notificationArea.appendText("Attachments for report " + reportId + " uploaded.\n");
+            } else {
+                notificationArea.appendText("Could not attach: " + String.join(", ", failed) + "\n");
+            }
+        }));
+    }
+
+    private void updateAttachmentsLabel() {
+        if (pendingAttachments.isEmpty()) {
+            attachmentsLabel.setText("None");
+        } else {
+            attachmentsLabel.setText(pendingAttachments.size() + " file(s): " + pendingAttachments.get(0).getFileName()
+                    + (pendingAttachments.size() > 1 ? ", ..." : ""));
         }
     }
 
@@ -156,6 +272,8 @@ public class DisasterReportController implements Initializable {
         locationField.clear();
         severityField.clear();
         descriptionArea.clear();
+        pendingAttachments.clear();
+        updateAttachmentsLabel();
     }
 
     /**
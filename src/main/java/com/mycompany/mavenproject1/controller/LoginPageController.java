@@ -1,15 +1,16 @@
 package com.mycompany.mavenproject1.controller;
 
 import com.mycompany.mavenproject1.util.AlertUtils;
-import com.mycompany.mavenproject1.util.DatabaseUtils;
+import com.mycompany.mavenproject1.util.DataService;
+import com.mycompany.mavenproject1.util.Session;
+import com.mycompany.mavenproject1.util.StartupTimer;
+import com.mycompany.mavenproject1.util.ViewLifecycle;
+import com.mycompany.mavenproject1.util.ViewRouter;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.control.PasswordField;
 import javafx.scene.control.TextField;
-import javafx.stage.Stage;
 import java.io.IOException;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Alert.AlertType;
@@ -24,7 +25,9 @@ import javafx.scene.control.TextInputDialog;
  *
  * @author Bishwas Bhattarai
  */
-public class LoginPageController {
+public class LoginPageController implements ViewLifecycle {
+
+    private final DataService dataService = DataService.get();  // Database or backend server, see DataService
 
     @FXML
     private TextField userNameField;          // TextField for entering the username
@@ -49,6 +52,44 @@ public class LoginPageController {
         resetBtn.setOnAction(e -> handleReset());
         signUpBtn.setOnAction(e -> openRegisterPage());
         forgotPasswordBtn.setOnAction(e -> handleForgotPassword());
+
+        awaitSchema();
+    }
+
+    /**
+     * Clears the form each time the (cached) login page is shown, so the
+     * previous user's credentials are not left behind after logout.
+     */
+    @Override
+    public void onActivate() {
+        handleReset();
+    }
+
+    /**
+     * Keeps the buttons that need the database disabled until the background
+     * schema check has finished. Shows an error if the database could not be
+     * reached; the check is retried on the next login attempt.
+     */
+    private void awaitSchema() {
+        if (dataService.isReady()) {
+            StartupTimer.markLoginReady();
+            return;
+        }
+        setDatabaseButtonsDisabled(true);
+        dataService.prepare().whenComplete((result, error) -> Platform.runLater(() -> {
+            setDatabaseButtonsDisabled(false);
+            if (error != null) {
+                AlertUtils.showAlert(AlertType.ERROR, "Database Error", "Could not connect to the database. Please try again.");
+            } else {
+                StartupTimer.markLoginReady();
+            }
+        }));
+    }
+
+    private void setDatabaseButtonsDisabled(boolean disabled) {
+        loginBtn.setDisable(disabled);
+        signUpBtn.setDisable(disabled);
+        forgotPasswordBtn.setDisable(disabled);
     }
 
     /**
@@ -57,11 +98,17 @@ public class LoginPageController {
      * to the appropriate page based on their role.
      */
     void handleLogin() {
+        if (!dataService.isReady()) {
+            awaitSchema();
+            return;
+        }
         String enteredUsername = userNameField.getText();
         String enteredPassword = passwordField.getText();
 
-        if (DatabaseUtils.isValidLogin(enteredUsername, enteredPassword)) {
-            String role = DatabaseUtils.getUserRole(enteredUsername);
+        if (dataService.isValidLogin(enteredUsername, enteredPassword)) {
+            Session.login(enteredUsername);
+            String role = dataService.getUserRole(enteredUsername);
+            ViewRouter.preloadForRole(role);
             switch (role) {
                 case "Coordinator":
                     loadCoordinatorPage();
@@ -87,10 +134,7 @@ public class LoginPageController {
      */
     private void loadAdminPage() {
         try {
-            Parent root = FXMLLoader.load(getClass().getResource("/com/mycompany/mavenproject1/view/AdminPage.fxml"));
-            Stage stage = (Stage) loginBtn.getScene().getWindow();
-            stage.setScene(new Scene(root));
-            stage.setTitle("Admin Page");
+            ViewRouter.navigate(ViewRouter.View.ADMIN);
         } catch (Exception e) {
             e.printStackTrace();
         }
@@ -104,17 +148,9 @@ public class LoginPageController {
      */
     private void loadDisasterReportPage(String username) {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/com/mycompany/mavenproject1/view/DisasterReportPage.fxml"));
-            Parent root = loader.load();
-
-            // Get the controller and pass the logged-in username
-            DisasterReportController controller = loader.getController();
-            controller.setLoggedInUser(username);
-
-            // Set the new scene (Disaster Report page)
-            Stage stage = (Stage) loginBtn.getScene().getWindow();
-            stage.setScene(new Scene(root));
-            stage.setTitle("Disaster Report");
+            // Pass the logged-in username to the page's controller before it is shown
+            ViewRouter.<DisasterReportController>navigate(ViewRouter.View.DISASTER_REPORT,
+                    controller -> controller.setLoggedInUser(username));
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -126,10 +162,7 @@ public class LoginPageController {
      */
     private void loadCoordinatorPage() {
         try {
-            Parent root = FXMLLoader.load(getClass().getResource("/com/mycompany/mavenproject1/view/CoordinatorPage.fxml"));
-            Stage stage = (Stage) loginBtn.getScene().getWindow();
-            stage.setScene(new Scene(root));
-            stage.setTitle("Coordinator Page");
+            ViewRouter.navigate(ViewRouter.View.COORDINATOR);
         } catch (Exception e) {
             e.printStackTrace();
         }
@@ -141,10 +174,7 @@ public class LoginPageController {
      */
     private void loadOrganizationPage() {
         try {
-            Parent root = FXMLLoader.load(getClass().getResource("/com/mycompany/mavenproject1/view/OrganizationPage.fxml"));
-            Stage stage = (Stage) loginBtn.getScene().getWindow();
-            stage.setScene(new Scene(root));
-            stage.setTitle("Organization Page");
+            ViewRouter.navigate(ViewRouter.View.ORGANIZATION);
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -165,10 +195,7 @@ public class LoginPageController {
      */
     private void openRegisterPage() {
         try {
-            Parent root = FXMLLoader.load(getClass().getResource("/com/mycompany/mavenproject1/view/RegisterPage.fxml"));
-            Stage stage = (Stage) signUpBtn.getScene().getWindow();
-            stage.setScene(new Scene(root));
-            stage.setTitle("Register Page");
+            ViewRouter.navigate(ViewRouter.View.REGISTER);
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -218,7 +245,7 @@ public class LoginPageController {
         String email = userInput[0];
         String phone = userInput[1];
 
-        if (!DatabaseUtils.isEmailAndPhoneRegistered(email, phone)) {
+        if (!dataService.isEmailAndPhoneRegistered(email, phone)) {
             AlertUtils.showAlert(AlertType.WARNING, "Forgot Password", "Invalid email or phone number!");
             return;
         }
@@ -229,7 +256,10 @@ public class LoginPageController {
             return;
         }
 
-        DatabaseUtils.updateUserPassword(email, newPassword);
+        if (!dataService.resetPassword(email, phone, newPassword)) {
+            AlertUtils.showAlert(AlertType.WARNING, "Forgot Password", "Invalid email or phone number!");
+            return;
+        }
         AlertUtils.showAlert(AlertType.INFORMATION, "Forgot Password", "Password reset successful!");
     }
 
@@ -1,20 +1,22 @@
 package com.mycompany.mavenproject1.controller;
 
 import com.mycompany.mavenproject1.model.AssignedTask;
-import com.mycompany.mavenproject1.util.DatabaseUtils;
+import com.mycompany.mavenproject1.util.AlertUtils;
+import com.mycompany.mavenproject1.util.DataService;
 import com.mycompany.mavenproject1.util.LogoutUtils;
-import javafx.scene.control.TableCell;
+import com.mycompany.mavenproject1.util.TableCells;
+import com.mycompany.mavenproject1.util.ViewLifecycle;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
+import javafx.scene.control.Alert.AlertType;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
-import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.event.ActionEvent;
 
 import java.sql.SQLException;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
-import javafx.scene.control.ComboBox;
 
 /**
  * Controller class for managing the organization page. This class handles the
@@ -24,7 +26,9 @@ import javafx.scene.control.ComboBox;
  *
  * @author Bishwas Bhattarai
  */
-public class OrganizationPageController {
+public class OrganizationPageController implements ViewLifecycle {
+
+    private final DataService dataService = DataService.get();  // Database or backend server, see DataService
 
     @FXML
     private TableView<AssignedTask> taskTable;                // Table to display assigned tasks
@@ -42,66 +46,74 @@ public class OrganizationPageController {
     private TableColumn<AssignedTask, String> priorityColumn;   // Column for task priority
     @FXML
     private TableColumn<AssignedTask, String> statusColumn;     // Column for task status (editable with ComboBox)
+    @FXML
+    private TableColumn<AssignedTask, String> overdueColumn;    // When an open task was escalated for missing its deadline
 
     private ObservableList<AssignedTask> taskList;              // ObservableList to hold assigned tasks
 
+    private static final DateTimeFormatter OVERDUE_FORMAT = DateTimeFormatter.ofPattern("d MMM HH:mm");
+
     /**
-     * Initializes the controller and sets up the task table columns. Loads
-     * assigned tasks from the database and enables task status updates. It also
-     * allows users to mark tasks as finished, notifying the coordinator.
+     * Initializes the controller and sets up the task table columns, enabling
+     * task status updates. It also allows users to mark tasks as finished,
+     * notifying the coordinator. Tasks are loaded in {@link #onActivate()}.
      */
     @FXML
     public void initialize() {
         // Set up the columns in the table
-        disasterIdColumn.setCellValueFactory(new PropertyValueFactory<>("disasterId"));
-        disasterTypeColumn.setCellValueFactory(new PropertyValueFactory<>("disasterType"));
-        locationColumn.setCellValueFactory(new PropertyValueFactory<>("location"));
-        departmentColumn.setCellValueFactory(new PropertyValueFactory<>("department"));
-        taskDescriptionColumn.setCellValueFactory(new PropertyValueFactory<>("taskDescription"));
-        priorityColumn.setCellValueFactory(new PropertyValueFactory<>("priority"));
+        disasterIdColumn.setCellValueFactory(TableCells.value(AssignedTask::getDisasterId));
+        disasterTypeColumn.setCellValueFactory(TableCells.value(AssignedTask::getDisasterType));
+        locationColumn.setCellValueFactory(TableCells.value(AssignedTask::getLocation));
+        departmentColumn.setCellValueFactory(TableCells.value(AssignedTask::getDepartment));
+        taskDescriptionColumn.setCellValueFactory(TableCells.value(AssignedTask::getTaskDescription));
+        priorityColumn.setCellValueFactory(TableCells.value(AssignedTask::getPriority));
 
         // Set up the status column with a ComboBox for updating task status
-        statusColumn.setCellFactory(col -> {
-            return new TableCell<AssignedTask, String>() {
-                private final ComboBox<String> comboBox = new ComboBox<>(FXCollections.observableArrayList("Still in Process", "Finished"));
-
-                {
-                    comboBox.setOnAction(event -> {
-                        AssignedTask task = getTableView().getItems().get(getIndex());
-                        task.setStatus(comboBox.getValue());
-
-                        // Update the status in the database
-                        try {
-                            DatabaseUtils.updateTaskStatus(task.getDisasterId(), comboBox.getValue());
-
-                            // Send notification to the coordinator if the status is changed to "Finished"
-                            if ("Finished".equals(comboBox.getValue())) {
-                                notifyCoordinator(task);
-                            }
-                        } catch (SQLException e) {
-                            e.printStackTrace();
-                        }
-                    });
-                }
-
-                @Override
-                protected void updateItem(String item, boolean empty) {
-                    super.updateItem(item, empty);
-                    if (empty) {
-                        setGraphic(null);
-                    } else {
-                        AssignedTask task = getTableView().getItems().get(getIndex());
-                        comboBox.setValue(task.getStatus());  // Set the value from the database
-                        setGraphic(comboBox);
-                    }
-                }
-            };
-        });
-
-        // Load the tasks from the database
+        statusColumn.setCellValueFactory(TableCells.value(AssignedTask::getStatus));
+        statusColumn.setCellFactory(TableCells.comboBox(AssignedTask.STATUSES, AssignedTask::getStatus, this::updateStatus));
+
+        // Escalations by the SLA monitor, while the task is still open
+        overdueColumn.setCellValueFactory(TableCells.value(task -> task.getEscalatedAt() == null
+                || !AssignedTask.STATUSES[0].equals(task.getStatus()) ? "" : "Overdue since " + OVERDUE_FORMAT.format(task.getEscalatedAt())));
+
+    }
+
+    /**
+     * Reloads the assigned tasks each time the (cached) page is shown.
+     */
+    @Override
+    public void onActivate() {
         loadAssignedTasks();
     }
 
+    /**
+     * Saves a status picked in the status column and notifies the coordinator
+     * when a task is finished.
+     *
+     * @param task the task whose status changed.
+     * @param status the newly selected status.
+     */
+    private void updateStatus(AssignedTask task, String status) {
+        // Update the status in the database, unless someone changed the task since it was loaded
+        try {
+            if (!dataService.updateTaskStatusIfUnchanged(task.getId(), status, task.getVersion())) {
+                AlertUtils.showAlert(AlertType.WARNING, "Status Conflict", "This task was changed by someone else after you loaded it, "
+                        + "so your status was not saved. The latest tasks are now shown.");
+                loadAssignedTasks();
+                return;
+            }
+            task.setStatus(status);
+            task.setVersion(task.getVersion() + 1);
+
+            // Send notification to the coordinator if the status is changed to "Finished"
+            if ("Finished".equals(status)) {
+                notifyCoordinator(task);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
     /**
      * Sends a notification to the coordinator when a task is marked as
      * "Finished". The notification informs the coordinator about the completion
@@ -122,7 +134,7 @@ public class OrganizationPageController {
     private void loadAssignedTasks() {
         try {
             // Retrieve the assigned tasks from the database, sorted by priority
-            List<AssignedTask> tasks = DatabaseUtils.getAssignedTasksSortedByPriority();
+            List<AssignedTask> tasks = dataService.getAssignedTasksSortedByPriority();
             taskList = FXCollections.observableArrayList(tasks);
             taskTable.setItems(taskList);
         } catch (SQLException e) {
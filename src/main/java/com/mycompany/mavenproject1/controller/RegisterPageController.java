@@ -1,8 +1,11 @@
 package com.mycompany.mavenproject1.controller;
 
 import com.mycompany.mavenproject1.util.AlertUtils;
-import com.mycompany.mavenproject1.util.DatabaseUtils;
+import com.mycompany.mavenproject1.util.DataService;
+import com.mycompany.mavenproject1.util.ReferenceCatalogue;
 import com.mycompany.mavenproject1.util.LogoutUtils;
+import com.mycompany.mavenproject1.util.ViewLifecycle;
+import com.mycompany.mavenproject1.util.ViewRouter;
 import java.io.IOException;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
@@ -13,11 +16,7 @@ import javafx.scene.control.Alert;
 import java.net.URL;
 import java.util.ResourceBundle;
 import javafx.event.ActionEvent;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
 import javafx.scene.control.ComboBox;
-import javafx.stage.Stage;
 
 /**
  * Controller class responsible for handling the registration page logic. Allows
@@ -26,7 +25,9 @@ import javafx.stage.Stage;
  *
  * @author Bishwas Bhattarai
  */
-public class RegisterPageController implements Initializable {
+public class RegisterPageController implements Initializable, ViewLifecycle {
+
+    private final DataService dataService = DataService.get();  // Database or backend server, see DataService
 
     @FXML
     private TextField usernameField;         // TextField for entering the username
@@ -54,10 +55,24 @@ public class RegisterPageController implements Initializable {
      */
     @Override
     public void initialize(URL url, ResourceBundle resourceBundle) {
-        roleComboBox.getItems().addAll("User", "Coordinator", "Department", "Admin");
+        roleComboBox.getItems().addAll(ReferenceCatalogue.fetch(dataService).names(ReferenceCatalogue.Kind.ROLE));
         roleComboBox.setValue("User"); // Default value
     }
 
+    /**
+     * Clears the form when leaving the (cached) registration page, so the
+     * entered passwords don't stay in memory or reappear on the next visit.
+     */
+    @Override
+    public void onDeactivate() {
+        usernameField.clear();
+        passwordField.clear();
+        reenterPasswordField.clear();
+        emailField.clear();
+        phoneNumberField.clear();
+        roleComboBox.setValue("User");
+    }
+
     /**
      * Handles the registration process when the register button is clicked.
      * Validates user input (password matching, email format, phone number
@@ -93,7 +108,7 @@ public class RegisterPageController implements Initializable {
         }
 
         // Check if the username, email, or phone number already exists in the database
-        if (DatabaseUtils.userExists(username, email, phoneNumber)) {
+        if (dataService.userExists(username, email, phoneNumber)) {
             AlertUtils.showAlert(Alert.AlertType.WARNING, "Registration Error", "Username, email, or phone number already exists!");
             return;
         }
@@ -113,8 +128,12 @@ public class RegisterPageController implements Initializable {
             return;
         }
 
-        // Save the user to the database if no duplicates are found
-        DatabaseUtils.saveUser(username, password, email, phoneNumber, role);
+        // Save the user; the database rejects a duplicate registered since the check above
+        if (dataService.saveUser(username, password, email, phoneNumber, role) == null) {
+            AlertUtils.showAlert(Alert.AlertType.WARNING, "Registration Error",
+                    "Registration failed. The username, email, or phone number may have just been taken; please try again.");
+            return;
+        }
         AlertUtils.showAlert(Alert.AlertType.INFORMATION, "Registration Success", "User registered successfully!");
 
         // Load the login page after successful registration
@@ -149,13 +168,7 @@ public class RegisterPageController implements Initializable {
      */
     private void loadLoginPage() {
         try {
-            // Load the LoginPage.fxml
-            Parent root = FXMLLoader.load(getClass().getResource("/com/mycompany/mavenproject1/view/LoginPage.fxml"));
-
-            // Get the current stage and set the new scene (Login page)
-            Stage stage = (Stage) registerBtn.getScene().getWindow();
-            stage.setScene(new Scene(root));
-            stage.setTitle("Login Page");
+            ViewRouter.navigate(ViewRouter.View.LOGIN);
         } catch (IOException e) {
             e.printStackTrace();
         }
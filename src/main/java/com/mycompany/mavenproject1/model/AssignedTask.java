@@ -1,5 +1,7 @@
 package com.mycompany.mavenproject1.model;
 
+import java.time.LocalDateTime;
+
 /**
  * Model class representing an assigned task related to a disaster. Stores
  * details such as disaster ID, disaster type, location, department, task
@@ -9,6 +11,14 @@ package com.mycompany.mavenproject1.model;
  */
 public class AssignedTask {
 
+    /** Statuses a department can set on a task. */
+    public static final String[] STATUSES = {"Still in Process", "Finished"};
+    /** Built-in departments, seeded into the departments table; see ReferenceCatalogue. */
+    public static final String[] DEPARTMENTS = {"Evacuation Department", "Search and Rescue team", "Public Health Services",
+        "Damage Assessment", "Infrastructure Restoration", "Debris Removal", "Fire Department", "Water Supply Department",
+        "Hospital", "Medical Team"};
+
+    private int id;                  // Unique ID of the task, 0 if not loaded
     private int disasterId;          // ID of the disaster associated with the task
     private String disasterType;     // Type of disaster (e.g., Hurricane, Fire)
     private String location;         // Location of the disaster
@@ -16,6 +26,8 @@ public class AssignedTask {
     private String taskDescription;  // Description of the assigned task
     private String priority;         // Priority of the task (e.g., High, Medium, Low)
     private String status;           // Status of the task (e.g., Still in Process, Finished)
+    private int version;             // Row version when loaded, for detecting concurrent edits
+    private LocalDateTime escalatedAt;  // When the SLA monitor flagged it overdue, null if it never was
 
     /**
      * Constructs an AssignedTask object with the given details.
@@ -38,6 +50,35 @@ public class AssignedTask {
         this.status = status;  // Initialize the status
     }
 
+    /**
+     * Constructs an AssignedTask object loaded from the database, including
+     * its ID and row version.
+     *
+     * @param id the unique ID of the task
+     * @param disasterId the ID of the disaster
+     * @param disasterType the type of disaster (e.g., Hurricane, Fire)
+     * @param location the location of the disaster
+     * @param department the department responsible for the task
+     * @param taskDescription a description of the assigned task
+     * @param priority the priority level of the task (e.g., High, Medium, Low)
+     * @param status the status of the task (e.g., Still in Process, Finished)
+     * @param version the row version when the task was loaded
+     */
+    public AssignedTask(int id, int disasterId, String disasterType, String location, String department, String taskDescription, String priority, String status, int version) {
+        this(disasterId, disasterType, location, department, taskDescription, priority, status);
+        this.id = id;
+        this.version = version;
+    }
+
+    /**
+     * Returns the unique ID of the task.
+     *
+     * @return the task ID, or 0 if not loaded from the database
+     */
+    public int getId() {
+        return id;
+    }
+
     /**
      * Returns the ID of the disaster associated with the task.
      *
@@ -109,4 +150,40 @@ public class AssignedTask {
     public void setStatus(String status) {
         this.status = status;
     }
+
+    /**
+     * Returns the row version the task had when it was loaded.
+     *
+     * @return the row version
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Sets the row version, after this client saved a change.
+     *
+     * @param version the new row version
+     */
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
+    /**
+     * Returns when the task was escalated for missing its deadline.
+     *
+     * @return the escalation time, or null if the task is not overdue
+     */
+    public LocalDateTime getEscalatedAt() {
+        return escalatedAt;
+    }
+
+    /**
+     * Sets when the task was escalated, after loading.
+     *
+     * @param escalatedAt the escalation time, or null
+     */
+    public void setEscalatedAt(LocalDateTime escalatedAt) {
+        this.escalatedAt = escalatedAt;
+    }
 }
@@ -0,0 +1,114 @@
+package com.mycompany.mavenproject1.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Model class representing a photo or video attached to a disaster report.
+ * The file itself lives in the content-addressed attachment store; this
+ * object only holds its SHA-256 hash and metadata.
+ *
+ * @author Bishwas Bhattarai
+ */
+public class Attachment {
+
+    private final int id;                    // Unique ID of the attachment
+    private final int reportId;              // ID of the disaster report it belongs to
+    private final String contentHash;        // SHA-256 of the file content, hex encoded
+    private final String fileName;           // Original file name, for display
+    private final String mediaType;          // MIME type, e.g. image/jpeg
+    private final long sizeBytes;            // File size in bytes
+    private final LocalDateTime createdAt;   // Time the attachment was added
+
+    /**
+     * Constructs an Attachment object with the given details.
+     *
+     * @param id the unique ID of the attachment
+     * @param reportId the ID of the disaster report
+     * @param contentHash the SHA-256 hash of the content
+     * @param fileName the original file name
+     * @param mediaType the MIME type
+     * @param sizeBytes the file size in bytes
+     * @param createdAt the time the attachment was added
+     */
+    public Attachment(int id, int reportId, String contentHash, String fileName, String mediaType, long sizeBytes, LocalDateTime createdAt) {
+        this.id = id;
+        this.reportId = reportId;
+        this.contentHash = contentHash;
+        this.fileName = fileName;
+        this.mediaType = mediaType;
+        this.sizeBytes = sizeBytes;
+        this.createdAt = createdAt;
+    }
+
+    /**
+     * Returns the unique ID of the attachment.
+     *
+     * @return the attachment ID
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Returns the ID of the disaster report the attachment belongs to.
+     *
+     * @return the report ID
+     */
+    public int getReportId() {
+        return reportId;
+    }
+
+    /**
+     * Returns the SHA-256 hash that names the file in the attachment store.
+     *
+     * @return the hex encoded hash
+     */
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    /**
+     * Returns the original file name.
+     *
+     * @return the file name
+     */
+    public String getFileName() {
+        return fileName;
+    }
+
+    /**
+     * Returns the MIME type of the file.
+     *
+     * @return the media type
+     */
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Returns the size of the file.
+     *
+     * @return the size in bytes
+     */
+    public long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    /**
+     * Returns the time the attachment was added.
+     *
+     * @return the creation time
+     */
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * Returns whether the attachment is a photo.
+     *
+     * @return true for image media types
+     */
+    public boolean isImage() {
+        return mediaType != null && mediaType.startsWith("image/");
+    }
+}
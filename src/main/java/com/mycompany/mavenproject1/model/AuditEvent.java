@@ -0,0 +1,171 @@
+package com.mycompany.mavenproject1.model;
+
+import java.time.Instant;
+
+/**
+ * Model class representing one entry of the audit log: who did what to which
+ * record, when, and from which client address. Entries are stored one per
+ * line, with tab-separated fields; see {@link #toLine()}.
+ *
+ * @author Bishwas Bhattarai
+ */
+public class AuditEvent {
+
+    private final Instant time;     // When the change was made
+    private final String actor;     // User who made it, or "system"
+    private final String action;    // What was done, e.g. PRIORITY_CHANGED
+    private final String target;    // Record affected, e.g. report:42
+    private final String detail;    // Old and new values, free text
+    private final String origin;    // Client address of the backend request, empty for local changes
+
+    /**
+     * Constructs an AuditEvent object with the given details.
+     *
+     * @param time when the change was made
+     * @param actor the user who made it
+     * @param action what was done
+     * @param target the record affected
+     * @param detail old and new values
+     */
+    public AuditEvent(Instant time, String actor, String action, String target, String detail) {
+        this(time, actor, action, target, detail, "");
+    }
+
+    /**
+     * Constructs an AuditEvent object for a change requested over the
+     * backend server.
+     *
+     * @param time when the change was made
+     * @param actor the user who made it
+     * @param action what was done
+     * @param target the record affected
+     * @param detail old and new values
+     * @param origin the client address, or empty
+     */
+    public AuditEvent(Instant time, String actor, String action, String target, String detail, String origin) {
+        this.time = time;
+        this.actor = actor;
+        this.action = action;
+        this.target = target;
+        this.detail = detail;
+        this.origin = origin == null ? "" : origin;
+    }
+
+    /**
+     * Returns when the change was made.
+     *
+     * @return the event time
+     */
+    public Instant getTime() {
+        return time;
+    }
+
+    /**
+     * Returns the user who made the change.
+     *
+     * @return the actor
+     */
+    public String getActor() {
+        return actor;
+    }
+
+    /**
+     * Returns what was done.
+     *
+     * @return the action
+     */
+    public String getAction() {
+        return action;
+    }
+
+    /**
+     * Returns the record affected.
+     *
+     * @return the target
+     */
+    public String getTarget() {
+        return target;
+    }
+
+    /**
+     * Returns the old and new values.
+     *
+     * @return the detail text
+     */
+    public String getDetail() {
+        return detail;
+    }
+
+    /**
+     * Returns the client address the change was requested from.
+     *
+     * @return the address, or empty for changes made locally
+     */
+    public String getOrigin() {
+        return origin;
+    }
+
+    /**
+     * Encodes the event as one log line (without the line break): epoch
+     * milliseconds, actor, action, target, detail and origin separated by
+     * tabs, with backslash, tab and line breaks escaped.
+     *
+     * @return the encoded line
+     */
+    public String toLine() {
+        return time.toEpochMilli() + "\t" + escape(actor) + "\t" + escape(action) + "\t" + escape(target) + "\t" + escape(detail)
+                + "\t" + escape(origin);
+    }
+
+    /**
+     * Decodes a line written by {@link #toLine()}, or an older line without
+     * the origin.
+     *
+     * @param line the encoded line
+     * @return the event
+     * @throws IllegalArgumentException if the line is malformed
+     */
+    public static AuditEvent fromLine(String line) {
+        String[] fields = line.split("\t", -1);
+        if (fields.length != 5 && fields.length != 6) {
+            throw new IllegalArgumentException("Malformed audit line: " + line);
+        }
+        try {
+            return new AuditEvent(Instant.ofEpochMilli(Long.parseLong(fields[0])),
+                    unescape(fields[1]), unescape(fields[2]), unescape(fields[3]), unescape(fields[4]),
+                    fields.length == 6 ? unescape(fields[5]) : "");
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed audit line: " + line, e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return time + " " + actor + (origin.isEmpty() ? "" : " from " + origin) + " " + action + " " + target
+                + (detail.isEmpty() ? "" : " (" + detail + ")");
+    }
+
+    private static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n").replace("\r", "\\r");
+    }
+
+    private static String unescape(String value) {
+        if (value.indexOf('\\') < 0) {
+            return value;
+        }
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char next = value.charAt(++i);
+                sb.append(next == 't' ? '\t' : next == 'n' ? '\n' : next == 'r' ? '\r' : next);
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
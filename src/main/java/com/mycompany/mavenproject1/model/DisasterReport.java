@@ -1,6 +1,5 @@
 package com.mycompany.mavenproject1.model;
 
-import javafx.scene.control.ComboBox;
 import java.time.LocalDateTime;
 
 /**
@@ -12,14 +11,22 @@ import java.time.LocalDateTime;
  */
 public class DisasterReport {
 
+    /** Built-in disaster types, seeded into the disaster_types table; see ReferenceCatalogue. */
+    public static final String[] DISASTER_TYPES = {"Hurricane", "Fire", "Earthquake", "Landslide", "Flood"};
+
+    /** Priority levels a coordinator can choose from, highest first. */
+    public static final String[] PRIORITY_LEVELS = {"Very High", "High", "Medium", "Low", "Very Low"};
+
     private int id;                     // Unique ID of the disaster report
     private String username;             // Username of the person who reported the disaster
     private String disasterType;         // Type of disaster (e.g., Hurricane, Fire)
     private String location;             // Location of the disaster
     private String severity;             // Severity level of the disaster
     private String description;          // Description of the disaster
-    private ComboBox<String> priorityDropdown; // ComboBox to select the priority of the disaster
+    private String priority;             // Priority level of the disaster, null until a coordinator sets it
     private LocalDateTime reportTime;    // Time when the report was created
+    private int version;                 // Row version when loaded, for detecting concurrent edits
+    private LocalDateTime updatedAt;     // Database time of the last change, null if unknown
 
     /**
      * Constructs a DisasterReport object with the given details.
@@ -41,9 +48,7 @@ public class DisasterReport {
         this.location = location;
         this.severity = severity;
         this.description = description;
-        this.priorityDropdown = new ComboBox<>();
-        this.priorityDropdown.getItems().addAll("Very High", "High", "Medium", "Low", "Very Low");
-        this.priorityDropdown.setValue(priority);
+        this.priority = priority;
         this.reportTime = reportTime;
     }
 
@@ -102,12 +107,22 @@ public class DisasterReport {
     }
 
     /**
-     * Returns the ComboBox used to select the priority level of the disaster.
+     * Returns the priority level of the disaster.
+     *
+     * @return the priority level, or null if none has been set
+     */
+    public String getPriority() {
+        return priority;
+    }
+
+    /**
+     * Sets the priority level of the disaster (e.g., when a coordinator picks
+     * one in the table). The change is saved by the coordinator page.
      *
-     * @return the priority ComboBox
+     * @param priority the new priority level
      */
-    public ComboBox<String> getPriorityDropdown() {
-        return priorityDropdown;
+    public void setPriority(String priority) {
+        this.priority = priority;
     }
 
     /**
@@ -118,4 +133,41 @@ public class DisasterReport {
     public LocalDateTime getReportTime() {
         return reportTime;
     }
+
+    /**
+     * Returns the row version the report had when it was loaded.
+     *
+     * @return the row version
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Sets the row version, after loading or after this client saved a
+     * change.
+     *
+     * @param version the new row version
+     */
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
+    /**
+     * Returns when the report was last changed, by the database's clock.
+     *
+     * @return the last change time, or null if unknown
+     */
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    /**
+     * Sets when the report was last changed, after loading.
+     *
+     * @param updatedAt the last change time
+     */
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
 }
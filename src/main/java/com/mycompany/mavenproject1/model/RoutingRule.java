@@ -0,0 +1,105 @@
+package com.mycompany.mavenproject1.model;
+
+/**
+ * Model class representing a routing rule: reports of a disaster type within
+ * a severity range get a task for a department as soon as a coordinator
+ * gives them a priority. Rules are immutable.
+ *
+ * @author Bishwas Bhattarai
+ */
+public class RoutingRule {
+
+    /** Disaster type of a rule that applies to every type. */
+    public static final String ANY_TYPE = "*";
+
+    private final String disasterType;     // Disaster type matched, or ANY_TYPE
+    private final int minSeverity;         // Lowest severity matched, inclusive
+    private final int maxSeverity;         // Highest severity matched, inclusive
+    private final String department;       // Department the task is assigned to
+    private final String taskDescription;  // Description of the created task
+
+    /**
+     * Constructs a routing rule.
+     *
+     * @param disasterType the disaster type matched, or {@link #ANY_TYPE}.
+     * @param minSeverity the lowest severity matched, inclusive.
+     * @param maxSeverity the highest severity matched, inclusive.
+     * @param department the department the task is assigned to.
+     * @param taskDescription the description of the created task.
+     * @throws IllegalArgumentException if a value is missing or the range is
+     * empty.
+     */
+    public RoutingRule(String disasterType, int minSeverity, int maxSeverity, String department, String taskDescription) {
+        if (disasterType == null || disasterType.trim().isEmpty()) {
+            throw new IllegalArgumentException("Disaster type cannot be empty");
+        }
+        if (department == null || department.trim().isEmpty()) {
+            throw new IllegalArgumentException("Department cannot be empty");
+        }
+        if (minSeverity > maxSeverity) {
+            throw new IllegalArgumentException("Severity range " + minSeverity + "-" + maxSeverity + " is empty");
+        }
+        this.disasterType = disasterType.trim();
+        this.minSeverity = minSeverity;
+        this.maxSeverity = maxSeverity;
+        this.department = department.trim();
+        this.taskDescription = taskDescription == null ? "" : taskDescription.trim();
+    }
+
+    /**
+     * Gets the disaster type matched.
+     *
+     * @return the disaster type, or {@link #ANY_TYPE}.
+     */
+    public String getDisasterType() {
+        return disasterType;
+    }
+
+    /**
+     * Gets the lowest severity matched.
+     *
+     * @return the minimum severity, inclusive.
+     */
+    public int getMinSeverity() {
+        return minSeverity;
+    }
+
+    /**
+     * Gets the highest severity matched.
+     *
+     * @return the maximum severity, inclusive.
+     */
+    public int getMaxSeverity() {
+        return maxSeverity;
+    }
+
+    /**
+     * Gets the department the task is assigned to.
+     *
+     * @return the department.
+     */
+    public String getDepartment() {
+        return department;
+    }
+
+    /**
+     * Gets the description of the created task.
+     *
+     * @return the task description.
+     */
+    public String getTaskDescription() {
+        return taskDescription;
+    }
+
+    /**
+     * Returns whether the rule matches a report.
+     *
+     * @param type the disaster type of the report.
+     * @param severity the severity of the report.
+     * @return true if the type and severity match.
+     */
+    public boolean matches(String type, int severity) {
+        return (ANY_TYPE.equals(disasterType) || disasterType.equals(type))
+                && severity >= minSeverity && severity <= maxSeverity;
+    }
+}
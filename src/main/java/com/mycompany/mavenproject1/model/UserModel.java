@@ -9,6 +9,9 @@ package com.mycompany.mavenproject1.model;
  */
 public class UserModel {
 
+    /** Roles a user can register with; seeded into the user_roles table, see ReferenceCatalogue. */
+    public static final String[] ROLES = {"User", "Coordinator", "Department", "Admin"};
+
     private String username;    // Username of the user
     private String password;    // Password of the user
     private String role;        // Role of the user (e.g., User, Coordinator, Department)
@@ -0,0 +1,130 @@
+package com.mycompany.mavenproject1.server;
+
+import com.mycompany.mavenproject1.util.ModelJson;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A parsed API request: the query string parameters, for POST/PUT the JSON
+ * body, and the authenticated caller.
+ *
+ * @author Bishwas Bhattarai
+ */
+public class ApiRequest {
+
+    private final Map<String, String> query;  // Decoded query string parameters
+    private final Map<String, Object> body;   // Parsed JSON body, empty for GET/DELETE
+    private final SessionTokens.Identity caller; // Logged-in user, null for public routes called without a session
+
+    /**
+     * Creates a request.
+     *
+     * @param query the decoded query string parameters.
+     * @param body the parsed JSON body.
+     * @param caller the authenticated caller, or null.
+     */
+    public ApiRequest(Map<String, String> query, Map<String, Object> body, SessionTokens.Identity caller) {
+        this.query = Collections.unmodifiableMap(query);
+        this.body = Collections.unmodifiableMap(body);
+        this.caller = caller;
+    }
+
+    /**
+     * Returns the user who sent the request.
+     *
+     * @return the caller, or null if the request carried no session.
+     */
+    public SessionTokens.Identity getCaller() {
+        return caller;
+    }
+
+    /**
+     * Returns whether the caller is logged in with the given role.
+     *
+     * @param role the role name.
+     * @return true if the request has a session with that role.
+     */
+    public boolean callerHasRole(String role) {
+        return caller != null && role.equals(caller.getRole());
+    }
+
+    /**
+     * Returns all query string parameters.
+     *
+     * @return the parameters.
+     */
+    public Map<String, String> getQuery() {
+        return query;
+    }
+
+    /**
+     * Returns a query string parameter.
+     *
+     * @param name the parameter name.
+     * @return the value, or null if absent.
+     */
+    public String query(String name) {
+        return query.get(name);
+    }
+
+    /**
+     * Returns a required string field of the body.
+     *
+     * @param name the field name.
+     * @return the value.
+     * @throws IllegalArgumentException if the field is missing.
+     */
+    public String string(String name) {
+        String value = ModelJson.string(body, name);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing field " + name);
+        }
+        return value;
+    }
+
+    /**
+     * Returns an optional string field of the body.
+     *
+     * @param name the field name.
+     * @return the value, or null if missing.
+     */
+    public String optionalString(String name) {
+        return ModelJson.string(body, name);
+    }
+
+    /**
+     * Returns a required integer field of the body.
+     *
+     * @param name the field name.
+     * @return the value.
+     * @throws IllegalArgumentException if the field is missing or not a number.
+     */
+    public int integer(String name) {
+        return ModelJson.integer(body, name);
+    }
+
+    /**
+     * Returns a required field of the body holding an array of strings.
+     *
+     * @param name the field name.
+     * @return the values.
+     * @throws IllegalArgumentException if the field is missing or not an
+     * array of strings.
+     */
+    public List<String> strings(String name) {
+        Object value = body.get(name);
+        if (!(value instanceof List)) {
+            throw new IllegalArgumentException("Missing array field " + name);
+        }
+        List<String> values = new ArrayList<>();
+        for (Object item : (List<?>) value) {
+            if (!(item instanceof String)) {
+                throw new IllegalArgumentException("Field " + name + " must hold strings");
+            }
+            values.add((String) item);
+        }
+        return values;
+    }
+}
@@ -0,0 +1,579 @@
+package com.mycompany.mavenproject1.server;
+
+import com.mycompany.mavenproject1.model.AssignedTask;
+import com.mycompany.mavenproject1.model.Attachment;
+import com.mycompany.mavenproject1.model.DisasterReport;
+import com.mycompany.mavenproject1.model.UserModel;
+import com.mycompany.mavenproject1.util.AnalyticsStore;
+import com.mycompany.mavenproject1.util.AttachmentStore;
+import com.mycompany.mavenproject1.util.DataCallRecorder;
+import com.mycompany.mavenproject1.util.DataService;
+import com.mycompany.mavenproject1.util.DatabaseUtils;
+import com.mycompany.mavenproject1.util.FlightRecording;
+import com.mycompany.mavenproject1.util.Json;
+import com.mycompany.mavenproject1.util.LocalDataService;
+import com.mycompany.mavenproject1.util.ModelJson;
+import com.mycompany.mavenproject1.util.RateLimitExceededException;
+import com.mycompany.mavenproject1.util.ReferenceCatalogue;
+import com.mycompany.mavenproject1.util.ReportArchiver;
+import com.mycompany.mavenproject1.util.ReportQuery;
+import com.mycompany.mavenproject1.util.Session;
+import com.mycompany.mavenproject1.util.SlaMonitor;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Headless backend service exposing the data operations over HTTP/JSON. It
+ * owns the only database connection pool and a shared response cache, so
+ * database load grows with the number of server instances rather than the
+ * number of desktop clients. Point a client at it with
+ * {@code -Ddrs.server.url=http://host:port} (see
+ * {@link com.mycompany.mavenproject1.util.DataService}).
+ *
+ * <p>Apart from logging in, registering and resetting a forgotten password,
+ * every route needs the bearer token issued at login (see
+ * {@link SessionTokens}); the caller's username and role come from that
+ * session, and routes that change users, priorities, tasks or the archive
+ * are limited to the roles that use them.
+ *
+ * <p>Configuration (system properties): {@code drs.server.host} (127.0.0.1,
+ * the interface to listen on), {@code drs.server.port} (8085),
+ * {@code drs.server.threads} (8 per core), {@code drs.server.dbPoolSize} (20),
+ * {@code drs.server.cacheMillis} (2000), {@code drs.server.sessionMinutes}
+ * (480, idle time before a login expires), plus the {@code drs.db.*} properties
+ * read by DatabaseUtils and {@code drs.jfr.*} (see
+ * {@link com.mycompany.mavenproject1.util.FlightRecording}).
+ *
+ * @author Bishwas Bhattarai
+ */
+public class BackendServer {
+
+    /**
+     * Handles one API route.
+     */
+    @FunctionalInterface
+    interface Route {
+
+        /**
+         * Handles a request.
+         *
+         * @param request the parsed request.
+         * @return the value to send back as JSON, or null for 204 No Content.
+         * @throws Exception on failure; IllegalArgumentException becomes 400.
+         */
+        Object handle(ApiRequest request) throws Exception;
+    }
+
+    private static final String ADMIN = "Admin";
+    private static final String COORDINATOR = "Coordinator";
+    private static final String DEPARTMENT = "Department";
+    // Roles that may attach files to reports they did not submit
+    private static final Set<String> ATTACHMENT_STAFF = Set.of(ADMIN, COORDINATOR, DEPARTMENT);
+
+    // Routes that may be called without logging in
+    private static final Set<String> PUBLIC_ROUTES = Set.of("GET /api/health", "POST /api/login", "POST /api/users",
+            "GET /api/users/exists", "GET /api/users/registered", "PUT /api/users/password", "GET /api/reference");
+    // Roles allowed on restricted routes besides Admin, who may call every route; other routes need any login
+    private static final Map<String, Set<String>> ROUTE_ROLES = Map.ofEntries(
+            Map.entry("GET /api/users", Set.of()),
+            Map.entry("PUT /api/users/role", Set.of()),
+            Map.entry("DELETE /api/users", Set.of()),
+            Map.entry("POST /api/archive", Set.of()),
+            Map.entry("POST /api/reference", Set.of()),
+            Map.entry("GET /api/archive/reports", Set.of(COORDINATOR)),
+            Map.entry("GET /api/archive/tasks", Set.of(COORDINATOR)),
+            Map.entry("GET /api/reports", Set.of(COORDINATOR)),
+            Map.entry("PUT /api/reports/priority", Set.of(COORDINATOR)),
+            Map.entry("POST /api/tasks", Set.of(COORDINATOR)),
+            Map.entry("POST /api/tasks/batch", Set.of(COORDINATOR)),
+            Map.entry("GET /api/tasks", Set.of(COORDINATOR, DEPARTMENT)),
+            Map.entry("PUT /api/tasks/status", Set.of(COORDINATOR, DEPARTMENT)),
+            Map.entry("GET /api/workload", Set.of(COORDINATOR)),
+            Map.entry("GET /api/dashboard", Set.of(COORDINATOR)),
+            Map.entry("GET /api/analytics/severity", Set.of(COORDINATOR)),
+            Map.entry("GET /api/analytics/tasks", Set.of(COORDINATOR)));
+    // Routes about the user named by the username parameter: open to that user, else as in ROUTE_ROLES.
+    // Every access check is made here, before the response cache, because cached GET responses are keyed
+    // by URL only and would otherwise be served to callers a check inside the route never saw.
+    private static final Map<String, Set<String>> SELF_ROUTES = Map.of(
+            "GET /api/users/role", Set.of(),
+            "GET /api/tasks/finished", Set.of(COORDINATOR));
+
+    private final DataService data = DataCallRecorder.wrap(new LocalDataService(), DatabaseUtils.getUrl());
+    private final Map<String, Route> routes = new HashMap<>();  // Keyed by "METHOD /path"
+    private final SessionTokens sessions;
+    private final ResponseCache cache;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    /**
+     * The caller is not allowed to use a route; answered with 403.
+     */
+    static class ForbiddenException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        ForbiddenException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Creates a server; call {@link #start()} to accept requests.
+     *
+     * @param host the address of the interface to listen on, e.g. 127.0.0.1,
+     * or 0.0.0.0 for all interfaces.
+     * @param port the port to listen on, 0 for any free port.
+     * @param threads the number of request handler threads.
+     * @param cacheMillis how long GET responses are cached.
+     * @param sessionMillis how long a login stays valid without requests.
+     * @throws IOException if the port cannot be bound.
+     */
+    public BackendServer(String host, int port, int threads, long cacheMillis, long sessionMillis) throws IOException {
+        this(host, port, threads, cacheMillis, new SessionTokens(sessionMillis));
+    }
+
+    /**
+     * Creates a server that checks logins against the given sessions, e.g.
+     * to issue sessions without a database in tests.
+     *
+     * @param host the address of the interface to listen on.
+     * @param port the port to listen on, 0 for any free port.
+     * @param threads the number of request handler threads.
+     * @param cacheMillis how long GET responses are cached.
+     * @param sessions the session store.
+     * @throws IOException if the port cannot be bound.
+     */
+    public BackendServer(String host, int port, int threads, long cacheMillis, SessionTokens sessions) throws IOException {
+        this.cache = new ResponseCache(cacheMillis);
+        this.sessions = sessions;
+        registerRoutes();
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "api-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.server = HttpServer.create(new InetSocketAddress(host, port), 1024);
+        this.server.createContext("/api/", this::handle);
+        this.server.createContext("/api/attachments", this::handleAttachment);
+        this.server.setExecutor(executor);
+    }
+
+    /**
+     * Starts accepting requests.
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stops accepting requests and waits up to the given delay for requests in
+     * progress to finish.
+     *
+     * @param delaySeconds the maximum time to wait.
+     */
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.shutdown();
+    }
+
+    /**
+     * Returns the address the server is listening on.
+     *
+     * @return the bound address and port.
+     */
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    /**
+     * Returns the port the server is listening on.
+     *
+     * @return the bound port.
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private void registerRoutes() {
+        routes.put("GET /api/health", request -> Map.of("status", "ok", "schemaVersion", DatabaseUtils.SCHEMA_VERSION));
+
+        // Users
+        routes.put("POST /api/login", request -> {
+            String username = request.string("username");
+            boolean valid = data.isValidLogin(username, request.string("password"));
+            String role = valid ? data.getUserRole(username) : null;
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("valid", valid);
+            result.put("role", role);
+            result.put("token", valid ? sessions.issue(username, role) : null);
+            return result;
+        });
+        routes.put("POST /api/logout", request -> {
+            sessions.revoke(request.getCaller());
+            return null;
+        });
+        routes.put("GET /api/users", request -> data.fetchAllUsers().stream()
+                .map(ModelJson::toJson).collect(Collectors.toList()));
+        routes.put("POST /api/users", request -> {
+            String role = request.optionalString("role");
+            if (ADMIN.equals(role) && !request.callerHasRole(ADMIN)) {
+                throw new ForbiddenException("Only an administrator can register another administrator");
+            }
+            // No content when the user is already registered
+            UserModel user = data.saveUser(request.string("username"), request.string("password"), request.string("email"),
+                    request.optionalString("phoneNumber"), role);
+            return user == null ? null : ModelJson.toJson(user);
+        });
+        routes.put("GET /api/users/role", request -> Collections.singletonMap("role",
+                data.getUserRole(request.query("username"))));  // Own role or Admin, see SELF_ROUTES
+        routes.put("GET /api/users/exists", request -> Map.of("exists",
+                data.userExists(request.query("username"), request.query("email"), request.query("phoneNumber"))));
+        routes.put("GET /api/users/registered", request -> Map.of("registered",
+                data.isEmailAndPhoneRegistered(request.query("email"), request.query("phoneNumber"))));
+        routes.put("PUT /api/users/password", request -> Map.of("reset",
+                data.resetPassword(request.string("email"), request.string("phoneNumber"), request.string("password"))));
+        routes.put("PUT /api/users/role", request -> {
+            String username = request.string("username");
+            data.updateUserRole(username, request.string("role"));
+            sessions.revokeUser(username);  // The new role applies from the next login
+            return null;
+        });
+        routes.put("DELETE /api/users", request -> {
+            String username = requireQuery(request, "username");
+            data.deleteUser(username);
+            sessions.revokeUser(username);
+            return null;
+        });
+
+        // Disaster reports
+        routes.put("GET /api/reports", request -> toJsonReports(request.getQuery().isEmpty()
+                ? data.getAllDisasterReports()
+                : data.findDisasterReports(ReportQuery.fromCriteria(request.getQuery()))));
+        routes.put("POST /api/reports", request -> {
+            // Reports are always filed under the logged-in user, whatever the body says
+            DisasterReport report = data.saveDisasterReport(request.getCaller().getUsername(), request.string("disasterType"),
+                    request.string("location"), request.integer("severity"), request.string("description"));
+            return ModelJson.toJson(report);
+        });
+        routes.put("GET /api/reports/attachments", request -> data.getAttachments(Integer.parseInt(requireQuery(request, "reportId")))
+                .stream().map(ModelJson::toJson).collect(Collectors.toList()));
+        routes.put("PUT /api/reports/priority", request -> {
+            // With expectedVersion the update is conditional and reports whether it was applied
+            if (request.optionalString("expectedVersion") != null) {
+                return Map.of("updated", data.updateDisasterPriorityIfUnchanged(request.integer("id"),
+                        request.optionalString("priority"), request.integer("expectedVersion")));
+            }
+            data.updateDisasterPriority(request.integer("id"), request.optionalString("priority"));
+            return null;
+        });
+
+        // Assigned tasks
+        routes.put("GET /api/tasks", request -> toJsonTasks(data.getAssignedTasksSortedByPriority()));
+        routes.put("POST /api/tasks", request -> ModelJson.toJson(data.saveAssignedTask(request.integer("disasterId"),
+                request.string("department"), request.optionalString("taskDescription"))));
+        routes.put("GET /api/workload", request -> data.getDepartmentWorkload());
+        routes.put("GET /api/dashboard", request -> ModelJson.toJson(data.getDashboard()));
+        routes.put("GET /api/analytics/severity", request -> ModelJson.toJsonCounts(data.getSeverityDistribution(
+                AnalyticsStore.Dimension.valueOf(request.query("by") == null ? "TYPE" : request.query("by")), request.query("type"))));
+        routes.put("GET /api/analytics/tasks", request -> ModelJson.toJsonCounts(data.getTaskCompletion()));
+        routes.put("GET /api/reference", request -> ModelJson.toJson(data.getReferenceCatalogue()));
+        routes.put("POST /api/reference", request -> ModelJson.toJson(data.addReferenceName(
+                ReferenceCatalogue.Kind.valueOf(request.string("kind")), request.string("name"))));
+        routes.put("POST /api/tasks/batch", request -> toJsonTasks(data.assignTaskToDepartments(request.integer("disasterId"),
+                request.strings("departments"), request.optionalString("taskDescription"))));
+        routes.put("PUT /api/tasks/status", request -> {
+            if (request.optionalString("expectedVersion") != null) {
+                return Map.of("updated", data.updateTaskStatusIfUnchanged(request.integer("id"),
+                        request.string("status"), request.integer("expectedVersion")));
+            }
+            data.updateTaskStatus(request.integer("disasterId"), request.string("status"));
+            return null;
+        });
+        routes.put("GET /api/tasks/finished", request -> {
+            // Everyone's tasks need a coordinator, see SELF_ROUTES
+            String username = request.query("username");
+            return toJsonTasks(username == null ? data.getAllFinishedTasks() : data.getFinishedTasksForUser(username));
+        });
+
+        // Archive of closed incidents
+        routes.put("POST /api/archive", request -> Map.of("archived", data.archiveClosedReports()));
+        routes.put("GET /api/archive/reports", request -> toJsonReports(
+                data.findArchivedDisasterReports(ReportQuery.fromCriteria(request.getQuery()))));
+        routes.put("GET /api/archive/tasks", request -> toJsonTasks(
+                data.getArchivedTasks(Integer.parseInt(requireQuery(request, "reportId")))));
+    }
+
+    private static String requireQuery(ApiRequest request, String name) {
+        String value = request.query(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing parameter " + name);
+        }
+        return value;
+    }
+
+    /**
+     * Checks that the caller may use a route.
+     *
+     * @param route the route key, "METHOD /path".
+     * @param query the query parameters of the request.
+     * @param caller the authenticated caller, or null.
+     * @return null if allowed, else the HTTP status to answer with (401 or 403).
+     */
+    static Integer checkAccess(String route, Map<String, String> query, SessionTokens.Identity caller) {
+        if (caller == null) {
+            return PUBLIC_ROUTES.contains(route) ? null : 401;
+        }
+        Set<String> roles = SELF_ROUTES.get(route);
+        if (roles != null) {
+            if (caller.getUsername().equals(query.get("username"))) {
+                return null;
+            }
+        } else {
+            roles = ROUTE_ROLES.get(route);
+        }
+        if (roles == null || ADMIN.equals(caller.getRole()) || roles.contains(caller.getRole())) {
+            return null;
+        }
+        return 403;
+    }
+
+    private static List<Map<String, Object>> toJsonReports(List<DisasterReport> reports) {
+        return reports.stream().map(ModelJson::toJson).collect(Collectors.toList());
+    }
+
+    private static List<Map<String, Object>> toJsonTasks(List<AssignedTask> tasks) {
+        return tasks.stream().map(ModelJson::toJson).collect(Collectors.toList());
+    }
+
+    // Dispatches one exchange to its route and writes the JSON response
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String method = exchange.getRequestMethod();
+            String path = exchange.getRequestURI().getPath();
+            String rawQuery = exchange.getRequestURI().getRawQuery();
+            Route route = routes.get(method + " " + path);
+            if (route == null) {
+                send(exchange, 404, error("Not found: " + method + " " + path));
+                return;
+            }
+            SessionTokens.Identity caller = sessions.resolve(exchange.getRequestHeaders().getFirst("Authorization"));
+            Map<String, String> query = parseQuery(rawQuery);
+            Integer denied = checkAccess(method + " " + path, query, caller);
+            if (denied != null) {
+                send(exchange, denied, error(denied == 401 ? "Login required" : "Not allowed for role " + caller.getRole()));
+                return;
+            }
+
+            boolean isRead = "GET".equals(method);
+            String cacheKey = rawQuery == null ? path : path + "?" + rawQuery;
+            if (isRead) {
+                byte[] cached = cache.get(cacheKey);
+                if (cached != null) {
+                    send(exchange, 200, cached);
+                    return;
+                }
+            }
+
+            Map<String, Object> body = readBody(exchange);
+            Session.setRequestUser(caller == null ? null : caller.getUsername());
+            Session.setRequestAddress(exchange.getRemoteAddress().getAddress().getHostAddress());
+            Object result = route.handle(new ApiRequest(query, body, caller));
+            if (isRead) {
+                byte[] response = Json.write(result).getBytes(StandardCharsets.UTF_8);
+                cache.put(cacheKey, response);
+                send(exchange, 200, response);
+            } else {
+                cache.clear();
+                if (result == null) {
+                    send(exchange, 204, null);
+                } else {
+                    send(exchange, 200, Json.write(result).getBytes(StandardCharsets.UTF_8));
+                }
+            }
+        } catch (RateLimitExceededException e) {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("error", e.getMessage());
+            result.put("retryAfterMillis", e.getRetryAfterMillis());
+            exchange.getResponseHeaders().set("Retry-After", Long.toString(e.getRetryAfterSeconds()));
+            send(exchange, 429, Json.write(result).getBytes(StandardCharsets.UTF_8));
+        } catch (ForbiddenException e) {
+            send(exchange, 403, error(e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            send(exchange, 400, error(e.getMessage()));
+        } catch (SQLException e) {
+            e.printStackTrace();
+            send(exchange, 500, error("Database error"));
+        } catch (Exception e) {
+            e.printStackTrace();
+            send(exchange, 500, error("Internal error"));
+        } finally {
+            Session.clearRequestUser();
+            exchange.close();
+        }
+    }
+
+    /**
+     * Streams attachment content: POST ?reportId=&fileName= stores the raw
+     * request body and records it (only for the reporter or staff), GET
+     * ?hash= sends a stored file.
+     */
+    private void handleAttachment(HttpExchange exchange) throws IOException {
+        try {
+            SessionTokens.Identity caller = sessions.resolve(exchange.getRequestHeaders().getFirst("Authorization"));
+            if (caller == null) {
+                send(exchange, 401, error("Login required"));
+                return;
+            }
+            Session.setRequestUser(caller.getUsername());
+            Session.setRequestAddress(exchange.getRemoteAddress().getAddress().getHostAddress());
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            AttachmentStore store = AttachmentStore.getDefault();
+            if ("POST".equals(exchange.getRequestMethod())) {
+                String fileName = query.get("fileName");
+                if (fileName == null || query.get("reportId") == null) {
+                    throw new IllegalArgumentException("reportId and fileName are required");
+                }
+                int reportId = Integer.parseInt(query.get("reportId"));
+                // Checked before the body is read, so a refused upload never reaches the store
+                String owner = DatabaseUtils.getReportOwner(reportId);
+                if (owner == null) {
+                    throw new IllegalArgumentException("No such disaster report: " + reportId);
+                }
+                if (!owner.equals(caller.getUsername()) && !ATTACHMENT_STAFF.contains(caller.getRole())) {
+                    send(exchange, 403, error("Only the reporter or staff can attach files to report " + reportId));
+                    return;
+                }
+                Attachment attachment;
+                try (InputStream in = exchange.getRequestBody()) {
+                    attachment = data.addAttachment(reportId, fileName, Channels.newChannel(in));
+                }
+                cache.clear();
+                send(exchange, 200, Json.write(ModelJson.toJson(attachment)).getBytes(StandardCharsets.UTF_8));
+            } else if ("GET".equals(exchange.getRequestMethod())) {
+                String hash = query.get("hash");
+                if (hash == null || !store.contains(hash)) {
+                    send(exchange, 404, error("No such attachment"));
+                    return;
+                }
+                exchange.getResponseHeaders().set("Content-Type", "application/octet-stream");
+                // Content never changes for a hash, so clients and proxies may keep it
+                exchange.getResponseHeaders().set("Cache-Control", "public, max-age=31536000, immutable");
+                exchange.sendResponseHeaders(200, store.size(hash));
+                try (OutputStream out = exchange.getResponseBody(); WritableByteChannel channel = Channels.newChannel(out)) {
+                    store.transferTo(hash, channel);
+                }
+            } else {
+                send(exchange, 405, error("Method not allowed"));
+            }
+        } catch (IllegalArgumentException e) {
+            send(exchange, 400, error(e.getMessage()));
+        } catch (SQLException e) {
+            e.printStackTrace();
+            send(exchange, 500, error("Database error"));
+        } catch (IOException e) {
+            e.printStackTrace();
+            // A failed download can't be answered once its headers are out
+            if (exchange.getResponseCode() == -1) {
+                send(exchange, 500, error("Attachment could not be stored"));
+            }
+        } finally {
+            Session.clearRequestUser();
+            exchange.close();
+        }
+    }
+
+    private static Map<String, Object> readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            String text = new String(in.readAllBytes(), StandardCharsets.UTF_8).trim();
+            return text.isEmpty() ? Collections.emptyMap() : Json.parseObject(text);
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new LinkedHashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            query.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return query;
+    }
+
+    private static byte[] error(String message) {
+        return Json.write(Collections.singletonMap("error", message)).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+        if (body == null) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    /**
+     * Starts the backend server: checks the schema, enables the connection
+     * pool, schedules the archival of closed incidents (unless
+     * {@code drs.archive.scheduled} is false), starts the SLA monitor (unless
+     * {@code drs.sla.enabled} is false) and listens until the process is
+     * stopped.
+     *
+     * @param args unused; configuration comes from system properties.
+     * @throws IOException if the port cannot be bound.
+     */
+    public static void main(String[] args) throws IOException {
+        String host = System.getProperty("drs.server.host", "127.0.0.1");
+        int port = Integer.getInteger("drs.server.port", 8085);
+        int threads = Integer.getInteger("drs.server.threads", Runtime.getRuntime().availableProcessors() * 8);
+        int poolSize = Integer.getInteger("drs.server.dbPoolSize", 20);
+        long cacheMillis = Long.getLong("drs.server.cacheMillis", 2000L);
+        long sessionMillis = TimeUnit.MINUTES.toMillis(Long.getLong("drs.server.sessionMinutes", 480L));
+
+        FlightRecording.startIfConfigured();
+        DatabaseUtils.ensureSchema();
+        DatabaseUtils.enableConnectionPool(poolSize);
+        if (Boolean.parseBoolean(System.getProperty("drs.archive.scheduled", "true"))) {
+            ReportArchiver.scheduleArchival();
+        }
+        if (SlaMonitor.isEnabled()) {
+            SlaMonitor.start();
+        }
+
+        BackendServer backend = new BackendServer(host, port, threads, cacheMillis, sessionMillis);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> backend.stop(2)));
+        backend.start();
+        System.out.println("Backend listening on " + backend.getAddress()
+                + " (" + threads + " threads, " + poolSize + " database connections)");
+    }
+}
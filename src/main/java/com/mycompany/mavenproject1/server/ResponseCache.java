@@ -0,0 +1,78 @@
+package com.mycompany.mavenproject1.server;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Short-lived cache of serialised GET responses, shared by every client of
+ * the backend server. Entries expire after a fixed time and the whole cache is
+ * cleared by any successful write, so a client always sees its own changes.
+ * Concurrent identical reads that miss still each go to the database; the
+ * expiry keeps that window small.
+ *
+ * @author Bishwas Bhattarai
+ */
+public class ResponseCache {
+
+    private static final int MAX_ENTRIES = 10_000;  // Cleared wholesale beyond this, keeps memory bounded
+
+    private final long ttlMillis;  // How long an entry stays valid
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private static class Entry {
+        final byte[] body;
+        final long expiresAt;
+
+        Entry(byte[] body, long expiresAt) {
+            this.body = body;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * Creates a cache.
+     *
+     * @param ttlMillis how long a response may be served from the cache.
+     */
+    public ResponseCache(long ttlMillis) {
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * Returns a cached response.
+     *
+     * @param key the request path and query string.
+     * @return the response body, or null if absent or expired.
+     */
+    public byte[] get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt < System.currentTimeMillis()) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.body;
+    }
+
+    /**
+     * Caches a response.
+     *
+     * @param key the request path and query string.
+     * @param body the response body.
+     */
+    public void put(String key, byte[] body) {
+        if (entries.size() >= MAX_ENTRIES) {
+            entries.clear();
+        }
+        entries.put(key, new Entry(body, System.currentTimeMillis() + ttlMillis));
+    }
+
+    /**
+     * Drops every cached response, after data has changed.
+     */
+    public void clear() {
+        entries.clear();
+    }
+}
@@ -0,0 +1,126 @@
+package com.mycompany.mavenproject1.server;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sessions of the users logged in to the backend server. A successful login
+ * issues a random bearer token; every later request sends it in the
+ * {@code Authorization} header and the server takes the caller's username
+ * and role from the session, never from the request itself. A session
+ * expires after a period without requests and is dropped when the user is
+ * deleted or their role changes.
+ *
+ * @author Bishwas Bhattarai
+ */
+public class SessionTokens {
+
+    /** Authorization scheme of the tokens. */
+    public static final String BEARER = "Bearer ";
+
+    private static final int TOKEN_BYTES = 32;         // 256 random bits per token
+    private static final int MAX_SESSIONS = 100_000;   // Expired sessions are purged beyond this
+
+    private final long idleMillis;  // Session lifetime without requests
+    private final SecureRandom random = new SecureRandom();
+    private final Map<String, Identity> sessions = new ConcurrentHashMap<>(); // By token
+
+    /**
+     * The authenticated caller of a request.
+     */
+    public static final class Identity {
+
+        private final String username;
+        private final String role;
+        private volatile long expiresAt;  // Extended by each request
+
+        private Identity(String username, String role, long expiresAt) {
+            this.username = username;
+            this.role = role;
+            this.expiresAt = expiresAt;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public String getRole() {
+            return role;
+        }
+    }
+
+    /**
+     * Creates a session store.
+     *
+     * @param idleMillis how long a session stays valid without requests.
+     */
+    public SessionTokens(long idleMillis) {
+        if (idleMillis <= 0) {
+            throw new IllegalArgumentException("Session lifetime must be greater than 0");
+        }
+        this.idleMillis = idleMillis;
+    }
+
+    /**
+     * Starts a session for a user who has just logged in.
+     *
+     * @param username the user.
+     * @param role the user's role.
+     * @return the bearer token of the session.
+     */
+    public String issue(String username, String role) {
+        if (sessions.size() >= MAX_SESSIONS) {
+            long now = System.currentTimeMillis();
+            sessions.values().removeIf(identity -> identity.expiresAt < now);
+        }
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        sessions.put(token, new Identity(username, role, System.currentTimeMillis() + idleMillis));
+        return token;
+    }
+
+    /**
+     * Looks up the session of a request and extends it.
+     *
+     * @param authorization the request's Authorization header, may be null.
+     * @return the caller, or null if the header names no live session.
+     */
+    public Identity resolve(String authorization) {
+        if (authorization == null || !authorization.startsWith(BEARER)) {
+            return null;
+        }
+        String token = authorization.substring(BEARER.length()).trim();
+        Identity identity = sessions.get(token);
+        if (identity == null) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        if (identity.expiresAt < now) {
+            sessions.remove(token, identity);
+            return null;
+        }
+        identity.expiresAt = now + idleMillis;
+        return identity;
+    }
+
+    /**
+     * Ends a session, e.g. on logout.
+     *
+     * @param identity the caller whose session ends.
+     */
+    public void revoke(Identity identity) {
+        sessions.values().remove(identity);
+    }
+
+    /**
+     * Ends every session of a user, e.g. after their role changed.
+     *
+     * @param username the user.
+     */
+    public void revokeUser(String username) {
+        sessions.values().removeIf(identity -> identity.username.equals(username));
+    }
+}
@@ -0,0 +1,396 @@
+package com.mycompany.mavenproject1.util;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * In-memory column store of the report attributes the coordinator's
+ * severity distributions need, by disaster type, location or priority. Task
+ * completion is not kept here; it comes from the open and finished task
+ * counters of {@link DashboardRollups}. Each attribute is a primitive
+ * array with one entry per row, and the strings (type, location, priority)
+ * are dictionary-encoded as int codes, so a million reports take
+ * a few tens of megabytes and an aggregation is a tight loop over a few
+ * arrays. Aggregations are split into ranges of {@value #LEAF_ROWS} rows
+ * counted in parallel on the common fork/join pool and the partial counts
+ * are added up.
+ *
+ * <p>The default store is loaded from disaster_reports on first use and kept
+ * up to date by the write paths in {@link DatabaseUtils} and
+ * {@link ReportArchiver}; removed rows are only marked dead until the next
+ * load. It is reloaded when older than {@code drs.analytics.refreshMinutes}
+ * (5), which picks up changes made by other processes. A reload builds the
+ * new store while the current one keeps serving; writes that arrive
+ * meanwhile go to both, so none is lost by the swap.
+ *
+ * @author Bishwas Bhattarai
+ */
+public class AnalyticsStore {
+
+    /**
+     * Report attributes a severity distribution can be grouped by.
+     */
+    public enum Dimension {
+        TYPE, LOCATION, PRIORITY
+    }
+
+    /** Highest severity counted separately; higher values are counted as this. */
+    public static final int MAX_SEVERITY = RoutingRules.MAX_SEVERITY;
+
+    static final int LEAF_ROWS = 1 << 16;  // Rows counted by one fork/join leaf
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final Object RELOAD = new Object();    // Held by the one thread reloading the default store
+
+    private static volatile AnalyticsStore defaultStore;  // Null until loaded; replaced under the class lock
+    private static volatile long loadedAt;                // System.nanoTime() of the last load
+    private static List<Consumer<AnalyticsStore>> pendingWrites;  // Writes during a reload; guarded by the class lock
+
+    /**
+     * Maps strings to dense int codes and back.
+     */
+    private static final class Dictionary {
+
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        int encode(String value) {
+            Integer code = codes.get(value);
+            if (code == null) {
+                code = values.size();
+                codes.put(value, code);
+                values.add(value);
+            }
+            return code;
+        }
+
+        int find(String value) {
+            return codes.getOrDefault(value, -1);
+        }
+
+        String decode(int code) {
+            return values.get(code);
+        }
+
+        int size() {
+            return values.size();
+        }
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();  // Writers exclude running aggregations
+    private final Dictionary types = new Dictionary();
+    private final Dictionary locations = new Dictionary();
+    private final Dictionary priorities = new Dictionary();
+
+    // Report columns; rows [0, sortedReports) are in id order, later rows were appended by id
+    private int reportCount;
+    private int sortedReports;
+    private int[] reportIds = new int[INITIAL_CAPACITY];
+    private int[] reportType = new int[INITIAL_CAPACITY];
+    private int[] reportLocation = new int[INITIAL_CAPACITY];
+    private int[] reportPriority = new int[INITIAL_CAPACITY];
+    private byte[] reportSeverity = new byte[INITIAL_CAPACITY];
+    private byte[] reportLive = new byte[INITIAL_CAPACITY];  // 1 unless removed
+    private final Map<Integer, Integer> appendedReports = new HashMap<>();  // Row by id, for appended rows
+
+    /**
+     * Loads a store from the database.
+     *
+     * @param conn a connection to the application database.
+     * @return the loaded store.
+     * @throws SQLException if a database access error occurs.
+     */
+    public static AnalyticsStore load(Connection conn) throws SQLException {
+        AnalyticsStore store = new AnalyticsStore();
+        try (Statement stmt = conn.createStatement()) {
+            stmt.setFetchSize(10_000);
+            try (ResultSet rs = stmt.executeQuery(
+                    "SELECT id, disaster_type_id, location, severity, priority FROM disaster_reports ORDER BY id")) {
+                while (rs.next()) {
+                    store.addReport(rs.getInt(1), ReferenceCatalogue.nameOf(ReferenceCatalogue.Kind.DISASTER_TYPE, rs.getInt(2)),
+                            rs.getString(3), rs.getInt(4), rs.getString(5));
+                }
+            }
+        }
+        return store;
+    }
+
+    /**
+     * Returns the shared store, loading it if it is missing or older than
+     * {@code drs.analytics.refreshMinutes}.
+     *
+     * @return the store.
+     * @throws SQLException if the store had to be loaded and could not be.
+     */
+    public static AnalyticsStore getDefault() throws SQLException {
+        AnalyticsStore store = defaultStore;
+        if (store != null && !isStale()) {
+            return store;
+        }
+        synchronized (RELOAD) {
+            if (defaultStore != null && !isStale()) {
+                return defaultStore;  // Reloaded by another thread meanwhile
+            }
+            synchronized (AnalyticsStore.class) {
+                pendingWrites = new ArrayList<>();
+            }
+            AnalyticsStore fresh;
+            try (Connection conn = DatabaseUtils.getConnection()) {
+                fresh = load(conn);
+            } catch (SQLException | RuntimeException e) {
+                synchronized (AnalyticsStore.class) {
+                    pendingWrites = null;  // The current store has them already
+                }
+                throw e;
+            }
+            synchronized (AnalyticsStore.class) {
+                // The load may have seen some of these already; every write is idempotent
+                pendingWrites.forEach(write -> write.accept(fresh));
+                pendingWrites = null;
+                defaultStore = fresh;
+                loadedAt = System.nanoTime();
+            }
+            return fresh;
+        }
+    }
+
+    private static boolean isStale() {
+        long maxAge = TimeUnit.MINUTES.toNanos(Long.getLong("drs.analytics.refreshMinutes", 5));
+        return System.nanoTime() - loadedAt > maxAge;
+    }
+
+    // Applies a write to the default store, and to the store being loaded if a reload is running
+    private static void apply(Consumer<AnalyticsStore> write) {
+        AnalyticsStore store;
+        synchronized (AnalyticsStore.class) {
+            if (pendingWrites != null) {
+                pendingWrites.add(write);
+            }
+            store = defaultStore;
+        }
+        if (store != null) {
+            write.accept(store);
+        }
+    }
+
+    /**
+     * Adds a newly saved report to the default store, if it is loaded.
+     *
+     * @param id the ID of the report.
+     * @param disasterType the type of the disaster.
+     * @param location the location of the disaster.
+     * @param severity the severity of the disaster.
+     */
+    public static void reportAdded(int id, String disasterType, String location, int severity) {
+        apply(store -> store.addReport(id, disasterType, location, severity, null));
+    }
+
+    /**
+     * Records a report's new priority in the default store, if it is loaded.
+     *
+     * @param id the ID of the report.
+     * @param priority the new priority, or null.
+     */
+    public static void priorityChanged(int id, String priority) {
+        apply(store -> store.setPriority(id, priority));
+    }
+
+    /**
+     * Removes reports from the default store, if it is loaded.
+     *
+     * @param reportIds the IDs of the removed reports.
+     */
+    public static void reportsRemoved(Collection<Integer> reportIds) {
+        List<Integer> ids = List.copyOf(reportIds);
+        apply(store -> store.removeReports(ids));
+    }
+
+    /**
+     * Adds a report row. A report already in the store is left as it is.
+     *
+     * @param id the ID of the report.
+     * @param disasterType the type of the disaster.
+     * @param location the location of the disaster.
+     * @param severity the severity, counted as 1 to {@link #MAX_SEVERITY}.
+     * @param priority the priority, or null.
+     */
+    public void addReport(int id, String disasterType, String location, int severity, String priority) {
+        lock.writeLock().lock();
+        try {
+            if (findRow(reportIds, sortedReports, appendedReports, id) >= 0) {
+                return;  // Already loaded
+            }
+            if (reportCount == reportIds.length) {
+                int capacity = reportCount * 2;
+                reportIds = Arrays.copyOf(reportIds, capacity);
+                reportType = Arrays.copyOf(reportType, capacity);
+                reportLocation = Arrays.copyOf(reportLocation, capacity);
+                reportPriority = Arrays.copyOf(reportPriority, capacity);
+                reportSeverity = Arrays.copyOf(reportSeverity, capacity);
+                reportLive = Arrays.copyOf(reportLive, capacity);
+            }
+            int row = reportCount++;
+            reportIds[row] = id;
+            reportType[row] = types.encode(disasterType);
+            reportLocation[row] = locations.encode(location);
+            reportPriority[row] = priorities.encode(priorityKey(priority));
+            reportSeverity[row] = (byte) Math.max(1, Math.min(MAX_SEVERITY, severity));
+            reportLive[row] = 1;
+            if (row == sortedReports && (row == 0 || reportIds[row - 1] < id)) {
+                sortedReports++;  // Still in id order, found by binary search
+            } else {
+                appendedReports.put(id, row);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Changes a report's priority. Unknown reports are ignored.
+     *
+     * @param id the ID of the report.
+     * @param priority the new priority, or null.
+     */
+    public void setPriority(int id, String priority) {
+        lock.writeLock().lock();
+        try {
+            int row = findRow(reportIds, sortedReports, appendedReports, id);
+            if (row >= 0) {
+                reportPriority[row] = priorities.encode(priorityKey(priority));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Marks reports removed.
+     *
+     * @param ids the IDs of the reports.
+     */
+    public void removeReports(Collection<Integer> ids) {
+        lock.writeLock().lock();
+        try {
+            for (int id : ids) {
+                int row = findRow(reportIds, sortedReports, appendedReports, id);
+                if (row >= 0) {
+                    reportLive[row] = 0;
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Counts live reports by severity, grouped by a report attribute.
+     *
+     * @param by the attribute to group by.
+     * @param disasterType only count reports of this type; null for all.
+     * @return for each group value, the number of reports of severity 1 to
+     * {@link #MAX_SEVERITY} at index severity - 1; groups without reports are
+     * missing. Reports without a priority are grouped under
+     * {@link DashboardRollups#NO_PRIORITY}.
+     */
+    public Map<String, long[]> severityBy(Dimension by, String disasterType) {
+        lock.readLock().lock();
+        try {
+            int typeCode = disasterType == null ? -1 : types.find(disasterType);
+            if (disasterType != null && typeCode < 0) {
+                return new TreeMap<>();
+            }
+            Dictionary dictionary = by == Dimension.TYPE ? types : by == Dimension.LOCATION ? locations : priorities;
+            int[] groups = by == Dimension.TYPE ? reportType : by == Dimension.LOCATION ? reportLocation : reportPriority;
+            long[] counts = ForkJoinPool.commonPool().invoke(new SeverityCount(groups, dictionary.size(),
+                    reportType, typeCode, reportSeverity, reportLive, 0, reportCount));
+            Map<String, long[]> result = new TreeMap<>();
+            for (int group = 0; group < dictionary.size(); group++) {
+                long[] bySeverity = Arrays.copyOfRange(counts, group * MAX_SEVERITY, (group + 1) * MAX_SEVERITY);
+                if (Arrays.stream(bySeverity).anyMatch(count -> count > 0)) {
+                    result.put(dictionary.decode(group), bySeverity);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Row of an id: binary search over the sorted prefix, else the appended rows
+    private static int findRow(int[] ids, int sorted, Map<Integer, Integer> appended, int id) {
+        int row = Arrays.binarySearch(ids, 0, sorted, id);
+        return row >= 0 ? row : appended.getOrDefault(id, -1);
+    }
+
+    private static String priorityKey(String priority) {
+        return priority == null ? DashboardRollups.NO_PRIORITY : priority;
+    }
+
+    /**
+     * Severity histogram per group over a range of report rows.
+     */
+    private static final class SeverityCount extends RecursiveTask<long[]> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int[] groups;
+        private final int groupCount;
+        private final int[] type;
+        private final int typeCode;  // -1 for any type
+        private final byte[] severity;
+        private final byte[] live;
+        private final int from;
+        private final int to;
+
+        SeverityCount(int[] groups, int groupCount, int[] type, int typeCode, byte[] severity, byte[] live, int from, int to) {
+            this.groups = groups;
+            this.groupCount = groupCount;
+            this.type = type;
+            this.typeCode = typeCode;
+            this.severity = severity;
+            this.live = live;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (to - from > LEAF_ROWS) {
+                int middle = (from + to) >>> 1;
+                SeverityCount left = new SeverityCount(groups, groupCount, type, typeCode, severity, live, from, middle);
+                left.fork();
+                long[] counts = new SeverityCount(groups, groupCount, type, typeCode, severity, live, middle, to).compute();
+                return add(counts, left.join());
+            }
+            long[] counts = new long[groupCount * MAX_SEVERITY];
+            for (int row = from; row < to; row++) {
+                if (live[row] != 0 && (typeCode < 0 || type[row] == typeCode)) {
+                    counts[groups[row] * MAX_SEVERITY + severity[row] - 1]++;
+                }
+            }
+            return counts;
+        }
+    }
+
+    private static long[] add(long[] into, long[] other) {
+        for (int i = 0; i < into.length; i++) {
+            into[i] += other[i];
+        }
+        return into;
+    }
+}
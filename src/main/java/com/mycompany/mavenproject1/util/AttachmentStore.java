@@ -0,0 +1,283 @@
+package com.mycompany.mavenproject1.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Local content-addressed file store for report attachments. Each file is
+ * named by the SHA-256 of its content (fanned out into 256 subdirectories),
+ * so identical uploads are stored once and a stored file never changes.
+ * Reads and writes go through NIO channels; copies use
+ * {@link FileChannel#transferTo} so the kernel moves the bytes without
+ * passing them through the Java heap.
+ *
+ * <p>The default store lives in {@code ~/.drs/attachments}; override it with
+ * the {@code drs.attachments.dir} system property. Files are not removed when
+ * a report is deleted, since other reports may share them; only a file whose
+ * attachment failed to be recorded is removed again.
+ *
+ * @author Bishwas Bhattarai
+ */
+public class AttachmentStore {
+
+    /** Largest file accepted, in bytes. */
+    public static final long MAX_SIZE = 50L * 1024 * 1024;
+
+    private static final int BUFFER_SIZE = 64 * 1024;  // Direct buffer used while hashing
+    private static final Map<String, String> MEDIA_TYPES = Map.of(
+            "jpg", "image/jpeg", "jpeg", "image/jpeg", "png", "image/png", "gif", "image/gif", "bmp", "image/bmp",
+            "mp4", "video/mp4", "mov", "video/quicktime", "avi", "video/x-msvideo", "m4v", "video/mp4");
+
+    private static AttachmentStore defaultStore;  // Created on first use
+
+    private final Path root;  // Store directory
+
+    /**
+     * Creates a store in the given directory, which is created if needed.
+     *
+     * @param root the store directory.
+     */
+    public AttachmentStore(Path root) {
+        this.root = root;
+    }
+
+    /**
+     * Returns the store configured by {@code drs.attachments.dir}.
+     *
+     * @return the shared store.
+     */
+    public static synchronized AttachmentStore getDefault() {
+        if (defaultStore == null) {
+            String dir = System.getProperty("drs.attachments.dir");
+            Path root = dir != null ? Paths.get(dir) : Paths.get(System.getProperty("user.home"), ".drs", "attachments");
+            defaultStore = new AttachmentStore(root);
+        }
+        return defaultStore;
+    }
+
+    /**
+     * Returns the media type for a photo or video file name.
+     *
+     * @param fileName the file name.
+     * @return the MIME type.
+     * @throws IllegalArgumentException if the file is not a supported photo
+     * or video.
+     */
+    public static String mediaTypeOf(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        String type = dot < 0 ? null : MEDIA_TYPES.get(fileName.substring(dot + 1).toLowerCase(Locale.ROOT));
+        if (type == null) {
+            throw new IllegalArgumentException("Only photos and videos can be attached: " + fileName);
+        }
+        return type;
+    }
+
+    /**
+     * Adds a file to the store. If a file with the same content is already
+     * stored nothing is copied.
+     *
+     * @param source the file to add.
+     * @return the content hash naming the stored file.
+     * @throws IOException if the file cannot be read or stored.
+     * @throws IllegalArgumentException if the file is larger than
+     * {@link #MAX_SIZE}.
+     */
+    public String store(Path source) throws IOException {
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ)) {
+            long size = in.size();
+            checkSize(size);
+            String hash = hash(in);
+            Path target = resolve(hash);
+            if (Files.exists(target)) {
+                return hash;  // Duplicate upload
+            }
+            Path temp = createTempFile();
+            try {
+                try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                    long position = 0;
+                    while (position < size) {
+                        position += in.transferTo(position, size - position, out);
+                    }
+                    out.force(true);
+                }
+                publish(temp, target);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            return hash;
+        }
+    }
+
+    /**
+     * Adds streamed content to the store, hashing it while it is written, for
+     * uploads that don't come from a local file.
+     *
+     * @param source the content.
+     * @return the content hash naming the stored file.
+     * @throws IOException if the content cannot be read or stored.
+     * @throws IllegalArgumentException if the content is larger than
+     * {@link #MAX_SIZE}.
+     */
+    public String store(ReadableByteChannel source) throws IOException {
+        MessageDigest digest = newDigest();
+        Path temp = createTempFile();
+        try {
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+                long size = 0;
+                while (source.read(buffer) >= 0) {
+                    buffer.flip();
+                    size += buffer.remaining();
+                    checkSize(size);
+                    digest.update(buffer.duplicate());
+                    while (buffer.hasRemaining()) {
+                        out.write(buffer);
+                    }
+                    buffer.clear();
+                }
+                out.force(true);
+            }
+            String hash = toHex(digest.digest());
+            Path target = resolve(hash);
+            if (!Files.exists(target)) {
+                publish(temp, target);
+            }
+            return hash;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Returns whether content with the given hash is stored.
+     *
+     * @param hash the content hash.
+     * @return true if the file exists.
+     */
+    public boolean contains(String hash) {
+        return Files.exists(resolve(hash));
+    }
+
+    /**
+     * Returns the path of a stored file. The file must not be modified.
+     *
+     * @param hash the content hash.
+     * @return the file path, which may not exist.
+     * @throws IllegalArgumentException if the hash is not a SHA-256 hex string.
+     */
+    public Path resolve(String hash) {
+        if (hash == null || !hash.matches("[0-9a-f]{64}")) {
+            throw new IllegalArgumentException("Invalid content hash");
+        }
+        return root.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    /**
+     * Copies a stored file to a channel, letting the kernel move the bytes
+     * where the target supports it.
+     *
+     * @param hash the content hash.
+     * @param target the channel to write to.
+     * @return the number of bytes copied.
+     * @throws IOException if the file is missing or cannot be copied.
+     */
+    public long transferTo(String hash, WritableByteChannel target) throws IOException {
+        try (FileChannel in = FileChannel.open(resolve(hash), StandardOpenOption.READ)) {
+            long size = in.size();
+            long position = 0;
+            while (position < size) {
+                position += in.transferTo(position, size - position, target);
+            }
+            return size;
+        }
+    }
+
+    /**
+     * Removes a stored file, e.g. one whose attachment could not be recorded.
+     * The caller must make sure no attachment refers to it.
+     *
+     * @param hash the content hash.
+     * @return true if a file was removed.
+     * @throws IOException if the file cannot be removed.
+     */
+    public boolean delete(String hash) throws IOException {
+        return Files.deleteIfExists(resolve(hash));
+    }
+
+    /**
+     * Returns the size of a stored file.
+     *
+     * @param hash the content hash.
+     * @return the size in bytes.
+     * @throws IOException if the file is missing.
+     */
+    public long size(String hash) throws IOException {
+        return Files.size(resolve(hash));
+    }
+
+    private static void checkSize(long size) {
+        if (size > MAX_SIZE) {
+            throw new IllegalArgumentException("Attachments can be at most " + (MAX_SIZE / (1024 * 1024)) + " MB");
+        }
+    }
+
+    // Hashes the whole channel from position 0 through a reused direct buffer
+    private static String hash(FileChannel in) throws IOException {
+        MessageDigest digest = newDigest();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        long position = 0;
+        int read;
+        while ((read = in.read(buffer, position)) > 0) {
+            position += read;
+            buffer.flip();
+            digest.update(buffer);
+            buffer.clear();
+        }
+        return toHex(digest.digest());
+    }
+
+    private Path createTempFile() throws IOException {
+        Path tempDir = root.resolve("tmp");
+        Files.createDirectories(tempDir);
+        return Files.createTempFile(tempDir, "upload", ".part");
+    }
+
+    // Moves a finished temp file into place; readers never see a partial file
+    private static void publish(Path temp, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 not available", e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,143 @@
+package com.mycompany.mavenproject1.util;
+
+import com.mycompany.mavenproject1.model.Attachment;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import javafx.application.Platform;
+import javafx.geometry.Pos;
+import javafx.scene.Node;
+import javafx.scene.control.Label;
+import javafx.scene.control.Tooltip;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.VBox;
+
+/**
+ * Utility class for showing and uploading report attachments without
+ * blocking the JavaFX thread. File transfers run on a small pool of
+ * background threads; thumbnails are decoded and scaled by JavaFX's
+ * background image loader and kept in a small cache.
+ *
+ * @author Bishwas Bhattarai
+ */
+public class AttachmentViews {
+
+    /** Edge length of a thumbnail, in pixels. */
+    public static final double THUMBNAIL_SIZE = 120;
+
+    private static final int CACHED_THUMBNAILS = 100;  // Least recently used thumbnails are dropped beyond this
+
+    private static final AtomicInteger THREAD_NUMBER = new AtomicInteger();
+    private static final ExecutorService IO = Executors.newFixedThreadPool(2, runnable -> {
+        Thread thread = new Thread(runnable, "attachment-io-" + THREAD_NUMBER.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Thumbnails by content hash; only touched on the JavaFX thread
+    private static final Map<String, Image> THUMBNAILS = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Image> eldest) {
+            return size() > CACHED_THUMBNAILS;
+        }
+    };
+
+    /**
+     * Loads the attachment list of a report in the background.
+     *
+     * @param reportId the ID of the disaster report.
+     * @return a future completed with the attachments.
+     */
+    public static CompletableFuture<List<Attachment>> loadAttachments(int reportId) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return DataService.get().getAttachments(reportId);
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, IO);
+    }
+
+    /**
+     * Uploads files to a report in the background, one after another.
+     *
+     * @param reportId the ID of the disaster report.
+     * @param files the files to attach.
+     * @return a future completed with the names of files that failed, empty
+     * if all were attached.
+     */
+    public static CompletableFuture<List<String>> upload(int reportId, List<Path> files) {
+        List<Path> copy = new ArrayList<>(files);
+        return CompletableFuture.supplyAsync(() -> {
+            List<String> failed = new ArrayList<>();
+            for (Path file : copy) {
+                try {
+                    DataService.get().addAttachment(reportId, file);
+                } catch (Exception e) {
+                    e.printStackTrace();
+                    failed.add(file.getFileName() + " (" + e.getMessage() + ")");
+                }
+            }
+            return failed;
+        }, IO);
+    }
+
+    /**
+     * Creates a tile for an attachment. Photos show a placeholder at once and
+     * their thumbnail when it has been fetched and decoded; videos show their
+     * file name. Must be called on the JavaFX thread.
+     *
+     * @param attachment the attachment.
+     * @return the tile.
+     */
+    public static Node createTile(Attachment attachment) {
+        VBox tile = new VBox(4);
+        tile.setAlignment(Pos.CENTER);
+        tile.setPrefWidth(THUMBNAIL_SIZE);
+        Label caption = new Label(attachment.isImage() ? attachment.getFileName() : "▶ " + attachment.getFileName());
+        caption.setMaxWidth(THUMBNAIL_SIZE);
+        Tooltip.install(tile, new Tooltip(attachment.getFileName() + " (" + (attachment.getSizeBytes() / 1024) + " KB)"));
+
+        if (!attachment.isImage()) {
+            tile.getChildren().add(caption);
+            return tile;
+        }
+
+        ImageView view = new ImageView();
+        view.setFitWidth(THUMBNAIL_SIZE);
+        view.setFitHeight(THUMBNAIL_SIZE);
+        view.setPreserveRatio(true);
+        tile.getChildren().addAll(view, caption);
+
+        Image cached = THUMBNAILS.get(attachment.getContentHash());
+        if (cached != null) {
+            view.setImage(cached);
+            return tile;
+        }
+        // Fetch (download in client mode) off the UI thread, then let JavaFX decode and scale in the background
+        CompletableFuture.supplyAsync(() -> {
+            try {
+                return DataService.get().fetchAttachment(attachment);
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, IO).whenComplete((path, error) -> Platform.runLater(() -> {
+            if (error != null) {
+                caption.setText("Unavailable: " + attachment.getFileName());
+                return;
+            }
+            Image image = THUMBNAILS.computeIfAbsent(attachment.getContentHash(),
+                    hash -> new Image(path.toUri().toString(), THUMBNAIL_SIZE, THUMBNAIL_SIZE, true, true, true));
+            view.setImage(image);
+        }));
+        return tile;
+    }
+}
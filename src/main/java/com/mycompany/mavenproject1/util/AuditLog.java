@@ -0,0 +1,305 @@
+package com.mycompany.mavenproject1.util;
+
+import com.mycompany.mavenproject1.model.AuditEvent;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Append-only audit log of changes made through {@link DatabaseUtils}.
+ * {@link #record} only puts the event into a lock-free {@link RingBuffer}; a
+ * background writer drains the buffer in batches, appends each batch to the
+ * current segment file and forces it to disk once per batch, so callers
+ * never wait for disk or database I/O. When the buffer is full callers wait
+ * briefly for the writer instead of dropping events.
+ *
+ * <p>Segments are named {@code audit-<epoch millis>.log} after the time they
+ * were opened. A new segment is started at each launch and when the current
+ * one exceeds {@code drs.audit.segmentBytes} (8 MB); only the newest
+ * {@code drs.audit.maxSegments} (100) are kept. The default log lives in
+ * {@code ~/.drs/audit} (override with {@code drs.audit.dir}). With
+ * {@code drs.audit.dbSink=true} every batch is also inserted into the
+ * audit_log table. Read the log with {@link AuditLogQuery}.
+ *
+ * @author Bishwas Bhattarai
+ */
+public class AuditLog {
+
+    static final String SEGMENT_PREFIX = "audit-";
+    static final String SEGMENT_SUFFIX = ".log";
+
+    private static final int BUFFER_CAPACITY = 8192;  // Events queued before callers wait
+    private static final int BATCH_SIZE = 512;        // Events per write and fsync
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(20);  // Writer sleep when the buffer is empty
+
+    private static AuditLog defaultLog;  // Created on first use
+
+    private final Path dir;                 // Segment directory
+    private final long segmentBytes;        // Size at which a segment is rotated
+    private final int maxSegments;          // Segments kept; older ones are deleted
+    private final boolean dbSink;           // Also insert batches into audit_log
+    private final RingBuffer<AuditEvent> buffer = new RingBuffer<>(BUFFER_CAPACITY);
+    private final Object writeLock = new Object();  // Serialises the writer thread and flush()
+    private final List<AuditEvent> batch = new ArrayList<>(BATCH_SIZE);  // Reused under writeLock
+    private final Thread writer;
+    private volatile boolean closed;
+
+    private FileChannel segment;   // Open segment, under writeLock
+    private long segmentSize;      // Bytes written to it
+
+    /**
+     * Creates an audit log writing to the given directory and starts its
+     * writer thread.
+     *
+     * @param dir the segment directory, created if needed.
+     * @param segmentBytes the size at which a new segment is started.
+     * @param maxSegments the number of segments kept.
+     * @param dbSink whether batches are also written to the audit_log table.
+     */
+    public AuditLog(Path dir, long segmentBytes, int maxSegments, boolean dbSink) {
+        if (segmentBytes <= 0 || maxSegments <= 0) {
+            throw new IllegalArgumentException("Segment size and count must be greater than 0");
+        }
+        this.dir = dir;
+        this.segmentBytes = segmentBytes;
+        this.maxSegments = maxSegments;
+        this.dbSink = dbSink;
+        this.writer = new Thread(this::runWriter, "audit-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Returns the log configured by the {@code drs.audit.*} system properties.
+     * It is flushed and closed when the JVM exits.
+     *
+     * @return the shared log.
+     */
+    public static synchronized AuditLog getDefault() {
+        if (defaultLog == null) {
+            AuditLog log = new AuditLog(defaultDirectory(),
+                    Long.getLong("drs.audit.segmentBytes", 8L * 1024 * 1024),
+                    Integer.getInteger("drs.audit.maxSegments", 100),
+                    Boolean.getBoolean("drs.audit.dbSink"));
+            Runtime.getRuntime().addShutdownHook(new Thread(log::close, "audit-shutdown"));
+            defaultLog = log;
+        }
+        return defaultLog;
+    }
+
+    /**
+     * Records a change made by the current {@link Session#getActor() actor}.
+     * Returns as soon as the event is queued.
+     *
+     * @param action what was done, e.g. PRIORITY_CHANGED.
+     * @param target the record affected, e.g. report:42.
+     * @param detail old and new values, or null.
+     */
+    public void record(String action, String target, String detail) {
+        record(new AuditEvent(Instant.now(), Session.getActor(), action, target, detail == null ? "" : detail, Session.getOrigin()));
+    }
+
+    /**
+     * Queues an event for writing.
+     *
+     * @param event the event.
+     */
+    public void record(AuditEvent event) {
+        while (!buffer.offer(event)) {
+            if (closed) {
+                flush();  // No writer left to make room
+                continue;
+            }
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(100_000);
+        }
+    }
+
+    /**
+     * Writes every queued event to disk before returning.
+     */
+    public void flush() {
+        while (writeBatch() > 0) {
+            // Keep draining
+        }
+    }
+
+    /**
+     * Stops the writer thread, writes the remaining events and closes the
+     * current segment.
+     */
+    public void close() {
+        closed = true;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (writeLock) {
+            flush();
+            closeSegment();
+        }
+    }
+
+    /**
+     * Returns the segment directory.
+     *
+     * @return the directory path.
+     */
+    public Path getDirectory() {
+        return dir;
+    }
+
+    private void runWriter() {
+        while (!closed) {
+            if (writeBatch() == 0) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    // Drains one batch and appends it; returns the number of events written
+    private int writeBatch() {
+        synchronized (writeLock) {
+            batch.clear();
+            if (buffer.drainTo(batch, BATCH_SIZE) == 0) {
+                return 0;
+            }
+            StringBuilder text = new StringBuilder(batch.size() * 96);
+            for (AuditEvent event : batch) {
+                text.append(event.toLine()).append('\n');
+            }
+            byte[] bytes = text.toString().getBytes(StandardCharsets.UTF_8);
+            try {
+                if (segment == null || segmentSize + bytes.length > segmentBytes) {
+                    rotate();
+                }
+                ByteBuffer data = ByteBuffer.wrap(bytes);
+                while (data.hasRemaining()) {
+                    segment.write(data);
+                }
+                segment.force(false);  // One fsync per batch, not per event
+                segmentSize += bytes.length;
+            } catch (IOException e) {
+                System.out.println("Error writing audit log: " + e.getMessage());
+                e.printStackTrace();
+            }
+            if (dbSink) {
+                insertBatch(batch);
+            }
+            return batch.size();
+        }
+    }
+
+    // Closes the current segment, opens a new one and deletes segments beyond the limit
+    private void rotate() throws IOException {
+        closeSegment();
+        Files.createDirectories(dir);
+        long start = System.currentTimeMillis();
+        Path file = dir.resolve(segmentName(start));
+        while (Files.exists(file)) {
+            file = dir.resolve(segmentName(++start));
+        }
+        segment = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        segmentSize = 0;
+
+        List<Path> segments = listSegments(dir);
+        for (int i = 0; i < segments.size() - maxSegments; i++) {
+            Files.deleteIfExists(segments.get(i));
+        }
+    }
+
+    private void closeSegment() {
+        if (segment != null) {
+            try {
+                segment.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            segment = null;
+        }
+    }
+
+    // The file is the record of truth; a database failure is reported but doesn't lose the batch
+    private static void insertBatch(List<AuditEvent> events) {
+        String sql = "INSERT INTO audit_log (event_time, actor, action, target, detail, origin) VALUES (?, ?, ?, ?, ?, ?)";
+        try (Connection conn = DatabaseUtils.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (AuditEvent event : events) {
+                stmt.setTimestamp(1, Timestamp.from(event.getTime()));
+                stmt.setString(2, event.getActor());
+                stmt.setString(3, event.getAction());
+                stmt.setString(4, event.getTarget());
+                stmt.setString(5, event.getDetail());
+                stmt.setString(6, event.getOrigin().isEmpty() ? null : event.getOrigin());
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        } catch (SQLException e) {
+            System.out.println("Error writing audit events to the database: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    // The directory named by drs.audit.dir, else ~/.drs/audit
+    static Path defaultDirectory() {
+        String configured = System.getProperty("drs.audit.dir");
+        return configured != null ? Paths.get(configured) : Paths.get(System.getProperty("user.home"), ".drs", "audit");
+    }
+
+    static String segmentName(long startMillis) {
+        return SEGMENT_PREFIX + String.format("%013d", startMillis) + SEGMENT_SUFFIX;
+    }
+
+    /**
+     * Returns the opening time encoded in a segment file name.
+     *
+     * @param file the segment file.
+     * @return the epoch milliseconds, or -1 if the file is not a segment.
+     */
+    static long segmentStart(Path file) {
+        String name = file.getFileName().toString();
+        if (!name.startsWith(SEGMENT_PREFIX) || !name.endsWith(SEGMENT_SUFFIX)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Lists the segments in a directory, oldest first.
+     *
+     * @param dir the segment directory.
+     * @return the segment files; empty if the directory doesn't exist.
+     * @throws IOException if the directory cannot be read.
+     */
+    static List<Path> listSegments(Path dir) throws IOException {
+        if (!Files.isDirectory(dir)) {
+            return new ArrayList<>();
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(file -> segmentStart(file) >= 0)
+                    .sorted((a, b) -> Long.compare(segmentStart(a), segmentStart(b)))
+                    .collect(Collectors.toList());
+        }
+    }
+}
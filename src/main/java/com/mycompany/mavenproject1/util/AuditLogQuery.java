@@ -0,0 +1,115 @@
+package com.mycompany.mavenproject1.util;
+
+import com.mycompany.mavenproject1.model.AuditEvent;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads the audit log written by {@link AuditLog} for a time range. Segments
+ * that cannot hold events in the range are skipped by their file names
+ * alone: every event in a segment was recorded before the next segment was
+ * opened, and at most a little before its own segment was opened.
+ *
+ * <p>Run from the command line as
+ * {@code AuditLogQuery <from> <to> [actor] [action]}, with times in ISO
+ * local format such as {@code 2024-05-01T08:00}.
+ *
+ * @author Bishwas Bhattarai
+ */
+public class AuditLogQuery {
+
+    // How long an event may wait in the buffer before it is written, as an upper bound
+    private static final long QUEUE_SLACK_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    /**
+     * Returns the events recorded in a time range, oldest segment first.
+     *
+     * @param dir the segment directory.
+     * @param from the start of the range, inclusive.
+     * @param to the end of the range, exclusive.
+     * @return the matching events.
+     * @throws IOException if a segment cannot be read.
+     */
+    public static List<AuditEvent> scan(Path dir, Instant from, Instant to) throws IOException {
+        return scan(dir, from, to, null, null);
+    }
+
+    /**
+     * Returns the events recorded in a time range by an actor and/or with an
+     * action, oldest segment first.
+     *
+     * @param dir the segment directory.
+     * @param from the start of the range, inclusive.
+     * @param to the end of the range, exclusive.
+     * @param actor the actor to match, or null for any.
+     * @param action the action to match, or null for any.
+     * @return the matching events.
+     * @throws IOException if a segment cannot be read.
+     */
+    public static List<AuditEvent> scan(Path dir, Instant from, Instant to, String actor, String action) throws IOException {
+        long fromMillis = from.toEpochMilli();
+        long toMillis = to.toEpochMilli();
+        List<Path> segments = AuditLog.listSegments(dir);
+        List<AuditEvent> events = new ArrayList<>();
+        for (int i = 0; i < segments.size(); i++) {
+            long start = AuditLog.segmentStart(segments.get(i));
+            if (start - QUEUE_SLACK_MILLIS >= toMillis) {
+                break;  // This and all later segments start after the range
+            }
+            if (i + 1 < segments.size() && AuditLog.segmentStart(segments.get(i + 1)) <= fromMillis) {
+                continue;  // Closed before the range began
+            }
+            readSegment(segments.get(i), fromMillis, toMillis, actor, action, events);
+        }
+        return events;
+    }
+
+    private static void readSegment(Path segment, long fromMillis, long toMillis, String actor, String action,
+            List<AuditEvent> events) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(segment, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                AuditEvent event;
+                try {
+                    event = AuditEvent.fromLine(line);
+                } catch (IllegalArgumentException e) {
+                    continue;  // Torn last line after a crash
+                }
+                long time = event.getTime().toEpochMilli();
+                if (time >= fromMillis && time < toMillis
+                        && (actor == null || actor.equals(event.getActor()))
+                        && (action == null || action.equals(event.getAction()))) {
+                    events.add(event);
+                }
+            }
+        }
+    }
+
+    /**
+     * Prints the events in a time range.
+     *
+     * @param args from, to, and optionally actor and action.
+     * @throws IOException if a segment cannot be read.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Usage: AuditLogQuery <from> <to> [actor] [action]   (times like 2024-05-01T08:00)");
+            return;
+        }
+        ZoneId zone = ZoneId.systemDefault();
+        Instant from = LocalDateTime.parse(args[0]).atZone(zone).toInstant();
+        Instant to = LocalDateTime.parse(args[1]).atZone(zone).toInstant();
+        for (AuditEvent event : scan(AuditLog.defaultDirectory(), from, to, args.length > 2 ? args[2] : null, args.length > 3 ? args[3] : null)) {
+            System.out.println(event);
+        }
+    }
+}
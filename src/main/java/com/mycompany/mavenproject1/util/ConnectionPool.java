@@ -0,0 +1,145 @@
+package com.mycompany.mavenproject1.util;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fixed-size JDBC connection pool. Connections handed out are proxies whose
+ * close() returns the real connection to the pool instead of closing it, so
+ * existing try-with-resources code works unchanged. Callers wait up to the
+ * borrow timeout when every connection is in use.
+ *
+ * @author Bishwas Bhattarai
+ */
+public class ConnectionPool {
+
+    private static final long BORROW_TIMEOUT_SECONDS = 30;  // Wait for a free connection before failing
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2; // isValid() timeout for idle connections
+
+    private final String url;       // JDBC URL
+    private final String user;      // Database user
+    private final String password;  // Database password
+    private final Semaphore permits;  // One permit per connection that may be handed out
+    private final BlockingQueue<Connection> idle = new LinkedBlockingQueue<>();  // Open connections not in use
+
+    /**
+     * Creates a pool; connections are opened lazily on first use.
+     *
+     * @param url the JDBC URL.
+     * @param user the database user.
+     * @param password the database password.
+     * @param size the maximum number of open connections.
+     */
+    public ConnectionPool(String url, String user, String password, int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Pool size must be greater than 0");
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.permits = new Semaphore(size, true);
+    }
+
+    /**
+     * Borrows a connection. Closing it returns it to the pool.
+     *
+     * @return a pooled connection.
+     * @throws SQLException if no connection became free in time or a new one
+     * could not be opened.
+     */
+    public Connection getConnection() throws SQLException {
+        try {
+            if (!permits.tryAcquire(BORROW_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                throw new SQLException("Timed out waiting for a database connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted waiting for a database connection", e);
+        }
+        try {
+            return wrap(takeValidConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Closes every idle connection. Connections in use are closed when they
+     * are returned.
+     */
+    public void shutdown() {
+        Connection conn;
+        while ((conn = idle.poll()) != null) {
+            closeQuietly(conn);
+        }
+    }
+
+    // Reuses an idle connection that is still alive, or opens a new one
+    private Connection takeValidConnection() throws SQLException {
+        Connection conn;
+        while ((conn = idle.poll()) != null) {
+            if (conn.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                return conn;
+            }
+            closeQuietly(conn);
+        }
+        return DriverManager.getConnection(url, user, password);
+    }
+
+    // Puts a connection back, resetting state a borrower may have changed
+    private void release(Connection conn) {
+        try {
+            if (!conn.getAutoCommit()) {
+                conn.rollback();
+                conn.setAutoCommit(true);
+            }
+            idle.offer(conn);
+        } catch (SQLException e) {
+            closeQuietly(conn);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private Connection wrap(Connection conn) {
+        boolean[] closed = {false};
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "close":
+                            if (!closed[0]) {
+                                closed[0] = true;
+                                release(conn);
+                            }
+                            return null;
+                        case "isClosed":
+                            return closed[0] || conn.isClosed();
+                        default:
+                            if (closed[0]) {
+                                throw new SQLException("Connection has been returned to the pool");
+                            }
+                            try {
+                                return method.invoke(conn, args);
+                            } catch (InvocationTargetException e) {
+                                throw e.getCause();
+                            }
+                    }
+                });
+    }
+
+    private static void closeQuietly(Connection conn) {
+        try {
+            conn.close();
+        } catch (SQLException e) {
+            // Already broken; nothing more to do
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.mycompany.mavenproject1.util;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Bloom filter over strings that also supports removal. Each position holds
+ * a small counter instead of a bit, so removing a key decrements what adding
+ * it incremented. {@link #mightContain} never answers false for a key that
+ * was added and not removed; it answers true for an absent key with roughly
+ * the configured false-positive rate.
+ *
+ * <p>Counters saturate at 255 and are then never decremented, which keeps
+ * the no-false-negatives guarantee at the cost of a stuck position. Methods
+ * are synchronized.
+ *
+ * @author Bishwas Bhattarai
+ */
+public class CountingBloomFilter {
+
+    private static final int MAX_COUNT = 0xFF;  // Saturated counters stay put
+
+    private final byte[] counters;   // Unsigned counters, one per position
+    private final int hashCount;     // Positions per key
+
+    /**
+     * Creates a filter sized for the given number of keys and false-positive
+     * rate.
+     *
+     * @param expectedKeys the number of keys expected to be held.
+     * @param falsePositiveRate the acceptable false-positive rate, e.g. 0.01.
+     */
+    public CountingBloomFilter(int expectedKeys, double falsePositiveRate) {
+        if (expectedKeys <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Expected keys must be positive and the rate between 0 and 1");
+        }
+        double ln2 = Math.log(2);
+        int size = (int) Math.min(Integer.MAX_VALUE - 8, Math.ceil(-expectedKeys * Math.log(falsePositiveRate) / (ln2 * ln2)));
+        this.counters = new byte[Math.max(64, size)];
+        this.hashCount = Math.max(1, (int) Math.round((double) counters.length / expectedKeys * ln2));
+    }
+
+    /**
+     * Adds a key.
+     *
+     * @param key the key.
+     */
+    public synchronized void add(String key) {
+        long hash = hash(key);
+        for (int i = 0; i < hashCount; i++) {
+            int index = index(hash, i);
+            int count = counters[index] & 0xFF;
+            if (count < MAX_COUNT) {
+                counters[index] = (byte) (count + 1);
+            }
+        }
+    }
+
+    /**
+     * Removes a key that was added. Removing a key that was never added can
+     * cause false negatives for other keys.
+     *
+     * @param key the key.
+     */
+    public synchronized void remove(String key) {
+        long hash = hash(key);
+        for (int i = 0; i < hashCount; i++) {
+            int index = index(hash, i);
+            int count = counters[index] & 0xFF;
+            if (count > 0 && count < MAX_COUNT) {
+                counters[index] = (byte) (count - 1);
+            }
+        }
+    }
+
+    /**
+     * Returns whether a key may have been added.
+     *
+     * @param key the key.
+     * @return false if the key is definitely absent, true if it may be
+     * present.
+     */
+    public synchronized boolean mightContain(String key) {
+        long hash = hash(key);
+        for (int i = 0; i < hashCount; i++) {
+            if (counters[index(hash, i)] == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of counters.
+     *
+     * @return the filter size.
+     */
+    public int size() {
+        return counters.length;
+    }
+
+    // Position i from the two 32-bit halves of one 64-bit hash (Kirsch-Mitzenmacher double hashing)
+    private int index(long hash, int i) {
+        int combined = (int) hash + i * (int) (hash >>> 32);
+        return (combined & Integer.MAX_VALUE) % counters.length;
+    }
+
+    // 64-bit FNV-1a over the UTF-8 bytes, with a final mix to spread the high bits
+    private static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xFF;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,437 @@
+package com.mycompany.mavenproject1.util;
+
+import com.mycompany.mavenproject1.model.AssignedTask;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Utility class holding live dashboard counts for the coordinator: reports by
+ * type, severity band, priority and hour of day, and open/finished tasks per
+ * department. The write paths in {@link DatabaseUtils} adjust the counters as
+ * rows change, so reading them never touches the database. A background job
+ * rebuilds them from GROUP BY queries every few minutes to correct any drift
+ * (writes from other clients, concurrent updates of the same row). Clients
+ * of the backend server read the server's counters through
+ * {@link DataService#getDashboard()}, since only the server sees every write.
+ *
+ * @author Bishwas Bhattarai
+ */
+public class DashboardRollups {
+
+    /** Priority key for reports a coordinator has not prioritised yet. */
+    public static final String NO_PRIORITY = "None";
+
+    private static final String FINISHED = "Finished";
+    private static final long RECONCILE_MINUTES = 5;  // Interval between full rebuilds
+
+    private static volatile Counters counters = new Counters();  // Swapped as a whole on reconcile
+    private static volatile boolean loaded;                      // True after the first reconcile
+    private static ScheduledExecutorService reconciler;          // Started on first use of the dashboard
+
+    /**
+     * Counters for one generation; reconciliation builds a new one and swaps
+     * it in, so readers never see a half-rebuilt set.
+     */
+    private static class Counters {
+        final Map<String, LongAdder> reportsByType = new ConcurrentHashMap<>();
+        final Map<String, LongAdder> reportsBySeverity = new ConcurrentHashMap<>();
+        final Map<String, LongAdder> reportsByPriority = new ConcurrentHashMap<>();
+        final LongAdder[] reportsByHour = new LongAdder[24];
+        final Map<String, LongAdder> openTasks = new ConcurrentHashMap<>();
+        final Map<String, LongAdder> finishedTasks = new ConcurrentHashMap<>();
+        final Map<String, LongAdder> overdueTasks = new ConcurrentHashMap<>();  // Open and escalated; reconcile only
+
+        Counters() {
+            for (int i = 0; i < reportsByHour.length; i++) {
+                reportsByHour[i] = new LongAdder();
+            }
+        }
+    }
+
+    /**
+     * A copy of every dashboard count taken at one moment, as sent to clients
+     * of the backend server.
+     */
+    public static final class Snapshot {
+
+        private final Map<String, Long> reportsByType;
+        private final Map<String, Long> reportsBySeverityBand;
+        private final Map<String, Long> reportsByPriority;
+        private final long[] reportsByHour;
+        private final Map<String, Long> openTasks;
+        private final Map<String, Long> finishedTasks;
+        private final Map<String, Long> overdueTasks;
+
+        /**
+         * Creates a snapshot.
+         *
+         * @param reportsByType report counts by disaster type.
+         * @param reportsBySeverityBand report counts by severity band.
+         * @param reportsByPriority report counts by priority.
+         * @param reportsByHour 24 report counts by hour of day.
+         * @param openTasks open task counts by department.
+         * @param finishedTasks finished task counts by department.
+         * @param overdueTasks open escalated task counts by department.
+         */
+        public Snapshot(Map<String, Long> reportsByType, Map<String, Long> reportsBySeverityBand,
+                Map<String, Long> reportsByPriority, long[] reportsByHour,
+                Map<String, Long> openTasks, Map<String, Long> finishedTasks, Map<String, Long> overdueTasks) {
+            if (reportsByHour.length != 24) {
+                throw new IllegalArgumentException("Expected 24 hourly counts");
+            }
+            this.reportsByType = Collections.unmodifiableMap(new TreeMap<>(reportsByType));
+            this.reportsBySeverityBand = Collections.unmodifiableMap(new TreeMap<>(reportsBySeverityBand));
+            this.reportsByPriority = Collections.unmodifiableMap(new TreeMap<>(reportsByPriority));
+            this.reportsByHour = reportsByHour.clone();
+            this.openTasks = Collections.unmodifiableMap(new TreeMap<>(openTasks));
+            this.finishedTasks = Collections.unmodifiableMap(new TreeMap<>(finishedTasks));
+            this.overdueTasks = Collections.unmodifiableMap(new TreeMap<>(overdueTasks));
+        }
+
+        public Map<String, Long> getReportsByType() {
+            return reportsByType;
+        }
+
+        public Map<String, Long> getReportsBySeverityBand() {
+            return reportsBySeverityBand;
+        }
+
+        public Map<String, Long> getReportsByPriority() {
+            return reportsByPriority;
+        }
+
+        public long[] getReportsByHour() {
+            return reportsByHour.clone();
+        }
+
+        public Map<String, Long> getOpenTasks() {
+            return openTasks;
+        }
+
+        public Map<String, Long> getFinishedTasks() {
+            return finishedTasks;
+        }
+
+        public Map<String, Long> getOverdueTasks() {
+            return overdueTasks;
+        }
+
+        /**
+         * Returns the open and finished task counts side by side.
+         *
+         * @return for each department, {open, finished}; departments without
+         * tasks are missing.
+         */
+        public Map<String, long[]> getTaskCompletion() {
+            Map<String, long[]> completion = new TreeMap<>();
+            openTasks.forEach((department, open) -> completion.put(department, new long[]{open, 0}));
+            finishedTasks.forEach((department, finished) ->
+                    completion.computeIfAbsent(department, key -> new long[2])[1] = finished);
+            completion.values().removeIf(counts -> counts[0] + counts[1] == 0);
+            return completion;
+        }
+    }
+
+    /**
+     * Returns every count at once, building the counters from the database
+     * first if that hasn't happened yet, and starts the reconciliation job.
+     *
+     * @return the current counts.
+     * @throws SQLException if the counters had to be built and that failed.
+     */
+    public static Snapshot getSnapshot() throws SQLException {
+        start();
+        if (!loaded) {
+            synchronized (DashboardRollups.class) {
+                if (!loaded) {
+                    try (Connection conn = DatabaseUtils.getConnection()) {
+                        reconcile(conn);
+                    }
+                }
+            }
+        }
+        return new Snapshot(getReportsByType(), getReportsBySeverityBand(), getReportsByPriority(), getReportsByHour(),
+                getOpenTasksByDepartment(), getFinishedTasksByDepartment(), getOverdueTasksByDepartment());
+    }
+
+    /**
+     * Starts the reconciliation job if it isn't running yet. The first rebuild
+     * runs straight away.
+     */
+    public static synchronized void start() {
+        if (reconciler != null) {
+            return;
+        }
+        reconciler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "dashboard-reconcile");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reconciler.scheduleWithFixedDelay(() -> {
+            try (Connection conn = DatabaseUtils.getConnection()) {
+                reconcile(conn);
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+        }, 0, RECONCILE_MINUTES, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Returns whether the counters have been built from the database at least
+     * once.
+     *
+     * @return true once the first reconciliation has finished.
+     */
+    public static boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Rebuilds every counter from the database and replaces the current set.
+     *
+     * @param conn a connection to the application database.
+     * @throws SQLException if a database access error occurs.
+     */
+    public static void reconcile(Connection conn) throws SQLException {
+        Counters fresh = new Counters();
+        try (Statement stmt = conn.createStatement()) {
+            try (ResultSet rs = stmt.executeQuery(
+                    "SELECT disaster_type_id, severity, priority, COUNT(*) FROM disaster_reports "
+                    + "GROUP BY disaster_type_id, severity, priority")) {
+                while (rs.next()) {
+                    long count = rs.getLong(4);
+                    counter(fresh.reportsByType, ReferenceCatalogue.nameOf(ReferenceCatalogue.Kind.DISASTER_TYPE, rs.getInt(1))).add(count);
+                    counter(fresh.reportsBySeverity, severityBand(rs.getInt(2))).add(count);
+                    counter(fresh.reportsByPriority, priorityKey(rs.getString(3))).add(count);
+                }
+            }
+            // Grouped by the database, so only 24 rows come back however many reports there are
+            try (ResultSet rs = stmt.executeQuery("SELECT HOUR(report_time), COUNT(*) FROM disaster_reports "
+                    + "WHERE report_time IS NOT NULL GROUP BY HOUR(report_time)")) {
+                while (rs.next()) {
+                    fresh.reportsByHour[rs.getInt(1)].add(rs.getLong(2));
+                }
+            }
+            try (ResultSet rs = stmt.executeQuery(
+                    "SELECT department_id, status, COUNT(*) FROM assigned_tasks GROUP BY department_id, status")) {
+                while (rs.next()) {
+                    counter(taskMap(fresh, rs.getString(2)), ReferenceCatalogue.nameOf(ReferenceCatalogue.Kind.DEPARTMENT, rs.getInt(1)))
+                            .add(rs.getLong(3));
+                }
+            }
+            // Escalations are made by the SLA monitor and counted here only, so they may lag by one interval
+            try (ResultSet rs = stmt.executeQuery("SELECT department_id, COUNT(*) FROM assigned_tasks "
+                    + "WHERE status = '" + AssignedTask.STATUSES[0] + "' AND escalated_at IS NOT NULL GROUP BY department_id")) {
+                while (rs.next()) {
+                    counter(fresh.overdueTasks, ReferenceCatalogue.nameOf(ReferenceCatalogue.Kind.DEPARTMENT, rs.getInt(1))).add(rs.getLong(2));
+                }
+            }
+        }
+        counters = fresh;
+        loaded = true;
+    }
+
+    /**
+     * Counts a newly saved report.
+     *
+     * @param disasterType the type of the disaster.
+     * @param severity the severity of the disaster.
+     * @param reportTime when the report was made.
+     */
+    public static void reportAdded(String disasterType, int severity, Timestamp reportTime) {
+        Counters c = counters;
+        counter(c.reportsByType, disasterType).increment();
+        counter(c.reportsBySeverity, severityBand(severity)).increment();
+        counter(c.reportsByPriority, NO_PRIORITY).increment();
+        c.reportsByHour[reportTime.toLocalDateTime().getHour()].increment();
+    }
+
+    /**
+     * Uncounts a deleted report.
+     *
+     * @param disasterType the type of the disaster.
+     * @param severity the severity of the disaster.
+     * @param priority the report's priority, or null if it had none.
+     * @param reportTime when the report was made, or null if unknown.
+     */
+    public static void reportRemoved(String disasterType, int severity, String priority, Timestamp reportTime) {
+        Counters c = counters;
+        counter(c.reportsByType, disasterType).decrement();
+        counter(c.reportsBySeverity, severityBand(severity)).decrement();
+        counter(c.reportsByPriority, priorityKey(priority)).decrement();
+        if (reportTime != null) {
+            c.reportsByHour[reportTime.toLocalDateTime().getHour()].decrement();
+        }
+    }
+
+    /**
+     * Moves a report from one priority to another.
+     *
+     * @param oldPriority the previous priority, or null if it had none.
+     * @param newPriority the new priority, or null if cleared.
+     */
+    public static void priorityChanged(String oldPriority, String newPriority) {
+        String from = priorityKey(oldPriority);
+        String to = priorityKey(newPriority);
+        if (!from.equals(to)) {
+            Counters c = counters;
+            counter(c.reportsByPriority, from).decrement();
+            counter(c.reportsByPriority, to).increment();
+        }
+    }
+
+    /**
+     * Counts a newly assigned task.
+     *
+     * @param department the department the task was assigned to.
+     * @param status the status of the new task.
+     */
+    public static void taskAdded(String department, String status) {
+        counter(taskMap(counters, status), department).increment();
+    }
+
+    /**
+     * Uncounts a deleted task.
+     *
+     * @param department the department the task was assigned to.
+     * @param status the status of the task when deleted.
+     */
+    public static void taskRemoved(String department, String status) {
+        counter(taskMap(counters, status), department).decrement();
+    }
+
+    /**
+     * Moves a task between open and finished.
+     *
+     * @param department the department the task is assigned to.
+     * @param oldStatus the previous status.
+     * @param newStatus the new status.
+     */
+    public static void taskStatusChanged(String department, String oldStatus, String newStatus) {
+        Counters c = counters;
+        Map<String, LongAdder> from = taskMap(c, oldStatus);
+        Map<String, LongAdder> to = taskMap(c, newStatus);
+        if (from != to) {
+            counter(from, department).decrement();
+            counter(to, department).increment();
+        }
+    }
+
+    /**
+     * Returns report counts by disaster type.
+     *
+     * @return an unmodifiable map sorted by type.
+     */
+    public static Map<String, Long> getReportsByType() {
+        return snapshot(counters.reportsByType);
+    }
+
+    /**
+     * Returns report counts by severity band (Low 1-3, Medium 4-6, High 7+).
+     *
+     * @return an unmodifiable map sorted by band.
+     */
+    public static Map<String, Long> getReportsBySeverityBand() {
+        return snapshot(counters.reportsBySeverity);
+    }
+
+    /**
+     * Returns report counts by priority; unprioritised reports are counted
+     * under {@link #NO_PRIORITY}.
+     *
+     * @return an unmodifiable map sorted by priority.
+     */
+    public static Map<String, Long> getReportsByPriority() {
+        return snapshot(counters.reportsByPriority);
+    }
+
+    /**
+     * Returns the number of reports made in each hour of the day.
+     *
+     * @return 24 counts, index 0 being midnight to 1am.
+     */
+    public static long[] getReportsByHour() {
+        LongAdder[] hours = counters.reportsByHour;
+        long[] result = new long[hours.length];
+        for (int i = 0; i < hours.length; i++) {
+            result[i] = hours[i].sum();
+        }
+        return result;
+    }
+
+    /**
+     * Returns open task counts by department.
+     *
+     * @return an unmodifiable map sorted by department.
+     */
+    public static Map<String, Long> getOpenTasksByDepartment() {
+        return snapshot(counters.openTasks);
+    }
+
+    /**
+     * Returns finished task counts by department.
+     *
+     * @return an unmodifiable map sorted by department.
+     */
+    public static Map<String, Long> getFinishedTasksByDepartment() {
+        return snapshot(counters.finishedTasks);
+    }
+
+    /**
+     * Returns the counts of open tasks the SLA monitor escalated, by
+     * department, as of the last reconciliation.
+     *
+     * @return an unmodifiable map sorted by department.
+     */
+    public static Map<String, Long> getOverdueTasksByDepartment() {
+        return snapshot(counters.overdueTasks);
+    }
+
+    /**
+     * Returns the severity band a severity falls into.
+     *
+     * @param severity the severity of a report.
+     * @return "Low", "Medium" or "High".
+     */
+    public static String severityBand(int severity) {
+        if (severity <= 3) {
+            return "Low";
+        }
+        return severity <= 6 ? "Medium" : "High";
+    }
+
+    private static String priorityKey(String priority) {
+        return priority == null || priority.isEmpty() ? NO_PRIORITY : priority;
+    }
+
+    private static Map<String, LongAdder> taskMap(Counters c, String status) {
+        return FINISHED.equals(status) ? c.finishedTasks : c.openTasks;
+    }
+
+    private static LongAdder counter(Map<String, LongAdder> map, String key) {
+        return map.computeIfAbsent(key == null ? "" : key, k -> new LongAdder());
+    }
+
+    // Copies non-zero counters into a sorted map for display
+    private static Map<String, Long> snapshot(Map<String, LongAdder> map) {
+        Map<String, Long> result = new TreeMap<>();
+        map.forEach((key, adder) -> {
+            long sum = adder.sum();
+            if (sum != 0) {
+                result.put(key, sum);
+            }
+        });
+        return Collections.unmodifiableMap(result);
+    }
+}
@@ -0,0 +1,53 @@
+package com.mycompany.mavenproject1.util;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Java Flight Recorder event for one {@link DataService} call, that is one
+ * {@link DatabaseUtils} operation (or its request to the backend server).
+ * Recorded by {@link DataCallRecorder} with the caller's stack trace, so a
+ * recording shows which query a frozen page was waiting for.
+ *
+ * @author Bishwas Bhattarai
+ */
+@Name("com.mycompany.mavenproject1.DataCall")
+@Label("Data Call")
+@Category({"Disaster Response", "Data"})
+@Description("A data service operation, run against the database or the backend server")
+@StackTrace(true)
+public class DataCallEvent extends jdk.jfr.Event {
+
+    @Label("Operation")
+    @Description("DataService method, named like the DatabaseUtils method it runs")
+    String operation;
+
+    @Label("Backend")
+    @Description("Database for a local data service, or the backend server's URL")
+    String backend;
+
+    @Label("Rows")
+    @Description("Elements of a returned list or map, 1 for another result, 0 for none")
+    int rows;
+
+    @Label("Connection Wait")
+    @Description("Time spent obtaining database connections during the call")
+    @Timespan(Timespan.NANOSECONDS)
+    long connectionWait;
+
+    @Label("Connections")
+    @Description("Database connections obtained during the call")
+    int connections;
+
+    @Label("On FX Thread")
+    @Description("Whether the call blocked the JavaFX application thread")
+    boolean fxThread;
+
+    @Label("Error")
+    @Description("Class of the exception thrown, if the call failed")
+    String error;
+}
@@ -0,0 +1,114 @@
+package com.mycompany.mavenproject1.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Records a {@link DataCallEvent} for every call made through a wrapped
+ * {@link DataService}. Each data service method runs exactly one
+ * {@link DatabaseUtils} operation (or one request to the backend server), so
+ * the events line up with the data-access layer. The time spent waiting for
+ * database connections is added from {@link DatabaseUtils#getConnection()}
+ * while the call is in progress on the same thread.
+ *
+ * <p>When no recording has the event enabled, the wrapper only checks that
+ * and calls through.
+ *
+ * @author Bishwas Bhattarai
+ */
+public final class DataCallRecorder implements InvocationHandler {
+
+    private static final ThreadLocal<DataCallEvent> current = new ThreadLocal<>(); // Call in progress on this thread, if recorded
+
+    private final DataService target; // The service doing the work
+    private final String backend;     // Recorded with each event
+
+    private DataCallRecorder(DataService target, String backend) {
+        this.target = target;
+        this.backend = backend;
+    }
+
+    /**
+     * Wraps a data service so that its calls are recorded.
+     *
+     * @param target the service to call.
+     * @param backend the database URL or server URL the service talks to.
+     * @return a data service recording each call before returning its result.
+     */
+    public static DataService wrap(DataService target, String backend) {
+        return (DataService) Proxy.newProxyInstance(DataService.class.getClassLoader(),
+                new Class<?>[]{DataService.class}, new DataCallRecorder(target, backend));
+    }
+
+    /**
+     * Adds a connection hand-out to the data call in progress on this thread,
+     * if it is being recorded.
+     *
+     * @param waitNanos how long obtaining the connection took.
+     */
+    static void connectionObtained(long waitNanos) {
+        DataCallEvent event = current.get();
+        if (event != null) {
+            event.connectionWait += waitNanos;
+            event.connections++;
+        }
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        DataCallEvent event = new DataCallEvent();
+        if (!event.isEnabled() || method.getDeclaringClass() == Object.class) {
+            return call(method, args);
+        }
+
+        DataCallEvent outer = current.get();
+        current.set(event);
+        event.begin();
+        try {
+            Object result = call(method, args);
+            event.rows = rows(result);
+            return result;
+        } catch (Throwable e) {
+            event.error = e.getClass().getName();
+            throw e;
+        } finally {
+            event.end();
+            if (outer == null) {
+                current.remove();
+            } else {
+                current.set(outer);
+            }
+            if (event.shouldCommit()) {
+                event.operation = method.getName();
+                event.backend = backend;
+                event.fxThread = ViewRouter.isUiThread();
+                event.commit();
+            }
+        }
+    }
+
+    // Calls the target, rethrowing what the method itself threw
+    private Object call(Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    // Elements of a returned list or map, 1 for another result, 0 for none
+    private static int rows(Object result) {
+        if (result == null) {
+            return 0;
+        } else if (result instanceof Collection) {
+            return ((Collection<?>) result).size();
+        } else if (result instanceof Map) {
+            return ((Map<?, ?>) result).size();
+        }
+        return 1;
+    }
+}
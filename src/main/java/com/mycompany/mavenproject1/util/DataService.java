@@ -0,0 +1,295 @@
+package com.mycompany.mavenproject1.util;
+
+import com.mycompany.mavenproject1.model.AssignedTask;
+import com.mycompany.mavenproject1.model.Attachment;
+import com.mycompany.mavenproject1.model.DisasterReport;
+import com.mycompany.mavenproject1.model.UserModel;
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The data operations the controllers use. By default they run directly
+ * against the database through {@link DatabaseUtils}; when the system
+ * property {@code drs.server.url} is set (for example
+ * {@code -Ddrs.server.url=http://drs-backend:8085}) they are sent to the
+ * backend server instead, so desktop clients don't hold database connections
+ * or credentials. Method contracts match the DatabaseUtils methods of the
+ * same name.
+ *
+ * @author Bishwas Bhattarai
+ */
+public interface DataService {
+
+    /**
+     * Returns the data service selected by the {@code drs.server.url} system
+     * property.
+     *
+     * @return the shared instance.
+     */
+    static DataService get() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Starts checking that the backing store is usable, in the background.
+     * Repeated calls share one check; a failed check is retried.
+     *
+     * @return a future completed once the service can be used.
+     */
+    CompletableFuture<Void> prepare();
+
+    /**
+     * Returns whether {@link #prepare()} has succeeded.
+     *
+     * @return true once the service can be used.
+     */
+    boolean isReady();
+
+    boolean isValidLogin(String username, String password);
+
+    String getUserRole(String username);
+
+    boolean userExists(String username, String email, String phoneNumber);
+
+    /**
+     * Registers a user.
+     *
+     * @param username the username.
+     * @param password the plain-text password.
+     * @param email the email address.
+     * @param phoneNumber the phone number.
+     * @param role the role.
+     * @return the saved user, without its password, or null if the username,
+     * email or phone number is already registered or the user could not be
+     * saved.
+     * @throws IllegalArgumentException if a value is invalid.
+     */
+    UserModel saveUser(String username, String password, String email, String phoneNumber, String role);
+
+    boolean isEmailAndPhoneRegistered(String email, String phoneNumber);
+
+    /**
+     * Resets a forgotten password. The email address and phone number
+     * together identify the account and stand in for the old password.
+     *
+     * @param email the registered email address.
+     * @param phoneNumber the registered phone number.
+     * @param newPassword the new plain-text password.
+     * @return true if an account matched and its password was changed.
+     */
+    boolean resetPassword(String email, String phoneNumber, String newPassword);
+
+    /**
+     * Ends the session opened by the last successful
+     * {@link #isValidLogin(String, String)}, if the service keeps one.
+     */
+    void logout();
+
+    List<UserModel> fetchAllUsers();
+
+    void updateUserRole(String username, String newRole);
+
+    void deleteUser(String username);
+
+    /**
+     * Saves a new disaster report, subject to the {@link RateLimiter}. The
+     * limit applies to the authenticated caller, whatever username is passed.
+     *
+     * @param username the reporting user.
+     * @param disasterType the type of disaster.
+     * @param location the location.
+     * @param severity the severity from 1 to 10.
+     * @param description the description.
+     * @return the saved report with its generated ID and report time.
+     * @throws SQLException if the report could not be saved.
+     * @throws RateLimitExceededException if the user or the system is
+     * submitting too quickly.
+     */
+    DisasterReport saveDisasterReport(String username, String disasterType, String location, int severity, String description) throws SQLException;
+
+    /**
+     * Adds a photo or video to a disaster report, storing the file in the
+     * attachment store (on the server in client mode).
+     *
+     * @param reportId the ID of the disaster report.
+     * @param file the file to attach.
+     * @return the saved attachment.
+     * @throws SQLException if the reference could not be saved.
+     * @throws IOException if the file could not be read or stored.
+     * @throws IllegalArgumentException if the file is not a photo or video, or
+     * too large.
+     */
+    Attachment addAttachment(int reportId, Path file) throws SQLException, IOException;
+
+    /**
+     * Adds a photo or video to a disaster report from a stream, e.g. an
+     * upload received by the backend server.
+     *
+     * @param reportId the ID of the disaster report.
+     * @param fileName the original name of the file.
+     * @param content the file's content; read to the end but not closed.
+     * @return the saved attachment.
+     * @throws SQLException if the reference could not be saved.
+     * @throws IOException if the content could not be read or stored.
+     * @throws IllegalArgumentException if the file is not a photo or video, or
+     * too large.
+     */
+    Attachment addAttachment(int reportId, String fileName, ReadableByteChannel content) throws SQLException, IOException;
+
+    List<Attachment> getAttachments(int reportId) throws SQLException;
+
+    /**
+     * Returns a local file with the attachment's content, downloading it
+     * into the local attachment store first in client mode. May block; don't
+     * call it on the JavaFX thread.
+     *
+     * @param attachment the attachment.
+     * @return the path of the content; it must not be modified.
+     * @throws IOException if the content could not be fetched.
+     */
+    Path fetchAttachment(Attachment attachment) throws IOException;
+
+    List<DisasterReport> getAllDisasterReports() throws SQLException;
+
+    List<DisasterReport> findDisasterReports(ReportQuery query) throws SQLException;
+
+    void updateDisasterPriority(int id, String priority) throws SQLException;
+
+    boolean updateDisasterPriorityIfUnchanged(int id, String priority, int expectedVersion) throws SQLException;
+
+    /**
+     * Assigns a task for a disaster report to a department.
+     *
+     * @param disasterId the ID of the disaster report.
+     * @param department the department.
+     * @param taskDescription the description of the task.
+     * @return the saved task with its generated ID.
+     * @throws SQLException if the report does not exist or the task could not
+     * be saved.
+     */
+    AssignedTask saveAssignedTask(int disasterId, String department, String taskDescription) throws SQLException;
+
+    /**
+     * Assigns the same task for a disaster report to several departments,
+     * saving all the tasks or none.
+     *
+     * @param disasterId the ID of the disaster report.
+     * @param departments the departments, at least one.
+     * @param taskDescription the description of the task.
+     * @return the saved tasks with their generated IDs, in department order.
+     * @throws SQLException if the report does not exist or the tasks could
+     * not be saved.
+     */
+    List<AssignedTask> assignTaskToDepartments(int disasterId, List<String> departments, String taskDescription) throws SQLException;
+
+    /**
+     * Returns the number of open tasks per department, from counters kept up
+     * to date by the task writes (see {@link DepartmentWorkload}).
+     *
+     * @return the counts, by department; departments without open tasks may
+     * be missing.
+     * @throws SQLException if the counts could not be read.
+     */
+    Map<String, Long> getDepartmentWorkload() throws SQLException;
+
+    /**
+     * Returns the coordinator dashboard's report and task counts (see
+     * {@link DashboardRollups}).
+     *
+     * @return the current counts.
+     * @throws SQLException if a database access error occurs.
+     */
+    DashboardRollups.Snapshot getDashboard() throws SQLException;
+
+    /**
+     * Returns how many reports there are of each severity, grouped by type,
+     * location or priority, from the in-memory column store (see
+     * {@link AnalyticsStore}).
+     *
+     * @param by the report attribute to group by.
+     * @param disasterType only count reports of this type; null for all.
+     * @return for each group, the counts of severity 1 to
+     * {@link AnalyticsStore#MAX_SEVERITY} at index severity - 1.
+     * @throws SQLException if the store could not be loaded.
+     */
+    Map<String, long[]> getSeverityDistribution(AnalyticsStore.Dimension by, String disasterType) throws SQLException;
+
+    /**
+     * Returns the open and finished tasks of each department, from the
+     * dashboard counters (see {@link DashboardRollups}).
+     *
+     * @return for each department, {open, finished}.
+     * @throws SQLException if the counters could not be loaded.
+     */
+    Map<String, long[]> getTaskCompletion() throws SQLException;
+
+    /**
+     * Returns the disaster types, departments and user roles, see
+     * {@link ReferenceCatalogue}.
+     *
+     * @return the current catalogue.
+     * @throws SQLException if it cannot be read.
+     */
+    ReferenceCatalogue getReferenceCatalogue() throws SQLException;
+
+    /**
+     * Adds a disaster type or department that reports and tasks may then
+     * name. Only administrators may call it in client mode.
+     *
+     * @param kind {@link ReferenceCatalogue.Kind#DISASTER_TYPE} or
+     * {@link ReferenceCatalogue.Kind#DEPARTMENT}.
+     * @param name the new name; an existing name is left as it is.
+     * @return the catalogue including the name.
+     * @throws SQLException if a database access error occurs.
+     * @throws IllegalArgumentException if the name is empty or the kind is
+     * {@link ReferenceCatalogue.Kind#ROLE}.
+     */
+    ReferenceCatalogue addReferenceName(ReferenceCatalogue.Kind kind, String name) throws SQLException;
+
+    List<AssignedTask> getAssignedTasksSortedByPriority() throws SQLException;
+
+    void updateTaskStatus(int disasterId, String status) throws SQLException;
+
+    boolean updateTaskStatusIfUnchanged(int taskId, String status, int expectedVersion) throws SQLException;
+
+    List<AssignedTask> getFinishedTasksForUser(String username) throws SQLException;
+
+    List<AssignedTask> getAllFinishedTasks() throws SQLException;
+
+    /**
+     * Moves closed incidents older than the configured age out of the live
+     * tables (see {@link ReportArchiver}).
+     *
+     * @return the number of reports archived.
+     * @throws SQLException if a database access error occurs.
+     */
+    int archiveClosedReports() throws SQLException;
+
+    List<DisasterReport> findArchivedDisasterReports(ReportQuery query) throws SQLException;
+
+    List<AssignedTask> getArchivedTasks(int reportId) throws SQLException;
+
+    /**
+     * Lazily creates the instance on first use of {@link DataService#get()}.
+     */
+    final class Holder {
+
+        private static final DataService INSTANCE = create();
+
+        private Holder() {
+        }
+
+        private static DataService create() {
+            String serverUrl = System.getProperty("drs.server.url");
+            if (serverUrl == null || serverUrl.trim().isEmpty()) {
+                return DataCallRecorder.wrap(new LocalDataService(), DatabaseUtils.getUrl());
+            }
+            return DataCallRecorder.wrap(new RemoteDataService(serverUrl.trim()), serverUrl.trim());
+        }
+    }
+}
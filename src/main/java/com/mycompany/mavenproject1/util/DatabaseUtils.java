@@ -1,7 +1,9 @@
 package com.mycompany.mavenproject1.util;
 
 import com.mycompany.mavenproject1.model.AssignedTask;
+import com.mycompany.mavenproject1.model.Attachment;
 import com.mycompany.mavenproject1.model.DisasterReport;
+import com.mycompany.mavenproject1.model.RoutingRule;
 import com.mycompany.mavenproject1.model.UserModel;
 import java.sql.Connection;
 import java.sql.DriverManager;
@@ -11,8 +13,14 @@ import java.sql.SQLException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Utility class for handling database operations such as user authentication,
@@ -29,18 +37,58 @@ import java.util.List;
  */
 public class DatabaseUtils {
 
-  private static final String URL = "jdbc:mysql://localhost:3306/userdb"; // Include the database name in the URL
-    private static final String USER = "root"; // MySQL username
-    private static final String PASSWORD = "Bishwas@2055"; // MySQL password
+    private static final String URL = System.getProperty("drs.db.url", "jdbc:mysql://localhost:3306/userdb"); // Include the database name in the URL
+    private static final String SERVER_URL = System.getProperty("drs.db.serverUrl", "jdbc:mysql://localhost:3306"); // URL without a database, used to create it
+    private static final String USER = System.getProperty("drs.db.user", "root"); // MySQL username
+    private static final String PASSWORD = System.getProperty("drs.db.password", "Bishwas@2055"); // MySQL password
 
-    // Method to establish connection with the database
+    private static volatile ConnectionPool pool; // Shared pool when running as the backend server, else null
+
+    // Method to establish connection with the database; the wait is added to the recorded data call, if any
     public static Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(URL, USER, PASSWORD);
+        long start = System.nanoTime();
+        Connection conn = openConnection();
+        DataCallRecorder.connectionObtained(System.nanoTime() - start);
+        return SlowQueryLog.isEnabled() ? SlowQueryLog.getDefault().wrap(conn) : conn;
+    }
+
+    // Pooled or new connection whose statements are not timed; used for the slow-query log's own EXPLAINs
+    static Connection openConnection() throws SQLException {
+        ConnectionPool current = pool;
+        return current != null ? current.getConnection() : DriverManager.getConnection(URL, USER, PASSWORD);
+    }
+
+    /**
+     * Returns the JDBC URL of the application database.
+     *
+     * @return the URL from {@code drs.db.url}, or the local MySQL default.
+     */
+    public static String getUrl() {
+        return URL;
+    }
+
+    /**
+     * Makes {@link #getConnection()} hand out connections from a fixed-size
+     * pool instead of opening one per call. Used by the backend server, which
+     * serves many clients from one process.
+     *
+     * @param size the maximum number of open connections.
+     */
+    public static synchronized void enableConnectionPool(int size) {
+        if (pool == null) {
+            pool = new ConnectionPool(URL, USER, PASSWORD, size);
+        }
     }
 
+    // Version of the schema this build expects; bump it when adding a step to migrate()
+    public static final int SCHEMA_VERSION = 15;
+
+    private static volatile boolean schemaReady; // Set once the schema is known to be current
+    private static CompletableFuture<Void> schemaCheck; // Pending or finished background check
+
     // Method to create the database and tables if they don't exist
     public static void setupDatabase() {
-        try (Connection conn = DriverManager.getConnection("jdbc:mysql://localhost:3306", USER, PASSWORD);
+        try (Connection conn = DriverManager.getConnection(SERVER_URL, USER, PASSWORD);
              Statement stmt = conn.createStatement()) {
 
             // Step 1: Create the database if it doesn't exist
@@ -50,6 +98,325 @@ public class DatabaseUtils {
             // Step 2: Switch to the newly created database
             String useDatabase = "USE userdb";
             stmt.executeUpdate(useDatabase);
+
+            // Steps 3 onwards: bring the tables up to the current version
+            migrate(conn, readSchemaVersion(conn));
+            schemaReady = true;
+
+           // System.out.println("Database setup complete.");
+
+        } catch (SQLException e) {
+            e.printStackTrace();
+            throw new RuntimeException("Error setting up the database", e);
+        }
+    }
+
+    /**
+     * Makes sure the schema is current, doing as little work as possible. The
+     * common case is a single version probe against the existing database;
+     * the full {@link #setupDatabase()} only runs when the database, the
+     * version table or a newer schema step is missing. The result is cached
+     * for the lifetime of the JVM.
+     */
+    public static void ensureSchema() {
+        if (schemaReady) {
+            return;
+        }
+        try (Connection conn = getConnection()) {
+            if (readSchemaVersion(conn) >= SCHEMA_VERSION) {
+                schemaReady = true;
+                return;
+            }
+        } catch (SQLException e) {
+            // Database not created yet; fall through to the full setup
+        }
+        setupDatabase();
+    }
+
+    /**
+     * Runs {@link #ensureSchema()} on a background thread, so the login view
+     * can be shown while the database is checked. Repeated calls share the
+     * same check; a failed check is forgotten so the next call retries.
+     *
+     * @return a future completed once the schema is ready.
+     */
+    public static synchronized CompletableFuture<Void> setupDatabaseAsync() {
+        if (schemaCheck == null || schemaCheck.isCompletedExceptionally()) {
+            schemaCheck = CompletableFuture.runAsync(DatabaseUtils::ensureSchema, runnable -> {
+                Thread thread = new Thread(runnable, "schema-check");
+                thread.setDaemon(true);
+                thread.start();
+            });
+        }
+        return schemaCheck;
+    }
+
+    /**
+     * Returns whether the schema has been verified in this JVM.
+     *
+     * @return true once the schema is known to be current.
+     */
+    public static boolean isSchemaReady() {
+        return schemaReady;
+    }
+
+    // Reads the recorded schema version, or 0 if the version table doesn't exist yet
+    private static int readSchemaVersion(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery("SELECT MAX(version) FROM schema_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        } catch (SQLException e) {
+            if (isMissingTable(e)) {
+                return 0;
+            }
+            throw e;
+        }
+    }
+
+    // MySQL ER_NO_SUCH_TABLE, or H2's "table not found" codes
+    private static boolean isMissingTable(SQLException e) {
+        int code = e.getErrorCode();
+        return code == 1146 || code == 42102 || code == 42103 || code == 42104;
+    }
+
+    /**
+     * Brings the schema of an already-selected (or embedded) database up to
+     * {@link #SCHEMA_VERSION}, without the server-level CREATE DATABASE step
+     * of {@link #setupDatabase()}.
+     *
+     * @param conn a connection to the target database.
+     * @throws SQLException if a database access error occurs.
+     */
+    public static void migrateSchema(Connection conn) throws SQLException {
+        migrate(conn, readSchemaVersion(conn));
+    }
+
+    // Applies every schema step newer than fromVersion. The version is recorded
+    // after each step: MySQL commits DDL statement by statement, so a failed
+    // run must resume after the last finished step rather than replay them all
+    private static void migrate(Connection conn, int fromVersion) throws SQLException {
+        if (fromVersion >= SCHEMA_VERSION) {
+            return;
+        }
+        try (Statement stmt = conn.createStatement()) {
+            if (fromVersion < 1) {
+                createTables(conn);
+                stmt.executeUpdate("CREATE TABLE IF NOT EXISTS schema_version (version INT NOT NULL)");
+                setSchemaVersion(stmt, 1);
+            }
+            if (fromVersion < 2) {
+                // Indexes for the coordinator's filters and sorts (see ReportQuery)
+                stmt.executeUpdate("CREATE INDEX idx_reports_type_severity ON disaster_reports (disaster_type, severity)");
+                stmt.executeUpdate("CREATE INDEX idx_reports_priority_time ON disaster_reports (priority, report_time)");
+                stmt.executeUpdate("CREATE INDEX idx_reports_time ON disaster_reports (report_time)");
+                setSchemaVersion(stmt, 2);
+            }
+            if (fromVersion < 3) {
+                // Row versions for optimistic concurrency control
+                stmt.executeUpdate("ALTER TABLE disaster_reports ADD COLUMN version INT NOT NULL DEFAULT 0");
+                stmt.executeUpdate("ALTER TABLE assigned_tasks ADD COLUMN version INT NOT NULL DEFAULT 0");
+                setSchemaVersion(stmt, 3);
+            }
+            if (fromVersion < 4) {
+                // References to files in the attachment store; the files themselves stay out of the database
+                stmt.executeUpdate("CREATE TABLE IF NOT EXISTS report_attachments ("
+                        + "id INT AUTO_INCREMENT PRIMARY KEY, "
+                        + "report_id INT NOT NULL, "
+                        + "content_hash CHAR(64) NOT NULL, "
+                        + "file_name VARCHAR(255) NOT NULL, "
+                        + "media_type VARCHAR(100) NOT NULL, "
+                        + "size_bytes BIGINT NOT NULL, "
+                        + "created_at TIMESTAMP NOT NULL, "
+                        + "FOREIGN KEY (report_id) REFERENCES disaster_reports(id) ON DELETE CASCADE)");
+                stmt.executeUpdate("CREATE INDEX idx_attachments_report ON report_attachments (report_id)");
+                setSchemaVersion(stmt, 4);
+            }
+            if (fromVersion < 5) {
+                // Cold copies of closed incidents moved out by ReportArchiver; ids are kept, so no keys are generated
+                stmt.executeUpdate("CREATE TABLE IF NOT EXISTS disaster_reports_archive ("
+                        + "id INT PRIMARY KEY, "
+                        + "username VARCHAR(255) NOT NULL, "
+                        + "disaster_type VARCHAR(255) NOT NULL, "
+                        + "location VARCHAR(255) NOT NULL, "
+                        + "severity INT NOT NULL, "
+                        + "description TEXT, "
+                        + "priority VARCHAR(50), "
+                        + "report_time TIMESTAMP NULL, "
+                        + "version INT NOT NULL, "
+                        + "archived_at TIMESTAMP NOT NULL)");
+                stmt.executeUpdate("CREATE INDEX idx_reports_archive_time ON disaster_reports_archive (report_time)");
+                stmt.executeUpdate("CREATE INDEX idx_reports_archive_user ON disaster_reports_archive (username)");
+                stmt.executeUpdate("CREATE TABLE IF NOT EXISTS assigned_tasks_archive ("
+                        + "id INT PRIMARY KEY, "
+                        + "disaster_id INT NOT NULL, "
+                        + "department VARCHAR(255) NOT NULL, "
+                        + "task_description TEXT, "
+                        + "status VARCHAR(50), "
+                        + "created_at TIMESTAMP NULL, "
+                        + "version INT NOT NULL, "
+                        + "archived_at TIMESTAMP NOT NULL)");
+                stmt.executeUpdate("CREATE INDEX idx_tasks_archive_disaster ON assigned_tasks_archive (disaster_id)");
+                stmt.executeUpdate("CREATE TABLE IF NOT EXISTS report_attachments_archive ("
+                        + "id INT PRIMARY KEY, "
+                        + "report_id INT NOT NULL, "
+                        + "content_hash CHAR(64) NOT NULL, "
+                        + "file_name VARCHAR(255) NOT NULL, "
+                        + "media_type VARCHAR(100) NOT NULL, "
+                        + "size_bytes BIGINT NOT NULL, "
+                        + "created_at TIMESTAMP NOT NULL, "
+                        + "archived_at TIMESTAMP NOT NULL)");
+                stmt.executeUpdate("CREATE INDEX idx_attachments_archive_report ON report_attachments_archive (report_id)");
+                setSchemaVersion(stmt, 5);
+            }
+            if (fromVersion < 6) {
+                // Optional database copy of the audit log (drs.audit.dbSink)
+                stmt.executeUpdate("CREATE TABLE IF NOT EXISTS audit_log ("
+                        + "id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                        + "event_time TIMESTAMP NOT NULL, "
+                        + "actor VARCHAR(255) NOT NULL, "
+                        + "action VARCHAR(50) NOT NULL, "
+                        + "target VARCHAR(255) NOT NULL, "
+                        + "detail TEXT)");
+                stmt.executeUpdate("CREATE INDEX idx_audit_time ON audit_log (event_time)");
+                setSchemaVersion(stmt, 6);
+            }
+            if (fromVersion < 7) {
+                // Registration lookups by index, and uniqueness enforced by the database
+                // Checked up front, so a failed step has created none of the indexes and can simply run again
+                requireNoDuplicates(conn, "users", "username");
+                requireNoDuplicates(conn, "users", "email");
+                requireNoDuplicates(conn, "users", "phone_number");
+                stmt.executeUpdate("CREATE UNIQUE INDEX uq_users_username ON users (username)");
+                stmt.executeUpdate("CREATE UNIQUE INDEX uq_users_email ON users (email)");
+                stmt.executeUpdate("CREATE UNIQUE INDEX uq_users_phone ON users (phone_number)");
+                setSchemaVersion(stmt, 7);
+            }
+            if (fromVersion < 8) {
+                // Prefix lookups by location for the disaster picker (ReportQuery.matching)
+                stmt.executeUpdate("CREATE INDEX idx_reports_location ON disaster_reports (location)");
+                setSchemaVersion(stmt, 8);
+            }
+            if (fromVersion < 9) {
+                // Open tasks per department, striped over rows (see DepartmentWorkload)
+                stmt.executeUpdate("CREATE TABLE IF NOT EXISTS department_workload ("
+                        + "department VARCHAR(255) NOT NULL, "
+                        + "stripe INT NOT NULL, "
+                        + "open_tasks INT NOT NULL, "
+                        + "PRIMARY KEY (department, stripe))");
+                // Filled by DepartmentWorkload.rebuild at step 12, once tasks have department keys
+                setSchemaVersion(stmt, 9);
+            }
+            if (fromVersion < 10) {
+                // SLA escalations, and the scan of open tasks that rebuilds the SLA timers (see SlaMonitor)
+                stmt.executeUpdate("ALTER TABLE assigned_tasks ADD COLUMN escalated_at TIMESTAMP NULL");
+                stmt.executeUpdate("CREATE INDEX idx_tasks_status_escalated ON assigned_tasks (status, escalated_at)");
+                setSchemaVersion(stmt, 10);
+            }
+            if (fromVersion < 11) {
+                // Change times by the database clock, for the coordinator's delta reloads (see ReportSnapshot)
+                stmt.executeUpdate("ALTER TABLE disaster_reports ADD COLUMN updated_at TIMESTAMP(3) NOT NULL "
+                        + "DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3)");
+                stmt.executeUpdate("CREATE INDEX idx_reports_updated ON disaster_reports (updated_at)");
+                stmt.executeUpdate("ALTER TABLE disaster_reports_archive ADD COLUMN updated_at TIMESTAMP(3) NULL");
+                setSchemaVersion(stmt, 11);
+            }
+            if (fromVersion < 12) {
+                // Reference tables; reports and tasks keep a small key instead of the name (see ReferenceCatalogue)
+                stmt.executeUpdate("CREATE TABLE IF NOT EXISTS disaster_types ("
+                        + "id SMALLINT AUTO_INCREMENT PRIMARY KEY, "
+                        + "name VARCHAR(255) NOT NULL, "
+                        + "UNIQUE (name))");
+                stmt.executeUpdate("CREATE TABLE IF NOT EXISTS departments ("
+                        + "id SMALLINT AUTO_INCREMENT PRIMARY KEY, "
+                        + "name VARCHAR(255) NOT NULL, "
+                        + "UNIQUE (name))");
+                stmt.executeUpdate("CREATE TABLE IF NOT EXISTS user_roles ("
+                        + "id SMALLINT AUTO_INCREMENT PRIMARY KEY, "
+                        + "name VARCHAR(50) NOT NULL, "
+                        + "UNIQUE (name))");
+                stmt.executeUpdate("CREATE TABLE IF NOT EXISTS reference_version (version INT NOT NULL)");
+                ReferenceCatalogue.seed(conn);
+                stmt.executeUpdate("DROP INDEX idx_reports_type_severity ON disaster_reports");
+                replaceNameWithKey(stmt, "disaster_reports", "disaster_type", "disaster_types");
+                replaceNameWithKey(stmt, "disaster_reports_archive", "disaster_type", "disaster_types");
+                replaceNameWithKey(stmt, "assigned_tasks", "department", "departments");
+                replaceNameWithKey(stmt, "assigned_tasks_archive", "department", "departments");
+                stmt.executeUpdate("CREATE INDEX idx_reports_type_severity ON disaster_reports (disaster_type_id, severity)");
+                // Roles stay by name in the small users table, but only known roles can be stored
+                stmt.executeUpdate("ALTER TABLE users ADD CONSTRAINT fk_users_role FOREIGN KEY (role) REFERENCES user_roles (name)");
+                DepartmentWorkload.rebuild(conn);
+                setSchemaVersion(stmt, 12);
+            }
+            if (fromVersion < 13) {
+                // Client address of changes made through the backend server (see Session.getOrigin)
+                stmt.executeUpdate("ALTER TABLE audit_log ADD COLUMN origin VARCHAR(64) NULL");
+                setSchemaVersion(stmt, 13);
+            }
+            if (fromVersion < 14) {
+                // Attachment times come from the database clock, like report and task times
+                stmt.executeUpdate("ALTER TABLE report_attachments MODIFY COLUMN created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP");
+                setSchemaVersion(stmt, 14);
+            }
+            if (fromVersion < 15) {
+                // Archived tasks keep their escalation time (see ReportArchiver.TASK_COLUMNS)
+                stmt.executeUpdate("ALTER TABLE assigned_tasks_archive ADD COLUMN escalated_at TIMESTAMP NULL");
+                setSchemaVersion(stmt, 15);
+            }
+        }
+    }
+
+    // Records the last finished migration step
+    private static void setSchemaVersion(Statement stmt, int version) throws SQLException {
+        stmt.executeUpdate("DELETE FROM schema_version");
+        stmt.executeUpdate("INSERT INTO schema_version (version) VALUES (" + version + ")");
+    }
+
+    /**
+     * Replaces a name column by a {@code <column>_id} key into a reference
+     * table that already holds every name in use, see
+     * {@link ReferenceCatalogue#seed}.
+     */
+    private static void replaceNameWithKey(Statement stmt, String table, String column, String referenceTable) throws SQLException {
+        String key = column + "_id";
+        stmt.executeUpdate("ALTER TABLE " + table + " ADD COLUMN " + key + " SMALLINT NULL");
+        stmt.executeUpdate("UPDATE " + table + " SET " + key + " = (SELECT r.id FROM " + referenceTable + " r WHERE r.name = "
+                + table + "." + column + ")");
+        stmt.executeUpdate("ALTER TABLE " + table + " MODIFY COLUMN " + key + " SMALLINT NOT NULL");
+        stmt.executeUpdate("ALTER TABLE " + table + " ADD CONSTRAINT fk_" + table + "_" + column
+                + " FOREIGN KEY (" + key + ") REFERENCES " + referenceTable + " (id)");
+        stmt.executeUpdate("ALTER TABLE " + table + " DROP COLUMN " + column);
+    }
+
+    /**
+     * Stops the migration before a unique index is created on a column that
+     * already holds duplicates, with a message naming them (up to ten
+     * values). Remove or rename the duplicate rows and start the application
+     * again, and the migration resumes at this step.
+     */
+    private static void requireNoDuplicates(Connection conn, String table, String column) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            List<String> duplicates = new ArrayList<>();
+            try (ResultSet rs = stmt.executeQuery("SELECT " + column + ", COUNT(*) FROM " + table
+                    + " WHERE " + column + " IS NOT NULL GROUP BY " + column + " HAVING COUNT(*) > 1")) {
+                while (rs.next() && duplicates.size() < 10) {
+                    duplicates.add("'" + rs.getString(1) + "' (" + rs.getInt(2) + " rows)");
+                }
+            }
+            if (!duplicates.isEmpty()) {
+                throw new SQLException("Cannot make " + table + "." + column + " unique: duplicate values "
+                        + String.join(", ", duplicates) + ". Remove the duplicates and restart to finish the migration.");
+            }
+        }
+    }
+
+    /**
+     * Creates the users, disaster_reports and assigned_tasks tables on the
+     * given connection if they don't exist (schema version 1).
+     *
+     * @param conn a connection to the target database.
+     * @throws SQLException if a database access error occurs.
+     */
+    private static void createTables(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
             // Step 3: Create the users table
             String createUsersTable = "CREATE TABLE IF NOT EXISTS users (" +
                     "id INT AUTO_INCREMENT PRIMARY KEY, " +
@@ -82,14 +449,56 @@ public class DatabaseUtils {
                     "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, " +
                     "FOREIGN KEY (disaster_id) REFERENCES disaster_reports(id))";
             stmt.executeUpdate(createAssignedTasksTable);
+        }
+    }
 
-           // System.out.println("Database setup complete.");
+    /**
+     * Maps the current row of a disaster_reports result set to a
+     * DisasterReport.
+     *
+     * @param rs a result set positioned on a disaster_reports row.
+     * @return the mapped DisasterReport.
+     * @throws SQLException if a column cannot be read.
+     */
+    public static DisasterReport mapDisasterReport(ResultSet rs) throws SQLException {
+        DisasterReport report = new DisasterReport(
+                rs.getInt("id"),
+                rs.getString("username"),
+                ReferenceCatalogue.nameOf(ReferenceCatalogue.Kind.DISASTER_TYPE, rs.getInt("disaster_type_id")),
+                rs.getString("location"),
+                rs.getString("severity"),
+                rs.getString("description"),
+                rs.getString("priority"),
+                rs.getTimestamp("report_time").toLocalDateTime()
+        );
+        report.setVersion(rs.getInt("version"));
+        Timestamp updatedAt = rs.getTimestamp("updated_at");
+        report.setUpdatedAt(updatedAt == null ? null : updatedAt.toLocalDateTime());
+        return report;
+    }
 
-        } catch (SQLException e) {
-            e.printStackTrace();
-            throw new RuntimeException("Error setting up the database", e);
-        }
+    /**
+     * Maps the current row of an assigned_tasks/disaster_reports join to an
+     * AssignedTask.
+     *
+     * @param rs a result set positioned on a joined task row.
+     * @return the mapped AssignedTask.
+     * @throws SQLException if a column cannot be read.
+     */
+    public static AssignedTask mapAssignedTask(ResultSet rs) throws SQLException {
+        return new AssignedTask(
+                rs.getInt("id"),
+                rs.getInt("disaster_id"),
+                ReferenceCatalogue.nameOf(ReferenceCatalogue.Kind.DISASTER_TYPE, rs.getInt("disaster_type_id")),
+                rs.getString("location"),
+                ReferenceCatalogue.nameOf(ReferenceCatalogue.Kind.DEPARTMENT, rs.getInt("department_id")),
+                rs.getString("task_description"),
+                rs.getString("priority"),
+                rs.getString("status"),
+                rs.getInt("version")
+        );
     }
+
     /**
      * Hashes a password using the SHA-256 algorithm.
      *
@@ -112,15 +521,22 @@ public class DatabaseUtils {
     }
 
     /**
-     * Saves a registered user into the database.
+     * Saves a registered user into the database. The unique indexes on
+     * username, email and phone number make the INSERT itself the duplicate
+     * check, so two registrations racing for the same name cannot both
+     * succeed.
      *
      * @param username the username of the user.
      * @param password the user's password.
      * @param email the user's email address.
      * @param phoneNumber the user's phone number.
      * @param role the user's role (e.g., Coordinator, Department, etc.).
+     * @return the saved user, without its password, or null if the username,
+     * email or phone number is already registered or the database failed.
+     * @throws IllegalArgumentException if a field is invalid, including a
+     * role that is not in the user_roles table.
      */
-    public static void saveUser(String username, String password, String email, String phoneNumber, String role) {
+    public static UserModel saveUser(String username, String password, String email, String phoneNumber, String role) {
         if (username == null || username.trim().isEmpty()) {
             throw new IllegalArgumentException("Username cannot be empty.");
         }
@@ -140,11 +556,42 @@ public class DatabaseUtils {
             stmt.setString(4, phoneNumber);
             stmt.setString(5, role);
             stmt.executeUpdate();
+            UserKeyFilter.userAdded(username, email, phoneNumber);
+            return new UserModel(username, null, role, email, phoneNumber);
         } catch (SQLException e) {
-            e.printStackTrace();
+            if (isForeignKeyViolation(e)) {
+                throw new IllegalArgumentException("Invalid role: " + role);
+            }
+            if (!isDuplicateKey(e)) {
+                e.printStackTrace();
+            }
+            return null;
         }
     }
 
+    /**
+     * Returns whether an exception reports a unique key violation.
+     *
+     * @param e the exception.
+     * @return true for MySQL's ER_DUP_ENTRY (1062) and H2's
+     * DUPLICATE_KEY_1 (23505).
+     */
+    static boolean isDuplicateKey(SQLException e) {
+        return e.getErrorCode() == 1062 || e.getErrorCode() == 23505;
+    }
+
+    /**
+     * Returns whether an exception reports a row referring to a missing key,
+     * such as a user with a role not in user_roles.
+     *
+     * @param e the exception.
+     * @return true for MySQL's ER_NO_REFERENCED_ROW (1216, 1452) and H2's
+     * REFERENTIAL_INTEGRITY_VIOLATED_PARENT_MISSING_1 (23506).
+     */
+    static boolean isForeignKeyViolation(SQLException e) {
+        return e.getErrorCode() == 1452 || e.getErrorCode() == 1216 || e.getErrorCode() == 23506;
+    }
+
     /**
      * Retrieves the role of a user based on their username.
      *
@@ -164,23 +611,49 @@ public class DatabaseUtils {
         }
         return null;
     }
-public static int getDisasterReportId(String username, String disasterType, String location) throws SQLException {
-    Connection connection = getConnection();
-    String query = "SELECT id FROM disaster_reports WHERE username = ? AND disaster_type = ? AND location = ?";
-    
-    try (PreparedStatement stmt = connection.prepareStatement(query)) {
-        stmt.setString(1, username);
-        stmt.setString(2, disasterType);
-        stmt.setString(3, location);
-        
-        ResultSet rs = stmt.executeQuery();
-        if (rs.next()) {
-            return rs.getInt("id");
-        } else {
-            throw new SQLException("No matching disaster report found.");
+    /**
+     * Finds the ID of a disaster report by its reporter, type and location.
+     * New reports don't need this: {@link #saveDisasterReport} returns the
+     * saved report with its ID.
+     *
+     * @param username the username of the reporter.
+     * @param disasterType the type of the disaster.
+     * @param location the location of the disaster.
+     * @return the ID of a matching report.
+     * @throws SQLException if no report matches or a database access error
+     * occurs.
+     */
+    public static int getDisasterReportId(String username, String disasterType, String location) throws SQLException {
+        String query = "SELECT id FROM disaster_reports WHERE username = ? AND disaster_type_id = ? AND location = ?";
+        try (Connection connection = getConnection(); PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setString(1, username);
+            stmt.setInt(2, ReferenceCatalogue.findId(ReferenceCatalogue.Kind.DISASTER_TYPE, disasterType));
+            stmt.setString(3, location);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt("id");
+                }
+                throw new SQLException("No matching disaster report found.");
+            }
+        }
+    }
+
+    /**
+     * Returns who submitted a disaster report.
+     *
+     * @param id the ID of the disaster report.
+     * @return the reporter's username, or null if there is no such report.
+     * @throws SQLException if a database access error occurs.
+     */
+    public static String getReportOwner(int id) throws SQLException {
+        try (Connection conn = getConnection(); PreparedStatement stmt = conn.prepareStatement(
+                "SELECT username FROM disaster_reports WHERE id = ?")) {
+            stmt.setInt(1, id);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
         }
     }
-}
     /**
      * Checks if the provided login credentials are valid.
      *
@@ -208,7 +681,8 @@ public static int getDisasterReportId(String username, String disasterType, Stri
 
     /**
      * Checks if a user exists in the database by checking their username,
-     * email, or phone number.
+     * email, or phone number. Values the {@link UserKeyFilter} has never seen
+     * are answered without querying; the rest are three index lookups.
      *
      * @param username the username of the user.
      * @param email the email address of the user.
@@ -216,7 +690,13 @@ public static int getDisasterReportId(String username, String disasterType, Stri
      * @return true if the user exists, false otherwise.
      */
     public static boolean userExists(String username, String email, String phoneNumber) {
-        String sql = "SELECT * FROM users WHERE username = ? OR email = ? OR phone_number = ?";
+        if (!UserKeyFilter.mightExist(username, email, phoneNumber)) {
+            return false;
+        }
+        // One branch per unique index instead of an OR, which could fall back to a scan
+        String sql = "SELECT 1 FROM users WHERE username = ? "
+                + "UNION ALL SELECT 1 FROM users WHERE email = ? "
+                + "UNION ALL SELECT 1 FROM users WHERE phone_number = ?";
         try (Connection conn = getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, username);
             stmt.setString(2, email);
@@ -268,6 +748,31 @@ public static int getDisasterReportId(String username, String disasterType, Stri
         }
     }
 
+    /**
+     * Resets the password of the account registered with both the given
+     * email address and phone number.
+     *
+     * @param email the email address of the user.
+     * @param phoneNumber the phone number of the user.
+     * @param newPassword the new password.
+     * @return true if an account matched and was updated.
+     */
+    public static boolean resetPassword(String email, String phoneNumber, String newPassword) {
+        if (newPassword == null || newPassword.isEmpty()) {
+            throw new IllegalArgumentException("Password cannot be empty.");
+        }
+        String sql = "UPDATE users SET password = ? WHERE email = ? AND phone_number = ?";
+        try (Connection conn = getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, hashPassword(newPassword));
+            stmt.setString(2, email);
+            stmt.setString(3, phoneNumber);
+            return stmt.executeUpdate() > 0;
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return false;
+    }
+
     /**
      * Saves a disaster report to the database.
      *
@@ -276,8 +781,10 @@ public static int getDisasterReportId(String username, String disasterType, Stri
      * @param location the location of the disaster.
      * @param severity the severity of the disaster.
      * @param description the description of the disaster.
+     * @return the saved report with its generated ID and report time.
+     * @throws SQLException if a database access error occurs.
      */
-    public static void saveDisasterReport(String username, String disasterType, String location, int severity, String description) {
+    public static DisasterReport saveDisasterReport(String username, String disasterType, String location, int severity, String description) throws SQLException {
         if (disasterType == null || disasterType.trim().isEmpty()) {
             throw new IllegalArgumentException("Disaster type cannot be empty");
         }
@@ -290,17 +797,156 @@ public static int getDisasterReportId(String username, String disasterType, Stri
         if (description == null || description.trim().isEmpty()) {
             throw new IllegalArgumentException("Description cannot be empty");
         }
-        String sql = "INSERT INTO disaster_reports (username, disaster_type, location, severity, description) VALUES (?, ?, ?, ?, ?)";
-        try (Connection conn = getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
+        // report_time comes from the column default, so every client is on the database's clock
+        String sql = "INSERT INTO disaster_reports (username, disaster_type_id, location, severity, description) VALUES (?, ?, ?, ?, ?)";
+        try (Connection conn = getConnection(); PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            int typeId = ReferenceCatalogue.idOf(ReferenceCatalogue.Kind.DISASTER_TYPE, disasterType);
             stmt.setString(1, username);
-            stmt.setString(2, disasterType);
+            stmt.setInt(2, typeId);
             stmt.setString(3, location);
             stmt.setInt(4, severity);
             stmt.setString(5, description);
             stmt.executeUpdate();
-        } catch (SQLException e) {
-            e.printStackTrace();
+            int id;
+            try (ResultSet keys = stmt.getGeneratedKeys()) {
+                if (!keys.next()) {
+                    throw new SQLException("No ID was generated for the new report.");
+                }
+                id = keys.getInt(1);
+            }
+            Timestamp reportTime = readTimestamps(conn, "disaster_reports", "report_time", List.of(id)).get(id);
+            DashboardRollups.reportAdded(disasterType, severity, reportTime);
+            AnalyticsStore.reportAdded(id, disasterType, location, severity);
+            return new DisasterReport(id, username, disasterType, location,
+                    String.valueOf(severity), description, null, reportTime.toLocalDateTime());
+        }
+    }
+
+    /**
+     * Reads a column default the database filled in, such as the creation
+     * time of new rows, so it is not taken from the client's clock.
+     *
+     * @param conn the connection that inserted the rows.
+     * @param table the table.
+     * @param column the timestamp column.
+     * @param ids the IDs of the rows.
+     * @return the timestamps by row ID.
+     * @throws SQLException if a row is missing or a database access error
+     * occurs.
+     */
+    private static Map<Integer, Timestamp> readTimestamps(Connection conn, String table, String column, List<Integer> ids) throws SQLException {
+        String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        Map<Integer, Timestamp> timestamps = new HashMap<>();
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT id, " + column + " FROM " + table + " WHERE id IN (" + placeholders + ")")) {
+            for (int i = 0; i < ids.size(); i++) {
+                stmt.setInt(i + 1, ids.get(i));
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    timestamps.put(rs.getInt(1), rs.getTimestamp(2));
+                }
+            }
+        }
+        if (timestamps.size() != ids.size()) {
+            throw new SQLException("Could not read " + column + " of new " + table + " rows " + ids);
+        }
+        return timestamps;
+    }
+
+    /**
+     * Records an attachment of a disaster report. The file must already be in
+     * the attachment store under the given hash.
+     *
+     * @param reportId the ID of the disaster report.
+     * @param contentHash the SHA-256 hash naming the stored file.
+     * @param fileName the original file name.
+     * @param mediaType the MIME type of the file.
+     * @param sizeBytes the file size in bytes.
+     * @return the saved attachment.
+     * @throws SQLException if a database access error occurs.
+     */
+    public static Attachment addAttachment(int reportId, String contentHash, String fileName, String mediaType, long sizeBytes) throws SQLException {
+        String sql = "INSERT INTO report_attachments (report_id, content_hash, file_name, media_type, size_bytes) VALUES (?, ?, ?, ?, ?)";
+        try (Connection conn = getConnection(); PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            stmt.setInt(1, reportId);
+            stmt.setString(2, contentHash);
+            stmt.setString(3, fileName);
+            stmt.setString(4, mediaType);
+            stmt.setLong(5, sizeBytes);
+            stmt.executeUpdate();
+            int id;
+            try (ResultSet keys = stmt.getGeneratedKeys()) {
+                if (!keys.next()) {
+                    throw new SQLException("No ID generated for attachment");
+                }
+                id = keys.getInt(1);
+            }
+            // created_at comes from the column default, so it is on the same clock as the report
+            Timestamp createdAt = readTimestamps(conn, "report_attachments", "created_at", List.of(id)).get(id);
+            return new Attachment(id, reportId, contentHash, fileName, mediaType, sizeBytes, createdAt.toLocalDateTime());
+        }
+    }
+
+    /**
+     * Retrieves the attachments of a disaster report, oldest first.
+     *
+     * @param reportId the ID of the disaster report.
+     * @return a list of Attachment objects.
+     * @throws SQLException if a database access error occurs.
+     */
+    public static List<Attachment> getAttachments(int reportId) throws SQLException {
+        List<Attachment> attachments = new ArrayList<>();
+        String sql = "SELECT * FROM report_attachments WHERE report_id = ? ORDER BY id";
+        try (Connection conn = getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, reportId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    attachments.add(mapAttachment(rs));
+                }
+            }
         }
+        return attachments;
+    }
+
+    /**
+     * Returns whether any attachment, live or archived, refers to a stored
+     * file.
+     *
+     * @param contentHash the SHA-256 hash naming the stored file.
+     * @return true if the file is in use.
+     * @throws SQLException if a database access error occurs.
+     */
+    public static boolean isAttachmentContentUsed(String contentHash) throws SQLException {
+        String sql = "SELECT 1 FROM report_attachments WHERE content_hash = ? "
+                + "UNION ALL SELECT 1 FROM report_attachments_archive WHERE content_hash = ?";
+        try (Connection conn = getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, contentHash);
+            stmt.setString(2, contentHash);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    /**
+     * Maps the current row of a report_attachments result set to an
+     * Attachment.
+     *
+     * @param rs a result set positioned on a report_attachments row.
+     * @return the mapped Attachment.
+     * @throws SQLException if a column cannot be read.
+     */
+    public static Attachment mapAttachment(ResultSet rs) throws SQLException {
+        return new Attachment(
+                rs.getInt("id"),
+                rs.getInt("report_id"),
+                rs.getString("content_hash"),
+                rs.getString("file_name"),
+                rs.getString("media_type"),
+                rs.getLong("size_bytes"),
+                rs.getTimestamp("created_at").toLocalDateTime()
+        );
     }
 
     /**
@@ -313,38 +959,171 @@ public static int getDisasterReportId(String username, String disasterType, Stri
         String query = "SELECT * FROM disaster_reports";
         List<DisasterReport> reports = new ArrayList<>();
 
-        try (Connection conn = DriverManager.getConnection(URL, USER, PASSWORD); Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(query)) {
+        try (Connection conn = getConnection(); Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(query)) {
             while (rs.next()) {
-                DisasterReport report = new DisasterReport(
-                        rs.getInt("id"),
-                        rs.getString("username"),
-                        rs.getString("disaster_type"),
-                        rs.getString("location"),
-                        rs.getString("severity"),
-                        rs.getString("description"),
-                        rs.getString("priority"),
-                        rs.getTimestamp("report_time").toLocalDateTime()
-                );
-                reports.add(report);
+                reports.add(mapDisasterReport(rs));
+            }
+        }
+        return reports;
+    }
+
+    /**
+     * Retrieves the disaster reports matching a filtered, sorted and paged
+     * query.
+     *
+     * @param query the query to run.
+     * @return the matching DisasterReport objects, in query order.
+     * @throws SQLException if a database access error occurs.
+     */
+    public static List<DisasterReport> findDisasterReports(ReportQuery query) throws SQLException {
+        List<DisasterReport> reports = new ArrayList<>();
+        try (Connection conn = getConnection(); PreparedStatement stmt = conn.prepareStatement(query.toSql())) {
+            bindParameters(stmt, query.getParameters());
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    reports.add(mapDisasterReport(rs));
+                }
             }
         }
         return reports;
     }
 
+    // Binds query builder values to the statement's placeholders
+    private static void bindParameters(PreparedStatement stmt, List<Object> parameters) throws SQLException {
+        for (int i = 0; i < parameters.size(); i++) {
+            Object value = parameters.get(i);
+            if (value instanceof LocalDateTime) {
+                stmt.setTimestamp(i + 1, Timestamp.valueOf((LocalDateTime) value));
+            } else if (value instanceof Integer) {
+                stmt.setInt(i + 1, (Integer) value);
+            } else {
+                stmt.setString(i + 1, (String) value);
+            }
+        }
+    }
+
     /**
-     * Updates the priority of a disaster report in the database.
+     * Updates the priority of a disaster report in the database. When the
+     * report had no priority yet, the tasks of its {@link RoutingRules} are
+     * created in the same transaction. The update is conditional on the
+     * version it read, like {@link #updateDisasterPriorityIfUnchanged}, and
+     * is retried if someone else changed the report first.
      *
      * @param id the ID of the disaster report.
      * @param priority the new priority level to be updated.
      * @throws SQLException if a database access error occurs.
      */
     public static void updateDisasterPriority(int id, String priority) throws SQLException {
-        String query = "UPDATE disaster_reports SET priority = ? WHERE id = ?";
-        try (Connection conn = DriverManager.getConnection(URL, USER, PASSWORD); PreparedStatement stmt = conn.prepareStatement(query)) {
-            stmt.setString(1, priority);
-            stmt.setInt(2, id);
-            stmt.executeUpdate();
+        applyPriority(id, priority, null);
+    }
+
+    /**
+     * Updates the priority of a disaster report only if nobody else has
+     * changed the report since it was loaded. The version check and the update
+     * are one conditional statement, so no lock is held between load and
+     * save. Routed tasks are created as in {@link #updateDisasterPriority}.
+     *
+     * @param id the ID of the disaster report.
+     * @param priority the new priority level.
+     * @param expectedVersion the report's version when it was loaded.
+     * @return true if saved (the version is now expectedVersion + 1), false if
+     * the report was changed or deleted in the meantime.
+     * @throws SQLException if a database access error occurs.
+     */
+    public static boolean updateDisasterPriorityIfUnchanged(int id, String priority, int expectedVersion) throws SQLException {
+        return applyPriority(id, priority, expectedVersion);
+    }
+
+    // Sets the priority, if given only at the expected version, and routes a report that had none yet
+    private static boolean applyPriority(int id, String priority, Integer expectedVersion) throws SQLException {
+        while (true) {
+            try (UnitOfWork work = UnitOfWork.begin()) {
+                PreparedStatement select = work.prepare("SELECT priority, disaster_type_id, severity, version FROM disaster_reports WHERE id = ?");
+                select.setInt(1, id);
+                String oldPriority;
+                String disasterType;
+                int severity;
+                int version;
+                try (ResultSet rs = select.executeQuery()) {
+                    if (!rs.next()) {
+                        return false;  // Deleted
+                    }
+                    oldPriority = rs.getString(1);
+                    disasterType = ReferenceCatalogue.nameOf(ReferenceCatalogue.Kind.DISASTER_TYPE, rs.getInt(2));
+                    severity = rs.getInt(3);
+                    version = rs.getInt(4);
+                }
+                if (expectedVersion != null && version != expectedVersion) {
+                    return false;  // Already a conflict
+                }
+
+                // No lock is taken while reading: the update only applies at the version read, so the old
+                // priority is still current when it does, and of two first prioritisations only one routes
+                PreparedStatement update = work.prepare("UPDATE disaster_reports SET priority = ?, version = version + 1, "
+                        + "updated_at = CURRENT_TIMESTAMP(3) WHERE id = ? AND version = ?");
+                update.setString(1, priority);
+                update.setInt(2, id);
+                update.setInt(3, version);
+                if (update.executeUpdate() == 0) {
+                    if (expectedVersion != null) {
+                        return false;
+                    }
+                    continue;  // Changed since it was read; retried in a new transaction, which sees the change
+                }
+                if (oldPriority == null && priority != null && RoutingRules.isAutoAssignEnabled()) {
+                    routeReport(work, id, disasterType, severity, priority);
+                }
+                work.afterCommit(() -> {
+                    DashboardRollups.priorityChanged(oldPriority, priority);
+                    SlaMonitor.priorityChanged(id, priority);
+                    AnalyticsStore.priorityChanged(id, priority);
+                    AuditLog.getDefault().record("PRIORITY_CHANGED", "report:" + id, oldPriority + " -> " + priority);
+                });
+                work.commit();
+                return true;
+            }
+        }
+    }
+
+    // Adds the tasks of the report's routing rules to the unit of work as one batch
+    private static void routeReport(UnitOfWork work, int reportId, String disasterType, int severity, String priority) throws SQLException {
+        List<RoutingRule> rules = RoutingRules.getDefault().route(disasterType, severity);
+        if (rules.isEmpty()) {
+            return;
         }
+        String status = AssignedTask.STATUSES[0];
+        PreparedStatement insert = work.prepare(
+                "INSERT INTO assigned_tasks (disaster_id, department_id, task_description, status) VALUES (?, ?, ?, ?)");
+        List<String> departments = new ArrayList<>();
+        Map<String, Integer> workload = new HashMap<>();
+        for (RoutingRule rule : rules) {
+            insert.setInt(1, reportId);
+            // The rules are the administrator's configuration, so a department they name is added if new
+            insert.setInt(2, ReferenceCatalogue.add(ReferenceCatalogue.Kind.DEPARTMENT, rule.getDepartment()));
+            insert.setString(3, rule.getTaskDescription());
+            insert.setString(4, status);
+            insert.addBatch();
+            departments.add(rule.getDepartment());
+            DepartmentWorkload.addChange(workload, rule.getDepartment(), null, status);
+        }
+        insert.executeBatch();
+        List<Integer> taskIds = new ArrayList<>();
+        try (ResultSet keys = insert.getGeneratedKeys()) {
+            while (keys.next()) {
+                taskIds.add(keys.getInt(1));
+            }
+        }
+        Map<Integer, Timestamp> createdAt = readTimestamps(work.getConnection(), "assigned_tasks", "created_at", taskIds);
+        DepartmentWorkload.record(work, workload);
+        work.afterCommit(() -> {
+            for (String department : departments) {
+                DashboardRollups.taskAdded(department, status);
+            }
+            for (int taskId : taskIds) {
+                SlaMonitor.taskOpened(taskId, reportId, createdAt.get(taskId).toLocalDateTime(), priority);
+            }
+            AuditLog.getDefault().record("TASKS_ROUTED", "report:" + reportId, String.join(", ", departments));
+        });
     }
 
     /**
@@ -353,16 +1132,11 @@ public static int getDisasterReportId(String username, String disasterType, Stri
      * @param disasterId the ID of the disaster.
      * @param department the department to assign the task.
      * @param taskDescription the description of the task.
+     * @return the saved task, see {@link #saveAssignedTask}.
      * @throws SQLException if a database access error occurs.
      */
-    public static void assignTaskToDepartment(int disasterId, String department, String taskDescription) throws SQLException {
-        String sql = "INSERT INTO assigned_tasks (disaster_id, department, task_description) VALUES (?, ?, ?)";
-        try (Connection conn = getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setInt(1, disasterId);
-            stmt.setString(2, department);
-            stmt.setString(3, taskDescription);
-            stmt.executeUpdate();
-        }
+    public static AssignedTask assignTaskToDepartment(int disasterId, String department, String taskDescription) throws SQLException {
+        return saveAssignedTask(disasterId, department, taskDescription);
     }
 
     /**
@@ -371,15 +1145,86 @@ public static int getDisasterReportId(String username, String disasterType, Stri
      * @param disasterId the ID of the disaster.
      * @param department the department assigned to the task.
      * @param taskDescription the description of the task.
-     * @throws SQLException if a database access error occurs.
+     * @return the saved task with its generated ID, carrying the report's
+     * type, location and priority like the tasks read by
+     * {@link #getAssignedTasksSortedByPriority()}.
+     * @throws SQLException if the disaster report does not exist or a
+     * database access error occurs.
+     */
+    public static AssignedTask saveAssignedTask(int disasterId, String department, String taskDescription) throws SQLException {
+        return assignTaskToDepartments(disasterId, List.of(department), taskDescription).get(0);
+    }
+
+    /**
+     * Assigns the same task for a disaster report to several departments in
+     * one transaction: the tasks are inserted as one batch and committed
+     * together, or none is saved.
+     *
+     * @param disasterId the ID of the disaster.
+     * @param departments the departments, at least one.
+     * @param taskDescription the description of the task.
+     * @return the saved tasks with their generated IDs, in department order.
+     * @throws SQLException if the disaster report does not exist or a
+     * database access error occurs.
      */
-    public static void saveAssignedTask(int disasterId, String department, String taskDescription) throws SQLException {
-        String sql = "INSERT INTO assigned_tasks (disaster_id, department, task_description) VALUES (?, ?, ?)";
-        try (Connection connection = getConnection(); PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
-            preparedStatement.setInt(1, disasterId);
-            preparedStatement.setString(2, department);
-            preparedStatement.setString(3, taskDescription);
-            preparedStatement.executeUpdate();
+    public static List<AssignedTask> assignTaskToDepartments(int disasterId, List<String> departments, String taskDescription) throws SQLException {
+        if (departments == null || departments.isEmpty()) {
+            throw new IllegalArgumentException("At least one department is required.");
+        }
+        String reportSql = "SELECT disaster_type_id, location, priority FROM disaster_reports WHERE id = ?";
+        String sql = "INSERT INTO assigned_tasks (disaster_id, department_id, task_description, status) VALUES (?, ?, ?, ?)";
+        String status = AssignedTask.STATUSES[0];
+        try (UnitOfWork work = UnitOfWork.begin()) {
+            String disasterType;
+            String location;
+            String priority;
+            PreparedStatement reportStatement = work.prepare(reportSql);
+            reportStatement.setInt(1, disasterId);
+            try (ResultSet rs = reportStatement.executeQuery()) {
+                if (!rs.next()) {
+                    throw new SQLException("Disaster report " + disasterId + " does not exist.");
+                }
+                disasterType = ReferenceCatalogue.nameOf(ReferenceCatalogue.Kind.DISASTER_TYPE, rs.getInt("disaster_type_id"));
+                location = rs.getString("location");
+                priority = rs.getString("priority");
+            }
+
+            PreparedStatement insert = work.prepare(sql);
+            Map<String, Integer> workload = new HashMap<>();
+            for (String department : departments) {
+                insert.setInt(1, disasterId);
+                insert.setInt(2, ReferenceCatalogue.idOf(ReferenceCatalogue.Kind.DEPARTMENT, department));
+                insert.setString(3, taskDescription);
+                insert.setString(4, status);
+                insert.addBatch();
+                work.afterCommit(() -> DashboardRollups.taskAdded(department, status));
+                DepartmentWorkload.addChange(workload, department, null, status);
+            }
+            insert.executeBatch();
+            DepartmentWorkload.record(work, workload);
+
+            List<AssignedTask> tasks = new ArrayList<>();
+            List<Integer> taskIds = new ArrayList<>();
+            try (ResultSet keys = insert.getGeneratedKeys()) {
+                for (String department : departments) {
+                    if (!keys.next()) {
+                        throw new SQLException("No ID was generated for the new task.");
+                    }
+                    int taskId = keys.getInt(1);
+                    taskIds.add(taskId);
+                    tasks.add(new AssignedTask(taskId, disasterId, disasterType, location, department,
+                            taskDescription, priority, status, 0));
+                }
+            }
+            // The deadline runs from created_at as the database stamped it
+            Map<Integer, Timestamp> createdAt = readTimestamps(work.getConnection(), "assigned_tasks", "created_at", taskIds);
+            work.afterCommit(() -> {
+                for (int taskId : taskIds) {
+                    SlaMonitor.taskOpened(taskId, disasterId, createdAt.get(taskId).toLocalDateTime(), priority);
+                }
+            });
+            work.commit();
+            return tasks;
         }
     }
 
@@ -392,8 +1237,8 @@ public static int getDisasterReportId(String username, String disasterType, Stri
     public static List<AssignedTask> getAssignedTasksSortedByPriority() throws SQLException {
         List<AssignedTask> assignedTasks = new ArrayList<>();
 
-        String query = "SELECT d.id, d.disaster_id, d.department, d.task_description, d.created_at, d.status, "
-                + "a.disaster_type, a.location, a.priority "
+        String query = "SELECT d.id, d.disaster_id, d.department_id, d.task_description, d.created_at, d.status, d.version, "
+                + "d.escalated_at, a.disaster_type_id, a.location, a.priority "
                 + "FROM assigned_tasks d "
                 + "JOIN disaster_reports a ON d.disaster_id = a.id "
                 + "ORDER BY CASE "
@@ -407,15 +1252,9 @@ public static int getDisasterReportId(String username, String disasterType, Stri
 
         try (Connection conn = getConnection(); PreparedStatement stmt = conn.prepareStatement(query); ResultSet rs = stmt.executeQuery()) {
             while (rs.next()) {
-                AssignedTask task = new AssignedTask(
-                        rs.getInt("disaster_id"),
-                        rs.getString("disaster_type"),
-                        rs.getString("location"),
-                        rs.getString("department"),
-                        rs.getString("task_description"),
-                        rs.getString("priority"),
-                        rs.getString("status")
-                );
+                AssignedTask task = mapAssignedTask(rs);
+                Timestamp escalatedAt = rs.getTimestamp("escalated_at");
+                task.setEscalatedAt(escalatedAt == null ? null : escalatedAt.toLocalDateTime());
                 assignedTasks.add(task);
             }
         }
@@ -431,11 +1270,85 @@ public static int getDisasterReportId(String username, String disasterType, Stri
      * @throws SQLException if a database access error occurs.
      */
     public static void updateTaskStatus(int disasterId, String status) throws SQLException {
-        String query = "UPDATE assigned_tasks SET status = ? WHERE disaster_id = ?";
-        try (Connection conn = getConnection(); PreparedStatement stmt = conn.prepareStatement(query)) {
+        String query = "UPDATE assigned_tasks SET status = ?, version = version + 1 WHERE disaster_id = ?";
+        try (UnitOfWork work = UnitOfWork.begin()) {
+            // Remember each affected task's department and old status for the dashboard and workload
+            List<String[]> previous = new ArrayList<>();
+            PreparedStatement select = work.prepare("SELECT department_id, status, id FROM assigned_tasks WHERE disaster_id = ? FOR UPDATE");
+            select.setInt(1, disasterId);
+            try (ResultSet rs = select.executeQuery()) {
+                while (rs.next()) {
+                    previous.add(new String[]{ReferenceCatalogue.nameOf(ReferenceCatalogue.Kind.DEPARTMENT, rs.getInt(1)),
+                        rs.getString(2), rs.getString(3)});
+                }
+            }
+            PreparedStatement stmt = work.prepare(query);
             stmt.setString(1, status);
             stmt.setInt(2, disasterId);
             stmt.executeUpdate();
+            Map<String, Integer> workload = new HashMap<>();
+            for (String[] task : previous) {
+                DepartmentWorkload.addChange(workload, task[0], task[1], status);
+            }
+            DepartmentWorkload.record(work, workload);
+            work.afterCommit(() -> {
+                for (String[] task : previous) {
+                    DashboardRollups.taskStatusChanged(task[0], task[1], status);
+                    AuditLog.getDefault().record("TASK_STATUS_CHANGED", "task:" + task[2], task[1] + " -> " + status);
+                    if (!AssignedTask.STATUSES[0].equals(status)) {
+                        SlaMonitor.taskClosed(Integer.parseInt(task[2]));
+                    }
+                }
+            });
+            work.commit();
+        }
+    }
+
+    /**
+     * Updates the status of one assigned task only if nobody else has changed
+     * the task since it was loaded.
+     *
+     * @param taskId the ID of the task.
+     * @param status the new status of the task.
+     * @param expectedVersion the task's version when it was loaded.
+     * @return true if saved (the version is now expectedVersion + 1), false if
+     * the task was changed or deleted in the meantime.
+     * @throws SQLException if a database access error occurs.
+     */
+    public static boolean updateTaskStatusIfUnchanged(int taskId, String status, int expectedVersion) throws SQLException {
+        String query = "UPDATE assigned_tasks SET status = ?, version = version + 1 WHERE id = ? AND version = ?";
+        try (UnitOfWork work = UnitOfWork.begin()) {
+            String department;
+            String oldStatus;
+            PreparedStatement select = work.prepare("SELECT department_id, status FROM assigned_tasks WHERE id = ? AND version = ? FOR UPDATE");
+            select.setInt(1, taskId);
+            select.setInt(2, expectedVersion);
+            try (ResultSet rs = select.executeQuery()) {
+                if (!rs.next()) {
+                    return false;
+                }
+                department = ReferenceCatalogue.nameOf(ReferenceCatalogue.Kind.DEPARTMENT, rs.getInt(1));
+                oldStatus = rs.getString(2);
+            }
+            PreparedStatement stmt = work.prepare(query);
+            stmt.setString(1, status);
+            stmt.setInt(2, taskId);
+            stmt.setInt(3, expectedVersion);
+            if (stmt.executeUpdate() == 0) {
+                return false;
+            }
+            Map<String, Integer> workload = new HashMap<>();
+            DepartmentWorkload.addChange(workload, department, oldStatus, status);
+            DepartmentWorkload.record(work, workload);
+            work.afterCommit(() -> {
+                DashboardRollups.taskStatusChanged(department, oldStatus, status);
+                AuditLog.getDefault().record("TASK_STATUS_CHANGED", "task:" + taskId, oldStatus + " -> " + status);
+                if (!AssignedTask.STATUSES[0].equals(status)) {
+                    SlaMonitor.taskClosed(taskId);
+                }
+            });
+            work.commit();
+            return true;
         }
     }
 
@@ -450,7 +1363,7 @@ public static int getDisasterReportId(String username, String disasterType, Stri
     public static List<AssignedTask> getFinishedTasksForUser(String username) throws SQLException {
         List<AssignedTask> finishedTasks = new ArrayList<>();
 
-        String query = "SELECT a.disaster_id, a.department, a.task_description, a.status, d.disaster_type, d.location, d.priority "
+        String query = "SELECT a.id, a.disaster_id, a.department_id, a.task_description, a.status, a.version, d.disaster_type_id, d.location, d.priority "
                 + "FROM assigned_tasks a "
                 + "JOIN disaster_reports d ON a.disaster_id = d.id "
                 + "WHERE d.username = ? AND a.status = 'Finished'";
@@ -459,16 +1372,7 @@ public static int getDisasterReportId(String username, String disasterType, Stri
             ResultSet rs = stmt.executeQuery();
 
             while (rs.next()) {
-                AssignedTask task = new AssignedTask(
-                        rs.getInt("disaster_id"),
-                        rs.getString("disaster_type"),
-                        rs.getString("location"),
-                        rs.getString("department"),
-                        rs.getString("task_description"),
-                        rs.getString("priority"),
-                        rs.getString("status")
-                );
-                finishedTasks.add(task);
+                finishedTasks.add(mapAssignedTask(rs));
             }
         }
         return finishedTasks;
@@ -483,28 +1387,65 @@ public static int getDisasterReportId(String username, String disasterType, Stri
     public static List<AssignedTask> getAllFinishedTasks() throws SQLException {
         List<AssignedTask> finishedTasks = new ArrayList<>();
 
-        String query = "SELECT a.disaster_id, a.department, a.task_description, a.status, d.disaster_type, d.location, d.priority "
+        String query = "SELECT a.id, a.disaster_id, a.department_id, a.task_description, a.status, a.version, d.disaster_type_id, d.location, d.priority "
                 + "FROM assigned_tasks a "
                 + "JOIN disaster_reports d ON a.disaster_id = d.id "
                 + "WHERE a.status = 'Finished'";
 
         try (Connection conn = getConnection(); PreparedStatement stmt = conn.prepareStatement(query); ResultSet rs = stmt.executeQuery()) {
             while (rs.next()) {
-                AssignedTask task = new AssignedTask(
-                        rs.getInt("disaster_id"),
-                        rs.getString("disaster_type"),
-                        rs.getString("location"),
-                        rs.getString("department"),
-                        rs.getString("task_description"),
-                        rs.getString("priority"),
-                        rs.getString("status")
-                );
-                finishedTasks.add(task);
+                finishedTasks.add(mapAssignedTask(rs));
             }
         }
         return finishedTasks;
     }
 
+    /**
+     * Retrieves archived disaster reports matching a query. Archived reports
+     * are closed incidents moved out of the live tables by
+     * {@link ReportArchiver}.
+     *
+     * @param query the query to run against the archive.
+     * @return the matching DisasterReport objects, in query order.
+     * @throws SQLException if a database access error occurs.
+     */
+    public static List<DisasterReport> findArchivedDisasterReports(ReportQuery query) throws SQLException {
+        List<DisasterReport> reports = new ArrayList<>();
+        try (Connection conn = getConnection(); PreparedStatement stmt = conn.prepareStatement(query.toSql("disaster_reports_archive"))) {
+            bindParameters(stmt, query.getParameters());
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    reports.add(mapDisasterReport(rs));
+                }
+            }
+        }
+        return reports;
+    }
+
+    /**
+     * Retrieves the archived tasks of an archived disaster report.
+     *
+     * @param reportId the ID of the archived disaster report.
+     * @return a list of AssignedTask objects.
+     * @throws SQLException if a database access error occurs.
+     */
+    public static List<AssignedTask> getArchivedTasks(int reportId) throws SQLException {
+        List<AssignedTask> tasks = new ArrayList<>();
+        String query = "SELECT a.id, a.disaster_id, a.department_id, a.task_description, a.status, a.version, d.disaster_type_id, d.location, d.priority "
+                + "FROM assigned_tasks_archive a "
+                + "JOIN disaster_reports_archive d ON a.disaster_id = d.id "
+                + "WHERE a.disaster_id = ? ORDER BY a.id";
+        try (Connection conn = getConnection(); PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setInt(1, reportId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    tasks.add(mapAssignedTask(rs));
+                }
+            }
+        }
+        return tasks;
+    }
+
     /**
      * Retrieves all users from the database.
      *
@@ -532,15 +1473,21 @@ public static int getDisasterReportId(String username, String disasterType, Stri
      *
      * @param username the username of the user whose role is being updated.
      * @param newRole the new role to assign to the user.
-     * @throws SQLException if a database access error occurs.
+     * @throws IllegalArgumentException if the role is not in the user_roles
+     * table.
      */
     public static void updateUserRole(String username, String newRole) {
         String sql = "UPDATE users SET role = ? WHERE username = ?";
         try (Connection conn = getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, newRole);
             stmt.setString(2, username);
-            stmt.executeUpdate();
+            if (stmt.executeUpdate() > 0) {
+                AuditLog.getDefault().record("USER_ROLE_CHANGED", "user:" + username, "-> " + newRole);
+            }
         } catch (SQLException e) {
+            if (isForeignKeyViolation(e)) {
+                throw new IllegalArgumentException("Invalid role: " + newRole);
+            }
             System.out.println("Error updating user role: " + e.getMessage());
             e.printStackTrace();
         }
@@ -555,8 +1502,23 @@ public static int getDisasterReportId(String username, String disasterType, Stri
     public static void deleteUser(String username) {
         String sql = "DELETE FROM users WHERE username = ?";
         try (Connection conn = getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
+            // Read the email and phone number first so they can leave the registration filter
+            List<String[]> removed = new ArrayList<>();
+            try (PreparedStatement select = conn.prepareStatement("SELECT email, phone_number FROM users WHERE username = ?")) {
+                select.setString(1, username);
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) {
+                        removed.add(new String[]{rs.getString(1), rs.getString(2)});
+                    }
+                }
+            }
             stmt.setString(1, username);
-            stmt.executeUpdate();
+            if (stmt.executeUpdate() > 0) {
+                for (String[] user : removed) {
+                    UserKeyFilter.userRemoved(username, user[0], user[1]);
+                }
+                AuditLog.getDefault().record("USER_DELETED", "user:" + username, null);
+            }
         } catch (SQLException e) {
             System.out.println("Error deleting user: " + e.getMessage());
             e.printStackTrace();
@@ -570,12 +1532,36 @@ public static int getDisasterReportId(String username, String disasterType, Stri
      * @throws SQLException if a database access error occurs.
      */
     public static void deleteDisasterReport(String username, String disasterType, String location) throws SQLException {
-        String sql = "DELETE FROM disaster_reports WHERE username = ? AND disaster_type = ? AND location = ?";
+        String sql = "DELETE FROM disaster_reports WHERE username = ? AND disaster_type_id = ? AND location = ?";
+        int typeId = ReferenceCatalogue.findId(ReferenceCatalogue.Kind.DISASTER_TYPE, disasterType);
         try (Connection conn = getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
+            // Read the rows first so the dashboard can uncount them
+            List<Object[]> removed = new ArrayList<>();
+            try (PreparedStatement select = conn.prepareStatement(
+                    "SELECT severity, priority, report_time, id FROM disaster_reports WHERE username = ? AND disaster_type_id = ? AND location = ?")) {
+                select.setString(1, username);
+                select.setInt(2, typeId);
+                select.setString(3, location);
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) {
+                        removed.add(new Object[]{rs.getInt(1), rs.getString(2), rs.getTimestamp(3), rs.getInt(4)});
+                    }
+                }
+            }
             stmt.setString(1, username);
-            stmt.setString(2, disasterType);
+            stmt.setInt(2, typeId);
             stmt.setString(3, location);
             stmt.executeUpdate();
+            List<Integer> removedIds = new ArrayList<>();
+            for (Object[] row : removed) {
+                DashboardRollups.reportRemoved(disasterType, (Integer) row[0], (String) row[1], (Timestamp) row[2]);
+                removedIds.add((Integer) row[3]);
+            }
+            AnalyticsStore.reportsRemoved(removedIds);
+            if (!removed.isEmpty()) {
+                AuditLog.getDefault().record("REPORT_DELETED", "report:" + username + "/" + disasterType + "/" + location,
+                        removed.size() + " row(s)");
+            }
         }
     }
 
@@ -589,12 +1575,45 @@ public static int getDisasterReportId(String username, String disasterType, Stri
      * @throws SQLException if a database access error occurs.
      */
     public static void deleteAssignedTask(int disasterId, String department, String taskDescription) throws SQLException {
-        String sql = "DELETE FROM assigned_tasks WHERE disaster_id = ? AND department = ? AND task_description = ?";
-        try (Connection conn = getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
+        String sql = "DELETE FROM assigned_tasks WHERE disaster_id = ? AND department_id = ? AND task_description = ?";
+        int departmentId = ReferenceCatalogue.findId(ReferenceCatalogue.Kind.DEPARTMENT, department);
+        try (UnitOfWork work = UnitOfWork.begin()) {
+            // Read the statuses first so the dashboard and workload can uncount the tasks
+            List<String> removedStatuses = new ArrayList<>();
+            List<Integer> removedIds = new ArrayList<>();
+            PreparedStatement select = work.prepare(
+                    "SELECT status, id FROM assigned_tasks WHERE disaster_id = ? AND department_id = ? AND task_description = ? FOR UPDATE");
+            select.setInt(1, disasterId);
+            select.setInt(2, departmentId);
+            select.setString(3, taskDescription);
+            try (ResultSet rs = select.executeQuery()) {
+                while (rs.next()) {
+                    removedStatuses.add(rs.getString(1));
+                    removedIds.add(rs.getInt(2));
+                }
+            }
+            PreparedStatement stmt = work.prepare(sql);
             stmt.setInt(1, disasterId);
-            stmt.setString(2, department);
+            stmt.setInt(2, departmentId);
             stmt.setString(3, taskDescription);
             stmt.executeUpdate();
+            Map<String, Integer> workload = new HashMap<>();
+            for (String status : removedStatuses) {
+                DepartmentWorkload.addChange(workload, department, status, null);
+            }
+            DepartmentWorkload.record(work, workload);
+            work.afterCommit(() -> {
+                for (String status : removedStatuses) {
+                    DashboardRollups.taskRemoved(department, status);
+                }
+                for (int taskId : removedIds) {
+                    SlaMonitor.taskClosed(taskId);
+                }
+                if (!removedStatuses.isEmpty()) {
+                    AuditLog.getDefault().record("TASK_DELETED", "report:" + disasterId + "/" + department, taskDescription);
+                }
+            });
+            work.commit();
         }
     }
 }
@@ -0,0 +1,171 @@
+package com.mycompany.mavenproject1.util;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Utility class keeping the number of open (not finished) tasks per
+ * department, so the assign-task page can suggest the least loaded
+ * departments without counting assigned_tasks.
+ *
+ * <p>The counts are persisted in department_workload, changed by the task
+ * write paths in {@link DatabaseUtils} in the same transaction as the task
+ * rows. Each department's count is split over {@value #STRIPES} rows and a
+ * change goes to a random one, so concurrent assignments to the same
+ * department rarely wait for each other's row lock; the count is the sum of
+ * the rows.
+ *
+ * <p>Reads are served from in-memory counters adjusted after each commit.
+ * They are reloaded from the (small) table when older than
+ * {@code drs.workload.refreshSeconds} (60), which picks up changes made by
+ * other processes.
+ *
+ * @author Bishwas Bhattarai
+ */
+public class DepartmentWorkload {
+
+    /** Rows each department's count is split over. */
+    public static final int STRIPES = 8;
+
+    private static final String UPSERT = "INSERT INTO department_workload (department, stripe, open_tasks) VALUES (?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE open_tasks = open_tasks + ?";
+
+    private static volatile Map<String, LongAdder> openTasks;  // Null until loaded; swapped as a whole on reload
+    private static volatile long loadedAt;                     // System.nanoTime() of the last load
+
+    /**
+     * Returns whether a task with the given status counts as open.
+     *
+     * @param status the task status.
+     * @return true unless the task is finished.
+     */
+    public static boolean isOpen(String status) {
+        return !"Finished".equals(status);
+    }
+
+    /**
+     * Adds the change of one department's open count for a status change.
+     *
+     * @param deltas the changes being collected, by department.
+     * @param department the department of the task.
+     * @param oldStatus the old status, or null for a new task.
+     * @param newStatus the new status, or null for a deleted task.
+     */
+    public static void addChange(Map<String, Integer> deltas, String department, String oldStatus, String newStatus) {
+        int delta = (newStatus != null && isOpen(newStatus) ? 1 : 0) - (oldStatus != null && isOpen(oldStatus) ? 1 : 0);
+        if (delta != 0) {
+            deltas.merge(department, delta, Integer::sum);
+        }
+    }
+
+    /**
+     * Writes changes of open counts in a unit of work, and applies them to the
+     * in-memory counters once it commits. Rows are locked in department
+     * order, so two units of work cannot deadlock on them.
+     *
+     * @param work the unit of work changing the tasks.
+     * @param deltas the changes, by department; zero changes are skipped.
+     * @throws SQLException if a database access error occurs.
+     */
+    public static void record(UnitOfWork work, Map<String, Integer> deltas) throws SQLException {
+        Map<String, Integer> sorted = new TreeMap<>(deltas);
+        sorted.values().removeIf(delta -> delta == 0);
+        if (sorted.isEmpty()) {
+            return;
+        }
+        PreparedStatement upsert = work.prepare(UPSERT);
+        for (Map.Entry<String, Integer> change : sorted.entrySet()) {
+            upsert.setString(1, change.getKey());
+            upsert.setInt(2, ThreadLocalRandom.current().nextInt(STRIPES));
+            upsert.setInt(3, change.getValue());
+            upsert.setInt(4, change.getValue());
+            upsert.addBatch();
+        }
+        upsert.executeBatch();
+        work.afterCommit(() -> {
+            Map<String, LongAdder> counters = openTasks;
+            if (counters != null) {
+                sorted.forEach((department, delta) -> counters.computeIfAbsent(department, name -> new LongAdder()).add(delta));
+            }
+        });
+    }
+
+    /**
+     * Returns the number of open tasks per department.
+     *
+     * @return the counts, by department name; departments without tasks are
+     * missing.
+     * @throws SQLException if the counts had to be loaded and could not be.
+     */
+    public static Map<String, Long> getOpenTasks() throws SQLException {
+        long maxAge = TimeUnit.SECONDS.toNanos(Long.getLong("drs.workload.refreshSeconds", 60));
+        if (openTasks == null || System.nanoTime() - loadedAt > maxAge) {
+            load();
+        }
+        Map<String, Long> snapshot = new TreeMap<>();
+        openTasks.forEach((department, count) -> snapshot.put(department, count.sum()));
+        return snapshot;
+    }
+
+    /**
+     * Reloads the in-memory counters from department_workload.
+     *
+     * @throws SQLException if a database access error occurs.
+     */
+    public static synchronized void load() throws SQLException {
+        Map<String, LongAdder> fresh = new ConcurrentHashMap<>();
+        try (Connection conn = DatabaseUtils.getConnection(); Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery("SELECT department, SUM(open_tasks) FROM department_workload GROUP BY department")) {
+            while (rs.next()) {
+                fresh.computeIfAbsent(rs.getString(1), name -> new LongAdder()).add(rs.getLong(2));
+            }
+        }
+        openTasks = fresh;
+        loadedAt = System.nanoTime();
+    }
+
+    /**
+     * Recomputes department_workload from assigned_tasks, e.g. after tasks
+     * were changed outside the application.
+     *
+     * @param conn a connection to the application database; the caller
+     * commits if auto-commit is off.
+     * @throws SQLException if a database access error occurs.
+     */
+    public static void rebuild(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("DELETE FROM department_workload");
+            stmt.executeUpdate("INSERT INTO department_workload (department, stripe, open_tasks) "
+                    + "SELECT d.name, 0, COUNT(*) FROM assigned_tasks t JOIN departments d ON d.id = t.department_id "
+                    + "WHERE t.status IS NULL OR t.status <> 'Finished' GROUP BY d.name");
+        }
+        openTasks = null;  // Reloaded on next read
+    }
+
+    /**
+     * Orders departments from least to most loaded; departments with equal
+     * counts keep their order.
+     *
+     * @param departments the departments.
+     * @param openTasks the open task counts, see {@link #getOpenTasks()}.
+     * @return the departments, least loaded first.
+     */
+    public static List<String> rankByLoad(Collection<String> departments, Map<String, Long> openTasks) {
+        List<String> ranked = new ArrayList<>(departments);
+        ranked.sort(Comparator.comparingLong(department -> openTasks.getOrDefault(department, 0L)));
+        return ranked;
+    }
+}
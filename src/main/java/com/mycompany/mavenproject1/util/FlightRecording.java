@@ -0,0 +1,85 @@
+package com.mycompany.mavenproject1.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+/**
+ * Utility class that starts a Java Flight Recorder recording when the
+ * {@code drs.jfr.file} system property names a file. The recording uses the
+ * JDK's default settings overlaid with the {@code drs.jfc} profile, which
+ * enables the application's {@link DataCallEvent}, {@link ViewLoadEvent} and
+ * {@link NavigationEvent} and lowers the thresholds of the built-in lock,
+ * socket and file events. It keeps the last {@code drs.jfr.maxAgeMinutes}
+ * (30) minutes and is written to the file when the JVM exits; a running
+ * recording named "drs" can also be dumped with {@code jcmd <pid> JFR.dump}.
+ *
+ * @author Bishwas Bhattarai
+ */
+public class FlightRecording {
+
+    /**
+     * Classpath location of the recording profile.
+     */
+    public static final String PROFILE = "/com/mycompany/mavenproject1/drs.jfc";
+
+    private static Recording recording; // Started recording, null until start() found the property
+
+    private FlightRecording() {
+    }
+
+    /**
+     * Reads the recording profile.
+     *
+     * @return the profile's settings.
+     * @throws IOException if the profile could not be read.
+     * @throws ParseException if the profile is not a valid JFR configuration.
+     */
+    public static Configuration profile() throws IOException, ParseException {
+        InputStream in = FlightRecording.class.getResourceAsStream(PROFILE);
+        if (in == null) {
+            throw new IOException("Missing recording profile " + PROFILE);
+        }
+        try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+            return Configuration.create(reader);
+        }
+    }
+
+    /**
+     * Starts the recording if {@code drs.jfr.file} is set. Called once from
+     * the desktop and server entry points; later calls do nothing.
+     */
+    public static synchronized void startIfConfigured() {
+        String file = System.getProperty("drs.jfr.file");
+        if (recording != null || file == null || file.trim().isEmpty()) {
+            return;
+        }
+        try {
+            Path destination = Paths.get(file.trim()).toAbsolutePath();
+            Map<String, String> settings = new HashMap<>(Configuration.getConfiguration("default").getSettings());
+            settings.putAll(profile().getSettings());
+
+            Recording started = new Recording(settings);
+            started.setName("drs");
+            started.setToDisk(true);
+            started.setMaxAge(Duration.ofMinutes(Long.getLong("drs.jfr.maxAgeMinutes", 30L)));
+            started.setDestination(destination);
+            started.setDumpOnExit(true);
+            started.start();
+            recording = started;
+            System.out.println("Flight recording to " + destination);
+        } catch (IOException | ParseException | IllegalStateException | SecurityException e) {
+            e.printStackTrace();
+        }
+    }
+}
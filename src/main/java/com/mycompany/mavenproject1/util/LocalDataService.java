@@ -0,0 +1,254 @@
+package com.mycompany.mavenproject1.util;
+
+import com.mycompany.mavenproject1.model.AssignedTask;
+import com.mycompany.mavenproject1.model.Attachment;
+import com.mycompany.mavenproject1.model.DisasterReport;
+import com.mycompany.mavenproject1.model.UserModel;
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * {@link DataService} that runs every operation directly against the
+ * database through {@link DatabaseUtils}. Used by the desktop client when no
+ * backend server is configured, and by the backend server itself.
+ *
+ * @author Bishwas Bhattarai
+ */
+public class LocalDataService implements DataService {
+
+    @Override
+    public CompletableFuture<Void> prepare() {
+        // Desktops share the database, so only the designated one escalates overdue tasks
+        return DatabaseUtils.setupDatabaseAsync().thenRun(() -> {
+            if (SlaMonitor.isEnabledOnDesktop()) {
+                SlaMonitor.start();
+            }
+        });
+    }
+
+    @Override
+    public boolean isReady() {
+        return DatabaseUtils.isSchemaReady();
+    }
+
+    @Override
+    public boolean isValidLogin(String username, String password) {
+        return DatabaseUtils.isValidLogin(username, password);
+    }
+
+    @Override
+    public String getUserRole(String username) {
+        return DatabaseUtils.getUserRole(username);
+    }
+
+    @Override
+    public boolean userExists(String username, String email, String phoneNumber) {
+        return DatabaseUtils.userExists(username, email, phoneNumber);
+    }
+
+    @Override
+    public UserModel saveUser(String username, String password, String email, String phoneNumber, String role) {
+        return DatabaseUtils.saveUser(username, password, email, phoneNumber, role);
+    }
+
+    @Override
+    public boolean isEmailAndPhoneRegistered(String email, String phoneNumber) {
+        return DatabaseUtils.isEmailAndPhoneRegistered(email, phoneNumber);
+    }
+
+    @Override
+    public boolean resetPassword(String email, String phoneNumber, String newPassword) {
+        return DatabaseUtils.resetPassword(email, phoneNumber, newPassword);
+    }
+
+    @Override
+    public void logout() {
+        // No session; the desktop talks to the database directly
+    }
+
+    @Override
+    public List<UserModel> fetchAllUsers() {
+        return DatabaseUtils.fetchAllUsers();
+    }
+
+    @Override
+    public void updateUserRole(String username, String newRole) {
+        DatabaseUtils.updateUserRole(username, newRole);
+    }
+
+    @Override
+    public void deleteUser(String username) {
+        DatabaseUtils.deleteUser(username);
+    }
+
+    @Override
+    public DisasterReport saveDisasterReport(String username, String disasterType, String location, int severity, String description) throws SQLException {
+        RateLimiter.getDefault().acquire(submitterKey());
+        return DatabaseUtils.saveDisasterReport(username, disasterType, location, severity, description);
+    }
+
+    // The rate limit follows who is authenticated on this thread, not the username passed in: the server's
+    // request user or the desktop's logged-in user, else the client address
+    private static String submitterKey() {
+        String actor = Session.getActor();
+        String origin = Session.getOrigin();
+        return Session.SYSTEM.equals(actor) && origin != null ? "address:" + origin : actor;
+    }
+
+    @Override
+    public Attachment addAttachment(int reportId, Path file) throws SQLException, IOException {
+        String fileName = file.getFileName().toString();
+        String mediaType = AttachmentStore.mediaTypeOf(fileName);
+        String hash = AttachmentStore.getDefault().store(file);
+        return recordAttachment(reportId, hash, fileName, mediaType, Files.size(file));
+    }
+
+    @Override
+    public Attachment addAttachment(int reportId, String fileName, ReadableByteChannel content) throws SQLException, IOException {
+        String mediaType = AttachmentStore.mediaTypeOf(fileName);
+        AttachmentStore store = AttachmentStore.getDefault();
+        String hash = store.store(content);
+        return recordAttachment(reportId, hash, fileName, mediaType, store.size(hash));
+    }
+
+    // Records a stored file; if that fails, the file is removed again unless another attachment uses it
+    private static Attachment recordAttachment(int reportId, String hash, String fileName, String mediaType, long size)
+            throws SQLException, IOException {
+        try {
+            return DatabaseUtils.addAttachment(reportId, hash, fileName, mediaType, size);
+        } catch (SQLException e) {
+            try {
+                if (!DatabaseUtils.isAttachmentContentUsed(hash)) {
+                    AttachmentStore.getDefault().delete(hash);
+                }
+            } catch (SQLException | IOException cleanup) {
+                e.addSuppressed(cleanup);
+            }
+            if (DatabaseUtils.isForeignKeyViolation(e)) {
+                throw new IllegalArgumentException("No such disaster report: " + reportId, e);
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public List<Attachment> getAttachments(int reportId) throws SQLException {
+        return DatabaseUtils.getAttachments(reportId);
+    }
+
+    @Override
+    public Path fetchAttachment(Attachment attachment) throws IOException {
+        Path path = AttachmentStore.getDefault().resolve(attachment.getContentHash());
+        if (!Files.exists(path)) {
+            throw new IOException("Attachment file missing from the store: " + attachment.getFileName());
+        }
+        return path;
+    }
+
+    @Override
+    public List<DisasterReport> getAllDisasterReports() throws SQLException {
+        return DatabaseUtils.getAllDisasterReports();
+    }
+
+    @Override
+    public List<DisasterReport> findDisasterReports(ReportQuery query) throws SQLException {
+        return DatabaseUtils.findDisasterReports(query);
+    }
+
+    @Override
+    public void updateDisasterPriority(int id, String priority) throws SQLException {
+        DatabaseUtils.updateDisasterPriority(id, priority);
+    }
+
+    @Override
+    public boolean updateDisasterPriorityIfUnchanged(int id, String priority, int expectedVersion) throws SQLException {
+        return DatabaseUtils.updateDisasterPriorityIfUnchanged(id, priority, expectedVersion);
+    }
+
+    @Override
+    public AssignedTask saveAssignedTask(int disasterId, String department, String taskDescription) throws SQLException {
+        return DatabaseUtils.saveAssignedTask(disasterId, department, taskDescription);
+    }
+
+    @Override
+    public List<AssignedTask> assignTaskToDepartments(int disasterId, List<String> departments, String taskDescription) throws SQLException {
+        return DatabaseUtils.assignTaskToDepartments(disasterId, departments, taskDescription);
+    }
+
+    @Override
+    public Map<String, Long> getDepartmentWorkload() throws SQLException {
+        return DepartmentWorkload.getOpenTasks();
+    }
+
+    @Override
+    public DashboardRollups.Snapshot getDashboard() throws SQLException {
+        return DashboardRollups.getSnapshot();
+    }
+
+    @Override
+    public Map<String, long[]> getSeverityDistribution(AnalyticsStore.Dimension by, String disasterType) throws SQLException {
+        return AnalyticsStore.getDefault().severityBy(by, disasterType);
+    }
+
+    @Override
+    public Map<String, long[]> getTaskCompletion() throws SQLException {
+        return DashboardRollups.getSnapshot().getTaskCompletion();
+    }
+
+    @Override
+    public ReferenceCatalogue getReferenceCatalogue() throws SQLException {
+        return ReferenceCatalogue.refresh();
+    }
+
+    @Override
+    public ReferenceCatalogue addReferenceName(ReferenceCatalogue.Kind kind, String name) throws SQLException {
+        ReferenceCatalogue.add(kind, name);
+        return ReferenceCatalogue.getDefault();
+    }
+
+    @Override
+    public List<AssignedTask> getAssignedTasksSortedByPriority() throws SQLException {
+        return DatabaseUtils.getAssignedTasksSortedByPriority();
+    }
+
+    @Override
+    public void updateTaskStatus(int disasterId, String status) throws SQLException {
+        DatabaseUtils.updateTaskStatus(disasterId, status);
+    }
+
+    @Override
+    public boolean updateTaskStatusIfUnchanged(int taskId, String status, int expectedVersion) throws SQLException {
+        return DatabaseUtils.updateTaskStatusIfUnchanged(taskId, status, expectedVersion);
+    }
+
+    @Override
+    public List<AssignedTask> getFinishedTasksForUser(String username) throws SQLException {
+        return DatabaseUtils.getFinishedTasksForUser(username);
+    }
+
+    @Override
+    public List<AssignedTask> getAllFinishedTasks() throws SQLException {
+        return DatabaseUtils.getAllFinishedTasks();
+    }
+
+    @Override
+    public int archiveClosedReports() throws SQLException {
+        return ReportArchiver.archiveClosedReports();
+    }
+
+    @Override
+    public List<DisasterReport> findArchivedDisasterReports(ReportQuery query) throws SQLException {
+        return DatabaseUtils.findArchivedDisasterReports(query);
+    }
+
+    @Override
+    public List<AssignedTask> getArchivedTasks(int reportId) throws SQLException {
+        return DatabaseUtils.getArchivedTasks(reportId);
+    }
+}
@@ -1,10 +1,5 @@
 package com.mycompany.mavenproject1.util;
 
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Node;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
-import javafx.stage.Stage;
 import java.io.IOException;
 import javafx.event.ActionEvent;
 
@@ -22,21 +17,11 @@ public class LogoutUtils {
      * @param event the ActionEvent triggered by the logout action.
      */
     public static void handleLogout(ActionEvent event) {
+        DataService.get().logout();
+        Session.logout();
         try {
-            // Load the login page
-            FXMLLoader loader = new FXMLLoader(LogoutUtils.class.getResource("/com/mycompany/mavenproject1/view/LoginPage.fxml"));
-            Parent loginPageParent = loader.load();
-
-            // Get the current stage (window)
-            Stage stage = (Stage) ((Node) event.getSource()).getScene().getWindow();
-
-            // Set the new scene (login page) on the stage
-            Scene scene = new Scene(loginPageParent);
-            stage.setScene(scene);
-            stage.setTitle("Login page");
-
-            // Show the login page
-            stage.show();
+            // Show the (cached) login page
+            ViewRouter.navigate(ViewRouter.View.LOGIN);
         } catch (IOException e) {
             e.printStackTrace();
         }
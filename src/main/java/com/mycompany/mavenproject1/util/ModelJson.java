@@ -0,0 +1,344 @@
+package com.mycompany.mavenproject1.util;
+
+import com.mycompany.mavenproject1.model.AssignedTask;
+import com.mycompany.mavenproject1.model.Attachment;
+import com.mycompany.mavenproject1.model.DisasterReport;
+import com.mycompany.mavenproject1.model.UserModel;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Utility class converting the model objects to and from the JSON maps used
+ * by the backend protocol (see {@link Json}). Passwords are never written.
+ *
+ * @author Bishwas Bhattarai
+ */
+public class ModelJson {
+
+    /**
+     * Converts a disaster report to a JSON map.
+     *
+     * @param report the report.
+     * @return the JSON map.
+     */
+    public static Map<String, Object> toJson(DisasterReport report) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("id", report.getId());
+        json.put("username", report.getUsername());
+        json.put("disasterType", report.getDisasterType());
+        json.put("location", report.getLocation());
+        json.put("severity", report.getSeverity());
+        json.put("description", report.getDescription());
+        json.put("priority", report.getPriority());
+        json.put("reportTime", report.getReportTime() == null ? null : report.getReportTime().toString());
+        json.put("version", report.getVersion());
+        json.put("updatedAt", report.getUpdatedAt() == null ? null : report.getUpdatedAt().toString());
+        return json;
+    }
+
+    /**
+     * Converts an assigned task to a JSON map.
+     *
+     * @param task the task.
+     * @return the JSON map.
+     */
+    public static Map<String, Object> toJson(AssignedTask task) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("id", task.getId());
+        json.put("disasterId", task.getDisasterId());
+        json.put("disasterType", task.getDisasterType());
+        json.put("location", task.getLocation());
+        json.put("department", task.getDepartment());
+        json.put("taskDescription", task.getTaskDescription());
+        json.put("priority", task.getPriority());
+        json.put("status", task.getStatus());
+        json.put("version", task.getVersion());
+        json.put("escalatedAt", task.getEscalatedAt() == null ? null : task.getEscalatedAt().toString());
+        return json;
+    }
+
+    /**
+     * Converts an attachment to a JSON map.
+     *
+     * @param attachment the attachment.
+     * @return the JSON map.
+     */
+    public static Map<String, Object> toJson(Attachment attachment) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("id", attachment.getId());
+        json.put("reportId", attachment.getReportId());
+        json.put("contentHash", attachment.getContentHash());
+        json.put("fileName", attachment.getFileName());
+        json.put("mediaType", attachment.getMediaType());
+        json.put("sizeBytes", attachment.getSizeBytes());
+        json.put("createdAt", attachment.getCreatedAt().toString());
+        return json;
+    }
+
+    /**
+     * Converts a user to a JSON map, leaving out the password.
+     *
+     * @param user the user.
+     * @return the JSON map.
+     */
+    public static Map<String, Object> toJson(UserModel user) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("username", user.getUsername());
+        json.put("role", user.getRole());
+        json.put("email", user.getEmail());
+        json.put("phoneNumber", user.getPhoneNumber());
+        return json;
+    }
+
+    /**
+     * Reads a disaster report from a JSON map.
+     *
+     * @param json the JSON map.
+     * @return the report.
+     */
+    public static DisasterReport toDisasterReport(Map<String, Object> json) {
+        String reportTime = string(json, "reportTime");
+        DisasterReport report = new DisasterReport(
+                integer(json, "id"),
+                string(json, "username"),
+                string(json, "disasterType"),
+                string(json, "location"),
+                string(json, "severity"),
+                string(json, "description"),
+                string(json, "priority"),
+                reportTime == null ? null : LocalDateTime.parse(reportTime));
+        report.setVersion(integer(json, "version"));
+        String updatedAt = string(json, "updatedAt");
+        report.setUpdatedAt(updatedAt == null ? null : LocalDateTime.parse(updatedAt));
+        return report;
+    }
+
+    /**
+     * Reads an assigned task from a JSON map.
+     *
+     * @param json the JSON map.
+     * @return the task.
+     */
+    public static AssignedTask toAssignedTask(Map<String, Object> json) {
+        AssignedTask task = new AssignedTask(
+                integer(json, "id"),
+                integer(json, "disasterId"),
+                string(json, "disasterType"),
+                string(json, "location"),
+                string(json, "department"),
+                string(json, "taskDescription"),
+                string(json, "priority"),
+                string(json, "status"),
+                integer(json, "version"));
+        String escalatedAt = string(json, "escalatedAt");
+        task.setEscalatedAt(escalatedAt == null ? null : LocalDateTime.parse(escalatedAt));
+        return task;
+    }
+
+    /**
+     * Reads an attachment from a JSON map.
+     *
+     * @param json the JSON map.
+     * @return the attachment.
+     */
+    public static Attachment toAttachment(Map<String, Object> json) {
+        return new Attachment(
+                integer(json, "id"),
+                integer(json, "reportId"),
+                string(json, "contentHash"),
+                string(json, "fileName"),
+                string(json, "mediaType"),
+                Long.parseLong(string(json, "sizeBytes")),
+                LocalDateTime.parse(string(json, "createdAt")));
+    }
+
+    /**
+     * Reads a user from a JSON map.
+     *
+     * @param json the JSON map.
+     * @return the user, without a password.
+     */
+    public static UserModel toUser(Map<String, Object> json) {
+        return new UserModel(string(json, "username"), null, string(json, "role"),
+                string(json, "email"), string(json, "phoneNumber"));
+    }
+
+    /**
+     * Converts a reference catalogue to a JSON map: the version, and for each
+     * kind (by enum name) the names by key.
+     *
+     * @param catalogue the catalogue.
+     * @return the JSON map.
+     */
+    public static Map<String, Object> toJson(ReferenceCatalogue catalogue) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("version", catalogue.getVersion());
+        for (ReferenceCatalogue.Kind kind : ReferenceCatalogue.Kind.values()) {
+            Map<String, Object> entries = new LinkedHashMap<>();
+            catalogue.entries(kind).forEach((id, name) -> entries.put(String.valueOf(id), name));
+            json.put(kind.name(), entries);
+        }
+        return json;
+    }
+
+    /**
+     * Converts a JSON map written by {@link #toJson(ReferenceCatalogue)} to a
+     * reference catalogue.
+     *
+     * @param json the JSON map.
+     * @return the catalogue.
+     */
+    @SuppressWarnings("unchecked")
+    public static ReferenceCatalogue toReferenceCatalogue(Map<String, Object> json) {
+        Map<ReferenceCatalogue.Kind, Map<Integer, String>> entries = new EnumMap<>(ReferenceCatalogue.Kind.class);
+        for (ReferenceCatalogue.Kind kind : ReferenceCatalogue.Kind.values()) {
+            Map<Integer, String> byId = new LinkedHashMap<>();
+            ((Map<String, Object>) json.getOrDefault(kind.name(), Map.of()))
+                    .forEach((id, name) -> byId.put(Integer.parseInt(id), (String) name));
+            entries.put(kind, byId);
+        }
+        return new ReferenceCatalogue(integer(json, "version"), entries);
+    }
+
+    /**
+     * Converts counts keyed by name, such as
+     * {@link AnalyticsStore#severityBy}, to a JSON map of arrays.
+     *
+     * @param counts the counts.
+     * @return the JSON map.
+     */
+    public static Map<String, Object> toJsonCounts(Map<String, long[]> counts) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        counts.forEach((name, values) -> {
+            List<Long> list = new ArrayList<>(values.length);
+            for (long value : values) {
+                list.add(value);
+            }
+            json.put(name, list);
+        });
+        return json;
+    }
+
+    /**
+     * Reads counts keyed by name written by {@link #toJsonCounts}.
+     *
+     * @param object the parsed JSON map.
+     * @return the counts, in name order.
+     */
+    @SuppressWarnings("unchecked")
+    public static Map<String, long[]> toCounts(Object object) {
+        Map<String, long[]> counts = new TreeMap<>();
+        ((Map<String, Object>) object).forEach((name, array) -> {
+            List<Object> list = (List<Object>) array;
+            long[] values = new long[list.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = ((Number) list.get(i)).longValue();
+            }
+            counts.put(name, values);
+        });
+        return counts;
+    }
+
+    /**
+     * Converts dashboard counts to JSON.
+     *
+     * @param dashboard the counts.
+     * @return a JSON object with one object of counts per breakdown and the
+     * hourly counts as an array.
+     */
+    public static Map<String, Object> toJson(DashboardRollups.Snapshot dashboard) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("reportsByType", dashboard.getReportsByType());
+        json.put("reportsBySeverity", dashboard.getReportsBySeverityBand());
+        json.put("reportsByPriority", dashboard.getReportsByPriority());
+        List<Long> hours = new ArrayList<>();
+        for (long count : dashboard.getReportsByHour()) {
+            hours.add(count);
+        }
+        json.put("reportsByHour", hours);
+        json.put("openTasks", dashboard.getOpenTasks());
+        json.put("finishedTasks", dashboard.getFinishedTasks());
+        json.put("overdueTasks", dashboard.getOverdueTasks());
+        return json;
+    }
+
+    /**
+     * Reads dashboard counts written by {@link #toJson(DashboardRollups.Snapshot)}.
+     *
+     * @param json the parsed JSON object.
+     * @return the counts.
+     */
+    @SuppressWarnings("unchecked")
+    public static DashboardRollups.Snapshot toDashboard(Map<String, Object> json) {
+        List<Object> hourList = (List<Object>) json.get("reportsByHour");
+        long[] hours = new long[hourList.size()];
+        for (int i = 0; i < hours.length; i++) {
+            hours[i] = ((Number) hourList.get(i)).longValue();
+        }
+        return new DashboardRollups.Snapshot(toLongs(json.get("reportsByType")), toLongs(json.get("reportsBySeverity")),
+                toLongs(json.get("reportsByPriority")), hours, toLongs(json.get("openTasks")),
+                toLongs(json.get("finishedTasks")), toLongs(json.get("overdueTasks")));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Long> toLongs(Object object) {
+        Map<String, Long> counts = new TreeMap<>();
+        ((Map<String, Object>) object).forEach((name, count) -> counts.put(name, ((Number) count).longValue()));
+        return counts;
+    }
+
+    /**
+     * Converts each element of a JSON array.
+     *
+     * @param <T> the element type.
+     * @param array the parsed JSON array.
+     * @param mapper the conversion for one JSON object.
+     * @return the converted list.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> List<T> toList(Object array, Function<Map<String, Object>, T> mapper) {
+        List<T> result = new ArrayList<>();
+        for (Object item : (List<Object>) array) {
+            result.add(mapper.apply((Map<String, Object>) item));
+        }
+        return result;
+    }
+
+    /**
+     * Reads a string field, accepting numbers as well.
+     *
+     * @param json the JSON map.
+     * @param key the field name.
+     * @return the value as a string, or null if missing.
+     */
+    public static String string(Map<String, Object> json, String key) {
+        Object value = json.get(key);
+        return value == null ? null : value.toString();
+    }
+
+    /**
+     * Reads an integer field, accepting numeric strings as well.
+     *
+     * @param json the JSON map.
+     * @param key the field name.
+     * @return the value.
+     * @throws IllegalArgumentException if the field is missing or not a number.
+     */
+    public static int integer(Map<String, Object> json, String key) {
+        Object value = json.get(key);
+        if (value instanceof Number) {
+            return ((Number) value).intValue();
+        }
+        try {
+            return Integer.parseInt(String.valueOf(value));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Field " + key + " must be a number");
+        }
+    }
+}
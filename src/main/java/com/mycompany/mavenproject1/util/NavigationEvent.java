@@ -0,0 +1,31 @@
+package com.mycompany.mavenproject1.util;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Java Flight Recorder event for navigating to a page, from the call to
+ * {@link ViewRouter#navigate} until the page's {@link ViewLifecycle#onActivate()}
+ * returned. The view loads and data calls it waited for are recorded as
+ * separate events within its time span on the same thread.
+ *
+ * @author Bishwas Bhattarai
+ */
+@Name("com.mycompany.mavenproject1.Navigation")
+@Label("Navigation")
+@Category({"Disaster Response", "UI"})
+@Description("Page switch on the JavaFX application thread, including the page's activation")
+public class NavigationEvent extends jdk.jfr.Event {
+
+    @Label("From")
+    String from;
+
+    @Label("To")
+    String to;
+
+    @Label("View Loaded")
+    @Description("Whether the page's FXML had to be parsed first")
+    boolean loaded;
+}
@@ -0,0 +1,45 @@
+package com.mycompany.mavenproject1.util;
+
+/**
+ * Thrown when a report submission is refused by the {@link RateLimiter}.
+ * Carries how long the caller should wait before trying again.
+ *
+ * @author Bishwas Bhattarai
+ */
+public class RateLimitExceededException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long retryAfterMillis;  // Time until the limit allows another submission
+
+    /**
+     * Creates the exception.
+     *
+     * @param message the user-facing message.
+     * @param retryAfterMillis how long to wait before retrying, in
+     * milliseconds.
+     */
+    public RateLimitExceededException(String message, long retryAfterMillis) {
+        super(message);
+        this.retryAfterMillis = retryAfterMillis;
+    }
+
+    /**
+     * Returns how long to wait before retrying.
+     *
+     * @return the wait in milliseconds.
+     */
+    public long getRetryAfterMillis() {
+        return retryAfterMillis;
+    }
+
+    /**
+     * Returns the wait rounded up to whole seconds, for messages and the HTTP
+     * Retry-After header.
+     *
+     * @return the wait in seconds, at least 1.
+     */
+    public long getRetryAfterSeconds() {
+        return Math.max(1, (retryAfterMillis + 999) / 1000);
+    }
+}
@@ -0,0 +1,182 @@
+package com.mycompany.mavenproject1.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token-bucket rate limiter for report submissions. Each user has a bucket,
+ * and all users share a global bucket; a submission takes one token from
+ * both. Buckets refill continuously, so a user can submit a short burst and
+ * then keeps a steady rate, and a flood from one client or script cannot
+ * use up the database for everyone. Callers key the user buckets on the
+ * authenticated user, never on a name taken from the request (see
+ * {@link LocalDataService#saveDisasterReport}).
+ *
+ * <p>User buckets live in a concurrent map. A bucket that has refilled to
+ * capacity is the same as a new one, so idle buckets are swept out of the map
+ * once a minute.
+ *
+ * <p>Configuration (system properties): {@code drs.rateLimit.userBurst} (5),
+ * {@code drs.rateLimit.userPerMinute} (10), {@code drs.rateLimit.globalBurst}
+ * (200) and {@code drs.rateLimit.globalPerSecond} (50).
+ *
+ * @author Bishwas Bhattarai
+ */
+public class RateLimiter {
+
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);  // How often idle user buckets are dropped
+
+    private static RateLimiter defaultLimiter;  // Created on first use
+
+    private final double userCapacity;          // Burst size per user
+    private final double userTokensPerNanos;    // Refill rate per user
+    private final Bucket global;                // Shared by all users
+    private final Map<String, Bucket> users = new ConcurrentHashMap<>();
+    private final LongSupplier clock;           // Nanosecond time source, replaceable in tests
+    private final AtomicLong nextSweep;         // Clock time of the next idle-bucket sweep
+
+    /**
+     * Creates a limiter using the system clock.
+     *
+     * @param userBurst the number of submissions a user can make at once.
+     * @param userPerMinute the sustained submissions per minute per user.
+     * @param globalBurst the number of submissions all users can make at
+     * once.
+     * @param globalPerSecond the sustained submissions per second for all
+     * users.
+     */
+    public RateLimiter(int userBurst, double userPerMinute, int globalBurst, double globalPerSecond) {
+        this(userBurst, userPerMinute, globalBurst, globalPerSecond, System::nanoTime);
+    }
+
+    /**
+     * Creates a limiter with the given clock.
+     *
+     * @param userBurst the number of submissions a user can make at once.
+     * @param userPerMinute the sustained submissions per minute per user.
+     * @param globalBurst the number of submissions all users can make at
+     * once.
+     * @param globalPerSecond the sustained submissions per second for all
+     * users.
+     * @param clock the nanosecond time source.
+     */
+    public RateLimiter(int userBurst, double userPerMinute, int globalBurst, double globalPerSecond, LongSupplier clock) {
+        if (userBurst < 1 || globalBurst < 1 || userPerMinute <= 0 || globalPerSecond <= 0) {
+            throw new IllegalArgumentException("Rate limits must be greater than 0");
+        }
+        this.userCapacity = userBurst;
+        this.userTokensPerNanos = userPerMinute / TimeUnit.MINUTES.toNanos(1);
+        this.clock = clock;
+        this.global = new Bucket(globalBurst, globalPerSecond / TimeUnit.SECONDS.toNanos(1), clock.getAsLong());
+        this.nextSweep = new AtomicLong(clock.getAsLong() + SWEEP_INTERVAL_NANOS);
+    }
+
+    /**
+     * Returns the limiter configured by the {@code drs.rateLimit.*} system
+     * properties.
+     *
+     * @return the shared limiter.
+     */
+    public static synchronized RateLimiter getDefault() {
+        if (defaultLimiter == null) {
+            defaultLimiter = new RateLimiter(
+                    Integer.getInteger("drs.rateLimit.userBurst", 5),
+                    Double.parseDouble(System.getProperty("drs.rateLimit.userPerMinute", "10")),
+                    Integer.getInteger("drs.rateLimit.globalBurst", 200),
+                    Double.parseDouble(System.getProperty("drs.rateLimit.globalPerSecond", "50")));
+        }
+        return defaultLimiter;
+    }
+
+    /**
+     * Takes a token for one submission by the given user, or refuses it.
+     *
+     * @param username the authenticated submitting user, or another key
+     * identifying the client.
+     * @throws RateLimitExceededException if the user or the system as a whole
+     * is over its limit; nothing is taken in that case.
+     */
+    public void acquire(String username) {
+        long now = clock.getAsLong();
+        sweepIfDue(now);
+        Bucket user = users.computeIfAbsent(username == null ? "" : username,
+                name -> new Bucket(userCapacity, userTokensPerNanos, now));
+        long userWait = user.tryTake(now);
+        if (userWait > 0) {
+            throw new RateLimitExceededException("You are submitting reports too quickly.", TimeUnit.NANOSECONDS.toMillis(userWait));
+        }
+        long globalWait = global.tryTake(now);
+        if (globalWait > 0) {
+            user.giveBack();
+            throw new RateLimitExceededException("The system is receiving too many reports right now.",
+                    TimeUnit.NANOSECONDS.toMillis(globalWait));
+        }
+    }
+
+    /**
+     * Returns the number of user buckets currently held.
+     *
+     * @return the map size.
+     */
+    public int getTrackedUsers() {
+        return users.size();
+    }
+
+    // Drops buckets that have refilled completely; one caller per interval does the sweep. A submission
+    // racing the sweep may take from a dropped bucket, which at worst allows that user one extra report.
+    private void sweepIfDue(long now) {
+        long due = nextSweep.get();
+        if (now - due >= 0 && nextSweep.compareAndSet(due, now + SWEEP_INTERVAL_NANOS)) {
+            users.values().removeIf(bucket -> bucket.isFull(now));
+        }
+    }
+
+    /**
+     * A refilling bucket of tokens. Methods are synchronized on the bucket,
+     * so callers only contend with others taking from the same bucket.
+     */
+    private static final class Bucket {
+
+        private final double capacity;       // Maximum tokens
+        private final double tokensPerNano;  // Refill rate
+        private double tokens;               // Tokens available at lastRefill
+        private long lastRefill;             // Clock time tokens was last brought up to date
+
+        Bucket(double capacity, double tokensPerNano, long now) {
+            this.capacity = capacity;
+            this.tokensPerNano = tokensPerNano;
+            this.tokens = capacity;
+            this.lastRefill = now;
+        }
+
+        // Takes one token and returns 0, or returns the nanoseconds until one is available
+        synchronized long tryTake(long now) {
+            refill(now);
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return Math.max(1, (long) Math.ceil((1 - tokens) / tokensPerNano));
+        }
+
+        synchronized void giveBack() {
+            tokens = Math.min(capacity, tokens + 1);
+        }
+
+        synchronized boolean isFull(long now) {
+            refill(now);
+            return tokens >= capacity;
+        }
+
+        private void refill(long now) {
+            long elapsed = now - lastRefill;
+            if (elapsed > 0) {
+                tokens = Math.min(capacity, tokens + elapsed * tokensPerNano);
+                lastRefill = now;
+            }
+        }
+    }
+}
@@ -0,0 +1,429 @@
+package com.mycompany.mavenproject1.util;
+
+import com.mycompany.mavenproject1.model.AssignedTask;
+import com.mycompany.mavenproject1.model.DisasterReport;
+import com.mycompany.mavenproject1.model.UserModel;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable in-memory copy of the reference tables: the disaster types,
+ * departments and user roles. Reports and tasks store a small integer key
+ * into disaster_types and departments instead of repeating the name, and
+ * {@link DatabaseUtils} turns keys into names and back through this
+ * catalogue rather than joining. The names are interned, so every loaded
+ * report or task shares one String per type and department.
+ *
+ * <p>The catalogue is loaded once. Adding a name bumps the single row of
+ * reference_version, and a lookup that misses reloads the catalogue if that
+ * version has changed, so names added by another client or the backend
+ * server are picked up without polling. Reports and tasks can only name
+ * types and departments that are already in the tables ({@link #idOf});
+ * new ones are added by an administrator ({@link #add}) or by the
+ * administrator's routing rules.
+ *
+ * @author Bishwas Bhattarai
+ */
+public final class ReferenceCatalogue {
+
+    /**
+     * The reference tables.
+     */
+    public enum Kind {
+        DISASTER_TYPE("disaster_types", "disaster type", DisasterReport.DISASTER_TYPES),
+        DEPARTMENT("departments", "department", AssignedTask.DEPARTMENTS),
+        ROLE("user_roles", "role", UserModel.ROLES);
+
+        private final String table;       // Reference table name
+        private final String label;       // Name of one row in messages
+        private final String[] defaults;  // Rows seeded by the schema migration, in id order
+
+        Kind(String table, String label, String[] defaults) {
+            this.table = table;
+            this.label = label;
+            this.defaults = defaults;
+        }
+
+        /**
+         * Returns the name of the reference table.
+         *
+         * @return the table name.
+         */
+        public String getTable() {
+            return table;
+        }
+    }
+
+    private static volatile ReferenceCatalogue current;  // Loaded on first use, replaced on reload
+
+    private final int version;                             // reference_version when loaded, 0 for the defaults
+    private final Map<Kind, String[]> names = new EnumMap<>(Kind.class);              // Interned name by id
+    private final Map<Kind, Map<String, Integer>> ids = new EnumMap<>(Kind.class);    // Id by name
+
+    /**
+     * Creates a catalogue.
+     *
+     * @param version the reference version it was read at.
+     * @param entries for each kind, the names by id; missing kinds are empty.
+     */
+    public ReferenceCatalogue(int version, Map<Kind, Map<Integer, String>> entries) {
+        this.version = version;
+        for (Kind kind : Kind.values()) {
+            Map<Integer, String> byId = entries.getOrDefault(kind, Map.of());
+            String[] byIndex = new String[byId.keySet().stream().mapToInt(Integer::intValue).max().orElse(0) + 1];
+            Map<String, Integer> byName = new HashMap<>();
+            byId.forEach((id, name) -> {
+                byIndex[id] = name.intern();
+                byName.put(byIndex[id], id);
+            });
+            names.put(kind, byIndex);
+            ids.put(kind, byName);
+        }
+    }
+
+    /**
+     * Returns the reference version the catalogue was read at.
+     *
+     * @return the version; 0 for {@link #defaults()}.
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns the name of a key.
+     *
+     * @param kind the reference table.
+     * @param id the key.
+     * @return the interned name, or null if the key is unknown.
+     */
+    public String name(Kind kind, int id) {
+        String[] byId = names.get(kind);
+        return id > 0 && id < byId.length ? byId[id] : null;
+    }
+
+    /**
+     * Returns the key of a name.
+     *
+     * @param kind the reference table.
+     * @param name the name.
+     * @return the key, or -1 if the name is unknown.
+     */
+    public int id(Kind kind, String name) {
+        return ids.get(kind).getOrDefault(name, -1);
+    }
+
+    /**
+     * Returns the names of a reference table.
+     *
+     * @param kind the reference table.
+     * @return the names in key order, which is the order they were added.
+     */
+    public List<String> names(Kind kind) {
+        List<String> list = new ArrayList<>();
+        for (String name : names.get(kind)) {
+            if (name != null) {
+                list.add(name);
+            }
+        }
+        return Collections.unmodifiableList(list);
+    }
+
+    /**
+     * Returns the rows of a reference table.
+     *
+     * @param kind the reference table.
+     * @return the names by key, in key order.
+     */
+    public Map<Integer, String> entries(Kind kind) {
+        Map<Integer, String> entries = new LinkedHashMap<>();
+        String[] byId = names.get(kind);
+        for (int id = 1; id < byId.length; id++) {
+            if (byId[id] != null) {
+                entries.put(id, byId[id]);
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Returns the built-in reference data, as seeded into a new database.
+     *
+     * @return the catalogue, at version 0.
+     */
+    public static ReferenceCatalogue defaults() {
+        Map<Kind, Map<Integer, String>> entries = new EnumMap<>(Kind.class);
+        for (Kind kind : Kind.values()) {
+            Map<Integer, String> byId = new LinkedHashMap<>();
+            for (String name : kind.defaults) {
+                byId.put(byId.size() + 1, name);
+            }
+            entries.put(kind, byId);
+        }
+        return new ReferenceCatalogue(0, entries);
+    }
+
+    /**
+     * Reads the reference tables.
+     *
+     * @param conn the connection to use.
+     * @return the catalogue.
+     * @throws SQLException if a database access error occurs.
+     */
+    public static ReferenceCatalogue load(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            int version = readVersion(stmt);
+            Map<Kind, Map<Integer, String>> entries = new EnumMap<>(Kind.class);
+            for (Kind kind : Kind.values()) {
+                Map<Integer, String> byId = new LinkedHashMap<>();
+                try (ResultSet rs = stmt.executeQuery("SELECT id, name FROM " + kind.table + " ORDER BY id")) {
+                    while (rs.next()) {
+                        byId.put(rs.getInt(1), rs.getString(2));
+                    }
+                }
+                entries.put(kind, byId);
+            }
+            return new ReferenceCatalogue(version, entries);
+        }
+    }
+
+    /**
+     * Returns the shared catalogue, loading it on first use.
+     *
+     * @return the catalogue.
+     * @throws SQLException if it cannot be loaded.
+     */
+    public static ReferenceCatalogue getDefault() throws SQLException {
+        ReferenceCatalogue catalogue = current;
+        return catalogue != null ? catalogue : refresh();
+    }
+
+    /**
+     * Reloads the shared catalogue if the reference tables changed since it
+     * was loaded; otherwise costs one single-row read.
+     *
+     * @return the current catalogue.
+     * @throws SQLException if it cannot be read.
+     */
+    public static synchronized ReferenceCatalogue refresh() throws SQLException {
+        try (Connection conn = DatabaseUtils.getConnection()) {
+            if (current == null) {
+                current = load(conn);
+            } else {
+                try (Statement stmt = conn.createStatement()) {
+                    if (readVersion(stmt) != current.version) {
+                        current = load(conn);
+                    }
+                }
+            }
+            return current;
+        }
+    }
+
+    /**
+     * Returns the name of a key read from a report or task row.
+     *
+     * @param kind the reference table.
+     * @param id the key.
+     * @return the interned name.
+     * @throws SQLException if the key is not in the reference table even
+     * after reloading it.
+     */
+    public static String nameOf(Kind kind, int id) throws SQLException {
+        String name = getDefault().name(kind, id);
+        if (name == null) {
+            name = refresh().name(kind, id);
+            if (name == null) {
+                throw new SQLException("Unknown " + kind.table + " id " + id);
+            }
+        }
+        return name;
+    }
+
+    /**
+     * Returns the key of a name to filter by. Unlike {@link #idOf}, an unknown
+     * name is not an error.
+     *
+     * @param kind the reference table.
+     * @param name the name.
+     * @return the key, or -1 if no row can have the name.
+     * @throws SQLException if a database access error occurs.
+     */
+    public static int findId(Kind kind, String name) throws SQLException {
+        int id = getDefault().id(kind, name);
+        if (id < 0 && name != null) {
+            // New since loading, or the same name in another case under a case-insensitive collation
+            try (Connection conn = DatabaseUtils.getConnection()) {
+                id = lookup(conn, kind, name);
+            }
+            if (id >= 0 && current.name(kind, id) == null) {
+                refresh();
+            }
+        }
+        return id;
+    }
+
+    /**
+     * Returns the key of a name to store.
+     *
+     * @param kind the reference table.
+     * @param name the name.
+     * @return the key.
+     * @throws IllegalArgumentException if the name is empty or not in the
+     * reference table.
+     * @throws SQLException if a database access error occurs.
+     */
+    public static int idOf(Kind kind, String name) throws SQLException {
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException(kind.table + " name cannot be empty");
+        }
+        int id = findId(kind, name);
+        if (id < 0) {
+            throw new IllegalArgumentException("Unknown " + kind.label + ": " + name);
+        }
+        return id;
+    }
+
+    /**
+     * Adds a disaster type or department to its reference table, or returns
+     * the key it already has. The row is committed on its own connection, so
+     * it stays even if the caller's transaction is rolled back. Roles can't
+     * be added, since access checks depend on them.
+     *
+     * @param kind the reference table.
+     * @param name the name.
+     * @return the key.
+     * @throws IllegalArgumentException if the name is empty or the kind is
+     * {@link Kind#ROLE}.
+     * @throws SQLException if a database access error occurs.
+     */
+    public static int add(Kind kind, String name) throws SQLException {
+        if (kind == Kind.ROLE) {
+            throw new IllegalArgumentException("Roles cannot be added");
+        }
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException(kind.table + " name cannot be empty");
+        }
+        if (kind == Kind.DISASTER_TYPE && name.contains(",")) {
+            throw new IllegalArgumentException("A disaster type cannot contain a comma");  // Report queries list types comma-separated
+        }
+        int id = findId(kind, name.trim());
+        return id >= 0 ? id : register(kind, name.trim());
+    }
+
+    private static synchronized int register(Kind kind, String name) throws SQLException {
+        try (Connection conn = DatabaseUtils.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement insert = conn.prepareStatement("INSERT INTO " + kind.table + " (name) VALUES (?)");
+                    Statement stmt = conn.createStatement()) {
+                insert.setString(1, name);
+                insert.executeUpdate();
+                stmt.executeUpdate("UPDATE reference_version SET version = version + 1");
+                conn.commit();
+                AuditLog.getDefault().record("REFERENCE_ADDED", kind.table + ":" + name, null);
+            } catch (SQLException e) {
+                conn.rollback();
+                if (!DatabaseUtils.isDuplicateKey(e)) {
+                    throw e;
+                }
+                // Added by another client meanwhile
+            } finally {
+                conn.setAutoCommit(true);
+            }
+            current = load(conn);
+            int id = lookup(conn, kind, name);
+            if (id < 0) {
+                throw new SQLException("Could not add '" + name + "' to " + kind.table);
+            }
+            return id;
+        }
+    }
+
+    // Key of a name by the database's collation, -1 if missing
+    private static int lookup(Connection conn, Kind kind, String name) throws SQLException {
+        try (PreparedStatement select = conn.prepareStatement("SELECT id FROM " + kind.table + " WHERE name = ?")) {
+            select.setString(1, name);
+            try (ResultSet rs = select.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : -1;
+            }
+        }
+    }
+
+    /**
+     * Creates the reference rows of a new or migrated database: the built-in
+     * names first, then any other name already used by a report, task or
+     * user, so existing rows can be given keys.
+     *
+     * @param conn a connection to the target database.
+     * @throws SQLException if a database access error occurs.
+     */
+    static void seed(Connection conn) throws SQLException {
+        seed(conn, Kind.DISASTER_TYPE, "disaster_type", "disaster_reports", "disaster_reports_archive");
+        seed(conn, Kind.DEPARTMENT, "department", "assigned_tasks", "assigned_tasks_archive");
+        seed(conn, Kind.ROLE, "role", "users");
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("INSERT INTO reference_version (version) VALUES (1)");
+        }
+    }
+
+    private static void seed(Connection conn, Kind kind, String column, String... tables) throws SQLException {
+        try (PreparedStatement insert = conn.prepareStatement("INSERT INTO " + kind.table + " (name) VALUES (?)");
+                Statement stmt = conn.createStatement()) {
+            Set<String> names = new LinkedHashSet<>(Arrays.asList(kind.defaults));
+            for (String table : tables) {
+                try (ResultSet rs = stmt.executeQuery("SELECT DISTINCT " + column + " FROM " + table
+                        + " WHERE " + column + " IS NOT NULL ORDER BY " + column)) {
+                    while (rs.next()) {
+                        names.add(rs.getString(1));
+                    }
+                }
+            }
+            for (String name : names) {
+                insert.setString(1, name);
+                try {
+                    insert.executeUpdate();
+                } catch (SQLException e) {
+                    if (!DatabaseUtils.isDuplicateKey(e)) {
+                        throw e;
+                    }
+                    // Differs only in case from a name already added; the collation maps both to that row
+                }
+            }
+        }
+    }
+
+    private static int readVersion(Statement stmt) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery("SELECT version FROM reference_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    /**
+     * Returns the catalogue for filling choice lists, falling back to the
+     * built-in names if the data service cannot be reached.
+     *
+     * @param dataService the data service.
+     * @return the catalogue.
+     */
+    public static ReferenceCatalogue fetch(DataService dataService) {
+        try {
+            return dataService.getReferenceCatalogue();
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return defaults();
+        }
+    }
+}
@@ -0,0 +1,490 @@
+package com.mycompany.mavenproject1.util;
+
+import com.mycompany.mavenproject1.model.AssignedTask;
+import com.mycompany.mavenproject1.model.Attachment;
+import com.mycompany.mavenproject1.model.DisasterReport;
+import com.mycompany.mavenproject1.model.UserModel;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * {@link DataService} that sends every operation to the backend server over
+ * HTTP/JSON (see {@code com.mycompany.mavenproject1.server.BackendServer}).
+ * Failures are reported the same way as the DatabaseUtils method of the same
+ * name: methods declaring SQLException throw one, validation errors come back
+ * as IllegalArgumentException, refused submissions as
+ * RateLimitExceededException, and the rest log the error and return a
+ * default. A successful login keeps the session token the server issued and
+ * sends it with every later request until {@link #logout()}.
+ *
+ * @author Bishwas Bhattarai
+ */
+public class RemoteDataService implements DataService {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(15);  // Per request, so the UI never hangs forever
+
+    private final String baseUrl;  // Server URL without trailing slash
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private volatile boolean ready;                 // Set once the server answered a health check
+    private volatile String token;                  // Session of the last successful login, null when logged out
+    private CompletableFuture<Void> healthCheck;    // Pending or finished health check
+
+    /**
+     * Creates a client for the given server.
+     *
+     * @param baseUrl the server URL, e.g. http://drs-backend:8085.
+     */
+    public RemoteDataService(String baseUrl) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+    }
+
+    @Override
+    public synchronized CompletableFuture<Void> prepare() {
+        if (healthCheck == null || healthCheck.isCompletedExceptionally()) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/health")).timeout(TIMEOUT).GET().build();
+            healthCheck = client.sendAsync(request, HttpResponse.BodyHandlers.ofString()).thenAccept(response -> {
+                if (response.statusCode() != 200) {
+                    throw new IllegalStateException("Backend health check failed with status " + response.statusCode());
+                }
+                ready = true;
+            });
+        }
+        return healthCheck;
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public boolean isValidLogin(String username, String password) {
+        try {
+            Map<String, Object> result = asObject(send("POST", "/api/login", body("username", username, "password", password)));
+            boolean valid = Boolean.TRUE.equals(result.get("valid"));
+            if (valid) {
+                token = ModelJson.string(result, "token");
+            }
+            return valid;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    @Override
+    public String getUserRole(String username) {
+        try {
+            return ModelJson.string(asObject(send("GET", "/api/users/role" + query("username", username), null)), "role");
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    @Override
+    public boolean userExists(String username, String email, String phoneNumber) {
+        try {
+            Object result = send("GET", "/api/users/exists"
+                    + query("username", username, "email", email, "phoneNumber", phoneNumber), null);
+            return Boolean.TRUE.equals(asObject(result).get("exists"));
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    @Override
+    public UserModel saveUser(String username, String password, String email, String phoneNumber, String role) {
+        try {
+            Object result = send("POST", "/api/users", body("username", username, "password", password, "email", email,
+                    "phoneNumber", phoneNumber, "role", role));
+            return result == null ? null : ModelJson.toUser(asObject(result));
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    @Override
+    public boolean isEmailAndPhoneRegistered(String email, String phoneNumber) {
+        try {
+            Object result = send("GET", "/api/users/registered" + query("email", email, "phoneNumber", phoneNumber), null);
+            return Boolean.TRUE.equals(asObject(result).get("registered"));
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    @Override
+    public boolean resetPassword(String email, String phoneNumber, String newPassword) {
+        try {
+            Object result = send("PUT", "/api/users/password", body("email", email, "phoneNumber", phoneNumber, "password", newPassword));
+            return Boolean.TRUE.equals(asObject(result).get("reset"));
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    @Override
+    public void logout() {
+        String current = token;
+        token = null;
+        if (current != null) {
+            // Nothing to wait for; the session also expires on its own
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/logout"))
+                    .timeout(TIMEOUT)
+                    .header("Authorization", "Bearer " + current)
+                    .POST(HttpRequest.BodyPublishers.noBody())
+                    .build();
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding());
+        }
+    }
+
+    @Override
+    public List<UserModel> fetchAllUsers() {
+        try {
+            return ModelJson.toList(send("GET", "/api/users", null), ModelJson::toUser);
+        } catch (SQLException e) {
+            System.out.println("Error fetching users: " + e.getMessage());
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
+    }
+
+    @Override
+    public void updateUserRole(String username, String newRole) {
+        try {
+            send("PUT", "/api/users/role", body("username", username, "role", newRole));
+        } catch (SQLException e) {
+            System.out.println("Error updating user role: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    @Override
+    public void deleteUser(String username) {
+        try {
+            send("DELETE", "/api/users" + query("username", username), null);
+        } catch (SQLException e) {
+            System.out.println("Error deleting user: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    @Override
+    public DisasterReport saveDisasterReport(String username, String disasterType, String location, int severity, String description) throws SQLException {
+        Object result = send("POST", "/api/reports", body("username", username, "disasterType", disasterType, "location", location,
+                "severity", severity, "description", description));
+        return ModelJson.toDisasterReport(asObject(result));
+    }
+
+    @Override
+    public Attachment addAttachment(int reportId, Path file) throws SQLException, IOException {
+        String fileName = file.getFileName().toString();
+        AttachmentStore.mediaTypeOf(fileName);  // Reject unsupported files before uploading
+        if (Files.size(file) > AttachmentStore.MAX_SIZE) {
+            throw new IllegalArgumentException("Attachments can be at most " + (AttachmentStore.MAX_SIZE / (1024 * 1024)) + " MB");
+        }
+        // The body is streamed from the file, never held in memory
+        HttpRequest request = authorized(HttpRequest.newBuilder(URI.create(baseUrl + "/api/attachments"
+                + query("reportId", reportId, "fileName", fileName))))
+                .timeout(Duration.ofMinutes(5))
+                .header("Content-Type", "application/octet-stream")
+                .POST(HttpRequest.BodyPublishers.ofFile(file))
+                .build();
+        return ModelJson.toAttachment(asObject(handle(execute(request, HttpResponse.BodyHandlers.ofString()))));
+    }
+
+    @Override
+    public Attachment addAttachment(int reportId, String fileName, ReadableByteChannel content) throws SQLException, IOException {
+        AttachmentStore.mediaTypeOf(fileName);  // Reject unsupported files before uploading
+        HttpRequest request = authorized(HttpRequest.newBuilder(URI.create(baseUrl + "/api/attachments"
+                + query("reportId", reportId, "fileName", fileName))))
+                .timeout(Duration.ofMinutes(5))
+                .header("Content-Type", "application/octet-stream")
+                .POST(HttpRequest.BodyPublishers.ofInputStream(() -> Channels.newInputStream(content)))
+                .build();
+        return ModelJson.toAttachment(asObject(handle(execute(request, HttpResponse.BodyHandlers.ofString()))));
+    }
+
+    @Override
+    public List<Attachment> getAttachments(int reportId) throws SQLException {
+        return ModelJson.toList(send("GET", "/api/reports/attachments" + query("reportId", reportId), null), ModelJson::toAttachment);
+    }
+
+    @Override
+    public Path fetchAttachment(Attachment attachment) throws IOException {
+        // The local store doubles as a download cache; content never changes for a hash
+        AttachmentStore store = AttachmentStore.getDefault();
+        String hash = attachment.getContentHash();
+        if (store.contains(hash)) {
+            return store.resolve(hash);
+        }
+        Path temp = Files.createTempFile("attachment", ".download");
+        try {
+            HttpRequest request = authorized(HttpRequest.newBuilder(URI.create(baseUrl + "/api/attachments" + query("hash", hash))))
+                    .timeout(Duration.ofMinutes(5))
+                    .GET()
+                    .build();
+            HttpResponse<Path> response;
+            try {
+                response = execute(request, HttpResponse.BodyHandlers.ofFile(temp));
+            } catch (SQLException e) {
+                throw new IOException(e.getMessage(), e.getCause());
+            }
+            if (response.statusCode() != 200) {
+                throw new IOException("Download failed with status " + response.statusCode());
+            }
+            if (!hash.equals(store.store(temp))) {
+                throw new IOException("Downloaded attachment does not match its hash");
+            }
+            return store.resolve(hash);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public List<DisasterReport> getAllDisasterReports() throws SQLException {
+        return ModelJson.toList(send("GET", "/api/reports", null), ModelJson::toDisasterReport);
+    }
+
+    @Override
+    public List<DisasterReport> findDisasterReports(ReportQuery query) throws SQLException {
+        List<Object> pairs = new ArrayList<>();
+        query.getCriteria().forEach((name, value) -> {
+            pairs.add(name);
+            pairs.add(value);
+        });
+        // An empty criteria map would mean "all reports" to the server; keep the default ordering explicit
+        String path = pairs.isEmpty() ? "/api/reports?limit=0" : "/api/reports" + query(pairs.toArray());
+        return ModelJson.toList(send("GET", path, null), ModelJson::toDisasterReport);
+    }
+
+    @Override
+    public void updateDisasterPriority(int id, String priority) throws SQLException {
+        send("PUT", "/api/reports/priority", body("id", id, "priority", priority));
+    }
+
+    @Override
+    public boolean updateDisasterPriorityIfUnchanged(int id, String priority, int expectedVersion) throws SQLException {
+        Object result = send("PUT", "/api/reports/priority", body("id", id, "priority", priority, "expectedVersion", expectedVersion));
+        return Boolean.TRUE.equals(asObject(result).get("updated"));
+    }
+
+    @Override
+    public AssignedTask saveAssignedTask(int disasterId, String department, String taskDescription) throws SQLException {
+        return ModelJson.toAssignedTask(asObject(send("POST", "/api/tasks", body("disasterId", disasterId, "department", department, "taskDescription", taskDescription))));
+    }
+
+    @Override
+    public List<AssignedTask> assignTaskToDepartments(int disasterId, List<String> departments, String taskDescription) throws SQLException {
+        return ModelJson.toList(send("POST", "/api/tasks/batch",
+                body("disasterId", disasterId, "departments", departments, "taskDescription", taskDescription)), ModelJson::toAssignedTask);
+    }
+
+    @Override
+    public Map<String, Long> getDepartmentWorkload() throws SQLException {
+        Map<String, Long> workload = new TreeMap<>();
+        asObject(send("GET", "/api/workload", null)).forEach((department, count) -> workload.put(department, ((Number) count).longValue()));
+        return workload;
+    }
+
+    @Override
+    public DashboardRollups.Snapshot getDashboard() throws SQLException {
+        return ModelJson.toDashboard(asObject(send("GET", "/api/dashboard", null)));
+    }
+
+    @Override
+    public Map<String, long[]> getSeverityDistribution(AnalyticsStore.Dimension by, String disasterType) throws SQLException {
+        return ModelJson.toCounts(send("GET", "/api/analytics/severity" + query("by", by, "type", disasterType), null));
+    }
+
+    @Override
+    public Map<String, long[]> getTaskCompletion() throws SQLException {
+        return ModelJson.toCounts(send("GET", "/api/analytics/tasks", null));
+    }
+
+    @Override
+    public ReferenceCatalogue getReferenceCatalogue() throws SQLException {
+        return ModelJson.toReferenceCatalogue(asObject(send("GET", "/api/reference", null)));
+    }
+
+    @Override
+    public ReferenceCatalogue addReferenceName(ReferenceCatalogue.Kind kind, String name) throws SQLException {
+        return ModelJson.toReferenceCatalogue(asObject(send("POST", "/api/reference", Map.of("kind", kind.name(), "name", name))));
+    }
+
+    @Override
+    public List<AssignedTask> getAssignedTasksSortedByPriority() throws SQLException {
+        return ModelJson.toList(send("GET", "/api/tasks", null), ModelJson::toAssignedTask);
+    }
+
+    @Override
+    public void updateTaskStatus(int disasterId, String status) throws SQLException {
+        send("PUT", "/api/tasks/status", body("disasterId", disasterId, "status", status));
+    }
+
+    @Override
+    public boolean updateTaskStatusIfUnchanged(int taskId, String status, int expectedVersion) throws SQLException {
+        Object result = send("PUT", "/api/tasks/status", body("id", taskId, "status", status, "expectedVersion", expectedVersion));
+        return Boolean.TRUE.equals(asObject(result).get("updated"));
+    }
+
+    @Override
+    public List<AssignedTask> getFinishedTasksForUser(String username) throws SQLException {
+        return ModelJson.toList(send("GET", "/api/tasks/finished" + query("username", username), null), ModelJson::toAssignedTask);
+    }
+
+    @Override
+    public List<AssignedTask> getAllFinishedTasks() throws SQLException {
+        return ModelJson.toList(send("GET", "/api/tasks/finished", null), ModelJson::toAssignedTask);
+    }
+
+    @Override
+    public int archiveClosedReports() throws SQLException {
+        return ModelJson.integer(asObject(send("POST", "/api/archive", null)), "archived");
+    }
+
+    @Override
+    public List<DisasterReport> findArchivedDisasterReports(ReportQuery query) throws SQLException {
+        List<Object> pairs = new ArrayList<>();
+        query.getCriteria().forEach((name, value) -> {
+            pairs.add(name);
+            pairs.add(value);
+        });
+        return ModelJson.toList(send("GET", "/api/archive/reports" + query(pairs.toArray()), null), ModelJson::toDisasterReport);
+    }
+
+    @Override
+    public List<AssignedTask> getArchivedTasks(int reportId) throws SQLException {
+        return ModelJson.toList(send("GET", "/api/archive/tasks" + query("reportId", reportId), null), ModelJson::toAssignedTask);
+    }
+
+    /**
+     * Sends a request and parses the JSON response.
+     *
+     * @param method the HTTP method.
+     * @param path the path and query string.
+     * @param body the JSON body, or null for none.
+     * @return the parsed response, or null for 204 No Content.
+     * @throws SQLException if the server could not be reached or failed.
+     * @throws IllegalArgumentException if the server rejected the input.
+     */
+    private Object send(String method, String path, Map<String, Object> body) throws SQLException {
+        HttpRequest.BodyPublisher publisher = body == null
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofString(Json.write(body));
+        HttpRequest.Builder request = authorized(HttpRequest.newBuilder(URI.create(baseUrl + path)))
+                .timeout(TIMEOUT)
+                .header("Content-Type", "application/json")
+                .method(method, publisher);
+        return handle(execute(request.build(), HttpResponse.BodyHandlers.ofString()));
+    }
+
+    // Adds the login session, which the server takes the caller's identity and role from
+    private HttpRequest.Builder authorized(HttpRequest.Builder request) {
+        String current = token;
+        if (current != null) {
+            request.header("Authorization", "Bearer " + current);
+        }
+        return request;
+    }
+
+    private <T> HttpResponse<T> execute(HttpRequest request, HttpResponse.BodyHandler<T> handler) throws SQLException {
+        try {
+            return client.send(request, handler);
+        } catch (IOException e) {
+            throw new SQLException("Could not reach the backend server", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted waiting for the backend server", e);
+        }
+    }
+
+    // Parses a JSON response, turning error statuses into exceptions
+    private static Object handle(HttpResponse<String> response) throws SQLException {
+        int status = response.statusCode();
+        if (status == 204) {
+            return null;
+        }
+        Object result = response.body().isEmpty() ? null : Json.parse(response.body());
+        if (status == 400) {
+            throw new IllegalArgumentException(errorMessage(result));
+        }
+        if (status == 429) {
+            Object retryAfter = result instanceof Map ? ((Map<?, ?>) result).get("retryAfterMillis") : null;
+            throw new RateLimitExceededException(errorMessage(result),
+                    retryAfter instanceof Number ? ((Number) retryAfter).longValue() : 1000);
+        }
+        if (status != 200) {
+            throw new SQLException("Backend error " + status + ": " + errorMessage(result));
+        }
+        return result;
+    }
+
+    private static String errorMessage(Object result) {
+        if (result instanceof Map) {
+            Object error = ((Map<?, ?>) result).get("error");
+            if (error != null) {
+                return error.toString();
+            }
+        }
+        return "unknown error";
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> asObject(Object result) throws SQLException {
+        if (!(result instanceof Map)) {
+            throw new SQLException("Unexpected response from the backend server");
+        }
+        return (Map<String, Object>) result;
+    }
+
+    // Builds a JSON body from alternating names and values
+    private static Map<String, Object> body(Object... namesAndValues) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            body.put((String) namesAndValues[i], namesAndValues[i + 1]);
+        }
+        return body;
+    }
+
+    // Builds a query string from alternating names and values, skipping nulls
+    private static String query(Object... namesAndValues) {
+        StringBuilder query = new StringBuilder();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            Object value = namesAndValues[i + 1];
+            if (value == null) {
+                continue;
+            }
+            query.append(query.length() == 0 ? '?' : '&')
+                    .append(URLEncoder.encode(namesAndValues[i].toString(), StandardCharsets.UTF_8))
+                    .append('=')
+                    .append(URLEncoder.encode(value.toString(), StandardCharsets.UTF_8));
+        }
+        return query.toString();
+    }
+}
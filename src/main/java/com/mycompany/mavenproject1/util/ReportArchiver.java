@@ -0,0 +1,249 @@
+package com.mycompany.mavenproject1.util;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Utility class that moves closed incidents out of the live tables. A report
+ * is closed when it has at least one assigned task and all of its tasks are
+ * Finished; it is archived once it is older than the configured age. The
+ * report, its tasks and its attachment references are copied to the
+ * *_archive tables and deleted from the live ones, one batch per short
+ * transaction, so live-table locks are held only for a single batch.
+ *
+ * <p>Configuration (system properties): {@code drs.archive.minAgeDays} (90)
+ * and {@code drs.archive.batchSize} (500).
+ *
+ * @author Bishwas Bhattarai
+ */
+public class ReportArchiver {
+
+    /** Columns shared by disaster_reports and disaster_reports_archive. */
+    static final String REPORT_COLUMNS = "id, username, disaster_type_id, location, severity, description, priority, report_time, version, updated_at";
+    /** Columns shared by assigned_tasks and assigned_tasks_archive. */
+    static final String TASK_COLUMNS = "id, disaster_id, department_id, task_description, status, created_at, version, escalated_at";
+    /** Columns shared by report_attachments and report_attachments_archive. */
+    static final String ATTACHMENT_COLUMNS = "id, report_id, content_hash, file_name, media_type, size_bytes, created_at";
+
+    private static final long RUN_EVERY_HOURS = 6;  // Interval of the scheduled archival
+
+    private static ScheduledExecutorService scheduler;  // Started by scheduleArchival()
+
+    /**
+     * Returns the configured minimum age of archived reports.
+     *
+     * @return the age from {@code drs.archive.minAgeDays}, default 90 days.
+     */
+    public static Duration getMinAge() {
+        return Duration.ofDays(Long.getLong("drs.archive.minAgeDays", 90L));
+    }
+
+    /**
+     * Returns the configured number of reports moved per transaction.
+     *
+     * @return the batch size from {@code drs.archive.batchSize}, default 500.
+     */
+    public static int getBatchSize() {
+        return Integer.getInteger("drs.archive.batchSize", 500);
+    }
+
+    /**
+     * Archives every closed report older than the configured age.
+     *
+     * @return the number of reports archived.
+     * @throws SQLException if a database access error occurs.
+     */
+    public static int archiveClosedReports() throws SQLException {
+        return archiveClosedReports(getMinAge(), getBatchSize());
+    }
+
+    /**
+     * Archives every closed report older than the given age, in batches.
+     *
+     * @param minAge how old a report must be to be archived.
+     * @param batchSize the number of reports moved per transaction.
+     * @return the number of reports archived.
+     * @throws SQLException if a database access error occurs.
+     */
+    public static int archiveClosedReports(Duration minAge, int batchSize) throws SQLException {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be greater than 0");
+        }
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minus(minAge));
+        int total = 0;
+        try (Connection conn = DatabaseUtils.getConnection()) {
+            while (true) {
+                List<Integer> candidates = findCandidates(conn, cutoff, batchSize);
+                if (candidates.isEmpty()) {
+                    return total;
+                }
+                total += archiveBatch(conn, candidates, cutoff);
+                if (candidates.size() < batchSize) {
+                    return total;
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs {@link #archiveClosedReports()} now and then every few hours on a
+     * background thread. Used by the backend server.
+     */
+    public static synchronized void scheduleArchival() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "report-archiver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                int archived = archiveClosedReports();
+                if (archived > 0) {
+                    System.out.println("Archived " + archived + " closed reports");
+                }
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+        }, 0, RUN_EVERY_HOURS, TimeUnit.HOURS);
+    }
+
+    // Closed reports older than the cutoff, oldest id first; read without locks
+    private static List<Integer> findCandidates(Connection conn, Timestamp cutoff, int limit) throws SQLException {
+        String sql = "SELECT r.id FROM disaster_reports r WHERE r.report_time < ? " + closedCondition("r")
+                + " ORDER BY r.id LIMIT " + limit;
+        List<Integer> ids = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setTimestamp(1, cutoff);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getInt(1));
+                }
+            }
+        }
+        return ids;
+    }
+
+    private static String closedCondition(String alias) {
+        return "AND EXISTS (SELECT 1 FROM assigned_tasks t WHERE t.disaster_id = " + alias + ".id) "
+                + "AND NOT EXISTS (SELECT 1 FROM assigned_tasks t WHERE t.disaster_id = " + alias + ".id AND t.status <> 'Finished')";
+    }
+
+    /**
+     * Moves one batch in a single transaction. The batch's task and report
+     * rows are locked first and the closed check repeated, so a task reopened
+     * after the candidates were read keeps its report live.
+     */
+    private static int archiveBatch(Connection conn, List<Integer> candidates, Timestamp cutoff) throws SQLException {
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try {
+            lockTasks(conn, candidates);
+            List<Integer> closed = new ArrayList<>();
+            List<Object[]> removedReports = new ArrayList<>();
+            try (PreparedStatement select = conn.prepareStatement(
+                    "SELECT r.id, r.disaster_type_id, r.severity, r.priority, r.report_time FROM disaster_reports r WHERE r.id IN "
+                    + in(candidates) + " AND r.report_time < ? " + closedCondition("r") + " FOR UPDATE")) {
+                bindIds(select, candidates, 1);
+                select.setTimestamp(candidates.size() + 1, cutoff);
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) {
+                        closed.add(rs.getInt(1));
+                        removedReports.add(new Object[]{ReferenceCatalogue.nameOf(ReferenceCatalogue.Kind.DISASTER_TYPE, rs.getInt(2)),
+                            rs.getInt(3), rs.getString(4), rs.getTimestamp(5)});
+                    }
+                }
+            }
+            if (closed.isEmpty()) {
+                conn.commit();
+                return 0;
+            }
+            List<String[]> removedTasks = new ArrayList<>();
+            try (PreparedStatement select = conn.prepareStatement(
+                    "SELECT department_id, status FROM assigned_tasks WHERE disaster_id IN " + in(closed))) {
+                bindIds(select, closed, 1);
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) {
+                        removedTasks.add(new String[]{ReferenceCatalogue.nameOf(ReferenceCatalogue.Kind.DEPARTMENT, rs.getInt(1)),
+                            rs.getString(2)});
+                    }
+                }
+            }
+
+            Timestamp archivedAt = new Timestamp(System.currentTimeMillis());
+            copy(conn, "disaster_reports", "disaster_reports_archive", REPORT_COLUMNS, "id", closed, archivedAt);
+            copy(conn, "assigned_tasks", "assigned_tasks_archive", TASK_COLUMNS, "disaster_id", closed, archivedAt);
+            copy(conn, "report_attachments", "report_attachments_archive", ATTACHMENT_COLUMNS, "report_id", closed, archivedAt);
+            delete(conn, "report_attachments", "report_id", closed);
+            delete(conn, "assigned_tasks", "disaster_id", closed);
+            delete(conn, "disaster_reports", "id", closed);
+            conn.commit();
+
+            // Archived rows leave the live dashboard counts
+            for (Object[] row : removedReports) {
+                DashboardRollups.reportRemoved((String) row[0], (Integer) row[1], (String) row[2], (Timestamp) row[3]);
+            }
+            for (String[] row : removedTasks) {
+                DashboardRollups.taskRemoved(row[0], row[1]);
+            }
+            AnalyticsStore.reportsRemoved(closed);
+            AuditLog.getDefault().record("REPORTS_ARCHIVED", "reports:" + closed.size(), closed.toString());
+            return closed.size();
+        } catch (SQLException | RuntimeException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    // Locks the tasks so a status change made during the batch waits for it instead of racing the closed check
+    private static void lockTasks(Connection conn, List<Integer> reportIds) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT id FROM assigned_tasks WHERE disaster_id IN " + in(reportIds) + " FOR UPDATE")) {
+            bindIds(stmt, reportIds, 1);
+            stmt.executeQuery().close();
+        }
+    }
+
+    private static void copy(Connection conn, String from, String to, String columns, String idColumn,
+            List<Integer> ids, Timestamp archivedAt) throws SQLException {
+        String sql = "INSERT INTO " + to + " (" + columns + ", archived_at) SELECT " + columns + ", ? FROM " + from
+                + " WHERE " + idColumn + " IN " + in(ids);
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setTimestamp(1, archivedAt);
+            bindIds(stmt, ids, 2);
+            stmt.executeUpdate();
+        }
+    }
+
+    private static void delete(Connection conn, String table, String idColumn, List<Integer> ids) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM " + table + " WHERE " + idColumn + " IN " + in(ids))) {
+            bindIds(stmt, ids, 1);
+            stmt.executeUpdate();
+        }
+    }
+
+    private static String in(List<Integer> ids) {
+        return "(" + String.join(",", Collections.nCopies(ids.size(), "?")) + ")";
+    }
+
+    private static void bindIds(PreparedStatement stmt, List<Integer> ids, int firstIndex) throws SQLException {
+        for (int i = 0; i < ids.size(); i++) {
+            stmt.setInt(firstIndex + i, ids.get(i));
+        }
+    }
+}
@@ -0,0 +1,373 @@
+package com.mycompany.mavenproject1.util;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Typed builder for filtered, sorted and paged queries on disaster_reports.
+ * Produces parameterised SQL whose conditions compare plain columns
+ * (equality on type and priority, ranges on severity and report time), so
+ * they can use the disaster_reports indexes. Types are matched by name
+ * through the small disaster_types table, so the SQL can be built by clients
+ * that have no {@link ReferenceCatalogue}; the table is only joined when
+ * sorting by type. Report columns are qualified with the alias {@code r}.
+ * Run it with
+ * {@link DatabaseUtils#findDisasterReports(ReportQuery)}, or against the
+ * archive with {@link DatabaseUtils#findArchivedDisasterReports(ReportQuery)}.
+ *
+ * <pre>
+ * ReportQuery.create()
+ *         .disasterType("Flood").minSeverity(7).withoutPriority()
+ *         .reportedSince(LocalDateTime.now().minusHours(6))
+ *         .orderBy(ReportQuery.SortColumn.SEVERITY, false)
+ *         .limit(200);
+ * </pre>
+ *
+ * @author Bishwas Bhattarai
+ */
+public class ReportQuery {
+
+    /**
+     * Columns the reports can be sorted by. Only these can appear in the
+     * ORDER BY clause, so sort input never reaches the SQL text unchecked.
+     */
+    public enum SortColumn {
+        ID("r.id"),
+        USERNAME("r.username"),
+        DISASTER_TYPE("t.name"),  // Needs the disaster_types join, see toSql
+        LOCATION("r.location"),
+        SEVERITY("r.severity"),
+        // Most urgent first when ascending, unprioritised reports last
+        PRIORITY("CASE r.priority WHEN 'Very High' THEN 1 WHEN 'High' THEN 2 WHEN 'Medium' THEN 3 "
+                + "WHEN 'Low' THEN 4 WHEN 'Very Low' THEN 5 ELSE 6 END"),
+        REPORT_TIME("r.report_time");
+
+        private final String expression;
+
+        SortColumn(String expression) {
+            this.expression = expression;
+        }
+    }
+
+    /** Row limit sent when only an offset is given; MySQL has no OFFSET without LIMIT. */
+    static final long NO_LIMIT = Long.MAX_VALUE;
+
+    private final List<String> disasterTypes = new ArrayList<>();  // Any of these types, empty for all
+    private final List<String> conditions = new ArrayList<>();  // WHERE terms, joined with AND
+    private final List<Object> parameters = new ArrayList<>();  // Values for the ? placeholders, in order
+    private final List<String> orderBy = new ArrayList<>();     // ORDER BY terms
+    private boolean joinTypes;                                  // True when sorting by type name
+    private int limit;                                          // Maximum rows, 0 for no limit
+    private int offset;                                         // Rows to skip
+    private final Map<String, String> criteria = new LinkedHashMap<>();  // Builder calls, for sending to the backend
+
+    /**
+     * Starts a query that matches all reports, newest first.
+     *
+     * @return a new query.
+     */
+    public static ReportQuery create() {
+        return new ReportQuery();
+    }
+
+    /**
+     * Only matches reports of the given type. Calling it again adds another
+     * type, so the query matches reports of any of them. Null or blank is
+     * ignored.
+     *
+     * @param disasterType the disaster type; it cannot contain a comma.
+     * @return this query.
+     */
+    public ReportQuery disasterType(String disasterType) {
+        if (disasterType != null && !disasterType.trim().isEmpty()) {
+            if (disasterType.contains(",")) {
+                throw new IllegalArgumentException("Disaster type cannot contain a comma: " + disasterType);
+            }
+            disasterTypes.add(disasterType);
+            criteria.merge("type", disasterType, (previous, added) -> previous + "," + added);
+        }
+        return this;
+    }
+
+    /**
+     * Only matches reports whose type or location starts with the given text
+     * (case-insensitive under MySQL's default collation), or whose ID is the
+     * text if it is a number. Used for
+     * type-ahead lookups; the prefix match can use the type and location
+     * indexes. Null or blank matches every report.
+     *
+     * @param text the text typed by the user.
+     * @return this query.
+     */
+    public ReportQuery matching(String text) {
+        if (text == null || text.trim().isEmpty()) {
+            return this;
+        }
+        String trimmed = text.trim();
+        String prefix = trimmed.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        if (trimmed.matches("\\d{1,9}")) {
+            conditions.add("(r.id = ? OR r.disaster_type_id IN (SELECT id FROM disaster_types WHERE name LIKE ?) OR r.location LIKE ?)");
+            parameters.add(Integer.parseInt(trimmed));
+        } else {
+            conditions.add("(r.disaster_type_id IN (SELECT id FROM disaster_types WHERE name LIKE ?) OR r.location LIKE ?)");
+        }
+        parameters.add(prefix);
+        parameters.add(prefix);
+        criteria.put("search", trimmed);
+        return this;
+    }
+
+    /**
+     * Only matches reports with at least the given severity.
+     *
+     * @param severity the minimum severity.
+     * @return this query.
+     */
+    public ReportQuery minSeverity(int severity) {
+        conditions.add("r.severity >= ?");
+        parameters.add(severity);
+        criteria.put("minSeverity", String.valueOf(severity));
+        return this;
+    }
+
+    /**
+     * Only matches reports with at most the given severity.
+     *
+     * @param severity the maximum severity.
+     * @return this query.
+     */
+    public ReportQuery maxSeverity(int severity) {
+        conditions.add("r.severity <= ?");
+        parameters.add(severity);
+        criteria.put("maxSeverity", String.valueOf(severity));
+        return this;
+    }
+
+    /**
+     * Only matches reports with the given priority.
+     *
+     * @param priority the priority level.
+     * @return this query.
+     */
+    public ReportQuery priority(String priority) {
+        conditions.add("r.priority = ?");
+        parameters.add(priority);
+        criteria.put("priority", priority);
+        return this;
+    }
+
+    /**
+     * Only matches reports a coordinator has not prioritised yet.
+     *
+     * @return this query.
+     */
+    public ReportQuery withoutPriority() {
+        conditions.add("r.priority IS NULL");
+        criteria.put("noPriority", "true");
+        return this;
+    }
+
+    /**
+     * Only matches reports submitted at or after the given time.
+     *
+     * @param since the earliest report time.
+     * @return this query.
+     */
+    public ReportQuery reportedSince(LocalDateTime since) {
+        conditions.add("r.report_time >= ?");
+        parameters.add(since);
+        criteria.put("since", since.toString());
+        return this;
+    }
+
+    /**
+     * Only matches reports changed (or submitted) at or after the given time,
+     * by the database's clock; used to reconcile a cached page with the
+     * database.
+     *
+     * @param since the earliest change time.
+     * @return this query.
+     */
+    public ReportQuery changedSince(LocalDateTime since) {
+        conditions.add("r.updated_at >= ?");
+        parameters.add(since);
+        criteria.put("changedSince", since.toString());
+        return this;
+    }
+
+    /**
+     * Adds a sort key. Keys apply in the order they are added; the report id
+     * is always appended as a final tie-breaker so paging is stable.
+     *
+     * @param column the column to sort by.
+     * @param ascending true for ascending, false for descending.
+     * @return this query.
+     */
+    public ReportQuery orderBy(SortColumn column, boolean ascending) {
+        orderBy.add(column.expression + (ascending ? " ASC" : " DESC"));
+        joinTypes |= column == SortColumn.DISASTER_TYPE;
+        String key = column.name() + (ascending ? ":asc" : ":desc");
+        criteria.merge("sort", key, (previous, added) -> previous + "," + added);
+        return this;
+    }
+
+    /**
+     * Limits the number of rows returned.
+     *
+     * @param limit the maximum number of rows, 0 for no limit (an offset
+     * then still applies).
+     * @return this query.
+     */
+    public ReportQuery limit(int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit cannot be negative");
+        }
+        this.limit = limit;
+        criteria.put("limit", String.valueOf(limit));
+        return this;
+    }
+
+    /**
+     * Skips the given number of rows, for paging.
+     *
+     * @param offset the number of rows to skip.
+     * @return this query.
+     */
+    public ReportQuery offset(int offset) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("Offset cannot be negative");
+        }
+        this.offset = offset;
+        criteria.put("offset", String.valueOf(offset));
+        return this;
+    }
+
+    /**
+     * Returns the builder calls made on this query as plain strings, so the
+     * query can be sent to the backend server and rebuilt there with
+     * {@link #fromCriteria(Map)}.
+     *
+     * @return the criteria, keyed by name.
+     */
+    public Map<String, String> getCriteria() {
+        return Collections.unmodifiableMap(criteria);
+    }
+
+    /**
+     * Rebuilds a query from {@link #getCriteria()}. Unknown keys are ignored.
+     *
+     * @param criteria the criteria, keyed by name.
+     * @return the query.
+     * @throws IllegalArgumentException if a value is malformed.
+     */
+    public static ReportQuery fromCriteria(Map<String, String> criteria) {
+        ReportQuery query = create();
+        try {
+            if (criteria.containsKey("type")) {
+                for (String type : criteria.get("type").split(",")) {
+                    query.disasterType(type);
+                }
+            }
+            if (criteria.containsKey("search")) {
+                query.matching(criteria.get("search"));
+            }
+            if (criteria.containsKey("minSeverity")) {
+                query.minSeverity(Integer.parseInt(criteria.get("minSeverity")));
+            }
+            if (criteria.containsKey("maxSeverity")) {
+                query.maxSeverity(Integer.parseInt(criteria.get("maxSeverity")));
+            }
+            if (criteria.containsKey("priority")) {
+                query.priority(criteria.get("priority"));
+            }
+            if ("true".equals(criteria.get("noPriority"))) {
+                query.withoutPriority();
+            }
+            if (criteria.containsKey("since")) {
+                query.reportedSince(LocalDateTime.parse(criteria.get("since")));
+            }
+            if (criteria.containsKey("changedSince")) {
+                query.changedSince(LocalDateTime.parse(criteria.get("changedSince")));
+            }
+            if (criteria.containsKey("sort")) {
+                for (String key : criteria.get("sort").split(",")) {
+                    String[] parts = key.split(":");
+                    query.orderBy(SortColumn.valueOf(parts[0]), parts.length < 2 || "asc".equals(parts[1]));
+                }
+            }
+            if (criteria.containsKey("limit")) {
+                query.limit(Integer.parseInt(criteria.get("limit")));
+            }
+            if (criteria.containsKey("offset")) {
+                query.offset(Integer.parseInt(criteria.get("offset")));
+            }
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid report query: " + e.getMessage(), e);
+        }
+        return query;
+    }
+
+    /**
+     * Returns the SQL for this query, with ? placeholders for
+     * {@link #getParameters()}.
+     *
+     * @return the SELECT statement.
+     */
+    public String toSql() {
+        return toSql("disaster_reports");
+    }
+
+    /**
+     * Returns the SQL for this query against a table with the
+     * disaster_reports columns, such as disaster_reports_archive.
+     *
+     * @param table the table to select from.
+     * @return the SELECT statement.
+     */
+    public String toSql(String table) {
+        StringBuilder sql = new StringBuilder("SELECT r.* FROM ").append(table).append(" r");
+        if (joinTypes) {
+            sql.append(" JOIN disaster_types t ON t.id = r.disaster_type_id");
+        }
+        List<String> where = new ArrayList<>();
+        if (!disasterTypes.isEmpty()) {
+            where.add("r.disaster_type_id IN (SELECT id FROM disaster_types WHERE name IN ("
+                    + String.join(", ", Collections.nCopies(disasterTypes.size(), "?")) + "))");
+        }
+        where.addAll(conditions);
+        if (!where.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", where));
+        }
+        sql.append(" ORDER BY ");
+        if (orderBy.isEmpty()) {
+            sql.append("r.report_time DESC, r.id DESC");
+        } else {
+            sql.append(String.join(", ", orderBy)).append(", r.id ASC");
+        }
+        if (limit > 0) {
+            sql.append(" LIMIT ").append(limit);
+        } else if (offset > 0) {
+            sql.append(" LIMIT ").append(NO_LIMIT);
+        }
+        if (offset > 0) {
+            sql.append(" OFFSET ").append(offset);
+        }
+        return sql.toString();
+    }
+
+    /**
+     * Returns the values for the placeholders in {@link #toSql()}: Strings,
+     * Integers and LocalDateTimes.
+     *
+     * @return the parameter values, in order.
+     */
+    public List<Object> getParameters() {
+        List<Object> all = new ArrayList<>(disasterTypes);  // The type condition comes first in the WHERE clause
+        all.addAll(parameters);
+        return Collections.unmodifiableList(all);
+    }
+}
@@ -0,0 +1,308 @@
+package com.mycompany.mavenproject1.util;
+
+import com.mycompany.mavenproject1.model.DisasterReport;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Local copy of the coordinator's last loaded page of reports, so the table
+ * can be shown the moment the page opens instead of after the first query.
+ * The page is then reconciled with the database by a delta query for the
+ * reports changed since the newest change time in the snapshot (see
+ * {@link #reconcile}).
+ *
+ * <p>The snapshot is one small binary file: a header (format, data source,
+ * the query's criteria), a table of the distinct strings, and one
+ * fixed-size record per report referring to the strings by index, so the
+ * repeated types, locations and usernames are stored once. It is read into
+ * memory whole, not memory-mapped, because a mapping holds the file open
+ * until it is garbage collected and Windows then refuses the atomic
+ * replace when the snapshot is written.
+ * The file lives in {@code ~/.drs/snapshots} (override with
+ * {@code drs.snapshot.dir}) and is ignored if it was written for another
+ * database or backend server.
+ *
+ * @author Bishwas Bhattarai
+ */
+public class ReportSnapshot {
+
+    /** Seconds subtracted from the newest change time for the delta query, for transactions committed late. */
+    public static final int DELTA_MARGIN_SECONDS = 5;
+
+    private static final int MAGIC = 0x44525353;  // "DRSS"
+    private static final int FORMAT = 1;
+    private static final String FILE_NAME = "reports.snapshot";
+    private static final long NO_TIME = Long.MIN_VALUE;  // Null timestamps
+
+    private final Map<String, String> criteria;   // Query that loaded the page
+    private final List<DisasterReport> reports;   // The page, in table order
+
+    /**
+     * Creates a snapshot of a loaded page.
+     *
+     * @param criteria the criteria of the query that loaded it, see
+     * {@link ReportQuery#getCriteria()}.
+     * @param reports the reports, in table order.
+     */
+    public ReportSnapshot(Map<String, String> criteria, List<DisasterReport> reports) {
+        this.criteria = Collections.unmodifiableMap(new LinkedHashMap<>(criteria));
+        this.reports = Collections.unmodifiableList(new ArrayList<>(reports));
+    }
+
+    /**
+     * Returns the criteria of the query that loaded the page.
+     *
+     * @return the criteria; unmodifiable.
+     */
+    public Map<String, String> getCriteria() {
+        return criteria;
+    }
+
+    /**
+     * Returns the reports.
+     *
+     * @return the reports, in table order; unmodifiable.
+     */
+    public List<DisasterReport> getReports() {
+        return reports;
+    }
+
+    /**
+     * Returns the newest change time among the reports.
+     *
+     * @return the time, or null if no report has one.
+     */
+    public LocalDateTime getHighWater() {
+        LocalDateTime newest = null;
+        for (DisasterReport report : reports) {
+            LocalDateTime updatedAt = report.getUpdatedAt();
+            if (updatedAt != null && (newest == null || updatedAt.isAfter(newest))) {
+                newest = updatedAt;
+            }
+        }
+        return newest;
+    }
+
+    /**
+     * Returns the query for the reports the page may be missing: those
+     * matching its filters that changed since the snapshot's high water mark,
+     * less {@link #DELTA_MARGIN_SECONDS}.
+     *
+     * @param limit the maximum number of rows; more changes than fit in one
+     * page mean the page should be reloaded instead.
+     * @return the delta query, or null if the snapshot has no change times.
+     */
+    public ReportQuery deltaQuery(int limit) {
+        LocalDateTime highWater = getHighWater();
+        if (highWater == null) {
+            return null;
+        }
+        Map<String, String> filters = new LinkedHashMap<>(criteria);
+        filters.keySet().removeAll(List.of("sort", "limit", "offset"));
+        return ReportQuery.fromCriteria(filters).changedSince(highWater.minusSeconds(DELTA_MARGIN_SECONDS)).limit(limit);
+    }
+
+    /**
+     * Applies the result of {@link #deltaQuery} to the page, if that can be
+     * done without the database: every changed report must already be on the
+     * page, and the page must not be filtered or sorted by priority (the
+     * only column that changes), so no report moves on or off the page or
+     * changes place. Reports deleted since the snapshot are not detected; they
+     * disappear at the next full load.
+     *
+     * @param delta the changed reports.
+     * @param limit the limit passed to {@link #deltaQuery}.
+     * @return the updated page, or null if it must be reloaded.
+     */
+    public List<DisasterReport> reconcile(List<DisasterReport> delta, int limit) {
+        if (delta.isEmpty()) {
+            return reports;
+        }
+        if (delta.size() >= limit || criteria.containsKey("priority") || criteria.containsKey("noPriority")
+                || criteria.getOrDefault("sort", "").contains(ReportQuery.SortColumn.PRIORITY.name())) {
+            return null;
+        }
+        Map<Integer, DisasterReport> changed = new HashMap<>();
+        for (DisasterReport report : delta) {
+            changed.put(report.getId(), report);
+        }
+        List<DisasterReport> merged = new ArrayList<>(reports.size());
+        for (DisasterReport report : reports) {
+            DisasterReport current = changed.remove(report.getId());
+            merged.add(current != null ? current : report);
+        }
+        return changed.isEmpty() ? merged : null;  // A changed report not on the page may belong there
+    }
+
+    /**
+     * Returns the snapshot file for the configured directory.
+     *
+     * @return the path of the snapshot file.
+     */
+    public static Path defaultFile() {
+        String configured = System.getProperty("drs.snapshot.dir");
+        Path dir = configured != null ? Paths.get(configured) : Paths.get(System.getProperty("user.home"), ".drs", "snapshots");
+        return dir.resolve(FILE_NAME);
+    }
+
+    /**
+     * Returns the data source the snapshot belongs to: the backend server,
+     * or else the database.
+     *
+     * @return the data source's URL.
+     */
+    public static String currentSource() {
+        return System.getProperty("drs.server.url", System.getProperty("drs.db.url", "jdbc:mysql://localhost:3306/userdb"));
+    }
+
+    /**
+     * Writes the snapshot, replacing the previous one.
+     *
+     * @param file the snapshot file; its directory is created if needed.
+     * @param source the data source, see {@link #currentSource()}.
+     * @throws IOException if the file cannot be written.
+     */
+    public void write(Path file, String source) throws IOException {
+        Map<String, Integer> strings = new LinkedHashMap<>();  // String table, by first use
+        strings.put(source, 0);
+        for (Map.Entry<String, String> criterion : criteria.entrySet()) {
+            intern(strings, criterion.getKey());
+            intern(strings, criterion.getValue());
+        }
+        int[][] fields = new int[reports.size()][];
+        for (int i = 0; i < reports.size(); i++) {
+            DisasterReport report = reports.get(i);
+            fields[i] = new int[]{intern(strings, report.getUsername()), intern(strings, report.getDisasterType()),
+                intern(strings, report.getLocation()), intern(strings, report.getSeverity()),
+                intern(strings, report.getDescription()), intern(strings, report.getPriority())};
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + reports.size() * 64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT);
+            out.writeInt(strings.size());
+            for (String string : strings.keySet()) {
+                byte[] utf8 = string.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(utf8.length);
+                out.write(utf8);
+            }
+            out.writeInt(criteria.size());
+            for (Map.Entry<String, String> criterion : criteria.entrySet()) {
+                out.writeInt(strings.get(criterion.getKey()));
+                out.writeInt(strings.get(criterion.getValue()));
+            }
+            out.writeInt(reports.size());
+            for (int i = 0; i < reports.size(); i++) {
+                DisasterReport report = reports.get(i);
+                out.writeInt(report.getId());
+                out.writeInt(report.getVersion());
+                out.writeLong(toMillis(report.getReportTime()));
+                out.writeLong(toMillis(report.getUpdatedAt()));
+                for (int field : fields[i]) {
+                    out.writeInt(field);
+                }
+            }
+        }
+
+        Files.createDirectories(file.getParent());
+        Path temp = Files.createTempFile(file.getParent(), FILE_NAME, ".tmp");
+        try {
+            Files.write(temp, bytes.toByteArray());
+            try {
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Reads a snapshot.
+     *
+     * @param file the snapshot file.
+     * @param source the data source it must belong to, see
+     * {@link #currentSource()}.
+     * @return the snapshot, or null if there is none, it belongs to another
+     * data source, or it is unreadable.
+     */
+    public static ReportSnapshot read(Path file, String source) {
+        try {
+            ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(file));  // One page of reports, small enough to hold
+            if (in.getInt() != MAGIC || in.getInt() != FORMAT) {
+                return null;
+            }
+            String[] strings = new String[in.getInt()];
+            for (int i = 0; i < strings.length; i++) {
+                byte[] utf8 = new byte[in.getInt()];
+                in.get(utf8);
+                strings[i] = new String(utf8, StandardCharsets.UTF_8);
+            }
+            if (strings.length == 0 || !strings[0].equals(source)) {
+                return null;
+            }
+            Map<String, String> criteria = new LinkedHashMap<>();
+            for (int count = in.getInt(); count > 0; count--) {
+                criteria.put(strings[in.getInt()], strings[in.getInt()]);
+            }
+            int count = in.getInt();
+            List<DisasterReport> reports = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int id = in.getInt();
+                int version = in.getInt();
+                LocalDateTime reportTime = toTime(in.getLong());
+                LocalDateTime updatedAt = toTime(in.getLong());
+                DisasterReport report = new DisasterReport(id, string(strings, in.getInt()), string(strings, in.getInt()),
+                        string(strings, in.getInt()), string(strings, in.getInt()), string(strings, in.getInt()),
+                        string(strings, in.getInt()), reportTime);
+                report.setVersion(version);
+                report.setUpdatedAt(updatedAt);
+                reports.add(report);
+            }
+            return new ReportSnapshot(criteria, reports);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException | BufferUnderflowException | IndexOutOfBoundsException e) {
+            e.printStackTrace();  // Corrupt or truncated; the page is simply loaded from the database
+            return null;
+        }
+    }
+
+    // Index of the string in the table, -1 for null
+    private static int intern(Map<String, Integer> strings, String value) {
+        return value == null ? -1 : strings.computeIfAbsent(value, key -> strings.size());
+    }
+
+    private static String string(String[] strings, int index) {
+        return index < 0 ? null : strings[index];
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time == null ? NO_TIME : time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static LocalDateTime toTime(long millis) {
+        return millis == NO_TIME ? null : LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1000),
+                Math.floorMod(millis, 1000) * 1_000_000, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,121 @@
+package com.mycompany.mavenproject1.util;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free queue on a power-of-two ring of slots. Each slot carries
+ * a sequence number telling producers whether it is free and consumers
+ * whether it is filled, so threads only contend on a compare-and-set of the
+ * head or tail counter and never block each other.
+ *
+ * @param <T> the element type.
+ * @author Bishwas Bhattarai
+ */
+public class RingBuffer<T> {
+
+    private final int mask;                           // Capacity - 1, for index wrapping
+    private final AtomicReferenceArray<T> slots;      // Queued elements
+    private final AtomicLongArray sequences;          // Per-slot sequence: position when free, position + 1 when filled
+    private final AtomicLong tail = new AtomicLong(); // Next position to fill
+    private final AtomicLong head = new AtomicLong(); // Next position to take
+
+    /**
+     * Creates an empty buffer.
+     *
+     * @param capacity the number of slots, a power of two.
+     * @throws IllegalArgumentException if capacity is not a positive power of
+     * two.
+     */
+    public RingBuffer(int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two");
+        }
+        this.mask = capacity - 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Adds an element if there is room.
+     *
+     * @param element the element, not null.
+     * @return true if added, false if the buffer is full.
+     */
+    public boolean offer(T element) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots.set(index, element);
+                    sequences.set(index, position + 1);  // Publish to consumers
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;  // The slot still holds an element from one lap ago
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Removes the oldest element.
+     *
+     * @return the element, or null if the buffer is empty.
+     */
+    public T poll() {
+        long position = head.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - (position + 1);
+            if (difference == 0) {
+                if (head.compareAndSet(position, position + 1)) {
+                    T element = slots.get(index);
+                    slots.set(index, null);
+                    sequences.set(index, position + mask + 1);  // Free the slot for the next lap
+                    return element;
+                }
+                position = head.get();
+            } else if (difference < 0) {
+                return null;
+            } else {
+                position = head.get();
+            }
+        }
+    }
+
+    /**
+     * Moves up to max elements, oldest first, into a list.
+     *
+     * @param target the list to add to.
+     * @param max the maximum number of elements to move.
+     * @return the number of elements moved.
+     */
+    public int drainTo(List<T> target, int max) {
+        int count = 0;
+        T element;
+        while (count < max && (element = poll()) != null) {
+            target.add(element);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Returns whether the buffer is empty at the moment of the call.
+     *
+     * @return true if there is nothing to take.
+     */
+    public boolean isEmpty() {
+        return head.get() >= tail.get();
+    }
+}
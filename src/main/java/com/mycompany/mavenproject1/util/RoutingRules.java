@@ -0,0 +1,208 @@
+package com.mycompany.mavenproject1.util;
+
+import com.mycompany.mavenproject1.model.AssignedTask;
+import com.mycompany.mavenproject1.model.RoutingRule;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Routes disaster reports to departments. Each {@link RoutingRule} says which
+ * department gets a task for reports of a type and severity range; when a
+ * coordinator first gives a report a priority, {@link DatabaseUtils} creates
+ * the tasks of every matching rule in the same transaction.
+ *
+ * <p>The rules are compiled into a dispatch table holding, for every disaster
+ * type and severity, the list of matching rules (rules for
+ * {@link RoutingRule#ANY_TYPE} included). Routing a report is two array and
+ * map lookups however many rules there are, so it adds nothing noticeable to
+ * a priority update even during a surge. A department gets at most one task
+ * per report; the first matching rule wins.
+ *
+ * <p>Rules are read from the file named by the {@code drs.routing.rules}
+ * system property, else from the built-in routing-rules.txt. One rule per
+ * line, fields separated by {@code |}:
+ *
+ * <pre>
+ * Flood | 7-10 | Search and Rescue team | Search flooded buildings for trapped people.
+ * </pre>
+ *
+ * Blank lines and lines starting with {@code #} are ignored. Automatic tasks
+ * are created unless {@code drs.routing.autoAssign} is {@code false}.
+ *
+ * @author Bishwas Bhattarai
+ */
+public class RoutingRules {
+
+    /** Highest report severity; higher values are routed as this. */
+    public static final int MAX_SEVERITY = 10;
+
+    private static final String DEFAULT_RULES = "/com/mycompany/mavenproject1/routing-rules.txt";  // Built-in rules
+
+    private static RoutingRules defaultRules;  // Loaded on first use
+
+    private final List<RoutingRule> rules;                          // In file order
+    private final Map<String, List<List<RoutingRule>>> byType;      // Matching rules by type, then severity
+    private final List<List<RoutingRule>> anyType;                  // Matching rules for types without own rules
+    private final List<String> departments;                         // Known departments, then those only named in rules
+
+    /**
+     * Compiles rules into a dispatch table.
+     *
+     * @param rules the rules, in priority order.
+     */
+    public RoutingRules(List<RoutingRule> rules) {
+        this.rules = Collections.unmodifiableList(new ArrayList<>(rules));
+        Set<String> types = new LinkedHashSet<>();
+        Set<String> named = new LinkedHashSet<>(Arrays.asList(AssignedTask.DEPARTMENTS));
+        for (RoutingRule rule : rules) {
+            if (!RoutingRule.ANY_TYPE.equals(rule.getDisasterType())) {
+                types.add(rule.getDisasterType());
+            }
+            named.add(rule.getDepartment());
+        }
+        Map<String, List<List<RoutingRule>>> table = new HashMap<>();
+        for (String type : types) {
+            table.put(type, compile(type));
+        }
+        this.byType = table;
+        this.anyType = compile(null);
+        this.departments = Collections.unmodifiableList(new ArrayList<>(named));
+    }
+
+    // One list of matching rules per severity, index 0 unused
+    private List<List<RoutingRule>> compile(String type) {
+        List<List<RoutingRule>> row = new ArrayList<>(MAX_SEVERITY + 1);
+        row.add(Collections.emptyList());
+        for (int severity = 1; severity <= MAX_SEVERITY; severity++) {
+            Map<String, RoutingRule> byDepartment = new LinkedHashMap<>();
+            for (RoutingRule rule : rules) {
+                if (rule.matches(type, severity)) {
+                    byDepartment.putIfAbsent(rule.getDepartment(), rule);
+                }
+            }
+            row.add(Collections.unmodifiableList(new ArrayList<>(byDepartment.values())));
+        }
+        return Collections.unmodifiableList(row);
+    }
+
+    /**
+     * Returns the rules configured by the {@code drs.routing.rules} system
+     * property, or the built-in rules.
+     *
+     * @return the shared rules.
+     * @throws UncheckedIOException if the rules file cannot be read.
+     * @throws IllegalArgumentException if a rule is malformed.
+     */
+    public static synchronized RoutingRules getDefault() {
+        if (defaultRules == null) {
+            String file = System.getProperty("drs.routing.rules");
+            try {
+                if (file != null) {
+                    defaultRules = parse(Files.readAllLines(Paths.get(file), StandardCharsets.UTF_8));
+                } else {
+                    try (InputStream in = RoutingRules.class.getResourceAsStream(DEFAULT_RULES);
+                            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+                        List<String> lines = new ArrayList<>();
+                        for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                            lines.add(line);
+                        }
+                        defaultRules = parse(lines);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read routing rules", e);
+            }
+        }
+        return defaultRules;
+    }
+
+    /**
+     * Returns whether tasks are created automatically when a report gets a
+     * priority.
+     *
+     * @return false if {@code drs.routing.autoAssign} is {@code false}.
+     */
+    public static boolean isAutoAssignEnabled() {
+        return !"false".equalsIgnoreCase(System.getProperty("drs.routing.autoAssign"));
+    }
+
+    /**
+     * Parses rules in the file format described above.
+     *
+     * @param lines the lines of the rules file.
+     * @return the compiled rules.
+     * @throws IllegalArgumentException if a line is malformed, naming its
+     * line number.
+     */
+    public static RoutingRules parse(List<String> lines) {
+        List<RoutingRule> rules = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            try {
+                String[] fields = line.split("\\|", -1);
+                if (fields.length != 4) {
+                    throw new IllegalArgumentException("expected 4 fields separated by |");
+                }
+                String[] range = fields[1].trim().split("-", -1);
+                if (range.length != 2) {
+                    throw new IllegalArgumentException("severity range must look like 1-10");
+                }
+                rules.add(new RoutingRule(fields[0], Integer.parseInt(range[0].trim()), Integer.parseInt(range[1].trim()),
+                        fields[2], fields[3]));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid routing rule on line " + (i + 1) + ": " + e.getMessage(), e);
+            }
+        }
+        return new RoutingRules(rules);
+    }
+
+    /**
+     * Returns the rules matching a report, at most one per department.
+     *
+     * @param disasterType the disaster type of the report.
+     * @param severity the severity of the report; values outside 1 to
+     * {@link #MAX_SEVERITY} are routed as the nearest bound.
+     * @return the matching rules, in rule order; unmodifiable.
+     */
+    public List<RoutingRule> route(String disasterType, int severity) {
+        List<List<RoutingRule>> row = byType.getOrDefault(disasterType, anyType);
+        return row.get(Math.max(1, Math.min(MAX_SEVERITY, severity)));
+    }
+
+    /**
+     * Returns all rules.
+     *
+     * @return the rules, in priority order; unmodifiable.
+     */
+    public List<RoutingRule> getRules() {
+        return rules;
+    }
+
+    /**
+     * Returns the departments tasks can be assigned to: the known
+     * departments, followed by any others named only in the rules.
+     *
+     * @return the department names; unmodifiable.
+     */
+    public List<String> getDepartments() {
+        return departments;
+    }
+}
@@ -0,0 +1,98 @@
+package com.mycompany.mavenproject1.util;
+
+/**
+ * Utility class tracking who is making changes, for the audit log. On the
+ * desktop client this is the user logged in through the login page; on the
+ * backend server it is the user whose session token authenticated the request
+ * being handled, together with the address the request came from, so that
+ * requests without a session (registration, password reset) can still be
+ * traced.
+ *
+ * @author Bishwas Bhattarai
+ */
+public class Session {
+
+    /** Actor recorded when no user is known, e.g. for scheduled jobs. */
+    public static final String SYSTEM = "system";
+
+    private static volatile String currentUser;                                 // User logged in on this client
+    private static final ThreadLocal<String> REQUEST_USER = new ThreadLocal<>(); // Caller of the server request on this thread
+    private static final ThreadLocal<String> REQUEST_ADDRESS = new ThreadLocal<>(); // Client address of that request
+
+    /**
+     * Records the user who logged in on this client.
+     *
+     * @param username the username.
+     */
+    public static void login(String username) {
+        currentUser = username;
+    }
+
+    /**
+     * Forgets the logged-in user.
+     */
+    public static void logout() {
+        currentUser = null;
+    }
+
+    /**
+     * Returns the user logged in on this client.
+     *
+     * @return the username, or null if nobody is logged in.
+     */
+    public static String getCurrentUser() {
+        return currentUser;
+    }
+
+    /**
+     * Sets the user on whose behalf the current thread handles a server
+     * request. Clear it with {@link #clearRequestUser()} when done.
+     *
+     * @param username the user authenticated for the request, or null.
+     */
+    public static void setRequestUser(String username) {
+        REQUEST_USER.set(username);
+    }
+
+    /**
+     * Sets the client address of the server request the current thread
+     * handles. Cleared by {@link #clearRequestUser()}.
+     *
+     * @param address the remote IP address.
+     */
+    public static void setRequestAddress(String address) {
+        REQUEST_ADDRESS.set(address);
+    }
+
+    /**
+     * Clears the request user and address of the current thread.
+     */
+    public static void clearRequestUser() {
+        REQUEST_USER.remove();
+        REQUEST_ADDRESS.remove();
+    }
+
+    /**
+     * Returns where the changes on the current thread come from.
+     *
+     * @return the client address of the server request being handled, or
+     * null outside server requests.
+     */
+    public static String getOrigin() {
+        return REQUEST_ADDRESS.get();
+    }
+
+    /**
+     * Returns who is making changes on the current thread: the request user,
+     * else the logged-in user, else {@link #SYSTEM}.
+     *
+     * @return the actor name.
+     */
+    public static String getActor() {
+        String user = REQUEST_USER.get();
+        if (user == null) {
+            user = currentUser;
+        }
+        return user != null ? user : SYSTEM;
+    }
+}
@@ -0,0 +1,378 @@
+package com.mycompany.mavenproject1.util;
+
+import com.mycompany.mavenproject1.model.AssignedTask;
+import com.mycompany.mavenproject1.model.AuditEvent;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Escalates tasks left "Still in Process" past their deadline. A task's
+ * deadline is its created_at plus the SLA of its report's priority; when it
+ * passes, the task's escalated_at is set and a TASK_ESCALATED audit event is
+ * recorded. A task is escalated once.
+ *
+ * <p>Every open, not yet escalated task has a timer in a
+ * {@link TimingWheel} with one-second ticks, so hundreds of thousands of
+ * pending timers cost O(1) each to add, move and cancel. The task write paths
+ * in {@link DatabaseUtils} keep the timers in step: new tasks are scheduled,
+ * finished and deleted tasks cancelled, and a report's tasks rescheduled
+ * when its priority changes. On start the timers are rebuilt from the
+ * database in one indexed scan; deadlines missed while the application was
+ * down expire on the first tick. Timers only see this process's changes, so
+ * an expiring task is escalated only if the database still shows it open
+ * and unescalated, in one batched conditional update per tick.
+ *
+ * <p>Configuration (system properties): {@code drs.sla.deadlines}, minutes
+ * per priority as {@code Very High=60,High=120,...}, with {@code *} for
+ * reports without a priority (see {@link #DEFAULT_DEADLINES}), and
+ * {@code drs.sla.enabled} ({@code false} turns the monitor off). The
+ * monitor runs in the backend server; a desktop client that talks to the
+ * database directly only runs it when {@code drs.sla.desktop} is
+ * {@code true}, so exactly one designated desktop does the escalating when
+ * there is no server.
+ *
+ * @author Bishwas Bhattarai
+ */
+public class SlaMonitor {
+
+    /** Default deadlines in minutes by priority; {@code *} covers the rest. */
+    public static final String DEFAULT_DEADLINES = "Very High=60,High=120,Medium=480,Low=1440,Very Low=4320,*=1440";
+
+    private static final long TICK_MILLIS = 1000;   // Timer precision
+    private static final int WHEEL_BUCKETS = 4096;  // One turn is about 68 minutes
+    private static final int BATCH_SIZE = 500;      // Tasks escalated per transaction
+
+    // A timer's task; the deadline is derived from createdAt and the report's priority
+    private static final class PendingTask {
+
+        private final int taskId;
+        private final int reportId;
+        private final long createdAt;  // Epoch millis
+
+        private PendingTask(int taskId, int reportId, long createdAt) {
+            this.taskId = taskId;
+            this.reportId = reportId;
+            this.createdAt = createdAt;
+        }
+    }
+
+    // All guarded by the class lock
+    private static Map<String, Duration> deadlines;                                  // SLA by priority
+    private static TimingWheel<PendingTask> wheel;                                   // Null unless started
+    private static final Map<Integer, TimingWheel.Timeout<PendingTask>> timers = new HashMap<>();  // By task ID
+    private static final Map<Integer, Set<Integer>> tasksByReport = new HashMap<>(); // Task IDs with timers, by report
+    private static ScheduledExecutorService scheduler;
+
+    /**
+     * Parses deadlines in the {@code drs.sla.deadlines} format.
+     *
+     * @param spec comma-separated {@code priority=minutes} pairs.
+     * @return the deadlines by priority, in the given order.
+     * @throws IllegalArgumentException if a pair is malformed or a deadline is
+     * not positive.
+     */
+    public static Map<String, Duration> parseDeadlines(String spec) {
+        Map<String, Duration> parsed = new LinkedHashMap<>();
+        for (String pair : spec.split(",")) {
+            if (pair.trim().isEmpty()) {
+                continue;
+            }
+            String[] fields = pair.split("=", -1);
+            if (fields.length != 2 || fields[0].trim().isEmpty()) {
+                throw new IllegalArgumentException("Invalid SLA deadline '" + pair.trim() + "', expected priority=minutes");
+            }
+            long minutes = Long.parseLong(fields[1].trim());
+            if (minutes <= 0) {
+                throw new IllegalArgumentException("SLA deadline for " + fields[0].trim() + " must be greater than 0");
+            }
+            parsed.put(fields[0].trim(), Duration.ofMinutes(minutes));
+        }
+        return Collections.unmodifiableMap(parsed);
+    }
+
+    /**
+     * Returns the deadline of a task.
+     *
+     * @param deadlines the SLA by priority, see {@link #parseDeadlines}.
+     * @param priority the priority of the task's report, or null.
+     * @param createdAt when the task was created, in epoch milliseconds.
+     * @return the deadline in epoch milliseconds, or {@link Long#MAX_VALUE}
+     * if no SLA applies to the priority.
+     */
+    public static long deadline(Map<String, Duration> deadlines, String priority, long createdAt) {
+        Duration sla = priority == null ? null : deadlines.get(priority);
+        if (sla == null) {
+            sla = deadlines.get("*");
+        }
+        return sla == null ? Long.MAX_VALUE : createdAt + sla.toMillis();
+    }
+
+    /**
+     * Returns whether the monitor should be started.
+     *
+     * @return false if {@code drs.sla.enabled} is {@code false}.
+     */
+    public static boolean isEnabled() {
+        return !"false".equalsIgnoreCase(System.getProperty("drs.sla.enabled"));
+    }
+
+    /**
+     * Returns whether this desktop client is the one designated to run the
+     * monitor when there is no backend server.
+     *
+     * @return true if enabled and {@code drs.sla.desktop} is {@code true}.
+     */
+    public static boolean isEnabledOnDesktop() {
+        return isEnabled() && Boolean.getBoolean("drs.sla.desktop");
+    }
+
+    /**
+     * Returns whether the monitor is running.
+     *
+     * @return true between {@link #start()} and {@link #stop()}.
+     */
+    public static synchronized boolean isRunning() {
+        return wheel != null;
+    }
+
+    /**
+     * Starts the monitor: rebuilds the timers from the database and then
+     * checks for expired deadlines every second on a background thread. Used
+     * by the backend server and the desktop application in local mode.
+     *
+     * @throws IllegalArgumentException if {@code drs.sla.deadlines} is
+     * malformed.
+     */
+    public static synchronized void start() {
+        if (wheel != null) {
+            return;
+        }
+        deadlines = parseDeadlines(System.getProperty("drs.sla.deadlines", DEFAULT_DEADLINES));
+        wheel = new TimingWheel<>(TICK_MILLIS, WHEEL_BUCKETS, System.currentTimeMillis());
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sla-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.execute(() -> {
+            try {
+                int loaded = load();
+                System.out.println("SLA monitor tracking " + loaded + " open tasks");
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+        });
+        scheduler.scheduleWithFixedDelay(SlaMonitor::tick, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the monitor and drops all timers.
+     */
+    public static synchronized void stop() {
+        if (wheel == null) {
+            return;
+        }
+        scheduler.shutdownNow();
+        scheduler = null;
+        wheel = null;
+        timers.clear();
+        tasksByReport.clear();
+    }
+
+    /**
+     * Returns the number of pending timers.
+     *
+     * @return the count; 0 if the monitor is not running.
+     */
+    public static synchronized int getPendingCount() {
+        return wheel == null ? 0 : wheel.size();
+    }
+
+    /**
+     * Starts the timer of a new open task. Does nothing if the monitor is not
+     * running.
+     *
+     * @param taskId the ID of the task.
+     * @param reportId the ID of its disaster report.
+     * @param createdAt when the task was created.
+     * @param priority the report's priority, or null.
+     */
+    public static synchronized void taskOpened(int taskId, int reportId, LocalDateTime createdAt, String priority) {
+        if (wheel != null) {
+            schedule(new PendingTask(taskId, reportId, toMillis(createdAt)), priority);
+        }
+    }
+
+    /**
+     * Cancels the timer of a task that was finished or deleted. Does nothing
+     * if the monitor is not running or the task has no timer.
+     *
+     * @param taskId the ID of the task.
+     */
+    public static synchronized void taskClosed(int taskId) {
+        if (wheel == null) {
+            return;
+        }
+        TimingWheel.Timeout<PendingTask> timeout = timers.remove(taskId);
+        if (timeout != null) {
+            wheel.cancel(timeout);
+            forget(timeout.getItem());
+        }
+    }
+
+    /**
+     * Moves the timers of a report's tasks to the deadlines of its new
+     * priority. Does nothing if the monitor is not running.
+     *
+     * @param reportId the ID of the report.
+     * @param priority the new priority, or null.
+     */
+    public static synchronized void priorityChanged(int reportId, String priority) {
+        Set<Integer> taskIds = tasksByReport.get(reportId);
+        if (wheel == null || taskIds == null) {
+            return;
+        }
+        for (Integer taskId : new ArrayList<>(taskIds)) {
+            TimingWheel.Timeout<PendingTask> timeout = timers.get(taskId);
+            wheel.cancel(timeout);
+            schedule(timeout.getItem(), priority);
+        }
+    }
+
+    // Adds or replaces a task's timer; tasks without an SLA get none. Caller holds the class lock.
+    private static void schedule(PendingTask task, String priority) {
+        TimingWheel.Timeout<PendingTask> previous = timers.remove(task.taskId);
+        if (previous != null) {
+            wheel.cancel(previous);
+            forget(previous.getItem());
+        }
+        long deadline = deadline(deadlines, priority, task.createdAt);
+        if (deadline == Long.MAX_VALUE) {
+            return;
+        }
+        timers.put(task.taskId, wheel.schedule(task, deadline));
+        tasksByReport.computeIfAbsent(task.reportId, id -> new HashSet<>()).add(task.taskId);
+    }
+
+    private static void forget(PendingTask task) {
+        Set<Integer> taskIds = tasksByReport.get(task.reportId);
+        if (taskIds != null && taskIds.remove(task.taskId) && taskIds.isEmpty()) {
+            tasksByReport.remove(task.reportId);
+        }
+    }
+
+    /**
+     * Rebuilds the timers of all open, unescalated tasks from the database.
+     * Tasks that already have a timer keep it.
+     *
+     * @return the number of timers added.
+     * @throws SQLException if a database access error occurs.
+     */
+    static int load() throws SQLException {
+        String sql = "SELECT t.id, t.disaster_id, t.created_at, r.priority FROM assigned_tasks t "
+                + "JOIN disaster_reports r ON r.id = t.disaster_id "
+                + "WHERE t.status = ? AND t.escalated_at IS NULL";
+        int added = 0;
+        try (Connection conn = DatabaseUtils.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setFetchSize(1000);
+            stmt.setString(1, AssignedTask.STATUSES[0]);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    int taskId = rs.getInt(1);
+                    Timestamp createdAt = rs.getTimestamp(3);
+                    PendingTask task = new PendingTask(taskId, rs.getInt(2),
+                            createdAt == null ? System.currentTimeMillis() : toMillis(createdAt.toLocalDateTime()));
+                    String priority = rs.getString(4);
+                    synchronized (SlaMonitor.class) {
+                        if (wheel == null) {
+                            return added;  // Stopped meanwhile
+                        }
+                        if (!timers.containsKey(taskId)) {
+                            schedule(task, priority);
+                            added++;
+                        }
+                    }
+                }
+            }
+        }
+        return added;
+    }
+
+    // Collects the expired timers and escalates their tasks outside the lock
+    private static void tick() {
+        List<PendingTask> expired = new ArrayList<>();
+        synchronized (SlaMonitor.class) {
+            if (wheel == null) {
+                return;
+            }
+            wheel.advance(System.currentTimeMillis(), task -> {
+                timers.remove(task.taskId);
+                forget(task);
+                expired.add(task);
+            });
+        }
+        for (int from = 0; from < expired.size(); from += BATCH_SIZE) {
+            try {
+                escalate(expired.subList(from, Math.min(expired.size(), from + BATCH_SIZE)));
+            } catch (SQLException e) {
+                e.printStackTrace();  // Escalated again after the next restart
+            }
+        }
+    }
+
+    /**
+     * Marks tasks escalated unless they were finished, deleted or escalated in
+     * the meantime, and records an audit event for each one marked.
+     */
+    private static void escalate(List<PendingTask> tasks) throws SQLException {
+        try (UnitOfWork work = UnitOfWork.begin()) {
+            // escalated_at is on the database clock, like created_at it is compared with
+            PreparedStatement update = work.prepare(
+                    "UPDATE assigned_tasks SET escalated_at = CURRENT_TIMESTAMP WHERE id = ? AND status = ? AND escalated_at IS NULL");
+            for (PendingTask task : tasks) {
+                update.setInt(1, task.taskId);
+                update.setString(2, AssignedTask.STATUSES[0]);
+                update.addBatch();
+            }
+            int[] counts = update.executeBatch();
+            List<PendingTask> escalated = new ArrayList<>();
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] != 0) {  // SUCCESS_NO_INFO counts as escalated
+                    escalated.add(tasks.get(i));
+                }
+            }
+            work.afterCommit(() -> {
+                for (PendingTask task : escalated) {
+                    AuditLog.getDefault().record(new AuditEvent(Instant.now(), "system", "TASK_ESCALATED", "task:" + task.taskId,
+                            "report:" + task.reportId + ", open since " + LocalDateTime.ofInstant(Instant.ofEpochMilli(task.createdAt), ZoneId.systemDefault())));
+                }
+                if (!escalated.isEmpty()) {
+                    System.out.println("SLA monitor escalated " + escalated.size() + " overdue tasks");
+                }
+            });
+            work.commit();
+        }
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,527 @@
+package com.mycompany.mavenproject1.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Slow-query log for the data-access layer. Connections handed out by
+ * {@link DatabaseUtils#getConnection()} are wrapped so that every statement
+ * execution is timed and counted against its {@link SqlFingerprint}.
+ * Executions slower than {@code drs.slowQuery.thresholdMillis} (200) are
+ * written with their parameters, except that values bound to password
+ * columns (see {@code drs.slowQuery.maskColumns}) are masked. SELECTs slower
+ * than {@code drs.slowQuery.explainMillis} (1000) also get the database's
+ * EXPLAIN output, at most once per fingerprint every ten minutes, on MySQL,
+ * MariaDB and H2. Every five minutes, and at exit, the busiest fingerprints
+ * of the interval are summarized, so a query that degrades as data grows
+ * shows up as a rising mean.
+ *
+ * <p>Timing covers the execute call, which for MySQL includes receiving the
+ * rows. Writing and EXPLAIN happen on a background thread. The log is
+ * {@code slow-queries.log} in {@code ~/.drs/slow-queries} (override with
+ * {@code drs.slowQuery.dir}); it is rotated to {@code slow-queries.1.log}
+ * and so on at {@code drs.slowQuery.fileBytes} (4 MB), keeping
+ * {@code drs.slowQuery.maxFiles} (5) files. Disable the log with
+ * {@code drs.slowQuery.enabled=false}.
+ *
+ * @author Bishwas Bhattarai
+ */
+public class SlowQueryLog {
+
+    static final String FILE_NAME = "slow-queries.log";
+
+    private static final boolean ENABLED = !"false".equalsIgnoreCase(System.getProperty("drs.slowQuery.enabled"));
+    private static final List<String> MASKED_COLUMNS = Arrays.asList(
+            System.getProperty("drs.slowQuery.maskColumns", "password").toLowerCase(Locale.ROOT).split("\\s*,\\s*"));
+    private static final long EXPLAIN_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(10); // Per fingerprint
+    private static final long SUMMARY_MINUTES = 5;     // Interval between summaries
+    private static final int SUMMARY_LINES = 20;       // Busiest fingerprints per summary
+    private static final int MAX_VALUE_LENGTH = 64;    // Logged characters of a string parameter
+    private static final int MAX_FINGERPRINTS = 2000;  // Distinct statements tracked; more are only timed against the threshold
+    private static final String MASK = "***";
+
+    private static SlowQueryLog defaultLog;  // Created on first use
+
+    private final Path dir;                  // Log directory
+    private final long thresholdNanos;       // Executions at least this slow are written
+    private final long explainNanos;         // Slow SELECTs at least this slow are explained
+    private final long fileBytes;            // Size at which the log is rotated
+    private final int maxFiles;              // Files kept, counting the current one
+    private final Callable<Connection> explainConnections;  // Unwrapped connections for EXPLAIN
+    private final Map<String, SqlFingerprint> fingerprints = new ConcurrentHashMap<>(); // By statement text
+    private final Map<String, Stats> stats = new ConcurrentHashMap<>();                 // By fingerprint id
+    private final ScheduledExecutorService writer;
+    private Boolean explainSupported;        // Decided on the first EXPLAIN, writer thread only
+
+    /**
+     * Creates a log writing to the given directory and schedules its
+     * summaries.
+     *
+     * @param dir the log directory, created if needed.
+     * @param thresholdMillis the execution time from which executions are logged.
+     * @param explainMillis the execution time from which SELECTs are explained.
+     * @param fileBytes the size at which the log file is rotated.
+     * @param maxFiles the number of log files kept.
+     * @param explainConnections opens connections for EXPLAIN, which are closed after use.
+     */
+    public SlowQueryLog(Path dir, long thresholdMillis, long explainMillis, long fileBytes, int maxFiles,
+            Callable<Connection> explainConnections) {
+        if (thresholdMillis < 0 || explainMillis < thresholdMillis) {
+            throw new IllegalArgumentException("Thresholds must be at least 0 and the EXPLAIN threshold at least the log threshold");
+        }
+        if (fileBytes <= 0 || maxFiles <= 0) {
+            throw new IllegalArgumentException("File size and count must be greater than 0");
+        }
+        this.dir = dir;
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        this.explainNanos = TimeUnit.MILLISECONDS.toNanos(explainMillis);
+        this.fileBytes = fileBytes;
+        this.maxFiles = maxFiles;
+        this.explainConnections = explainConnections;
+        this.writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "slow-query-log");
+            thread.setDaemon(true);
+            return thread;
+        });
+        writer.scheduleWithFixedDelay(this::writeSummary, SUMMARY_MINUTES, SUMMARY_MINUTES, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Returns whether connections are wrapped, i.e. unless
+     * {@code drs.slowQuery.enabled} is false.
+     *
+     * @return true if the slow-query log is on.
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Returns the log configured by the {@code drs.slowQuery.*} system
+     * properties. It writes a last summary when the JVM exits.
+     *
+     * @return the shared log.
+     */
+    public static synchronized SlowQueryLog getDefault() {
+        if (defaultLog == null) {
+            String configured = System.getProperty("drs.slowQuery.dir");
+            SlowQueryLog log = new SlowQueryLog(
+                    configured != null ? Paths.get(configured) : Paths.get(System.getProperty("user.home"), ".drs", "slow-queries"),
+                    Long.getLong("drs.slowQuery.thresholdMillis", 200L),
+                    Long.getLong("drs.slowQuery.explainMillis", 1000L),
+                    Long.getLong("drs.slowQuery.fileBytes", 4L * 1024 * 1024),
+                    Integer.getInteger("drs.slowQuery.maxFiles", 5),
+                    DatabaseUtils::openConnection);
+            Runtime.getRuntime().addShutdownHook(new Thread(log::close, "slow-query-log-shutdown"));
+            defaultLog = log;
+        }
+        return defaultLog;
+    }
+
+    /**
+     * Wraps a connection so that the statements it creates are timed.
+     * Closing the wrapper closes the connection.
+     *
+     * @param conn the connection to wrap.
+     * @return a connection recording its statement executions in this log.
+     */
+    public Connection wrap(Connection conn) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(conn, method, args);
+                    if (result instanceof CallableStatement) {
+                        return wrap((Statement) result, CallableStatement.class, (String) args[0]);
+                    } else if (result instanceof PreparedStatement) {
+                        return wrap((Statement) result, PreparedStatement.class, (String) args[0]);
+                    } else if (result instanceof Statement) {
+                        return wrap((Statement) result, Statement.class, null);
+                    }
+                    return result;
+                });
+    }
+
+    /**
+     * Counts one statement execution and logs it if it was slow.
+     *
+     * @param sql the statement text.
+     * @param nanos how long the execution took.
+     * @param parameters the bound parameters by index, empty if none are known.
+     * @param batchSize the number of parameter sets executed, 0 if not a batch.
+     * @param rows the rows changed, or -1 for queries and failed executions.
+     * @param error the exception the execution failed with, or null.
+     */
+    public void record(String sql, long nanos, Map<Integer, Object> parameters, int batchSize, long rows, Throwable error) {
+        SqlFingerprint fingerprint = fingerprint(sql);
+        Stats counters = stats.size() < MAX_FINGERPRINTS
+                ? stats.computeIfAbsent(fingerprint.getId(), id -> new Stats(fingerprint.getText()))
+                : stats.get(fingerprint.getId());
+        boolean slow = nanos >= thresholdNanos;
+        boolean explain = false;
+        if (counters != null) {
+            synchronized (counters) {
+                counters.count++;
+                counters.totalNanos += nanos;
+                counters.maxNanos = Math.max(counters.maxNanos, nanos);
+                if (slow) {
+                    counters.slow++;
+                    long now = System.currentTimeMillis();
+                    if (nanos >= explainNanos && fingerprint.isSelect() && now - counters.lastExplainMillis >= EXPLAIN_INTERVAL_MILLIS) {
+                        counters.lastExplainMillis = now;
+                        explain = true;
+                    }
+                }
+            }
+        }
+        if (!slow) {
+            return;
+        }
+
+        StringBuilder line = new StringBuilder(Instant.now().toString())
+                .append(" SLOW ").append(TimeUnit.NANOSECONDS.toMillis(nanos)).append(" ms")
+                .append(" fp=").append(fingerprint.getId())
+                .append(" thread=").append(Thread.currentThread().getName());
+        if (batchSize > 0) {
+            line.append(" batch=").append(batchSize);
+        }
+        if (rows >= 0) {
+            line.append(" rows=").append(rows);
+        }
+        if (error != null) {
+            line.append(" error=").append(error.getClass().getSimpleName());
+            if (error instanceof SQLException) {
+                line.append('(').append(((SQLException) error).getSQLState()).append(')');
+            }
+        }
+        line.append(" sql=").append(fingerprint.getText());
+        if (!parameters.isEmpty()) {
+            line.append(" params=").append(formatParameters(sql, parameters));
+        }
+        String entry = line.toString();
+        Map<Integer, Object> explainParameters = explain ? new TreeMap<>(parameters) : null;
+        submit(() -> {
+            List<String> lines = new ArrayList<>();
+            lines.add(entry);
+            if (explainParameters != null) {
+                lines.addAll(explain(sql, explainParameters));
+            }
+            append(lines);
+        });
+    }
+
+    /**
+     * Writes a summary of the current interval now and waits until
+     * everything recorded so far is in the file.
+     */
+    public void flush() {
+        try {
+            writer.submit(this::writeSummary).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | RejectedExecutionException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Writes a last summary and stops the writer thread.
+     */
+    public void close() {
+        if (!writer.isShutdown()) {
+            flush();
+            writer.shutdown();
+        }
+    }
+
+    /**
+     * Formats parameters for the log, masking values bound to password
+     * columns and shortening long strings.
+     *
+     * @param sql the statement the parameters are bound to.
+     * @param parameters the parameters by index.
+     * @return the parameters as {@code [1='ann', 2=***]}.
+     */
+    public static String formatParameters(String sql, Map<Integer, Object> parameters) {
+        List<String> columns = SqlFingerprint.boundColumns(sql);
+        StringBuilder out = new StringBuilder("[");
+        for (Map.Entry<Integer, Object> parameter : parameters.entrySet()) {
+            int index = parameter.getKey();
+            String column = index <= columns.size() ? columns.get(index - 1) : null;
+            if (out.length() > 1) {
+                out.append(", ");
+            }
+            out.append(index).append('=').append(isMasked(column) ? MASK : formatValue(parameter.getValue()));
+        }
+        return out.append(']').toString();
+    }
+
+    private static boolean isMasked(String column) {
+        if (column == null) {
+            return false;
+        }
+        for (String masked : MASKED_COLUMNS) {
+            if (!masked.isEmpty() && column.contains(masked)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String formatValue(Object value) {
+        if (value == null) {
+            return "NULL";
+        } else if (value instanceof String) {
+            String text = (String) value;
+            return "'" + (text.length() > MAX_VALUE_LENGTH ? text.substring(0, MAX_VALUE_LENGTH) + "..." : text) + "'";
+        } else if (value instanceof byte[] || value instanceof InputStream || value instanceof Reader
+                || value instanceof java.sql.Blob || value instanceof java.sql.Clob) {
+            return "<" + value.getClass().getSimpleName() + ">";
+        }
+        return String.valueOf(value);
+    }
+
+    // Cached per statement text; dynamic statements beyond the cache are fingerprinted each time
+    private SqlFingerprint fingerprint(String sql) {
+        SqlFingerprint fingerprint = fingerprints.get(sql);
+        if (fingerprint == null) {
+            fingerprint = SqlFingerprint.of(sql);
+            if (fingerprints.size() < MAX_FINGERPRINTS) {
+                fingerprints.put(sql, fingerprint);
+            }
+        }
+        return fingerprint;
+    }
+
+    // Times the execute methods of a statement and remembers its parameters
+    private Statement wrap(Statement statement, Class<? extends Statement> type, String preparedSql) {
+        Map<Integer, Object> parameters = new TreeMap<>();  // Bound so far, statement's own thread
+        String[] batchSql = {null};                           // First statement added to a plain batch
+        int[] batchSize = {0};
+        return (Statement) Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    String name = method.getName();
+                    if (name.startsWith("execute")) {
+                        String sql = preparedSql != null ? preparedSql
+                                : args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : batchSql[0];
+                        boolean batch = name.endsWith("Batch");
+                        Object result = null;
+                        Throwable error = null;
+                        long start = System.nanoTime();
+                        try {
+                            result = invoke(statement, method, args);
+                            return result;
+                        } catch (Throwable e) {
+                            error = e;
+                            throw e;
+                        } finally {
+                            long nanos = System.nanoTime() - start;
+                            if (sql != null) {
+                                record(sql, nanos, parameters, batch ? batchSize[0] : 0, rowsChanged(result), error);
+                            }
+                            if (batch) {
+                                batchSize[0] = 0;
+                                batchSql[0] = null;
+                            }
+                        }
+                    }
+                    Object result = invoke(statement, method, args);
+                    if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                        parameters.put((Integer) args[0], name.equals("setNull") ? null : args[1]);
+                    } else if (name.equals("clearParameters")) {
+                        parameters.clear();
+                    } else if (name.equals("addBatch")) {
+                        batchSize[0]++;
+                        if (args != null && batchSql[0] == null) {
+                            batchSql[0] = (String) args[0];
+                        }
+                    } else if (name.equals("clearBatch")) {
+                        batchSize[0] = 0;
+                        batchSql[0] = null;
+                    }
+                    return result;
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    // Update count or summed batch counts; -1 for queries
+    private static long rowsChanged(Object result) {
+        if (result instanceof Integer || result instanceof Long) {
+            return ((Number) result).longValue();
+        } else if (result instanceof int[]) {
+            return Arrays.stream((int[]) result).filter(count -> count > 0).asLongStream().sum();
+        } else if (result instanceof long[]) {
+            return Arrays.stream((long[]) result).filter(count -> count > 0).sum();
+        }
+        return -1;
+    }
+
+    // Runs EXPLAIN with the original parameters on a connection of its own, writer thread only
+    private List<String> explain(String sql, Map<Integer, Object> parameters) {
+        List<String> lines = new ArrayList<>();
+        try (Connection conn = explainConnections.call()) {
+            if (explainSupported == null) {
+                String product = conn.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT);
+                explainSupported = product.contains("mysql") || product.contains("mariadb") || product.contains("h2");
+            }
+            if (!explainSupported) {
+                return lines;
+            }
+            try (PreparedStatement stmt = conn.prepareStatement("EXPLAIN " + sql)) {
+                for (Map.Entry<Integer, Object> parameter : parameters.entrySet()) {
+                    stmt.setObject(parameter.getKey(), parameter.getValue());
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    ResultSetMetaData meta = rs.getMetaData();
+                    while (rs.next()) {
+                        StringBuilder row = new StringBuilder("  EXPLAIN");
+                        for (int column = 1; column <= meta.getColumnCount(); column++) {
+                            row.append(meta.getColumnCount() == 1 ? " " : " " + meta.getColumnLabel(column).toLowerCase(Locale.ROOT) + "=")
+                                    .append(String.valueOf(rs.getObject(column)).replaceAll("\\s+", " "));
+                        }
+                        lines.add(row.toString());
+                    }
+                }
+            }
+        } catch (Exception e) {
+            lines.add("  EXPLAIN failed: " + e.getMessage());
+        }
+        return lines;
+    }
+
+    // Busiest fingerprints of the interval by total time; resets the interval counters
+    private void writeSummary() {
+        List<Map.Entry<String, Stats>> interval = new ArrayList<>();
+        for (Map.Entry<String, Stats> entry : stats.entrySet()) {
+            Stats counters = entry.getValue();
+            Stats copy = new Stats(counters.text);
+            synchronized (counters) {
+                copy.count = counters.count;
+                copy.slow = counters.slow;
+                copy.totalNanos = counters.totalNanos;
+                copy.maxNanos = counters.maxNanos;
+                counters.count = 0;
+                counters.slow = 0;
+                counters.totalNanos = 0;
+                counters.maxNanos = 0;
+            }
+            if (copy.count > 0) {
+                interval.add(new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), copy));
+            }
+        }
+        if (interval.isEmpty()) {
+            return;
+        }
+
+        interval.sort((a, b) -> Long.compare(b.getValue().totalNanos, a.getValue().totalNanos));
+        String now = Instant.now().toString();
+        List<String> lines = new ArrayList<>();
+        for (Map.Entry<String, Stats> entry : interval.subList(0, Math.min(SUMMARY_LINES, interval.size()))) {
+            Stats counters = entry.getValue();
+            lines.add(now + " SUMMARY fp=" + entry.getKey()
+                    + " count=" + counters.count + " slow=" + counters.slow
+                    + " total=" + TimeUnit.NANOSECONDS.toMillis(counters.totalNanos) + " ms"
+                    + " mean=" + String.format(Locale.ROOT, "%.2f", counters.totalNanos / 1e6 / counters.count) + " ms"
+                    + " max=" + TimeUnit.NANOSECONDS.toMillis(counters.maxNanos) + " ms"
+                    + " sql=" + counters.text);
+        }
+        append(lines);
+    }
+
+    private void submit(Runnable task) {
+        try {
+            writer.execute(task);
+        } catch (RejectedExecutionException e) {
+            // Shutting down; the entry is lost with the process
+        }
+    }
+
+    // Appends lines to the current file, rotating it first when it is full; writer thread only
+    private void append(List<String> lines) {
+        try {
+            Files.createDirectories(dir);
+            Path file = dir.resolve(FILE_NAME);
+            if (Files.exists(file) && Files.size(file) >= fileBytes) {
+                rotate();
+            }
+            Files.write(file, lines, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // slow-queries.log becomes slow-queries.1.log, .1 becomes .2 and so on; the oldest is dropped
+    private void rotate() throws IOException {
+        Files.deleteIfExists(rotatedFile(maxFiles - 1));
+        for (int i = maxFiles - 2; i >= 1; i--) {
+            Path older = rotatedFile(i);
+            if (Files.exists(older)) {
+                Files.move(older, rotatedFile(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        if (maxFiles > 1) {
+            Files.move(dir.resolve(FILE_NAME), rotatedFile(1), StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            Files.delete(dir.resolve(FILE_NAME));
+        }
+    }
+
+    Path rotatedFile(int generation) {
+        return dir.resolve(FILE_NAME.replace(".log", "." + generation + ".log"));
+    }
+
+    /**
+     * Executions of one fingerprint; counters cover the current summary
+     * interval and are guarded by the instance.
+     */
+    private static final class Stats {
+
+        private final String text;       // Normalized statement
+        private long count;              // Executions
+        private long slow;               // Executions over the threshold
+        private long totalNanos;         // Summed execution time
+        private long maxNanos;           // Slowest execution
+        private long lastExplainMillis;  // When this fingerprint was last explained, kept across intervals
+
+        private Stats(String text) {
+            this.text = text;
+        }
+    }
+}
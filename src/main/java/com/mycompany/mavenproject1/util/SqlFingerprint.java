@@ -0,0 +1,194 @@
+package com.mycompany.mavenproject1.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The shape of an SQL statement with its values taken out, so executions of
+ * the same query with different parameters or inlined literals are counted
+ * together by {@link SlowQueryLog}. String and number literals become
+ * {@code ?}, lists of placeholders such as {@code IN (?, ?, ?)} become
+ * {@code (?+)}, repeated value rows are collapsed, comments are dropped and
+ * whitespace is squeezed. The id is a short hash of the normalized text.
+ *
+ * @author Bishwas Bhattarai
+ */
+public final class SqlFingerprint {
+
+    private static final Pattern PLACEHOLDER_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern REPEATED_ROWS = Pattern.compile("(\\(\\?\\+?\\))(?:\\s*,\\s*\\(\\?\\+?\\))+");
+    private static final Pattern INSERT_COLUMNS = Pattern.compile(
+            "(?is)^\\s*(?:INSERT|REPLACE)\\s+(?:IGNORE\\s+)?INTO\\s+[\\w.`\"]+\\s*\\(([^)]*)\\)\\s*VALUES\\s*\\(");
+    private static final Pattern COMPARED_COLUMN = Pattern.compile(
+            "(?is)([\\w`\"]+)\\s*(?:=|<>|!=|<=|>=|<|>|\\s+LIKE)\\s*$");
+
+    private final String text;  // Normalized statement
+    private final String id;    // Hash of the text, 8 hex digits
+
+    private SqlFingerprint(String text) {
+        this.text = text;
+        this.id = String.format("%08x", text.hashCode());
+    }
+
+    /**
+     * Fingerprints a statement.
+     *
+     * @param sql the statement as sent to the database.
+     * @return its fingerprint.
+     */
+    public static SqlFingerprint of(String sql) {
+        String normalized = PLACEHOLDER_LIST.matcher(stripLiterals(sql)).replaceAll("(?+)");
+        return new SqlFingerprint(REPEATED_ROWS.matcher(normalized).replaceAll("$1, ..."));
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Returns whether the statement only reads, and so can be explained
+     * without side effects.
+     *
+     * @return true for SELECT statements.
+     */
+    public boolean isSelect() {
+        return text.regionMatches(true, 0, "SELECT", 0, 6);
+    }
+
+    /**
+     * Names the column each {@code ?} placeholder of a statement is bound to,
+     * as far as that can be told from the text: the column of an INSERT's
+     * column list, or the column a placeholder is compared with.
+     *
+     * @param sql the statement as prepared.
+     * @return one lower-case column name per placeholder, in order, null
+     * where the column is not known.
+     */
+    public static List<String> boundColumns(String sql) {
+        List<String> inserted = new ArrayList<>();
+        int valuesStart = -1;  // Index of the first VALUES row's opening parenthesis, -1 if not an INSERT
+        Matcher insert = INSERT_COLUMNS.matcher(sql);
+        if (insert.find()) {
+            for (String column : insert.group(1).split(",")) {
+                inserted.add(unquote(column.trim()));
+            }
+            valuesStart = insert.end() - 1;
+        }
+
+        List<String> columns = new ArrayList<>();
+        boolean inRow = false;  // Inside one of the INSERT's value rows
+        int valueIndex = 0;     // Position within that row
+        int depth = 0;
+        char quote = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (quote != 0) {
+                if (c == '\\' && quote == '\'') {
+                    i++;
+                } else if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '\'' || c == '"' || c == '`') {
+                quote = c;
+            } else if (c == '(') {
+                depth++;
+                if (depth == 1 && valuesStart >= 0 && i >= valuesStart) {
+                    inRow = true;
+                    valueIndex = 0;
+                }
+            } else if (c == ')') {
+                depth--;
+                inRow = inRow && depth > 0;
+            } else if (c == ',' && inRow && depth == 1) {
+                valueIndex++;
+            } else if (c == '?') {
+                if (inRow) {
+                    columns.add(valueIndex < inserted.size() ? inserted.get(valueIndex) : null);
+                } else {
+                    Matcher compared = COMPARED_COLUMN.matcher(sql.substring(Math.max(0, i - 80), i));
+                    columns.add(compared.find() ? unquote(compared.group(1)) : null);
+                }
+            }
+        }
+        return columns;
+    }
+
+    private static String unquote(String identifier) {
+        return identifier.replace("`", "").replace("\"", "").toLowerCase(Locale.ROOT);
+    }
+
+    // Replaces literals with ?, drops comments and squeezes whitespace
+    private static String stripLiterals(String sql) {
+        StringBuilder out = new StringBuilder(sql.length());
+        int i = 0;
+        while (i < sql.length()) {
+            char c = sql.charAt(i);
+            if (c == '\'') {
+                i = skipString(sql, i);
+                out.append('?');
+            } else if (c == '"' || c == '`') {
+                int end = sql.indexOf(c, i + 1);
+                end = end < 0 ? sql.length() : end + 1;
+                out.append(sql, i, end);
+                i = end;
+            } else if (c == '-' && sql.startsWith("--", i)) {
+                int end = sql.indexOf('\n', i);
+                i = end < 0 ? sql.length() : end;
+            } else if (c == '/' && sql.startsWith("/*", i)) {
+                int end = sql.indexOf("*/", i + 2);
+                i = end < 0 ? sql.length() : end + 2;
+            } else if (Character.isWhitespace(c)) {
+                while (i < sql.length() && Character.isWhitespace(sql.charAt(i))) {
+                    i++;
+                }
+                if (out.length() > 0 && i < sql.length()) {
+                    out.append(' ');
+                }
+            } else if (Character.isDigit(c) && !partOfIdentifier(out)) {
+                while (i < sql.length() && (Character.isLetterOrDigit(sql.charAt(i)) || sql.charAt(i) == '.')) {
+                    i++;
+                }
+                out.append('?');
+            } else {
+                out.append(c);
+                i++;
+            }
+        }
+        return out.toString().trim();
+    }
+
+    // Index after the string literal starting at start; handles '' and \' escapes
+    private static int skipString(String sql, int start) {
+        int i = start + 1;
+        while (i < sql.length()) {
+            char c = sql.charAt(i);
+            if (c == '\\') {
+                i += 2;
+            } else if (c == '\'') {
+                if (i + 1 < sql.length() && sql.charAt(i + 1) == '\'') {
+                    i += 2;
+                } else {
+                    return i + 1;
+                }
+            } else {
+                i++;
+            }
+        }
+        return i;
+    }
+
+    private static boolean partOfIdentifier(StringBuilder out) {
+        if (out.length() == 0) {
+            return false;
+        }
+        char previous = out.charAt(out.length() - 1);
+        return Character.isLetterOrDigit(previous) || previous == '_' || previous == '$';
+    }
+}
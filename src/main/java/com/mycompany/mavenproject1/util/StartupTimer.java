@@ -0,0 +1,63 @@
+package com.mycompany.mavenproject1.util;
+
+import java.time.Instant;
+
+/**
+ * Utility class that measures application startup. Records when the first
+ * frame of the login view was laid out and when the login form became usable
+ * (schema check finished), and prints a one-line report measured from JVM
+ * start once both have happened.
+ *
+ * @author Bishwas Bhattarai
+ */
+public class StartupTimer {
+
+    private static final long JVM_START_MILLIS = ProcessHandle.current().info().startInstant()
+            .map(Instant::toEpochMilli)
+            .orElse(System.currentTimeMillis());
+
+    private static long firstFrameMillis;  // Wall-clock time of the first login frame, 0 until recorded
+    private static long loginReadyMillis;  // Wall-clock time the login form was enabled, 0 until recorded
+    private static boolean reported;       // Report is printed only once per JVM
+
+    /**
+     * Records that the first frame of the login view has been laid out.
+     */
+    public static synchronized void markFirstFrame() {
+        if (firstFrameMillis == 0) {
+            firstFrameMillis = System.currentTimeMillis();
+            reportIfComplete();
+        }
+    }
+
+    /**
+     * Records that the login form is ready for input.
+     */
+    public static synchronized void markLoginReady() {
+        if (loginReadyMillis == 0) {
+            loginReadyMillis = System.currentTimeMillis();
+            reportIfComplete();
+        }
+    }
+
+    /**
+     * Builds the startup report.
+     *
+     * @return the report text, or null until both marks have been recorded.
+     */
+    public static synchronized String getReport() {
+        if (firstFrameMillis == 0 || loginReadyMillis == 0) {
+            return null;
+        }
+        return "Startup: JVM start -> first frame " + (firstFrameMillis - JVM_START_MILLIS) + " ms"
+                + ", -> login ready " + (Math.max(firstFrameMillis, loginReadyMillis) - JVM_START_MILLIS) + " ms";
+    }
+
+    private static void reportIfComplete() {
+        String report = getReport();
+        if (report != null && !reported) {
+            reported = true;
+            System.out.println(report);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.mycompany.mavenproject1.util;
+
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import javafx.beans.InvalidationListener;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+import javafx.collections.FXCollections;
+import javafx.scene.control.Button;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.TableCell;
+import javafx.scene.control.TableColumn;
+import javafx.scene.layout.HBox;
+import javafx.util.Callback;
+
+/**
+ * Utility class with allocation-light building blocks for TableViews.
+ * Value factories use typed getters instead of the reflective
+ * PropertyValueFactory lookup, and the cells build their controls once and
+ * only rebind data in {@code updateItem}, so scrolling a large table doesn't
+ * create new nodes for every row that comes into view.
+ *
+ * @author Bishwas Bhattarai
+ */
+public class TableCells {
+
+    /**
+     * Creates a cell value factory that reads the column value with a typed
+     * getter, e.g. {@code TableCells.value(DisasterReport::getLocation)}.
+     *
+     * @param getter extracts the column value from the row item.
+     * @param <S> the row item type.
+     * @param <T> the column value type.
+     * @return a cell value factory for {@link TableColumn#setCellValueFactory}.
+     */
+    public static <S, T> Callback<TableColumn.CellDataFeatures<S, T>, ObservableValue<T>> value(Function<S, T> getter) {
+        return features -> new ConstantValue<>(getter.apply(features.getValue()));
+    }
+
+    /**
+     * Creates a cell factory for a column of buttons acting on the row item,
+     * e.g. Edit/Delete. The buttons and their container are created once per
+     * cell and reused as the cell is recycled.
+     *
+     * @param actions the buttons to show, in order.
+     * @param <S> the row item type.
+     * @param <T> the column value type (usually Void).
+     * @return a cell factory for {@link TableColumn#setCellFactory}.
+     */
+    @SafeVarargs
+    public static <S, T> Callback<TableColumn<S, T>, TableCell<S, T>> buttons(CellAction<S>... actions) {
+        return column -> new TableCell<S, T>() {
+            private final HBox box = new HBox(10);
+
+            {
+                for (CellAction<S> action : actions) {
+                    Button button = new Button(action.label);
+                    button.setOnAction(event -> {
+                        S item = getTableRow() == null ? null : getTableRow().getItem();
+                        if (item != null) {
+                            action.handler.accept(item);
+                        }
+                    });
+                    box.getChildren().add(button);
+                }
+            }
+
+            @Override
+            protected void updateItem(T item, boolean empty) {
+                super.updateItem(item, empty);
+                setGraphic(empty ? null : box);
+            }
+        };
+    }
+
+    /**
+     * Creates a cell factory for a column edited through a ComboBox. The
+     * ComboBox is created once per cell; {@code updateItem} only selects the
+     * row's current value. {@code onChange} is called only for changes made by
+     * the user, never while the cell is being rebound to another row.
+     *
+     * @param choices the values offered in the ComboBox.
+     * @param getter reads the current value from the row item.
+     * @param onChange receives the row item and the newly selected value.
+     * @param <S> the row item type.
+     * @return a cell factory for {@link TableColumn#setCellFactory}.
+     */
+    public static <S> Callback<TableColumn<S, String>, TableCell<S, String>> comboBox(
+            String[] choices, Function<S, String> getter, BiConsumer<S, String> onChange) {
+        return column -> new TableCell<S, String>() {
+            private final ComboBox<String> comboBox = new ComboBox<>(FXCollections.observableArrayList(choices));
+            private boolean binding; // True while updateItem sets the value
+
+            {
+                comboBox.setOnAction(event -> {
+                    S item = getTableRow() == null ? null : getTableRow().getItem();
+                    if (!binding && item != null) {
+                        onChange.accept(item, comboBox.getValue());
+                    }
+                });
+            }
+
+            @Override
+            protected void updateItem(String item, boolean empty) {
+                super.updateItem(item, empty);
+                S row = getTableRow() == null ? null : getTableRow().getItem();
+                if (empty || row == null) {
+                    setGraphic(null);
+                } else {
+                    binding = true;
+                    comboBox.setValue(getter.apply(row));
+                    binding = false;
+                    setGraphic(comboBox);
+                }
+            }
+        };
+    }
+
+    /**
+     * A labelled button action for {@link #buttons(CellAction[])}.
+     *
+     * @param <S> the row item type.
+     */
+    public static final class CellAction<S> {
+
+        private final String label;
+        private final Consumer<S> handler;
+
+        /**
+         * Creates a button action.
+         *
+         * @param label the button text.
+         * @param handler receives the row item when the button is clicked.
+         */
+        public CellAction(String label, Consumer<S> handler) {
+            this.label = label;
+            this.handler = handler;
+        }
+    }
+
+    /**
+     * An ObservableValue that never changes. Cheaper than wrapping each cell
+     * value in a property, because listeners never need to be tracked.
+     */
+    private static final class ConstantValue<T> implements ObservableValue<T> {
+
+        private final T value;
+
+        private ConstantValue(T value) {
+            this.value = value;
+        }
+
+        @Override
+        public T getValue() {
+            return value;
+        }
+
+        @Override
+        public void addListener(ChangeListener<? super T> listener) {
+        }
+
+        @Override
+        public void removeListener(ChangeListener<? super T> listener) {
+        }
+
+        @Override
+        public void addListener(InvalidationListener listener) {
+        }
+
+        @Override
+        public void removeListener(InvalidationListener listener) {
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.mycompany.mavenproject1.util;
+
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel: a timer queue for very many timeouts that are mostly
+ * cancelled or rescheduled before they expire. Time is cut into ticks, and
+ * a timeout is kept in the bucket of its deadline's tick modulo the number of
+ * buckets, together with the number of full turns of the wheel still to go.
+ * Scheduling and cancelling are O(1) whatever the number of pending
+ * timeouts; {@link #advance} only visits the buckets of the ticks that
+ * passed. Deadlines are rounded up to the next tick.
+ *
+ * <p>Not thread-safe; callers synchronise.
+ *
+ * @param <T> the type of the items the timeouts carry.
+ * @author Bishwas Bhattarai
+ */
+public class TimingWheel<T> {
+
+    /**
+     * A scheduled timeout, linked into its bucket.
+     *
+     * @param <T> the type of the item.
+     */
+    public static final class Timeout<T> {
+
+        private final T item;         // Passed to the expiry callback
+        private final long deadline;  // Epoch millis
+        private long rounds;          // Full wheel turns left before it expires
+        private Bucket<T> bucket;     // Null once expired or cancelled
+        private Timeout<T> previous;
+        private Timeout<T> next;
+
+        private Timeout(T item, long deadline) {
+            this.item = item;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Returns the item.
+         *
+         * @return the item given when scheduling.
+         */
+        public T getItem() {
+            return item;
+        }
+
+        /**
+         * Returns the deadline.
+         *
+         * @return the deadline in epoch milliseconds.
+         */
+        public long getDeadline() {
+            return deadline;
+        }
+
+        /**
+         * Returns whether the timeout is still waiting to expire.
+         *
+         * @return false once expired or cancelled.
+         */
+        public boolean isPending() {
+            return bucket != null;
+        }
+    }
+
+    // Doubly linked list of the timeouts hashed to one slot
+    private static final class Bucket<T> {
+
+        private Timeout<T> head;
+
+        private void add(Timeout<T> timeout) {
+            timeout.bucket = this;
+            timeout.next = head;
+            if (head != null) {
+                head.previous = timeout;
+            }
+            head = timeout;
+        }
+
+        private void remove(Timeout<T> timeout) {
+            if (timeout.previous != null) {
+                timeout.previous.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.previous = timeout.previous;
+            }
+            timeout.bucket = null;
+            timeout.previous = null;
+            timeout.next = null;
+        }
+    }
+
+    private final long tickMillis;     // Length of one tick
+    private final long startMillis;    // Time of tick 0
+    private final Bucket<T>[] buckets;
+    private final int mask;            // buckets.length - 1
+    private long tick;                 // Next tick to process
+    private int size;                  // Pending timeouts
+
+    /**
+     * Creates an empty wheel starting at the given time.
+     *
+     * @param tickMillis the length of a tick; deadlines are kept to this
+     * precision.
+     * @param bucketCount the number of buckets, rounded up to a power of two;
+     * one turn of the wheel is {@code tickMillis * bucketCount}.
+     * @param startMillis the current time in epoch milliseconds.
+     */
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMillis, int bucketCount, long startMillis) {
+        if (tickMillis <= 0 || bucketCount <= 0 || bucketCount > 1 << 30) {
+            throw new IllegalArgumentException("Tick length and bucket count must be greater than 0");
+        }
+        int length = Integer.highestOneBit(bucketCount);
+        if (length < bucketCount) {
+            length <<= 1;
+        }
+        this.tickMillis = tickMillis;
+        this.startMillis = startMillis;
+        @SuppressWarnings("unchecked")  // Generic arrays can't be created; every slot is filled with a Bucket<T> below
+        Bucket<T>[] slots = (Bucket<T>[]) new Bucket<?>[length];
+        for (int i = 0; i < length; i++) {
+            slots[i] = new Bucket<>();
+        }
+        this.buckets = slots;
+        this.mask = length - 1;
+    }
+
+    /**
+     * Schedules an item to expire at a deadline. A deadline already passed
+     * expires at the next tick not yet processed.
+     *
+     * @param item the item passed back on expiry.
+     * @param deadline the deadline in epoch milliseconds.
+     * @return the timeout, for {@link #cancel}.
+     */
+    public Timeout<T> schedule(T item, long deadline) {
+        Timeout<T> timeout = new Timeout<>(item, deadline);
+        // Tick at or after the deadline, but not one already processed
+        long due = Math.max(tick, Math.floorDiv(deadline - startMillis + tickMillis - 1, tickMillis));
+        timeout.rounds = (due - tick) / buckets.length;
+        buckets[(int) (due & mask)].add(timeout);
+        size++;
+        return timeout;
+    }
+
+    /**
+     * Cancels a timeout.
+     *
+     * @param timeout the timeout.
+     * @return true if it was pending, false if it had already expired or been
+     * cancelled.
+     */
+    public boolean cancel(Timeout<T> timeout) {
+        if (timeout.bucket == null) {
+            return false;
+        }
+        timeout.bucket.remove(timeout);
+        size--;
+        return true;
+    }
+
+    /**
+     * Processes every tick up to the given time, passing the items of expired
+     * timeouts to the callback.
+     *
+     * @param nowMillis the current time in epoch milliseconds.
+     * @param expired called with each expired item.
+     * @return the number of timeouts that expired.
+     */
+    public int advance(long nowMillis, Consumer<? super T> expired) {
+        long last = Math.floorDiv(nowMillis - startMillis, tickMillis);
+        int count = 0;
+        for (; tick <= last; tick++) {
+            Bucket<T> bucket = buckets[(int) (tick & mask)];
+            Timeout<T> timeout = bucket.head;
+            while (timeout != null) {
+                Timeout<T> next = timeout.next;
+                if (timeout.rounds <= 0) {
+                    bucket.remove(timeout);
+                    size--;
+                    count++;
+                    expired.accept(timeout.item);
+                } else {
+                    timeout.rounds--;
+                }
+                timeout = next;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of pending timeouts.
+     *
+     * @return the count.
+     */
+    public int size() {
+        return size;
+    }
+}
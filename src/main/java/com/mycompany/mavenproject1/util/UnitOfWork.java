@@ -0,0 +1,145 @@
+package com.mycompany.mavenproject1.util;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A database transaction spanning several statements. All statements run on
+ * one connection with auto-commit off, so they are committed together or not
+ * at all; statements with the same SQL are prepared once and can be batched.
+ * Work that must only happen once the rows are committed, such as updating
+ * {@link DashboardRollups}, is registered with {@link #afterCommit(Runnable)}.
+ *
+ * <pre>
+ * try (UnitOfWork work = UnitOfWork.begin()) {
+ *     PreparedStatement insert = work.prepare(sql);
+ *     ... insert.addBatch() per row ...
+ *     insert.executeBatch();
+ *     work.commit();
+ * }
+ * </pre>
+ *
+ * Closing a unit of work that was not committed rolls it back.
+ *
+ * @author Bishwas Bhattarai
+ */
+public class UnitOfWork implements AutoCloseable {
+
+    private final Connection connection;                                         // Shared by all statements
+    private final Map<String, PreparedStatement> statements = new LinkedHashMap<>(); // Prepared statements by SQL
+    private final List<Runnable> afterCommit = new ArrayList<>();                // Run once the commit succeeds
+    private boolean committed;                                                   // True after commit()
+
+    private UnitOfWork(Connection connection) {
+        this.connection = connection;
+    }
+
+    /**
+     * Starts a unit of work on a new connection.
+     *
+     * @return the unit of work; close it when done.
+     * @throws SQLException if no connection could be opened.
+     */
+    public static UnitOfWork begin() throws SQLException {
+        Connection connection = DatabaseUtils.getConnection();
+        try {
+            connection.setAutoCommit(false);
+        } catch (SQLException e) {
+            connection.close();
+            throw e;
+        }
+        return new UnitOfWork(connection);
+    }
+
+    /**
+     * Returns the connection, for statements not prepared through
+     * {@link #prepare(String)}. Don't commit or close it directly.
+     *
+     * @return the connection.
+     */
+    public Connection getConnection() {
+        return connection;
+    }
+
+    /**
+     * Returns a prepared statement for the SQL, preparing it on first use.
+     * Later calls with the same SQL return the same statement, so rows can be
+     * added to its batch from several places. Generated keys are returned.
+     *
+     * @param sql the SQL statement.
+     * @return the prepared statement; it is closed with the unit of work.
+     * @throws SQLException if the statement cannot be prepared.
+     */
+    public PreparedStatement prepare(String sql) throws SQLException {
+        PreparedStatement statement = statements.get(sql);
+        if (statement == null) {
+            statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+            statements.put(sql, statement);
+        }
+        return statement;
+    }
+
+    /**
+     * Registers work to run after a successful commit, in registration order.
+     * It does not run if the unit of work is rolled back.
+     *
+     * @param action the work.
+     */
+    public void afterCommit(Runnable action) {
+        afterCommit.add(action);
+    }
+
+    /**
+     * Commits all statements, then runs the after-commit work.
+     *
+     * @throws SQLException if the commit fails; the unit of work is then
+     * rolled back when closed.
+     */
+    public void commit() throws SQLException {
+        if (committed) {
+            throw new IllegalStateException("Unit of work already committed");
+        }
+        connection.commit();
+        committed = true;
+        for (Runnable action : afterCommit) {
+            action.run();
+        }
+    }
+
+    /**
+     * Discards all statements run so far.
+     *
+     * @throws SQLException if the rollback fails.
+     */
+    public void rollback() throws SQLException {
+        afterCommit.clear();
+        connection.rollback();
+    }
+
+    /**
+     * Closes the statements and the connection, rolling back first if the
+     * unit of work was not committed.
+     *
+     * @throws SQLException if the connection could not be closed cleanly.
+     */
+    @Override
+    public void close() throws SQLException {
+        try {
+            for (PreparedStatement statement : statements.values()) {
+                statement.close();
+            }
+            if (!committed) {
+                rollback();
+            }
+            connection.setAutoCommit(true);
+        } finally {
+            connection.close();
+        }
+    }
+}
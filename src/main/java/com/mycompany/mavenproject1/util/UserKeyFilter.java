@@ -0,0 +1,157 @@
+package com.mycompany.mavenproject1.util;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+
+/**
+ * In-memory pre-check for registration. Holds every registered username,
+ * email and phone number in a {@link CountingBloomFilter}, so most "is this
+ * name free?" checks are answered without a database round trip: a miss in
+ * the filter means the value is definitely not taken. Hits, which may be
+ * false positives, still go to the database.
+ *
+ * <p>The filter is loaded from the users table on first use and kept in
+ * sync by {@link DatabaseUtils#saveUser} and {@link DatabaseUtils#deleteUser}.
+ * It only sees this process's changes; the unique indexes on users remain
+ * the final check, so a stale filter can at worst let a registration reach
+ * the INSERT, which then reports the duplicate.
+ *
+ * @author Bishwas Bhattarai
+ */
+public class UserKeyFilter {
+
+    private static final int MIN_EXPECTED_USERS = 10_000;   // Filter capacity before the table grows past it
+    private static final double FALSE_POSITIVE_RATE = 0.01;  // Share of free values that still hit the database
+
+    private static CountingBloomFilter filter;  // Null until loaded; guarded by the class lock
+
+    /**
+     * Returns whether the filter has been loaded.
+     *
+     * @return true once {@link #load()} has succeeded.
+     */
+    public static synchronized boolean isLoaded() {
+        return filter != null;
+    }
+
+    /**
+     * Loads the filter from the users table, sized for twice the current
+     * number of users.
+     *
+     * @throws SQLException if a database access error occurs.
+     */
+    public static synchronized void load() throws SQLException {
+        try (Connection conn = DatabaseUtils.getConnection(); Statement stmt = conn.createStatement()) {
+            int users;
+            try (ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM users")) {
+                rs.next();
+                users = rs.getInt(1);
+            }
+            // Three keys per user
+            CountingBloomFilter loaded = new CountingBloomFilter(3 * Math.max(MIN_EXPECTED_USERS, 2 * users), FALSE_POSITIVE_RATE);
+            try (ResultSet rs = stmt.executeQuery("SELECT username, email, phone_number FROM users")) {
+                while (rs.next()) {
+                    addKeys(loaded, rs.getString(1), rs.getString(2), rs.getString(3));
+                }
+            }
+            filter = loaded;
+        }
+    }
+
+    /**
+     * Returns whether any of the values may already be registered.
+     *
+     * @param username the username.
+     * @param email the email address.
+     * @param phoneNumber the phone number.
+     * @return false if none of them is registered, true if one may be, or if
+     * the filter could not be loaded.
+     */
+    public static synchronized boolean mightExist(String username, String email, String phoneNumber) {
+        if (filter == null) {
+            try {
+                load();
+            } catch (SQLException e) {
+                e.printStackTrace();
+                return true;  // Let the database answer
+            }
+        }
+        return mightContain(usernameKey(username)) || mightContain(emailKey(email)) || mightContain(phoneKey(phoneNumber));
+    }
+
+    /**
+     * Records a newly saved user.
+     *
+     * @param username the username.
+     * @param email the email address.
+     * @param phoneNumber the phone number.
+     */
+    public static synchronized void userAdded(String username, String email, String phoneNumber) {
+        if (filter != null) {
+            addKeys(filter, username, email, phoneNumber);
+        }
+    }
+
+    /**
+     * Records a deleted user.
+     *
+     * @param username the username.
+     * @param email the email address.
+     * @param phoneNumber the phone number.
+     */
+    public static synchronized void userRemoved(String username, String email, String phoneNumber) {
+        if (filter != null) {
+            remove(usernameKey(username));
+            remove(emailKey(email));
+            remove(phoneKey(phoneNumber));
+        }
+    }
+
+    /**
+     * Drops the filter; it is reloaded on next use.
+     */
+    public static synchronized void reset() {
+        filter = null;
+    }
+
+    private static void addKeys(CountingBloomFilter target, String username, String email, String phoneNumber) {
+        for (String key : new String[]{usernameKey(username), emailKey(email), phoneKey(phoneNumber)}) {
+            if (key != null) {
+                target.add(key);
+            }
+        }
+    }
+
+    private static boolean mightContain(String key) {
+        return key != null && filter.mightContain(key);
+    }
+
+    private static void remove(String key) {
+        if (key != null) {
+            filter.remove(key);
+        }
+    }
+
+    // Keys are prefixed per column and case-folded like the database's default collation
+    private static String usernameKey(String username) {
+        return normalize("u:", username);
+    }
+
+    private static String emailKey(String email) {
+        return normalize("e:", email);
+    }
+
+    private static String phoneKey(String phoneNumber) {
+        return normalize("p:", phoneNumber);
+    }
+
+    private static String normalize(String prefix, String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        return prefix + value.trim().toLowerCase(Locale.ROOT);
+    }
+}
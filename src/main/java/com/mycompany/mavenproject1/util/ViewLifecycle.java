@@ -0,0 +1,25 @@
+package com.mycompany.mavenproject1.util;
+
+/**
+ * Lifecycle hooks for controllers whose views are cached by
+ * {@link ViewRouter}. A cached view is built once, so work that has to happen
+ * every time the page is shown (loading data, clearing forms) belongs in
+ * these hooks rather than in {@code initialize()}.
+ *
+ * @author Bishwas Bhattarai
+ */
+public interface ViewLifecycle {
+
+    /**
+     * Called each time the view becomes the visible page, after any
+     * navigation parameters have been passed to the controller.
+     */
+    default void onActivate() {
+    }
+
+    /**
+     * Called when the view is replaced by another page.
+     */
+    default void onDeactivate() {
+    }
+}
@@ -0,0 +1,25 @@
+package com.mycompany.mavenproject1.util;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Java Flight Recorder event for parsing a view's FXML and creating its
+ * controller, which happens once per view (see {@link ViewRouter}).
+ *
+ * @author Bishwas Bhattarai
+ */
+@Name("com.mycompany.mavenproject1.ViewLoad")
+@Label("View Load")
+@Category({"Disaster Response", "UI"})
+@Description("FXML parsed and controller initialized for a page")
+public class ViewLoadEvent extends jdk.jfr.Event {
+
+    @Label("View")
+    String view;
+
+    @Label("FXML")
+    String fxml;
+}
@@ -0,0 +1,208 @@
+package com.mycompany.mavenproject1.util;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import javafx.application.Platform;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.stage.Stage;
+
+/**
+ * Central navigation for the application window. Each view's FXML is parsed
+ * once and cached together with its controller; navigating swaps the root of
+ * a single reused {@link Scene} and runs the {@link ViewLifecycle} hooks so
+ * cached pages refresh their data instead of being rebuilt. Each navigation
+ * and each FXML parse is recorded as a {@link NavigationEvent} or
+ * {@link ViewLoadEvent} for Java Flight Recorder.
+ *
+ * @author Bishwas Bhattarai
+ */
+public class ViewRouter {
+
+    /**
+     * The pages of the application, with their FXML file and window title.
+     */
+    public enum View {
+        LOGIN("LoginPage.fxml", "Login Page"),
+        REGISTER("RegisterPage.fxml", "Register Page"),
+        ADMIN("AdminPage.fxml", "Admin Page"),
+        COORDINATOR("CoordinatorPage.fxml", "Coordinator Page"),
+        ASSIGN_TASK("AssignTaskPage.fxml", "Assign Task"),
+        ORGANIZATION("OrganizationPage.fxml", "Organization Page"),
+        DISASTER_REPORT("DisasterReportPage.fxml", "Disaster Report");
+
+        private final String fxml;
+        private final String title;
+
+        View(String fxml, String title) {
+            this.fxml = fxml;
+            this.title = title;
+        }
+    }
+
+    private static final String VIEW_PATH = "/com/mycompany/mavenproject1/view/";
+
+    private static final Map<View, LoadedView> cache = new EnumMap<>(View.class); // Parsed views, FX thread only
+    private static Stage stage;        // The application window
+    private static volatile Thread uiThread; // Thread init() ran on, the JavaFX application thread
+    private static View currentView;   // The page currently shown, null before the first navigation
+
+    /**
+     * Sets the window that all navigation happens in. Called once from
+     * {@code App.start}.
+     *
+     * @param primaryStage the application window.
+     */
+    public static void init(Stage primaryStage) {
+        stage = primaryStage;
+        uiThread = Thread.currentThread();
+    }
+
+    /**
+     * Returns whether the caller runs on the JavaFX application thread, without
+     * touching the JavaFX toolkit (the backend server never starts it).
+     *
+     * @return true on the thread the window was set up on.
+     */
+    public static boolean isUiThread() {
+        return Thread.currentThread() == uiThread;
+    }
+
+    /**
+     * Shows the given view.
+     *
+     * @param view the page to show.
+     * @param <C> the controller type of the view.
+     * @return the view's controller.
+     * @throws IOException if the FXML could not be loaded.
+     */
+    public static <C> C navigate(View view) throws IOException {
+        return navigate(view, null);
+    }
+
+    /**
+     * Shows the given view, passing parameters to its controller before the
+     * view is activated.
+     *
+     * @param view the page to show.
+     * @param setup receives the controller before {@link ViewLifecycle#onActivate()}, may be null.
+     * @param <C> the controller type of the view.
+     * @return the view's controller.
+     * @throws IOException if the FXML could not be loaded.
+     */
+    @SuppressWarnings("unchecked")
+    public static <C> C navigate(View view, Consumer<C> setup) throws IOException {
+        NavigationEvent event = new NavigationEvent();
+        event.begin();
+        event.loaded = !cache.containsKey(view);
+        LoadedView next = load(view);
+
+        if (currentView != null && currentView != view) {
+            LoadedView previous = cache.get(currentView);
+            if (previous.controller instanceof ViewLifecycle) {
+                ((ViewLifecycle) previous.controller).onDeactivate();
+            }
+        }
+
+        C controller = (C) next.controller;
+        if (setup != null) {
+            setup.accept(controller);
+        }
+
+        Scene scene = stage.getScene();
+        if (scene == null) {
+            stage.setScene(new Scene(next.root));
+        } else if (scene.getRoot() != next.root) {
+            scene.setRoot(next.root);
+        }
+        stage.setTitle(view.title);
+        stage.sizeToScene();
+
+        View from = currentView;
+        currentView = view;
+
+        if (controller instanceof ViewLifecycle) {
+            ((ViewLifecycle) controller).onActivate();
+        }
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.from = from == null ? null : from.name();
+            event.to = view.name();
+            event.commit();
+        }
+        return controller;
+    }
+
+    /**
+     * Parses the pages a user with the given role is going to visit, one per
+     * pulse on the FX thread, so later navigation doesn't pay for FXML
+     * parsing. Views that are already cached are skipped.
+     *
+     * @param role the role of the logged-in user.
+     */
+    public static void preloadForRole(String role) {
+        View[] views;
+        switch (role == null ? "" : role) {
+            case "Coordinator":
+                views = new View[]{View.COORDINATOR, View.ASSIGN_TASK};
+                break;
+            case "Department":
+                views = new View[]{View.ORGANIZATION};
+                break;
+            case "Admin":
+                views = new View[]{View.ADMIN};
+                break;
+            default:
+                views = new View[]{View.DISASTER_REPORT};
+                break;
+        }
+        for (View view : views) {
+            Platform.runLater(() -> {
+                try {
+                    load(view);
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            });
+        }
+    }
+
+    // Returns the cached view, parsing its FXML on first use
+    private static LoadedView load(View view) throws IOException {
+        LoadedView loaded = cache.get(view);
+        if (loaded == null) {
+            ViewLoadEvent event = new ViewLoadEvent();
+            event.begin();
+            FXMLLoader loader = new FXMLLoader(ViewRouter.class.getResource(VIEW_PATH + view.fxml));
+            Parent root = loader.load();
+            loaded = new LoadedView(root, loader.getController());
+            cache.put(view, loaded);
+
+            event.end();
+            if (event.shouldCommit()) {
+                event.view = view.name();
+                event.fxml = view.fxml;
+                event.commit();
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * A parsed view and its controller.
+     */
+    private static final class LoadedView {
+
+        private final Parent root;
+        private final Object controller;
+
+        private LoadedView(Parent root, Object controller) {
+            this.root = root;
+            this.controller = controller;
+        }
+    }
+}
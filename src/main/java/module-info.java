@@ -2,6 +2,9 @@ module com.mycompany.mavenproject1 {
     requires javafx.controls;
     requires javafx.fxml;
     requires java.sql; 
+    requires java.net.http;
+    requires jdk.httpserver;
+    requires jdk.jfr;
     requires javafx.graphics;
 
     opens com.mycompany.mavenproject1 to javafx.fxml;
@@ -9,6 +12,7 @@ module com.mycompany.mavenproject1 {
     exports com.mycompany.mavenproject1.controller;
     exports com.mycompany.mavenproject1.util;
     exports com.mycompany.mavenproject1.model;
+    exports com.mycompany.mavenproject1.server;
     opens com.mycompany.mavenproject1.controller to javafx.fxml;
     opens com.mycompany.mavenproject1.model to javafx.base;
     
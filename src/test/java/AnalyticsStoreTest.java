@@ -0,0 +1,76 @@
+import com.mycompany.mavenproject1.util.AnalyticsStore;
+import com.mycompany.mavenproject1.util.DashboardRollups;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the AnalyticsStore aggregations as rows are added, changed and
+ * removed, including stores large enough to be split across fork/join
+ * tasks; does not need a database.
+ *
+ * @author Bishwas Bhattarai
+ */
+public class AnalyticsStoreTest {
+
+    @Test
+    public void testSeverityByDimension() {
+        AnalyticsStore store = new AnalyticsStore();
+        store.addReport(1, "Flood", "North", 3, null);
+        store.addReport(2, "Flood", "South", 3, "High");
+        store.addReport(3, "Fire", "North", 10, "High");
+        store.addReport(3, "Fire", "North", 1, "Low");  // Already known; ignored
+
+        Map<String, long[]> byType = store.severityBy(AnalyticsStore.Dimension.TYPE, null);
+        assertEquals(List.of("Fire", "Flood"), List.copyOf(byType.keySet()));
+        assertEquals(2, byType.get("Flood")[2]);
+        assertEquals(1, byType.get("Fire")[AnalyticsStore.MAX_SEVERITY - 1]);
+
+        Map<String, long[]> byPriority = store.severityBy(AnalyticsStore.Dimension.PRIORITY, "Flood");
+        assertEquals(1, byPriority.get(DashboardRollups.NO_PRIORITY)[2]);
+        assertEquals(1, byPriority.get("High")[2]);
+        assertTrue(store.severityBy(AnalyticsStore.Dimension.TYPE, "Storm").isEmpty());
+    }
+
+    @Test
+    public void testChangesAndRemovals() {
+        AnalyticsStore store = new AnalyticsStore();
+        store.addReport(1, "Flood", "North", 5, null);
+        store.addReport(2, "Flood", "North", 5, null);
+
+        store.setPriority(1, "Very High");
+        assertEquals(1, store.severityBy(AnalyticsStore.Dimension.PRIORITY, null).get("Very High")[4]);
+
+        store.removeReports(List.of(2));
+        assertEquals(1, store.severityBy(AnalyticsStore.Dimension.LOCATION, null).get("North")[4]);
+
+        store.removeReports(List.of(1));
+        assertTrue(store.severityBy(AnalyticsStore.Dimension.TYPE, null).isEmpty());
+    }
+
+    @Test
+    public void testLargeStoreIsCountedInParallel() {
+        AnalyticsStore store = new AnalyticsStore();
+        int rows = 300_000;
+        for (int id = 1; id <= rows; id++) {
+            store.addReport(id, id % 2 == 0 ? "Flood" : "Fire", "Sector " + id % 7, id % AnalyticsStore.MAX_SEVERITY + 1, null);
+        }
+        store.removeReports(List.of(1, 2));
+
+        long total = 0;
+        for (long[] counts : store.severityBy(AnalyticsStore.Dimension.LOCATION, null).values()) {
+            total += sum(counts);
+        }
+        assertEquals(rows - 2, total);
+        assertEquals(rows / 2 - 1, sum(store.severityBy(AnalyticsStore.Dimension.TYPE, "Flood").get("Flood")));
+    }
+
+    private static long sum(long[] counts) {
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        return total;
+    }
+}
@@ -22,6 +22,8 @@ public class AppTest {
    @BeforeAll
 static void setupAll() throws SQLException {
 
+    // The tests assign their own tasks; testFirstPriorityRoutesTasks turns routing back on
+    System.setProperty("drs.routing.autoAssign", "false");
     DatabaseUtils.setupDatabase();  // Ensure database and tables are created
     connection = DatabaseUtils.getConnection();
     DatabaseUtils.saveUser("ram", "ram@123", "ram@gmail.com", "9841407177", "User");
@@ -93,7 +95,7 @@ static void setupAll() throws SQLException {
 
 @Test
 public void testGetUserRole() {
-    DatabaseUtils.saveUser("bhattarai", "bhattarai@123", "bhattarai@gmail.com", "9876543210", "User");
+    DatabaseUtils.saveUser("bhattarai", "bhattarai@123", "bhattarai@gmail.com", "9876543219", "User");
     String role = DatabaseUtils.getUserRole("bhattarai");
     assertEquals("User", role, "The user role should be 'User'.");
     DatabaseUtils.deleteUser("bhattarai");
@@ -270,6 +272,27 @@ public void testUpdateTaskStatusToInProgress() throws SQLException {
 }
 
 
+@Test
+public void testFirstPriorityRoutesTasks() throws SQLException {
+    System.setProperty("drs.routing.autoAssign", "true");
+    try {
+        int disasterId = DatabaseUtils.saveDisasterReport("ram", "Fire", "routing", 7, "Warehouse fire").getId();
+        DatabaseUtils.updateDisasterPriority(disasterId, "High");
+        DatabaseUtils.updateDisasterPriority(disasterId, "Very High");  // Not the first priority, so nothing more is routed
+        List<String> departments = DatabaseUtils.getAssignedTasksSortedByPriority().stream()
+                                                .filter(t -> t.getDisasterId() == disasterId)
+                                                .map(AssignedTask::getDepartment)
+                                                .sorted()
+                                                .collect(java.util.stream.Collectors.toList());
+        assertEquals(List.of("Fire Department", "Hospital"), departments, "The Fire rules for severity 7 should each create one task.");
+        DatabaseUtils.deleteAssignedTask(disasterId, "Fire Department", "Contain the fire and secure the area.");
+        DatabaseUtils.deleteAssignedTask(disasterId, "Hospital", "Prepare for burn and smoke inhalation casualties.");
+        DatabaseUtils.deleteDisasterReport("ram", "Fire", "routing");
+    } finally {
+        System.setProperty("drs.routing.autoAssign", "false");
+    }
+}
+
 @Test
 public void testGetAllDisasterReports() throws SQLException {
     DatabaseUtils.saveDisasterReport("ram", "Fire", "granville", 8, "Severe fire");
@@ -345,6 +368,7 @@ public void testSaveAssignedTask() throws SQLException {
 
     @AfterAll
     static void tearDownAll() throws SQLException {
+        System.clearProperty("drs.routing.autoAssign");
         //System.out.println("Tearing down after all tests.");
         DatabaseUtils.deleteUser("newuser2");
         DatabaseUtils.deleteUser("ram");
@@ -0,0 +1,64 @@
+
+import com.mycompany.mavenproject1.util.AttachmentStore;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the content-addressed attachment store against a temporary
+ * directory.
+ *
+ * @author Bishwas Bhattarai
+ */
+public class AttachmentStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path writeFile(String name, byte[] content) throws IOException {
+        Path file = tempDir.resolve(name);
+        Files.write(file, content);
+        return file;
+    }
+
+    @Test
+    public void testIdenticalContentIsStoredOnce() throws IOException {
+        AttachmentStore store = new AttachmentStore(tempDir.resolve("store"));
+        byte[] content = new byte[200_000];
+        new Random(7).nextBytes(content);
+
+        String first = store.store(writeFile("a.jpg", content));
+        String second = store.store(writeFile("b.jpg", content));
+        String streamed = store.store(Channels.newChannel(new ByteArrayInputStream(content)));
+
+        assertEquals(first, second);
+        assertEquals(first, streamed);
+        assertArrayEquals(content, Files.readAllBytes(store.resolve(first)));
+        try (var files = Files.list(store.resolve(first).getParent())) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    public void testKnownHash() throws IOException {
+        AttachmentStore store = new AttachmentStore(tempDir.resolve("store"));
+        String hash = store.store(writeFile("abc.png", "abc".getBytes()));
+        assertEquals("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad", hash);
+        assertTrue(store.contains(hash));
+    }
+
+    @Test
+    public void testRejectsBadInput() {
+        AttachmentStore store = new AttachmentStore(tempDir.resolve("store"));
+        assertThrows(IllegalArgumentException.class, () -> store.resolve("../../etc/passwd"));
+        assertThrows(IllegalArgumentException.class, () -> AttachmentStore.mediaTypeOf("report.exe"));
+        assertEquals("image/jpeg", AttachmentStore.mediaTypeOf("IMG_001.JPG"));
+        assertEquals("video/mp4", AttachmentStore.mediaTypeOf("clip.mp4"));
+    }
+}
@@ -0,0 +1,123 @@
+
+import com.mycompany.mavenproject1.model.AuditEvent;
+import com.mycompany.mavenproject1.util.AuditLog;
+import com.mycompany.mavenproject1.util.AuditLogQuery;
+import com.mycompany.mavenproject1.util.RingBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for the audit log's ring buffer, line format and segment scanning.
+ */
+public class AuditLogTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testRingBufferKeepsEveryElementFromConcurrentProducers() throws Exception {
+        RingBuffer<Integer> buffer = new RingBuffer<>(1024);
+        int producers = 4;
+        int perProducer = 10_000;
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int base = p * perProducer;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    while (!buffer.offer(base + i)) {
+                        Thread.yield();
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        Set<Integer> seen = new HashSet<>();
+        List<Integer> drained = new ArrayList<>();
+        while (seen.size() < producers * perProducer) {
+            drained.clear();
+            buffer.drainTo(drained, 16);
+            for (Integer value : drained) {
+                assertTrue(seen.add(value), "duplicate " + value);
+            }
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(buffer.isEmpty());
+        assertNull(buffer.poll());
+    }
+
+    @Test
+    public void testRingBufferRejectsWhenFull() {
+        RingBuffer<String> buffer = new RingBuffer<>(2);
+        assertTrue(buffer.offer("a"));
+        assertTrue(buffer.offer("b"));
+        assertFalse(buffer.offer("c"));
+        assertEquals("a", buffer.poll());
+        assertTrue(buffer.offer("c"));
+        assertThrows(IllegalArgumentException.class, () -> new RingBuffer<>(3));
+    }
+
+    @Test
+    public void testLineRoundTripEscapesSeparators() {
+        AuditEvent event = new AuditEvent(Instant.ofEpochMilli(1700000000123L), "ann", "TASK_DELETED",
+                "report:7/Fire", "line one\nwith\ttab and \\ slash");
+        AuditEvent decoded = AuditEvent.fromLine(event.toLine());
+        assertEquals(event.getTime(), decoded.getTime());
+        assertEquals("ann", decoded.getActor());
+        assertEquals(event.getDetail(), decoded.getDetail());
+        assertThrows(IllegalArgumentException.class, () -> AuditEvent.fromLine("garbage"));
+    }
+
+    @Test
+    public void testOriginIsKeptAndOptional() {
+        AuditEvent event = new AuditEvent(Instant.ofEpochMilli(1700000000123L), "system", "USER_DELETED", "user:bob", "",
+                "203.0.113.9");
+        assertEquals("203.0.113.9", AuditEvent.fromLine(event.toLine()).getOrigin());
+        // Lines written before the origin was recorded still read
+        assertEquals("", AuditEvent.fromLine("1700000000123\tann\tUSER_DELETED\tuser:bob\t").getOrigin());
+    }
+
+    @Test
+    public void testRotatedSegmentsAreScannedByTimeRange() throws Exception {
+        AuditLog log = new AuditLog(dir, 200, 100, false);
+        Instant base = Instant.now().minusSeconds(30);  // Events are always recorded before they are written
+        for (int i = 0; i < 20; i++) {
+            log.record(new AuditEvent(base.plusSeconds(i), i % 2 == 0 ? "ann" : "bob", "PRIORITY_CHANGED", "report:" + i, "Low -> High"));
+            log.flush();  // One small batch per event, so segments rotate
+        }
+        log.close();
+        try (Stream<Path> files = Files.list(dir)) {
+            assertTrue(files.count() > 1, "expected rotation into several segments");
+        }
+
+        List<AuditEvent> range = AuditLogQuery.scan(dir, base.plusSeconds(5), base.plusSeconds(10));
+        assertEquals(5, range.size());
+        assertEquals("report:5", range.get(0).getTarget());
+        assertEquals(10, AuditLogQuery.scan(dir, base, base.plusSeconds(20), "bob", null).size());
+    }
+
+    @Test
+    public void testOldSegmentsAreDeletedBeyondTheLimit() throws Exception {
+        AuditLog log = new AuditLog(dir, 100, 3, false);
+        for (int i = 0; i < 10; i++) {
+            log.record(new AuditEvent(Instant.now(), "ann", "USER_DELETED", "user:u" + i, ""));
+            log.flush();
+            Thread.sleep(2);
+        }
+        log.close();
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(3, files.count());
+        }
+    }
+}
@@ -0,0 +1,53 @@
+import com.mycompany.mavenproject1.server.BackendServer;
+import com.mycompany.mavenproject1.server.SessionTokens;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the backend's response cache never hands a response to a
+ * caller who may not fetch it; the sessions are issued directly, so it does
+ * not need a database.
+ *
+ * @author Bishwas Bhattarai
+ */
+public class BackendServerTest {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    public void testCachedResponsesAreOnlyServedToAllowedCallers() throws Exception {
+        SessionTokens sessions = new SessionTokens(60_000);
+        BackendServer server = new BackendServer("127.0.0.1", 0, 2, 60_000, sessions);
+        server.start();
+        try {
+            String admin = sessions.issue("root", "Admin");
+            String coordinator = sessions.issue("carol", "Coordinator");
+            String user = sessions.issue("bob", "User");
+
+            // Whatever the database answers, a successful fetch stays cached for the minute
+            get(server, "/api/users/role?username=ann", admin);
+            assertEquals(403, get(server, "/api/users/role?username=ann", user));
+            get(server, "/api/tasks/finished", coordinator);
+            assertEquals(403, get(server, "/api/tasks/finished", user));
+            get(server, "/api/tasks/finished?username=ann", coordinator);
+            assertEquals(403, get(server, "/api/tasks/finished?username=ann", user));
+
+            assertNotEquals(403, get(server, "/api/tasks/finished?username=bob", user));  // Own tasks
+            assertNotEquals(403, get(server, "/api/users/role?username=bob", user));
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    private int get(BackendServer server, String path, String token) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + server.getPort() + path))
+                .header("Authorization", SessionTokens.BEARER + token)
+                .GET()
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,46 @@
+
+import com.mycompany.mavenproject1.util.CountingBloomFilter;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the counting Bloom filter used by the registration pre-check.
+ */
+public class CountingBloomFilterTest {
+
+    @Test
+    public void testAddedKeysAreAlwaysFound() {
+        CountingBloomFilter filter = new CountingBloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("user" + i);
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("user" + i));
+        }
+    }
+
+    @Test
+    public void testFalsePositiveRateIsNearTheTarget() {
+        CountingBloomFilter filter = new CountingBloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("user" + i);
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain("other" + i)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+    }
+
+    @Test
+    public void testRemovedKeyIsGoneButOthersStay() {
+        CountingBloomFilter filter = new CountingBloomFilter(100, 0.01);
+        filter.add("ann");
+        filter.add("bob");
+        filter.remove("ann");
+        assertFalse(filter.mightContain("ann"));
+        assertTrue(filter.mightContain("bob"));
+    }
+}
@@ -0,0 +1,77 @@
+
+import com.mycompany.mavenproject1.util.DashboardRollups;
+import java.sql.Timestamp;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the incremental dashboard counters; does not need a database.
+ *
+ * @author Bishwas Bhattarai
+ */
+public class DashboardRollupsTest {
+
+    private static long count(Map<String, Long> counts, String key) {
+        return counts.getOrDefault(key, 0L);
+    }
+
+    @Test
+    public void testSeverityBands() {
+        assertEquals("Low", DashboardRollups.severityBand(1));
+        assertEquals("Low", DashboardRollups.severityBand(3));
+        assertEquals("Medium", DashboardRollups.severityBand(4));
+        assertEquals("Medium", DashboardRollups.severityBand(6));
+        assertEquals("High", DashboardRollups.severityBand(7));
+    }
+
+    @Test
+    public void testReportLifecycle() {
+        long tsunamis = count(DashboardRollups.getReportsByType(), "Tsunami");
+        long unprioritised = count(DashboardRollups.getReportsByPriority(), DashboardRollups.NO_PRIORITY);
+        long high = count(DashboardRollups.getReportsByPriority(), "High");
+        Timestamp time = Timestamp.valueOf("2024-05-01 13:30:00");
+        long onePm = DashboardRollups.getReportsByHour()[13];
+
+        DashboardRollups.reportAdded("Tsunami", 8, time);
+        assertEquals(tsunamis + 1, count(DashboardRollups.getReportsByType(), "Tsunami"));
+        assertEquals(unprioritised + 1, count(DashboardRollups.getReportsByPriority(), DashboardRollups.NO_PRIORITY));
+        assertEquals(onePm + 1, DashboardRollups.getReportsByHour()[13]);
+
+        DashboardRollups.priorityChanged(null, "High");
+        assertEquals(unprioritised, count(DashboardRollups.getReportsByPriority(), DashboardRollups.NO_PRIORITY));
+        assertEquals(high + 1, count(DashboardRollups.getReportsByPriority(), "High"));
+
+        DashboardRollups.reportRemoved("Tsunami", 8, "High", time);
+        assertEquals(tsunamis, count(DashboardRollups.getReportsByType(), "Tsunami"));
+        assertEquals(high, count(DashboardRollups.getReportsByPriority(), "High"));
+        assertEquals(onePm, DashboardRollups.getReportsByHour()[13]);
+    }
+
+    @Test
+    public void testTaskMovesBetweenOpenAndFinished() {
+        String department = "Test Rescue Unit";
+        DashboardRollups.taskAdded(department, "Still in Process");
+        assertEquals(1, count(DashboardRollups.getOpenTasksByDepartment(), department));
+
+        DashboardRollups.taskStatusChanged(department, "Still in Process", "Finished");
+        assertEquals(0, count(DashboardRollups.getOpenTasksByDepartment(), department));
+        assertEquals(1, count(DashboardRollups.getFinishedTasksByDepartment(), department));
+
+        DashboardRollups.taskRemoved(department, "Finished");
+        assertEquals(0, count(DashboardRollups.getFinishedTasksByDepartment(), department));
+    }
+
+    @Test
+    public void testSnapshotTaskCompletion() {
+        long[] hours = new long[24];
+        DashboardRollups.Snapshot snapshot = new DashboardRollups.Snapshot(Map.of(), Map.of(), Map.of(), hours,
+                Map.of("Police", 2L, "Hospital", 0L, "Medical Team", 0L), Map.of("Police", 1L, "Hospital", 3L),
+                Map.of("Police", 1L));
+        assertEquals(Map.of("Police", 1L), snapshot.getOverdueTasks());
+        Map<String, long[]> completion = snapshot.getTaskCompletion();
+        assertArrayEquals(new long[]{2, 1}, completion.get("Police"));
+        assertArrayEquals(new long[]{0, 3}, completion.get("Hospital"));
+        assertFalse(completion.containsKey("Medical Team"));  // Counter left at zero
+    }
+}
@@ -0,0 +1,75 @@
+import com.mycompany.mavenproject1.util.DataCallRecorder;
+import com.mycompany.mavenproject1.util.DataService;
+import com.mycompany.mavenproject1.util.FlightRecording;
+import java.lang.reflect.Proxy;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that DataCallRecorder passes calls through unchanged and that a
+ * recording with the drs.jfc profile holds one DataCall event per call;
+ * does not need a database.
+ *
+ * @author Bishwas Bhattarai
+ */
+public class DataCallRecorderTest {
+
+    @TempDir
+    Path dir;
+
+    private static DataService fakeService() {
+        return (DataService) Proxy.newProxyInstance(DataService.class.getClassLoader(), new Class<?>[]{DataService.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getDepartmentWorkload":
+                            return Map.of("Police", 2L, "Fire Department", 1L);
+                        case "deleteUser":
+                            throw new IllegalArgumentException("Unknown user " + args[0]);
+                        default:
+                            return null;
+                    }
+                });
+    }
+
+    @Test
+    public void testCallsPassThroughWithoutRecording() throws Exception {
+        DataService recorded = DataCallRecorder.wrap(fakeService(), "jdbc:h2:mem:test");
+        assertEquals(2L, recorded.getDepartmentWorkload().get("Police"));
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> recorded.deleteUser("nobody"));
+        assertEquals("Unknown user nobody", e.getMessage());
+    }
+
+    @Test
+    public void testCallsAreRecorded() throws Exception {
+        DataService recorded = DataCallRecorder.wrap(fakeService(), "jdbc:h2:mem:test");
+        Path file = dir.resolve("calls.jfr");
+        try (Recording recording = new Recording(FlightRecording.profile())) {
+            recording.start();
+            recorded.getDepartmentWorkload();
+            assertThrows(IllegalArgumentException.class, () -> recorded.deleteUser("nobody"));
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> calls = RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().equals("com.mycompany.mavenproject1.DataCall"))
+                .collect(Collectors.toList());
+        assertEquals(2, calls.size());
+        RecordedEvent workload = calls.get(0);
+        assertEquals("getDepartmentWorkload", workload.getString("operation"));
+        assertEquals("jdbc:h2:mem:test", workload.getString("backend"));
+        assertEquals(2, workload.getInt("rows"));
+        assertFalse(workload.getBoolean("fxThread"));
+        assertNull(workload.getString("error"));
+        assertNotNull(workload.getStackTrace());
+        assertEquals(IllegalArgumentException.class.getName(), calls.get(1).getString("error"));
+    }
+}
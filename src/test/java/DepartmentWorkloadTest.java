@@ -0,0 +1,40 @@
+
+import com.mycompany.mavenproject1.util.DepartmentWorkload;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks how DepartmentWorkload turns task changes into open-count changes
+ * and ranks departments; does not need a database.
+ *
+ * @author Bishwas Bhattarai
+ */
+public class DepartmentWorkloadTest {
+
+    @Test
+    public void testStatusChangesAdjustOpenCount() {
+        Map<String, Integer> deltas = new HashMap<>();
+        DepartmentWorkload.addChange(deltas, "Hospital", null, "Still in Process");          // New task
+        DepartmentWorkload.addChange(deltas, "Hospital", null, "Still in Process");
+        DepartmentWorkload.addChange(deltas, "Medical Team", "Still in Process", "Finished"); // Closed
+        DepartmentWorkload.addChange(deltas, "Fire Department", "Finished", null);            // Finished task deleted
+        assertEquals(Map.of("Hospital", 2, "Medical Team", -1), deltas);
+    }
+
+    @Test
+    public void testUnchangedStatusIsNoChange() {
+        Map<String, Integer> deltas = new HashMap<>();
+        DepartmentWorkload.addChange(deltas, "Hospital", "Still in Process", "Still in Process");
+        assertTrue(deltas.isEmpty());
+    }
+
+    @Test
+    public void testRankPutsLeastLoadedFirstAndKeepsTies() {
+        List<String> ranked = DepartmentWorkload.rankByLoad(List.of("Medical Team", "Hospital", "Debris Removal", "Fire Department"),
+                Map.of("Medical Team", 400L, "Hospital", 10L, "Fire Department", 10L));
+        assertEquals(List.of("Debris Removal", "Hospital", "Fire Department", "Medical Team"), ranked);
+    }
+}
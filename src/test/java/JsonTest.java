@@ -0,0 +1,58 @@
+
+import com.mycompany.mavenproject1.util.Json;
+import com.mycompany.mavenproject1.util.ReportQuery;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the JSON codec and query criteria used by the backend protocol.
+ *
+ * @author Bishwas Bhattarai
+ */
+public class JsonTest {
+
+    @Test
+    public void testRoundTrip() {
+        Map<String, Object> value = new LinkedHashMap<>();
+        value.put("name", "Town \"A\"\n\\ \u0001");
+        value.put("count", 42L);
+        value.put("ratio", 0.5);
+        value.put("ok", true);
+        value.put("missing", null);
+        value.put("items", Arrays.asList(1L, "two", false));
+        assertEquals(value, Json.parse(Json.write(value)));
+    }
+
+    @Test
+    public void testParsesWhitespaceAndEscapes() {
+        Map<String, Object> parsed = Json.parseObject(" { \"a\" : [ ] , \"b\" : \"\\u0041\\/\" } ");
+        assertEquals(List.of(), parsed.get("a"));
+        assertEquals("A/", parsed.get("b"));
+    }
+
+    @Test
+    public void testRejectsMalformedInput() {
+        assertThrows(IllegalArgumentException.class, () -> Json.parse("{\"a\":1"));
+        assertThrows(IllegalArgumentException.class, () -> Json.parse("[1,]x"));
+        assertThrows(IllegalArgumentException.class, () -> Json.parseObject("[1]"));
+    }
+
+    @Test
+    public void testReportQueryCriteriaRoundTrip() {
+        ReportQuery query = ReportQuery.create()
+                .disasterType("Flood")
+                .minSeverity(4)
+                .withoutPriority()
+                .orderBy(ReportQuery.SortColumn.SEVERITY, false)
+                .orderBy(ReportQuery.SortColumn.ID, true)
+                .limit(50)
+                .offset(100);
+        ReportQuery rebuilt = ReportQuery.fromCriteria(query.getCriteria());
+        assertEquals(query.toSql(), rebuilt.toSql());
+        assertEquals(query.getParameters(), rebuilt.getParameters());
+    }
+}
@@ -0,0 +1,54 @@
+
+import com.mycompany.mavenproject1.util.RateLimitExceededException;
+import com.mycompany.mavenproject1.util.RateLimiter;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the report submission rate limiter, driven by a fake clock.
+ */
+public class RateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    public void testUserBurstThenSteadyRate() {
+        RateLimiter limiter = new RateLimiter(3, 6, 100, 100, now::get);  // One token every 10 seconds per user
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire("ann");
+        }
+        RateLimitExceededException e = assertThrows(RateLimitExceededException.class, () -> limiter.acquire("ann"));
+        assertEquals(10, e.getRetryAfterSeconds());
+        limiter.acquire("bob");  // Other users are unaffected
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        limiter.acquire("ann");
+        assertThrows(RateLimitExceededException.class, () -> limiter.acquire("ann"));
+    }
+
+    @Test
+    public void testGlobalLimitRefusesWithoutChargingTheUser() {
+        RateLimiter limiter = new RateLimiter(2, 60, 2, 1, now::get);
+        limiter.acquire("ann");
+        limiter.acquire("bob");
+        RateLimitExceededException e = assertThrows(RateLimitExceededException.class, () -> limiter.acquire("carl"));
+        assertTrue(e.getMessage().contains("system"));
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        limiter.acquire("carl");  // carl's own bucket was refunded, so only the global token was needed
+    }
+
+    @Test
+    public void testIdleBucketsAreSwept() {
+        RateLimiter limiter = new RateLimiter(1, 60, 100, 100, now::get);
+        limiter.acquire("ann");
+        limiter.acquire("bob");
+        assertEquals(2, limiter.getTrackedUsers());
+
+        now.addAndGet(TimeUnit.MINUTES.toNanos(2));
+        limiter.acquire("carl");
+        assertEquals(1, limiter.getTrackedUsers());
+    }
+}
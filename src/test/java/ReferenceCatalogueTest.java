@@ -0,0 +1,48 @@
+import com.mycompany.mavenproject1.model.DisasterReport;
+import com.mycompany.mavenproject1.util.ModelJson;
+import com.mycompany.mavenproject1.util.ReferenceCatalogue;
+import java.util.Arrays;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks ReferenceCatalogue lookups in both directions, name interning and
+ * the JSON round trip used by the backend server; does not need a database.
+ *
+ * @author Bishwas Bhattarai
+ */
+public class ReferenceCatalogueTest {
+
+    @Test
+    public void testDefaultsAreKeyedInOrder() {
+        ReferenceCatalogue catalogue = ReferenceCatalogue.defaults();
+        assertEquals(Arrays.asList(DisasterReport.DISASTER_TYPES), catalogue.names(ReferenceCatalogue.Kind.DISASTER_TYPE));
+        assertEquals(1, catalogue.id(ReferenceCatalogue.Kind.DISASTER_TYPE, DisasterReport.DISASTER_TYPES[0]));
+        assertEquals("Coordinator", catalogue.name(ReferenceCatalogue.Kind.ROLE, 2));
+        assertEquals(-1, catalogue.id(ReferenceCatalogue.Kind.DEPARTMENT, "Flood"));
+        assertNull(catalogue.name(ReferenceCatalogue.Kind.DEPARTMENT, 0));
+        assertNull(catalogue.name(ReferenceCatalogue.Kind.DEPARTMENT, 999));
+    }
+
+    @Test
+    public void testNamesAreInternedAndGapsSkipped() {
+        String name = new String("Volcano");
+        ReferenceCatalogue catalogue = new ReferenceCatalogue(7,
+                Map.of(ReferenceCatalogue.Kind.DISASTER_TYPE, Map.of(2, "Flood", 9, name)));
+        assertSame("Volcano", catalogue.name(ReferenceCatalogue.Kind.DISASTER_TYPE, 9));
+        assertEquals(9, catalogue.id(ReferenceCatalogue.Kind.DISASTER_TYPE, name));
+        assertEquals(Map.of(2, "Flood", 9, "Volcano"), catalogue.entries(ReferenceCatalogue.Kind.DISASTER_TYPE));
+        assertTrue(catalogue.names(ReferenceCatalogue.Kind.ROLE).isEmpty());
+    }
+
+    @Test
+    public void testJsonRoundTrip() {
+        ReferenceCatalogue catalogue = ReferenceCatalogue.defaults();
+        ReferenceCatalogue copy = ModelJson.toReferenceCatalogue(ModelJson.toJson(catalogue));
+        assertEquals(catalogue.getVersion(), copy.getVersion());
+        for (ReferenceCatalogue.Kind kind : ReferenceCatalogue.Kind.values()) {
+            assertEquals(catalogue.entries(kind), copy.entries(kind));
+        }
+    }
+}
@@ -0,0 +1,100 @@
+
+import com.mycompany.mavenproject1.util.ReportQuery;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the SQL produced by ReportQuery; does not need a database.
+ *
+ * @author Bishwas Bhattarai
+ */
+public class ReportQueryTest {
+
+    @Test
+    public void testDefaultQueryIsNewestFirst() {
+        ReportQuery query = ReportQuery.create();
+        assertEquals("SELECT r.* FROM disaster_reports r ORDER BY r.report_time DESC, r.id DESC", query.toSql());
+        assertTrue(query.getParameters().isEmpty());
+    }
+
+    @Test
+    public void testFiltersBindParametersInOrder() {
+        LocalDateTime since = LocalDateTime.of(2024, 1, 1, 0, 0);
+        ReportQuery query = ReportQuery.create()
+                .disasterType("Flood")
+                .minSeverity(5)
+                .withoutPriority()
+                .reportedSince(since)
+                .limit(201)
+                .offset(200);
+        String sql = query.toSql();
+        assertTrue(sql.contains("WHERE "));
+        assertTrue(sql.endsWith(" LIMIT 201 OFFSET 200"));
+        assertEquals(List.of("Flood", 5, since), query.getParameters());
+        assertEquals(query.getParameters().size(), sql.chars().filter(c -> c == '?').count());
+    }
+
+    @Test
+    public void testSortColumnsKeepIdAsTieBreaker() {
+        String sql = ReportQuery.create()
+                .orderBy(ReportQuery.SortColumn.SEVERITY, false)
+                .orderBy(ReportQuery.SortColumn.USERNAME, true)
+                .toSql();
+        assertTrue(sql.endsWith("ORDER BY r.severity DESC, r.username ASC, r.id ASC"));
+    }
+
+    @Test
+    public void testSameQueryRunsAgainstArchive() {
+        String sql = ReportQuery.create().disasterType("Flood").toSql("disaster_reports_archive");
+        assertTrue(sql.startsWith("SELECT r.* FROM disaster_reports_archive r WHERE r.disaster_type_id IN (SELECT id FROM disaster_types WHERE name IN (?))"));
+    }
+
+    @Test
+    public void testMatchingNumberAlsoMatchesId() {
+        ReportQuery query = ReportQuery.create().matching(" 42 ");
+        assertTrue(query.toSql().contains("WHERE (r.id = ? OR r.disaster_type_id IN (SELECT id FROM disaster_types WHERE name LIKE ?) OR r.location LIKE ?)"));
+        assertEquals(List.of(42, "42%", "42%"), query.getParameters());
+    }
+
+    @Test
+    public void testMatchingEscapesWildcards() {
+        ReportQuery query = ReportQuery.create().matching("50%_off");
+        assertEquals(List.of("50\\%\\_off%", "50\\%\\_off%"), query.getParameters());
+        assertEquals(query.getParameters(), ReportQuery.fromCriteria(query.getCriteria()).getParameters());
+    }
+
+    @Test
+    public void testRepeatedTypesAreAllMatched() {
+        ReportQuery query = ReportQuery.create().minSeverity(3).disasterType("Flood").disasterType("Fire");
+        assertTrue(query.toSql().contains("WHERE r.disaster_type_id IN (SELECT id FROM disaster_types WHERE name IN (?, ?)) AND r.severity >= ?"));
+        assertEquals(List.of("Flood", "Fire", 3), query.getParameters());
+        assertEquals(query.getParameters(), ReportQuery.fromCriteria(query.getCriteria()).getParameters());
+        assertThrows(IllegalArgumentException.class, () -> ReportQuery.create().disasterType("Flood,Fire"));
+    }
+
+    @Test
+    public void testTypeSortJoinsTypes() {
+        String sql = ReportQuery.create().orderBy(ReportQuery.SortColumn.DISASTER_TYPE, true).toSql();
+        assertEquals("SELECT r.* FROM disaster_reports r JOIN disaster_types t ON t.id = r.disaster_type_id "
+                + "ORDER BY t.name ASC, r.id ASC", sql);
+    }
+
+    @Test
+    public void testOffsetWithoutLimit() {
+        assertTrue(ReportQuery.create().offset(50).toSql().endsWith(" LIMIT 9223372036854775807 OFFSET 50"));
+        assertFalse(ReportQuery.create().toSql().contains("LIMIT"));
+    }
+
+    @Test
+    public void testBlankTypeIsIgnored() {
+        assertFalse(ReportQuery.create().disasterType("  ").toSql().contains("WHERE"));
+    }
+
+    @Test
+    public void testNegativePagingIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> ReportQuery.create().limit(-1));
+        assertThrows(IllegalArgumentException.class, () -> ReportQuery.create().offset(-1));
+    }
+}
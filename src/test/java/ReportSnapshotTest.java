@@ -0,0 +1,85 @@
+import com.mycompany.mavenproject1.model.DisasterReport;
+import com.mycompany.mavenproject1.util.ReportQuery;
+import com.mycompany.mavenproject1.util.ReportSnapshot;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that ReportSnapshot files round-trip and that delta results are
+ * patched in only when the page cannot change shape; does not need a
+ * database.
+ *
+ * @author Bishwas Bhattarai
+ */
+public class ReportSnapshotTest {
+
+    private static final String SOURCE = "jdbc:h2:mem:test";
+    private static final LocalDateTime T0 = LocalDateTime.of(2026, 3, 1, 12, 0);
+
+    @TempDir
+    Path dir;
+
+    private static DisasterReport report(int id, String priority, LocalDateTime updatedAt) {
+        DisasterReport report = new DisasterReport(id, "ann", "Flood", "Sector " + id, "7", "Water rising", priority, T0);
+        report.setVersion(id % 3);
+        report.setUpdatedAt(updatedAt);
+        return report;
+    }
+
+    @Test
+    public void testWriteAndReadBack() throws IOException {
+        Map<String, String> criteria = ReportQuery.create().disasterType("Flood").limit(201).getCriteria();
+        ReportSnapshot written = new ReportSnapshot(criteria,
+                List.of(report(1, null, T0.plusNanos(123_000_000)), report(2, "High", null)));
+        Path file = dir.resolve("snapshots").resolve("reports.snapshot");
+        written.write(file, SOURCE);
+
+        ReportSnapshot read = ReportSnapshot.read(file, SOURCE);
+        assertEquals(criteria, read.getCriteria());
+        assertEquals(2, read.getReports().size());
+        DisasterReport first = read.getReports().get(0);
+        assertEquals("Sector 1", first.getLocation());
+        assertNull(first.getPriority());
+        assertEquals(T0, first.getReportTime());
+        assertEquals(T0.plusNanos(123_000_000), first.getUpdatedAt());
+        assertEquals(1, first.getVersion());
+        assertEquals("High", read.getReports().get(1).getPriority());
+        assertNull(read.getReports().get(1).getUpdatedAt());
+
+        assertNull(ReportSnapshot.read(file, "http://other:8085"));  // Another data source
+        assertNull(ReportSnapshot.read(dir.resolve("missing"), SOURCE));
+    }
+
+    @Test
+    public void testDeltaQueryKeepsFiltersOnly() {
+        ReportSnapshot snapshot = new ReportSnapshot(ReportQuery.create().minSeverity(5)
+                .orderBy(ReportQuery.SortColumn.SEVERITY, false).limit(201).offset(200).getCriteria(),
+                List.of(report(1, null, T0), report(2, null, T0.plusMinutes(1))));
+        Map<String, String> delta = snapshot.deltaQuery(201).getCriteria();
+        assertEquals("5", delta.get("minSeverity"));
+        assertEquals(T0.plusMinutes(1).minusSeconds(ReportSnapshot.DELTA_MARGIN_SECONDS).toString(), delta.get("changedSince"));
+        assertFalse(delta.containsKey("sort"));
+        assertFalse(delta.containsKey("offset"));
+    }
+
+    @Test
+    public void testReconcilePatchesOrAsksForReload() {
+        List<DisasterReport> page = List.of(report(1, null, T0), report(2, null, T0));
+        ReportSnapshot snapshot = new ReportSnapshot(ReportQuery.create().limit(201).getCriteria(), page);
+
+        assertSame(snapshot.getReports(), snapshot.reconcile(List.of(), 201));
+        List<DisasterReport> patched = snapshot.reconcile(List.of(report(2, "High", T0.plusMinutes(1))), 201);
+        assertEquals("High", patched.get(1).getPriority());
+        assertNull(snapshot.reconcile(List.of(report(3, null, T0.plusMinutes(1))), 201));  // New report may belong on the page
+
+        ReportSnapshot byPriority = new ReportSnapshot(
+                ReportQuery.create().orderBy(ReportQuery.SortColumn.PRIORITY, true).limit(201).getCriteria(), page);
+        assertNull(byPriority.reconcile(List.of(report(2, "High", T0.plusMinutes(1))), 201));  // Would move
+    }
+}
@@ -0,0 +1,72 @@
+
+import com.mycompany.mavenproject1.model.RoutingRule;
+import com.mycompany.mavenproject1.util.RoutingRules;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks rule parsing and the compiled dispatch table of RoutingRules; does
+ * not need a database.
+ *
+ * @author Bishwas Bhattarai
+ */
+public class RoutingRulesTest {
+
+    private static final RoutingRules RULES = RoutingRules.parse(List.of(
+            "# comment",
+            "",
+            "Fire  | 1-10 | Fire Department | Contain the fire.",
+            "Fire  | 6-10 | Hospital        | Prepare for casualties.",
+            "Fire  | 8-10 | Fire Department | Duplicate department, ignored.",
+            "*     | 9-10 | Public Health   | Coordinate."));
+
+    private static List<String> departments(String type, int severity) {
+        return RULES.route(type, severity).stream().map(RoutingRule::getDepartment).collect(Collectors.toList());
+    }
+
+    @Test
+    public void testRoutesBySeverityRange() {
+        assertEquals(List.of("Fire Department"), departments("Fire", 3));
+        assertEquals(List.of("Fire Department", "Hospital"), departments("Fire", 6));
+    }
+
+    @Test
+    public void testFirstRuleWinsPerDepartment() {
+        List<RoutingRule> routed = RULES.route("Fire", 10);
+        assertEquals(List.of("Fire Department", "Hospital", "Public Health"),
+                routed.stream().map(RoutingRule::getDepartment).collect(Collectors.toList()));
+        assertEquals("Contain the fire.", routed.get(0).getTaskDescription());
+    }
+
+    @Test
+    public void testWildcardRulesApplyToOtherTypes() {
+        assertEquals(List.of(), departments("Flood", 5));
+        assertEquals(List.of("Public Health"), departments("Flood", 9));
+    }
+
+    @Test
+    public void testSeverityIsClamped() {
+        assertEquals(departments("Fire", 10), departments("Fire", 42));
+        assertEquals(departments("Fire", 1), departments("Fire", 0));
+    }
+
+    @Test
+    public void testRuleDepartmentsAreOffered() {
+        assertTrue(RULES.getDepartments().contains("Medical Team"));
+        assertTrue(RULES.getDepartments().contains("Public Health"));
+    }
+
+    @Test
+    public void testMalformedLineNamesLineNumber() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> RoutingRules.parse(List.of("Fire | 1-10 | Fire Department | ok", "Flood | 10-1 | Hospital | bad")));
+        assertTrue(e.getMessage().contains("line 2"));
+    }
+
+    @Test
+    public void testBuiltInRulesLoad() {
+        assertFalse(RoutingRules.getDefault().route("Flood", 8).isEmpty());
+    }
+}
@@ -0,0 +1,40 @@
+import com.mycompany.mavenproject1.server.SessionTokens;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that backend sessions resolve only from a live bearer token and end
+ * on logout, role change and idle expiry; does not need a database.
+ *
+ * @author Bishwas Bhattarai
+ */
+public class SessionTokensTest {
+
+    @Test
+    public void testTokensResolveToTheirUser() {
+        SessionTokens sessions = new SessionTokens(60_000);
+        String ann = sessions.issue("ann", "Coordinator");
+        String bob = sessions.issue("bob", "User");
+        assertNotEquals(ann, bob);
+
+        SessionTokens.Identity caller = sessions.resolve(SessionTokens.BEARER + ann);
+        assertEquals("ann", caller.getUsername());
+        assertEquals("Coordinator", caller.getRole());
+        assertNull(sessions.resolve(ann));  // Missing scheme
+        assertNull(sessions.resolve(SessionTokens.BEARER + "forged"));
+        assertNull(sessions.resolve(null));
+
+        sessions.revoke(caller);
+        assertNull(sessions.resolve(SessionTokens.BEARER + ann));
+        sessions.revokeUser("bob");
+        assertNull(sessions.resolve(SessionTokens.BEARER + bob));
+    }
+
+    @Test
+    public void testIdleSessionsExpire() throws InterruptedException {
+        SessionTokens sessions = new SessionTokens(30);
+        String token = sessions.issue("ann", "Admin");
+        Thread.sleep(60);
+        assertNull(sessions.resolve(SessionTokens.BEARER + token));
+    }
+}
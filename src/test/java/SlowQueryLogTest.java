@@ -0,0 +1,99 @@
+import com.mycompany.mavenproject1.util.SlowQueryLog;
+import com.mycompany.mavenproject1.util.SqlFingerprint;
+import java.lang.reflect.Proxy;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks SQL fingerprinting, password masking and the log file the
+ * SlowQueryLog writes, using a fake JDBC connection; does not need a
+ * database.
+ *
+ * @author Bishwas Bhattarai
+ */
+public class SlowQueryLogTest {
+
+    @TempDir
+    Path dir;
+
+    // Connection whose prepared statements do nothing and report one changed row
+    private static Connection fakeConnection() {
+        PreparedStatement statement = (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> method.getName().equals("executeUpdate") ? 1 : null);
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> method.getName().equals("prepareStatement") ? statement : null);
+    }
+
+    @Test
+    public void testLiteralsAndListsShareAFingerprint() {
+        SqlFingerprint inlined = SqlFingerprint.of("SELECT r.id FROM disaster_reports r  WHERE r.severity >= 5\n AND r.location = 'North''s' LIMIT 201");
+        SqlFingerprint prepared = SqlFingerprint.of("SELECT r.id FROM disaster_reports r WHERE r.severity >= ? AND r.location = ? LIMIT ? -- page");
+        assertEquals("SELECT r.id FROM disaster_reports r WHERE r.severity >= ? AND r.location = ? LIMIT ?", inlined.getText());
+        assertEquals(inlined.getId(), prepared.getId());
+        assertTrue(inlined.isSelect());
+
+        assertEquals(SqlFingerprint.of("DELETE FROM tasks WHERE id IN (?, ?, ?)").getText(),
+                SqlFingerprint.of("DELETE FROM tasks WHERE id IN (?,?)").getText());
+        assertEquals("INSERT INTO t2 (a, b) VALUES (?+), ...", SqlFingerprint.of("INSERT INTO t2 (a, b) VALUES (1, 'x'), (2, 'y')").getText());
+    }
+
+    @Test
+    public void testPasswordsAreMasked() {
+        assertEquals(Arrays.asList("username", "password", "email", "phone_number", "role"),
+                SqlFingerprint.boundColumns("INSERT INTO users (username, password, email, phone_number, role) VALUES (?, ?, ?, ?, ?)"));
+        assertEquals("[1='ann', 2=***]", SlowQueryLog.formatParameters(
+                "SELECT * FROM users WHERE username = ? AND password = ?", new TreeMap<>(Map.of(1, "ann", 2, "secret"))));
+        assertEquals("[1=***, 2='ann@example.org']", SlowQueryLog.formatParameters(
+                "UPDATE users SET password = ? WHERE email = ?", new TreeMap<>(Map.of(1, "secret", 2, "ann@example.org"))));
+        Map<Integer, Object> cleared = new TreeMap<>();
+        cleared.put(1, null);
+        assertEquals("[1=NULL]", SlowQueryLog.formatParameters("UPDATE disaster_reports SET priority = ?", cleared));
+    }
+
+    @Test
+    public void testSlowExecutionsAreLoggedAndRotated() throws Exception {
+        SlowQueryLog log = new SlowQueryLog(dir, 0, 60_000, 400, 3, SlowQueryLogTest::fakeConnection);
+        try (Connection conn = log.wrap(fakeConnection());
+             PreparedStatement stmt = conn.prepareStatement("UPDATE users SET password = ? WHERE email = ?")) {
+            for (int i = 0; i < 10; i++) {
+                stmt.setString(1, "secret" + i);
+                stmt.setString(2, "user" + i + "@example.org");
+                assertEquals(1, stmt.executeUpdate());
+            }
+        }
+        log.close();
+
+        List<String> lines;
+        try (Stream<Path> files = Files.list(dir)) {
+            List<Path> logs = files.sorted().collect(Collectors.toList());
+            assertEquals(3, logs.size());  // Current file plus two rotated ones
+            lines = logs.stream().flatMap(file -> {
+                try {
+                    return Files.readAllLines(file, StandardCharsets.UTF_8).stream();
+                } catch (IOException e) {
+                    throw new AssertionError(e);
+                }
+            }).collect(Collectors.toList());
+        }
+        assertTrue(lines.stream().noneMatch(line -> line.contains("secret")));
+        assertTrue(lines.stream().anyMatch(line -> line.contains(" SLOW ") && line.contains("rows=1")
+                && line.contains("params=[1=***, 2='user9@example.org']")));
+        String summary = Files.readAllLines(dir.resolve("slow-queries.log"), StandardCharsets.UTF_8).stream()
+                .filter(line -> line.contains(" SUMMARY ")).findFirst().orElseThrow();
+        assertTrue(summary.contains("count=10 slow=10"));
+        assertTrue(summary.endsWith("sql=UPDATE users SET password = ? WHERE email = ?"));
+    }
+}
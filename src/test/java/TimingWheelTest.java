@@ -0,0 +1,69 @@
+import com.mycompany.mavenproject1.util.SlaMonitor;
+import com.mycompany.mavenproject1.util.TimingWheel;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks TimingWheel expiry, cancellation and multi-turn deadlines with a
+ * hand-driven clock, and the SLA deadline rules of SlaMonitor; does not need
+ * a database.
+ *
+ * @author Bishwas Bhattarai
+ */
+public class TimingWheelTest {
+
+    @Test
+    public void testExpiresAtDeadlineAcrossTurns() {
+        TimingWheel<String> wheel = new TimingWheel<>(100, 8, 0);  // One turn is 800 ms
+        wheel.schedule("soon", 250);
+        wheel.schedule("late", 2_050);  // Two turns and a bit later
+        List<String> expired = new ArrayList<>();
+
+        assertEquals(0, wheel.advance(299, expired::add));
+        assertEquals(1, wheel.advance(300, expired::add));
+        assertEquals(List.of("soon"), expired);
+        assertEquals(0, wheel.advance(2_099, expired::add));
+        assertEquals(1, wheel.advance(2_100, expired::add));
+        assertEquals(List.of("soon", "late"), expired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void testCancelledTimeoutDoesNotExpire() {
+        TimingWheel<Integer> wheel = new TimingWheel<>(100, 8, 0);
+        TimingWheel.Timeout<Integer> first = wheel.schedule(1, 500);
+        wheel.schedule(2, 500);
+        assertTrue(wheel.cancel(first));
+        assertFalse(wheel.cancel(first));
+        List<Integer> expired = new ArrayList<>();
+        wheel.advance(1_000, expired::add);
+        assertEquals(List.of(2), expired);
+        assertFalse(first.isPending());
+    }
+
+    @Test
+    public void testPastDeadlineExpiresOnNextTick() {
+        TimingWheel<String> wheel = new TimingWheel<>(100, 8, 0);
+        wheel.advance(5_000, item -> { });
+        wheel.schedule("overdue", 1_000);
+        List<String> expired = new ArrayList<>();
+        wheel.advance(5_099, expired::add);
+        assertTrue(expired.isEmpty());
+        wheel.advance(5_100, expired::add);
+        assertEquals(List.of("overdue"), expired);
+    }
+
+    @Test
+    public void testSlaDeadlineByPriority() {
+        Map<String, Duration> deadlines = SlaMonitor.parseDeadlines("High=60, Low=1440");
+        assertEquals(3_600_000L + 5, SlaMonitor.deadline(deadlines, "High", 5));
+        assertEquals(Long.MAX_VALUE, SlaMonitor.deadline(deadlines, null, 5));  // No catch-all
+        assertEquals(60_000L, SlaMonitor.deadline(SlaMonitor.parseDeadlines("*=1"), "Medium", 0));
+        assertThrows(IllegalArgumentException.class, () -> SlaMonitor.parseDeadlines("High=0"));
+        assertThrows(IllegalArgumentException.class, () -> SlaMonitor.parseDeadlines("High"));
+    }
+}